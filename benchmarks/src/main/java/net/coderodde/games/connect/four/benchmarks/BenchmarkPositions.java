@@ -0,0 +1,101 @@
+package net.coderodde.games.connect.four.benchmarks;
+
+import net.coderodde.games.connect.four.ConnectFourState;
+import net.coderodde.games.connect.four.PlayerColor;
+
+/**
+ * This class holds the fixed suite of positions the benchmarks run on. Each
+ * position is given by the columns played from the empty board, the 
+ * maximizing player moving first. The positions may be set up on any board 
+ * at least 7 columns wide and 6 rows high. None of the positions is 
+ * terminal, and in none of them the player to move has an immediate win.
+ * 
+ * @author Rodion "rodde" Efremov
+ * @version 1.6 (Oct 17, 2026)
+ */
+final class BenchmarkPositions {
+    
+    static final String OPENING = "opening";
+    static final String MIDDLEGAME = "middlegame";
+    static final String ENDGAME = "endgame";
+    
+    private static final String[] OPENINGS = { "", "3", "33" };
+    
+    private static final String[] MIDDLEGAMES = { 
+        "346023526612", 
+        "46023526612430",
+    };
+    
+    private static final String[] ENDGAMES = {
+        "206262464403632012446502350130",
+        "36113633056255061212433020560524",
+    };
+    
+    /**
+     * Returns the positions of a game phase on the standard board.
+     * 
+     * @param phase the game phase.
+     * @return the positions.
+     */
+    static ConnectFourState[] getPositions(String phase) {
+        return getPositions(phase, 
+                            ConnectFourState.DEFAULT_WIDTH, 
+                            ConnectFourState.DEFAULT_HEIGHT);
+    }
+    
+    /**
+     * Returns the positions of a game phase on a board of given dimensions.
+     * 
+     * @param phase the game phase.
+     * @param width the number of columns.
+     * @param height the number of rows.
+     * @return the positions.
+     */
+    static ConnectFourState[] getPositions(String phase, 
+                                           int width, 
+                                           int height) {
+        switch (phase) {
+            case OPENING:
+                return toStates(OPENINGS, width, height);
+            
+            case MIDDLEGAME:
+                return toStates(MIDDLEGAMES, width, height);
+            
+            case ENDGAME:
+                return toStates(ENDGAMES, width, height);
+            
+            default:
+                throw new IllegalArgumentException("phase = " + phase);
+        }
+    }
+    
+    private static ConnectFourState[] toStates(String[] games, 
+                                               int width, 
+                                               int height) {
+        ConnectFourState[] states = new ConnectFourState[games.length];
+        
+        for (int i = 0; i < games.length; i++) {
+            ConnectFourState state = 
+                    new ConnectFourState(width,
+                                         height,
+                                         ConnectFourState
+                                                 .DEFAULT_WINNING_LENGTH,
+                                         PlayerColor.MINIMIZING_PLAYER);
+            
+            for (char c : games[i].toCharArray()) {
+                state = state.move(c - '0');
+            }
+            
+            if (state.checkVictory() != null) {
+                throw new IllegalStateException(
+                        "Terminal position: " + games[i]);
+            }
+            
+            states[i] = state;
+        }
+        
+        return states;
+    }
+    
+    private BenchmarkPositions() {}
+}
@@ -0,0 +1,280 @@
+package net.coderodde.games.connect.four.benchmarks;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import net.coderodde.games.connect.four.ConnectFourGameEngine;
+import net.coderodde.games.connect.four.ConnectFourSolver;
+import net.coderodde.games.connect.four.ConnectFourState;
+import net.coderodde.games.connect.four.EndgameDatabase;
+import net.coderodde.games.connect.four.EndgameDatabaseGenerator;
+import net.coderodde.games.connect.four.GameRecord;
+import net.coderodde.games.connect.four.PlayerColor;
+import net.coderodde.games.connect.four.SearchStats;
+import net.coderodde.games.connect.four.impl.ThreatCountingConnectFourStateEvaluatorFunction;
+
+/**
+ * This class reports how the exact scoring of the endgames affects the
+ * searches of {@link ConnectFourGameEngine} near the end of the game. The
+ * positions searched are taken from random games, and are searched without
+ * the exact scoring, with an {@link EndgameDatabase} generated from other
+ * random games, with a database generated from the very games searched,
+ * and with the endgames solved on the fly at several thresholds. The hit
+ * rate of a database is the fraction of its probes that found the position.
+ * A move is counted as perfect if it keeps the game-theoretic value of the
+ * position, as computed by {@link ConnectFourSolver}.
+ * 
+ * <p>Usage: {@code EndgameReport [depth [emptyCells [games]]]}, where
+ * {@code emptyCells} is the number of the empty cells of the positions
+ * searched.
+ * 
+ * @author Rodion "rodde" Efremov
+ * @version 1.6 (Oct 17, 2026)
+ */
+public final class EndgameReport {
+    
+    private static final int DEFAULT_DEPTH = 10;
+    private static final int DEFAULT_EMPTY_CELLS = 18;
+    private static final int DEFAULT_GAMES = 50;
+    
+    /**
+     * The maximum number of empty cells in the positions of the databases.
+     */
+    private static final int DATABASE_EMPTY_CELLS = 10;
+    
+    /**
+     * The number of the games the database of the other games is generated
+     * from.
+     */
+    private static final int DATABASE_GAMES = 1000;
+    
+    private static final int[] SOLVING_EMPTY_CELLS = { 8, 10, 12 };
+    
+    private static final long SEARCHED_GAMES_SEED = 1L;
+    private static final long DATABASE_GAMES_SEED = 2L;
+    
+    public static void main(String[] args) throws IOException {
+        int depth = args.length > 0 ? Integer.parseInt(args[0])
+                                    : DEFAULT_DEPTH;
+        int emptyCells = args.length > 1 ? Integer.parseInt(args[1])
+                                         : DEFAULT_EMPTY_CELLS;
+        int games = args.length > 2 ? Integer.parseInt(args[2])
+                                    : DEFAULT_GAMES;
+        
+        List<GameRecord> searchedGames = playRandomGames(games,
+                                                         SEARCHED_GAMES_SEED);
+        List<ConnectFourState> states = new ArrayList<>();
+        
+        for (GameRecord game : searchedGames) {
+            ConnectFourState state = findPosition(game, emptyCells);
+            
+            if (state != null) {
+                states.add(state);
+            }
+        }
+        
+        boolean[][] perfectMoves = findPerfectMoves(states);
+        EndgameDatabase otherGamesDatabase =
+                createDatabase(playRandomGames(DATABASE_GAMES,
+                                               DATABASE_GAMES_SEED));
+        EndgameDatabase sameGamesDatabase = createDatabase(searchedGames);
+        
+        System.out.println("Search depth: " + depth);
+        System.out.println("Positions: " + states.size() + " with " +
+                           emptyCells + " empty cells");
+        System.out.println("Databases: at most " + DATABASE_EMPTY_CELLS +
+                           " empty cells, " + otherGamesDatabase.size() +
+                           " positions from " + DATABASE_GAMES +
+                           " other games, " + sameGamesDatabase.size() +
+                           " positions from the searched games");
+        System.out.println();
+        
+        // Warm up the JIT compiler:
+        runSuite(states, depth, null, 0);
+        runSuite(states, depth, null, SOLVING_EMPTY_CELLS[0]);
+        
+        System.out.printf("%-18s %10s %12s %12s %10s %12s %8s%n",
+                          "exact scoring",
+                          "ms",
+                          "nodes",
+                          "DB probes",
+                          "hit rate",
+                          "solved",
+                          "perfect");
+        
+        print("none", runSuite(states, depth, null, 0), perfectMoves);
+        print("DB, other games",
+              runSuite(states, depth, otherGamesDatabase, 0),
+              perfectMoves);
+        print("DB, same games",
+              runSuite(states, depth, sameGamesDatabase, 0),
+              perfectMoves);
+        
+        for (int solvingEmptyCells : SOLVING_EMPTY_CELLS) {
+            print("solver, " + solvingEmptyCells + " cells",
+                  runSuite(states, depth, null, solvingEmptyCells),
+                  perfectMoves);
+        }
+    }
+    
+    /**
+     * Finds the moves keeping the game-theoretic values of the states.
+     * 
+     * @param states the states.
+     * @return {@code perfectMoves[i][x]} is {@code true} only if the move
+     *         to the column {@code x} is perfect in {@code states.get(i)}.
+     */
+    private static boolean[][] findPerfectMoves(List<ConnectFourState> states) {
+        ConnectFourSolver solver = new ConnectFourSolver();
+        boolean[][] perfectMoves = new boolean[states.size()][];
+        
+        for (int i = 0; i < states.size(); i++) {
+            ConnectFourState state = states.get(i);
+            int score = solver.solve(state);
+            perfectMoves[i] = new boolean[state.getWidth()];
+            
+            for (int x = 0; x < state.getWidth(); x++) {
+                if (state.columnIsFull(x)) {
+                    continue;
+                }
+                
+                ConnectFourState child = state.move(x);
+                
+                if (child.lastMoveWon()) {
+                    perfectMoves[i][x] = true;
+                } else if (child.isFull()) {
+                    perfectMoves[i][x] = score == 0;
+                } else {
+                    perfectMoves[i][x] = 
+                            Integer.signum(-solver.solve(child)) ==
+                            Integer.signum(score);
+                }
+            }
+        }
+        
+        return perfectMoves;
+    }
+    
+    private static List<GameRecord> playRandomGames(int count, long seed) {
+        return EndgameDatabaseGenerator.playRandomGames(
+                count,
+                seed,
+                ConnectFourState.DEFAULT_WIDTH,
+                ConnectFourState.DEFAULT_HEIGHT,
+                ConnectFourState.DEFAULT_WINNING_LENGTH);
+    }
+    
+    private static EndgameDatabase createDatabase(List<GameRecord> games)
+            throws IOException {
+        Path path = Files.createTempFile("endgame", ".db");
+        path.toFile().deleteOnExit();
+        EndgameDatabaseGenerator.generate(
+                path,
+                DATABASE_EMPTY_CELLS,
+                ConnectFourState.DEFAULT_WIDTH,
+                ConnectFourState.DEFAULT_HEIGHT,
+                ConnectFourState.DEFAULT_WINNING_LENGTH,
+                games);
+        return new EndgameDatabase(path);
+    }
+    
+    /**
+     * Returns the state of a game with the given number of empty cells, or
+     * {@code null} if the game ends before.
+     */
+    private static ConnectFourState findPosition(GameRecord game,
+                                                 int emptyCells) {
+        int ply = ConnectFourState.DEFAULT_WIDTH
+                * ConnectFourState.DEFAULT_HEIGHT
+                - emptyCells;
+        
+        if (ply > game.getNumberOfMoves()) {
+            return null;
+        }
+        
+        for (int i = 1; i <= ply; i++) {
+            if (game.getState(i).lastMoveWon()) {
+                return null;
+            }
+        }
+        
+        return game.getState(ply);
+    }
+    
+    private static SuiteResult runSuite(List<ConnectFourState> states,
+                                        int depth,
+                                        EndgameDatabase database,
+                                        int solvingEmptyCells) {
+        SuiteResult result = new SuiteResult(states.size());
+        
+        for (int i = 0; i < states.size(); i++) {
+            ConnectFourState state = states.get(i);
+            ConnectFourGameEngine engine =
+                    new ConnectFourGameEngine(
+                            new ThreatCountingConnectFourStateEvaluatorFunction(),
+                            depth);
+            engine.setEndgameDatabase(database);
+            engine.setSolvingEmptyCells(solvingEmptyCells);
+            engine.makePly(state,
+                           PlayerColor.MINIMIZING_PLAYER,
+                           PlayerColor.MAXIMIZING_PLAYER,
+                           state.getPlayerColor() ==
+                                   PlayerColor.MAXIMIZING_PLAYER ?
+                                   PlayerColor.MINIMIZING_PLAYER :
+                                   PlayerColor.MAXIMIZING_PLAYER);
+            
+            SearchStats stats = engine.getLastSearchStats();
+            result.moves[i] = stats.getMove();
+            result.nanos += stats.getElapsedNanos();
+            result.nodeCount += stats.getNodeCount();
+            result.endgameHitCount += stats.getEndgameHitCount();
+            result.endgameProbeCount += stats.getEndgameHitCount()
+                                      + stats.getEndgameMissCount();
+            result.solvedNodeCount += stats.getSolvedNodeCount();
+        }
+        
+        return result;
+    }
+    
+    private static void print(String name,
+                              SuiteResult result,
+                              boolean[][] perfectMoves) {
+        int perfectMoveCount = 0;
+        
+        for (int i = 0; i < result.moves.length; i++) {
+            if (perfectMoves[i][result.moves[i]]) {
+                perfectMoveCount++;
+            }
+        }
+        
+        System.out.printf("%-18s %10.1f %12d %12d %9.1f%% %12d %8d%n",
+                          name,
+                          result.nanos / 1e6,
+                          result.nodeCount,
+                          result.endgameProbeCount,
+                          result.endgameProbeCount == 0L ?
+                                  0.0 :
+                                  100.0 * result.endgameHitCount /
+                                          result.endgameProbeCount,
+                          result.solvedNodeCount,
+                          perfectMoveCount);
+    }
+    
+    private static final class SuiteResult {
+        
+        final int[] moves;
+        long nanos;
+        long nodeCount;
+        long endgameHitCount;
+        long endgameProbeCount;
+        long solvedNodeCount;
+        
+        SuiteResult(int size) {
+            this.moves = new int[size];
+        }
+    }
+    
+    private EndgameReport() {}
+}
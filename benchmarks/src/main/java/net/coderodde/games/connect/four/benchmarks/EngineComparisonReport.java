@@ -0,0 +1,248 @@
+package net.coderodde.games.connect.four.benchmarks;
+
+import java.util.ArrayList;
+import java.util.List;
+import net.coderodde.games.connect.four.ConnectFourGameEngine;
+import net.coderodde.games.connect.four.ConnectFourState;
+import net.coderodde.games.connect.four.PlayerColor;
+import net.coderodde.games.connect.four.TranspositionTable;
+import net.coderodde.games.connect.four.impl.ThreatCountingConnectFourStateEvaluatorFunction;
+import net.coderodde.zerosum.ai.EvaluatorFunction;
+import net.coderodde.zerosum.ai.State;
+import net.coderodde.zerosum.ai.impl.AlphaBetaPruningGameEngine;
+
+/**
+ * This class reports the speed of {@link ConnectFourGameEngine} against the
+ * {@link AlphaBetaPruningGameEngine} of {@code GameAI} at the same depth on
+ * the benchmark positions, both with the same evaluator function. The 
+ * transposition table is cleared before each search, outside the timing, so 
+ * that no search reuses the results of another.
+ * 
+ * <p>{@code GameAI} does not count the nodes, so the baseline is searched
+ * once more on instrumented states for its node count. The times are taken
+ * from the searches without the instrumentation, the best of
+ * {@link #REPETITIONS}.
+ * 
+ * <p>Usage: {@code EngineComparisonReport [depth]}.
+ * 
+ * @author Rodion "rodde" Efremov
+ * @version 1.6 (Oct 17, 2026)
+ */
+public final class EngineComparisonReport {
+    
+    private static final int DEFAULT_DEPTH = 8;
+    
+    private static final int REPETITIONS = 5;
+    
+    private static final String[] PHASES = {
+        BenchmarkPositions.OPENING,
+        BenchmarkPositions.MIDDLEGAME,
+        BenchmarkPositions.ENDGAME,
+    };
+    
+    public static void main(String[] args) {
+        int depth = args.length > 0 ? Integer.parseInt(args[0])
+                                    : DEFAULT_DEPTH;
+        
+        List<ConnectFourState> states = new ArrayList<>();
+        List<String> names = new ArrayList<>();
+        
+        for (String phase : PHASES) {
+            ConnectFourState[] phaseStates =
+                    BenchmarkPositions.getPositions(phase);
+            
+            for (int i = 0; i < phaseStates.length; i++) {
+                states.add(phaseStates[i]);
+                names.add(phase + " " + i);
+            }
+        }
+        
+        TranspositionTable transpositionTable = new TranspositionTable();
+        ConnectFourGameEngine engine = 
+                new ConnectFourGameEngine(
+                        new ThreatCountingConnectFourStateEvaluatorFunction(),
+                        depth,
+                        transpositionTable);
+        
+        // Warm up the JIT compiler:
+        for (ConnectFourState state : states) {
+            transpositionTable.clear();
+            searchEngine(engine, state);
+            searchBaseline(state, depth);
+            countBaselineNodes(state, depth);
+        }
+        
+        System.out.println("Search depth: " + depth);
+        System.out.println();
+        System.out.printf("%-12s %12s %10s %12s %12s %10s %12s %8s%n",
+                          "position",
+                          "nodes",
+                          "ms",
+                          "nodes/s",
+                          "base nodes",
+                          "base ms",
+                          "base nodes/s",
+                          "ratio");
+        
+        long totalNodes = 0L;
+        long totalNanos = 0L;
+        long totalBaselineNodes = 0L;
+        long totalBaselineNanos = 0L;
+        
+        for (int i = 0; i < states.size(); i++) {
+            ConnectFourState state = states.get(i);
+            long nodes = 0L;
+            long nanos = Long.MAX_VALUE;
+            long baselineNanos = Long.MAX_VALUE;
+            
+            for (int repetition = 0;
+                    repetition < REPETITIONS;
+                    repetition++) {
+                transpositionTable.clear();
+                long startTime = System.nanoTime();
+                nodes = searchEngine(engine, state);
+                nanos = Math.min(nanos, System.nanoTime() - startTime);
+                
+                startTime = System.nanoTime();
+                searchBaseline(state, depth);
+                baselineNanos = Math.min(baselineNanos,
+                                         System.nanoTime() - startTime);
+            }
+            
+            long baselineNodes = countBaselineNodes(state, depth);
+            double nodesPerSecond = nodes * 1e9 / nanos;
+            double baselineNodesPerSecond =
+                    baselineNodes * 1e9 / baselineNanos;
+            
+            System.out.printf(
+                    "%-12s %12d %10.3f %12.0f %12d %10.3f %12.0f %8.2f%n",
+                    names.get(i),
+                    nodes,
+                    nanos / 1e6,
+                    nodesPerSecond,
+                    baselineNodes,
+                    baselineNanos / 1e6,
+                    baselineNodesPerSecond,
+                    nodesPerSecond / baselineNodesPerSecond);
+            
+            totalNodes += nodes;
+            totalNanos += nanos;
+            totalBaselineNodes += baselineNodes;
+            totalBaselineNanos += baselineNanos;
+        }
+        
+        double nodesPerSecond = totalNodes * 1e9 / totalNanos;
+        double baselineNodesPerSecond =
+                totalBaselineNodes * 1e9 / totalBaselineNanos;
+        
+        System.out.printf(
+                "%-12s %12d %10.3f %12.0f %12d %10.3f %12.0f %8.2f%n",
+                "total",
+                totalNodes,
+                totalNanos / 1e6,
+                nodesPerSecond,
+                totalBaselineNodes,
+                totalBaselineNanos / 1e6,
+                baselineNodesPerSecond,
+                nodesPerSecond / baselineNodesPerSecond);
+        System.out.println();
+        System.out.printf("The engine takes %.2f times less time in total.%n",
+                          (double) totalBaselineNanos / totalNanos);
+    }
+    
+    private static long searchEngine(ConnectFourGameEngine engine,
+                                     ConnectFourState state) {
+        engine.makePly(state,
+                       PlayerColor.MINIMIZING_PLAYER,
+                       PlayerColor.MAXIMIZING_PLAYER,
+                       getPlayerToMove(state));
+        return engine.getNodeCount();
+    }
+    
+    private static void searchBaseline(ConnectFourState state, int depth) {
+        new AlphaBetaPruningGameEngine<ConnectFourState, PlayerColor>(
+                new ThreatCountingConnectFourStateEvaluatorFunction(),
+                depth)
+                .makePly(state,
+                         PlayerColor.MINIMIZING_PLAYER,
+                         PlayerColor.MAXIMIZING_PLAYER,
+                         getPlayerToMove(state));
+    }
+    
+    private static long countBaselineNodes(ConnectFourState state,
+                                           int depth) {
+        NodeCounter counter = new NodeCounter();
+        EvaluatorFunction<ConnectFourState> evaluatorFunction =
+                new ThreatCountingConnectFourStateEvaluatorFunction();
+        
+        new AlphaBetaPruningGameEngine<CountingState, PlayerColor>(
+                (countingState) -> {
+                    if (!countingState.visited) {
+                        counter.nodeCount++;
+                    }
+                    
+                    return evaluatorFunction.evaluate(countingState.state);
+                },
+                depth)
+                .makePly(new CountingState(state, counter),
+                         PlayerColor.MINIMIZING_PLAYER,
+                         PlayerColor.MAXIMIZING_PLAYER,
+                         getPlayerToMove(state));
+        
+        // The root is expanded without being visited:
+        return counter.nodeCount + 1;
+    }
+    
+    private static PlayerColor getPlayerToMove(ConnectFourState state) {
+        return state.getPlayerColor() == PlayerColor.MAXIMIZING_PLAYER ?
+               PlayerColor.MINIMIZING_PLAYER :
+               PlayerColor.MAXIMIZING_PLAYER;
+    }
+    
+    private static final class NodeCounter {
+        long nodeCount;
+    }
+    
+    /**
+     * This class wraps a state so that the nodes of the baseline are counted.
+     * The baseline asks every node below the depth limit whether it is
+     * terminal, and evaluates every node at the depth limit without asking,
+     * so each node is counted on the first of the two calls.
+     */
+    private static final class CountingState implements State<CountingState> {
+        
+        final ConnectFourState state;
+        final NodeCounter counter;
+        boolean visited;
+        
+        CountingState(ConnectFourState state, NodeCounter counter) {
+            this.state = state;
+            this.counter = counter;
+        }
+        
+        @Override
+        public List<CountingState> children() {
+            List<ConnectFourState> children = state.children();
+            List<CountingState> countingChildren =
+                    new ArrayList<>(children.size());
+            
+            for (ConnectFourState child : children) {
+                countingChildren.add(new CountingState(child, counter));
+            }
+            
+            return countingChildren;
+        }
+        
+        @Override
+        public boolean isTerminal() {
+            if (!visited) {
+                visited = true;
+                counter.nodeCount++;
+            }
+            
+            return state.isTerminal();
+        }
+    }
+    
+    private EngineComparisonReport() {}
+}
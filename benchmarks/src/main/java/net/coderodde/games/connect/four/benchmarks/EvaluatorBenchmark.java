@@ -0,0 +1,84 @@
+package net.coderodde.games.connect.four.benchmarks;
+
+import java.util.concurrent.TimeUnit;
+import net.coderodde.games.connect.four.ConnectFourState;
+import net.coderodde.games.connect.four.Demo;
+import net.coderodde.games.connect.four.impl.BruteForceConnectFourStateEvaluatorFunction;
+import net.coderodde.games.connect.four.impl.ThreatCountingConnectFourStateEvaluatorFunction;
+import net.coderodde.games.connect.four.impl.WeightMatrixConnectFourStateEvaluatorFunction;
+import net.coderodde.zerosum.ai.EvaluatorFunction;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+
+/**
+ * This class benchmarks the evaluator functions. Each invocation evaluates
+ * every position of the phase from scratch.
+ * 
+ * @author Rodion "rodde" Efremov
+ * @version 1.6 (Oct 17, 2026)
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Thread)
+public class EvaluatorBenchmark {
+    
+    @Param({ BenchmarkPositions.OPENING, 
+             BenchmarkPositions.MIDDLEGAME, 
+             BenchmarkPositions.ENDGAME })
+    public String phase;
+    
+    private ConnectFourState[] states;
+    
+    private final EvaluatorFunction<ConnectFourState> bruteForce = 
+            new BruteForceConnectFourStateEvaluatorFunction(
+                    ConnectFourState.DEFAULT_WIDTH,
+                    ConnectFourState.DEFAULT_HEIGHT,
+                    Demo.MAX_WEIGHT_MATRIX_ENTRY,
+                    ConnectFourState.DEFAULT_WINNING_LENGTH);
+    
+    private final EvaluatorFunction<ConnectFourState> weightMatrix = 
+            new WeightMatrixConnectFourStateEvaluatorFunction();
+    
+    private final EvaluatorFunction<ConnectFourState> threatCounting = 
+            new ThreatCountingConnectFourStateEvaluatorFunction();
+    
+    @Setup
+    public void setUp() {
+        states = BenchmarkPositions.getPositions(phase);
+    }
+    
+    @Benchmark
+    public void bruteForce(Blackhole blackhole) {
+        evaluate(bruteForce, blackhole);
+    }
+    
+    @Benchmark
+    public void weightMatrix(Blackhole blackhole) {
+        evaluate(weightMatrix, blackhole);
+    }
+    
+    @Benchmark
+    public void threatCounting(Blackhole blackhole) {
+        evaluate(threatCounting, blackhole);
+    }
+    
+    private void evaluate(EvaluatorFunction<ConnectFourState> function,
+                          Blackhole blackhole) {
+        for (ConnectFourState state : states) {
+            blackhole.consume(function.evaluate(state));
+        }
+    }
+}
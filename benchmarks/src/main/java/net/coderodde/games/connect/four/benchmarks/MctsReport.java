@@ -0,0 +1,76 @@
+package net.coderodde.games.connect.four.benchmarks;
+
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import net.coderodde.games.connect.four.ConnectFourGameEngine;
+import net.coderodde.games.connect.four.Tournament;
+import net.coderodde.games.connect.four.TournamentResult;
+import net.coderodde.games.connect.four.TranspositionTable;
+import net.coderodde.games.connect.four.impl.MctsBot;
+import net.coderodde.games.connect.four.impl.SmartBot;
+import net.coderodde.games.connect.four.impl.ThreatCountingConnectFourStateEvaluatorFunction;
+
+/**
+ * This class reports a tournament of {@link MctsBot}s against 
+ * {@link SmartBot}s at the equal wall-clock cost: both bots get the same 
+ * time budget per move and a single thread each, while the games run in 
+ * parallel. The nodes per second of the first bot are its playouts per 
+ * second.
+ * 
+ * <p>Usage: {@code MctsReport [games [millis [threads [seed]]]]}.
+ * 
+ * @author Rodion "rodde" Efremov
+ * @version 1.6 (Oct 17, 2026)
+ */
+public final class MctsReport {
+    
+    /**
+     * Bounds the iterative deepening of the {@code SmartBot}s, which stop on
+     * the time budget long before.
+     */
+    private static final int MAXIMUM_DEPTH = 42;
+    
+    /**
+     * The number of the slots in the transposition table of each 
+     * {@code SmartBot}. A table of 4 MB is owned by a bot of a single game,
+     * and holds the nodes of a search of the default time budget.
+     */
+    private static final int BOT_TABLE_CAPACITY = 1 << 18;
+    
+    public static void main(String[] args) {
+        int games = args.length > 0 ? Integer.parseInt(args[0]) : 20;
+        long millis = args.length > 1 ? Long.parseLong(args[1]) : 100L;
+        int threads = args.length > 2 ? 
+                      Integer.parseInt(args[2]) : 
+                      Runtime.getRuntime().availableProcessors();
+        long seed = args.length > 3 ? Long.parseLong(args[3]) : 1L;
+        
+        Tournament tournament = new Tournament(
+                (playerColor, botSeed) -> 
+                        new MctsBot(playerColor, 
+                                    MctsBot.NO_BUDGET, 
+                                    millis, 
+                                    botSeed, 
+                                    null),
+                (playerColor, botSeed) -> 
+                        new SmartBot(playerColor,
+                                     new ConnectFourGameEngine(
+                                         new ThreatCountingConnectFourStateEvaluatorFunction(),
+                                         MAXIMUM_DEPTH,
+                                         new TranspositionTable(
+                                             BOT_TABLE_CAPACITY,
+                                             TranspositionTable.ReplacementPolicy.DEPTH_PREFERRED)),
+                                     millis));
+        
+        ExecutorService executor = Executors.newFixedThreadPool(threads);
+        
+        try {
+            TournamentResult result = tournament.play(games, seed, executor);
+            System.out.println("MctsBot vs. SmartBot, " + millis + 
+                               " ms/move, " + threads + " threads:");
+            System.out.println(result);
+        } finally {
+            executor.shutdown();
+        }
+    }
+}
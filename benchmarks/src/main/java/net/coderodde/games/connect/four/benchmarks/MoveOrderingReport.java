@@ -0,0 +1,127 @@
+package net.coderodde.games.connect.four.benchmarks;
+
+import net.coderodde.games.connect.four.ConnectFourGameEngine;
+import net.coderodde.games.connect.four.ConnectFourState;
+import net.coderodde.games.connect.four.PlayerColor;
+import net.coderodde.games.connect.four.impl.ThreatCountingConnectFourStateEvaluatorFunction;
+
+/**
+ * This class reports the effect of the killer move and history heuristics of
+ * {@link ConnectFourGameEngine} on a fixed suite of positions. Each position
+ * is searched by a fresh engine with and without the heuristics, and the 
+ * numbers of visited nodes and the effective branching factors are printed
+ * side by side.
+ * 
+ * <p>Usage: {@code MoveOrderingReport [depth]}.
+ * 
+ * @author Rodion "rodde" Efremov
+ * @version 1.6 (Oct 17, 2026)
+ */
+public final class MoveOrderingReport {
+    
+    private static final int DEFAULT_DEPTH = 12;
+    
+    /**
+     * The moves leading to the positions searched.
+     */
+    private static final int[][] POSITIONS = {
+        {},
+        { 3, 3 },
+        { 3, 2, 4 },
+        { 2, 4, 3, 3, 1 },
+        { 3, 3, 2, 4, 4, 2 },
+        { 0, 6, 3, 3, 4, 2, 2 },
+        { 3, 3, 3, 3, 2, 4, 4, 2, 1 },
+        { 3, 2, 3, 3, 4, 4, 2, 5, 5, 1, 1, 0 },
+        { 3, 3, 4, 2, 2, 4, 5, 1, 1, 5, 0, 6, 6, 0 },
+        { 3, 3, 3, 3, 3, 3, 2, 2, 4, 4, 2, 4, 1, 5, 5, 1 },
+    };
+    
+    public static void main(String[] args) {
+        int depth = args.length > 0 ? Integer.parseInt(args[0]) 
+                                    : DEFAULT_DEPTH;
+        
+        ConnectFourState[] states = new ConnectFourState[POSITIONS.length];
+        
+        for (int i = 0; i < POSITIONS.length; i++) {
+            ConnectFourState state = 
+                    new ConnectFourState(PlayerColor.MINIMIZING_PLAYER);
+            
+            for (int column : POSITIONS[i]) {
+                state = state.move(column);
+            }
+            
+            states[i] = state;
+        }
+        
+        // Warm up the JIT compiler:
+        for (ConnectFourState state : states) {
+            search(state, depth, false);
+            search(state, depth, true);
+        }
+        
+        System.out.println("Search depth: " + depth);
+        System.out.println();
+        System.out.printf("%-8s %14s %8s %14s %8s %8s%n", 
+                          "position", 
+                          "nodes before", 
+                          "EBF", 
+                          "nodes after", 
+                          "EBF", 
+                          "ratio");
+        
+        long totalNodesBefore = 0L;
+        long totalNodesAfter = 0L;
+        double ebfBeforeProduct = 1.0;
+        double ebfAfterProduct = 1.0;
+        
+        for (int i = 0; i < states.length; i++) {
+            ConnectFourGameEngine before = search(states[i], depth, false);
+            ConnectFourGameEngine after = search(states[i], depth, true);
+            
+            System.out.printf("%-8d %14d %8.2f %14d %8.2f %8.2f%s%n", 
+                              i,
+                              before.getNodeCount(),
+                              before.getEffectiveBranchingFactor(),
+                              after.getNodeCount(),
+                              after.getEffectiveBranchingFactor(),
+                              (double) after.getNodeCount() / 
+                                      before.getNodeCount(),
+                              before.getLastScore() == after.getLastScore() ?
+                                      "" :
+                                      "  SCORE MISMATCH");
+            
+            totalNodesBefore += before.getNodeCount();
+            totalNodesAfter += after.getNodeCount();
+            ebfBeforeProduct *= before.getEffectiveBranchingFactor();
+            ebfAfterProduct *= after.getEffectiveBranchingFactor();
+        }
+        
+        System.out.printf("%-8s %14d %8.2f %14d %8.2f %8.2f%n", 
+                          "total",
+                          totalNodesBefore,
+                          Math.pow(ebfBeforeProduct, 1.0 / states.length),
+                          totalNodesAfter,
+                          Math.pow(ebfAfterProduct, 1.0 / states.length),
+                          (double) totalNodesAfter / totalNodesBefore);
+        System.out.println();
+        System.out.println("The EBF totals are geometric means.");
+    }
+    
+    private static ConnectFourGameEngine search(ConnectFourState state,
+                                                int depth,
+                                                boolean usingMoveHeuristics) {
+        ConnectFourGameEngine engine = 
+                new ConnectFourGameEngine(
+                        new ThreatCountingConnectFourStateEvaluatorFunction(),
+                        depth);
+        engine.setUsingMoveHeuristics(usingMoveHeuristics);
+        engine.makePly(state, 
+                       PlayerColor.MINIMIZING_PLAYER,
+                       PlayerColor.MAXIMIZING_PLAYER,
+                       null);
+        return engine;
+    }
+    
+    private MoveOrderingReport() {}
+}
@@ -0,0 +1,181 @@
+package net.coderodde.games.connect.four.benchmarks;
+
+import java.util.Arrays;
+import java.util.concurrent.ForkJoinPool;
+import net.coderodde.games.connect.four.ConnectFourGameEngine;
+import net.coderodde.games.connect.four.ConnectFourState;
+import net.coderodde.games.connect.four.PlayerColor;
+import net.coderodde.games.connect.four.TranspositionTable;
+import net.coderodde.games.connect.four.impl.ThreatCountingConnectFourStateEvaluatorFunction;
+import net.coderodde.zerosum.ai.EvaluatorFunction;
+
+/**
+ * This class reports the speedup of the parallel search of 
+ * {@link ConnectFourGameEngine} over the sequential one for 1, 2, 4, 8 and 16 
+ * threads. Each configuration searches the same suite of positions, and its 
+ * scores are checked against the sequential search. The parallel search may
+ * choose another move of the same score, so the chosen moves are only 
+ * compared for information. The speedups are only meaningful up to the
+ * number of the available processors.
+ * 
+ * <p>Usage: {@code ParallelSpeedupReport [depth]}.
+ * 
+ * @author Rodion "rodde" Efremov
+ * @version 1.6 (Oct 17, 2026)
+ */
+public final class ParallelSpeedupReport {
+    
+    private static final int DEFAULT_DEPTH = 12;
+    
+    private static final int[] THREAD_COUNTS = { 1, 2, 4, 8, 16 };
+    
+    /**
+     * The openings leading to the positions searched.
+     */
+    private static final int[][] OPENINGS = {
+        {},
+        { 3 },
+        { 3, 3 },
+        { 3, 2, 4 },
+        { 3, 3, 3, 4 },
+        { 2, 4, 3, 3, 1 },
+        { 3, 3, 2, 4, 4, 2 },
+        { 0, 6, 3, 3, 4, 2, 2 },
+    };
+    
+    public static void main(String[] args) {
+        int depth = args.length > 0 ? Integer.parseInt(args[0]) 
+                                    : DEFAULT_DEPTH;
+        
+        ConnectFourState[] states = new ConnectFourState[OPENINGS.length];
+        
+        for (int i = 0; i < OPENINGS.length; i++) {
+            ConnectFourState state = 
+                    new ConnectFourState(PlayerColor.MINIMIZING_PLAYER);
+            
+            for (int column : OPENINGS[i]) {
+                state = state.move(column);
+            }
+            
+            states[i] = state;
+        }
+        
+        System.out.println("Available processors: " + 
+                           Runtime.getRuntime().availableProcessors());
+        System.out.println("Search depth: " + depth);
+        System.out.println();
+        
+        ConnectFourGameEngine sequentialEngine = 
+                new ConnectFourGameEngine(createEvaluatorFunction(), depth);
+        
+        // Warm up the JIT compiler:
+        runSuite(sequentialEngine, states);
+        
+        SuiteResult expected = runSuite(sequentialEngine, states);
+        System.out.printf("%-12s %10s %14s %8s %12s%n", 
+                          "threads", "millis", "nodes", "speedup", 
+                          "other moves");
+        System.out.printf("%-12s %10d %14d %8.2f %12d%n", 
+                          "sequential", 
+                          expected.millis, 
+                          expected.nodeCount, 
+                          1.0,
+                          0);
+        
+        for (int threadCount : THREAD_COUNTS) {
+            ForkJoinPool pool = new ForkJoinPool(threadCount);
+            
+            try {
+                ConnectFourGameEngine parallelEngine = 
+                        new ConnectFourGameEngine(createEvaluatorFunction(), 
+                                                  depth,
+                                                  new TranspositionTable(),
+                                                  pool);
+                runSuite(parallelEngine, states);
+                SuiteResult actual = runSuite(parallelEngine, states);
+                
+                System.out.printf("%-12d %10d %14d %8.2f %12d%s%n", 
+                                  threadCount,
+                                  actual.millis,
+                                  actual.nodeCount,
+                                  (double) expected.millis / 
+                                          Math.max(1L, actual.millis),
+                                  actual.countOtherMoves(expected),
+                                  Arrays.equals(actual.scores, 
+                                                expected.scores) ? 
+                                          "" : 
+                                          "  SCORE MISMATCH");
+            } finally {
+                pool.shutdown();
+            }
+        }
+    }
+    
+    private static EvaluatorFunction<ConnectFourState> 
+        createEvaluatorFunction() {
+        return new ThreatCountingConnectFourStateEvaluatorFunction(
+                ConnectFourState.DEFAULT_WIDTH,
+                ConnectFourState.DEFAULT_HEIGHT,
+                ConnectFourState.DEFAULT_WINNING_LENGTH);
+    }
+    
+    private static SuiteResult runSuite(ConnectFourGameEngine engine,
+                                        ConnectFourState[] states) {
+        SuiteResult result = new SuiteResult(states.length);
+        long startTime = System.nanoTime();
+        
+        for (int i = 0; i < states.length; i++) {
+            ConnectFourState nextState = 
+                    engine.makePly(states[i], 
+                                   PlayerColor.MINIMIZING_PLAYER,
+                                   PlayerColor.MAXIMIZING_PLAYER,
+                                   null);
+            result.moves[i] = findMove(states[i], nextState);
+            result.scores[i] = engine.getLastScore();
+            result.nodeCount += engine.getNodeCount();
+        }
+        
+        result.millis = (System.nanoTime() - startTime) / 1_000_000L;
+        return result;
+    }
+    
+    private static int findMove(ConnectFourState state, 
+                                ConnectFourState nextState) {
+        for (int x = 0; x < state.getWidth(); x++) {
+            for (int y = 0; y < state.getHeight(); y++) {
+                if (state.readCell(x, y) != nextState.readCell(x, y)) {
+                    return x;
+                }
+            }
+        }
+        
+        throw new IllegalStateException("No move made.");
+    }
+    
+    private static final class SuiteResult {
+        
+        final int[] moves;
+        final int[] scores;
+        long nodeCount;
+        long millis;
+        
+        SuiteResult(int size) {
+            this.moves = new int[size];
+            this.scores = new int[size];
+        }
+        
+        int countOtherMoves(SuiteResult other) {
+            int count = 0;
+            
+            for (int i = 0; i < moves.length; i++) {
+                if (moves[i] != other.moves[i]) {
+                    count++;
+                }
+            }
+            
+            return count;
+        }
+    }
+    
+    private ParallelSpeedupReport() {}
+}
@@ -0,0 +1,107 @@
+package net.coderodde.games.connect.four.benchmarks;
+
+import java.util.concurrent.TimeUnit;
+import net.coderodde.games.connect.four.Bot;
+import net.coderodde.games.connect.four.ConnectFourGameEngine;
+import net.coderodde.games.connect.four.ConnectFourState;
+import net.coderodde.games.connect.four.PlayerColor;
+import net.coderodde.games.connect.four.TranspositionTable;
+import net.coderodde.games.connect.four.impl.SmartBot;
+import net.coderodde.games.connect.four.impl.ThreatCountingConnectFourStateEvaluatorFunction;
+import net.coderodde.zerosum.ai.impl.AlphaBetaPruningGameEngine;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+
+/**
+ * This class benchmarks the full move computation of {@link SmartBot} at a 
+ * fixed depth. Each invocation computes a move in every position of the 
+ * phase. The bot searches either via {@link ConnectFourGameEngine} or via
+ * the {@link AlphaBetaPruningGameEngine} of {@code GameAI}, the baseline, 
+ * both with the same evaluator function. The transposition table is cleared
+ * before each invocation, so that no invocation reuses the results of the 
+ * previous ones.
+ * 
+ * @author Rodion "rodde" Efremov
+ * @version 1.6 (Oct 17, 2026)
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+@State(Scope.Thread)
+public class SearchBenchmark {
+    
+    static final String ENGINE = "engine";
+    static final String BASELINE = "baseline";
+    
+    @Param({ BenchmarkPositions.OPENING, 
+             BenchmarkPositions.MIDDLEGAME, 
+             BenchmarkPositions.ENDGAME })
+    public String phase;
+    
+    @Param({ "8" })
+    public int depth;
+    
+    @Param({ ENGINE, BASELINE })
+    public String engine;
+    
+    private ConnectFourState[] states;
+    
+    private TranspositionTable transpositionTable;
+    
+    private Bot bot;
+    
+    @Setup
+    public void setUp() {
+        states = BenchmarkPositions.getPositions(phase);
+        
+        switch (engine) {
+            case ENGINE:
+                transpositionTable = new TranspositionTable();
+                bot = new SmartBot(
+                        PlayerColor.MAXIMIZING_PLAYER,
+                        new ConnectFourGameEngine(
+                                new ThreatCountingConnectFourStateEvaluatorFunction(),
+                                depth,
+                                transpositionTable));
+                break;
+            
+            case BASELINE:
+                bot = new SmartBot(
+                        PlayerColor.MAXIMIZING_PLAYER,
+                        new AlphaBetaPruningGameEngine<>(
+                                new ThreatCountingConnectFourStateEvaluatorFunction(),
+                                depth));
+                break;
+            
+            default:
+                throw new IllegalArgumentException("engine = " + engine);
+        }
+    }
+    
+    @Setup(Level.Invocation)
+    public void clearTranspositionTable() {
+        if (transpositionTable != null) {
+            transpositionTable.clear();
+        }
+    }
+    
+    @Benchmark
+    public void computeNextState(Blackhole blackhole) {
+        for (ConnectFourState state : states) {
+            blackhole.consume(bot.computeNextState(state));
+        }
+    }
+}
@@ -0,0 +1,94 @@
+package net.coderodde.games.connect.four.benchmarks;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import net.coderodde.games.connect.four.ConnectFourState;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+
+/**
+ * This class benchmarks the basic operations of {@link ConnectFourState}. 
+ * Each invocation runs the operation on every position of the phase. The 
+ * boards cover the 64-bit bitboards (7 x 6) and the 128-bit bitboards (9 x 7 
+ * and 9 x 9).
+ * 
+ * @author Rodion "rodde" Efremov
+ * @version 1.6 (Oct 17, 2026)
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Thread)
+public class StateBenchmark {
+    
+    @Param({ BenchmarkPositions.OPENING, 
+             BenchmarkPositions.MIDDLEGAME, 
+             BenchmarkPositions.ENDGAME })
+    public String phase;
+    
+    @Param({ "7x6", "9x7", "9x9" })
+    public String board;
+    
+    private ConnectFourState[] states;
+    
+    @Setup
+    public void setUp() {
+        String[] dimensions = board.split("x");
+        states = BenchmarkPositions.getPositions(
+                phase,
+                Integer.parseInt(dimensions[0]),
+                Integer.parseInt(dimensions[1]));
+        
+        for (ConnectFourState state : states) {
+            state.setCachingChildren(false);
+        }
+    }
+    
+    @Benchmark
+    public void move(Blackhole blackhole) {
+        for (ConnectFourState state : states) {
+            for (int x = 0; x < state.getWidth(); x++) {
+                if (!state.columnIsFull(x)) {
+                    blackhole.consume(state.move(x));
+                }
+            }
+        }
+    }
+    
+    @Benchmark
+    public void children(Blackhole blackhole) {
+        for (ConnectFourState state : states) {
+            List<ConnectFourState> children = state.children();
+            blackhole.consume(children);
+        }
+    }
+    
+    /**
+     * Models a cut node: only the first child is constructed.
+     */
+    @Benchmark
+    public void firstChild(Blackhole blackhole) {
+        for (ConnectFourState state : states) {
+            blackhole.consume(state.childIterator().next());
+        }
+    }
+    
+    @Benchmark
+    public void checkVictory(Blackhole blackhole) {
+        for (ConnectFourState state : states) {
+            blackhole.consume(state.checkVictory());
+        }
+    }
+}
@@ -1,5 +1,9 @@
 package net.coderodde.games.connect.four;
 
+import java.util.Objects;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Executor;
+
 /**
  * This interface defines the API for playing bots.
  * 
@@ -15,9 +19,99 @@ public interface Bot {
      */
     public ConnectFourState computeNextState(ConnectFourState state);
     
+    /**
+     * Computes the next state under a control, which may stop the 
+     * computation early, in which case the best move found so far is 
+     * played. The bots that do not search ignore the control.
+     * 
+     * @param state the current state.
+     * @param control the control of the computation.
+     * @return the next state.
+     */
+    public default ConnectFourState computeNextState(ConnectFourState state,
+                                                     SearchControl control) {
+        Objects.requireNonNull(control, "The search control is null.");
+        return computeNextState(state);
+    }
+    
+    /**
+     * Computes the next state on an executor. Stopping the control completes
+     * the future with the best move found so far; cancelling the future 
+     * stops the control and discards the move. The input state must not be 
+     * modified until the future completes, and a bot computes a single move 
+     * at a time.
+     * 
+     * @param state the current state.
+     * @param control the control of the computation.
+     * @param executor the executor to compute on.
+     * @return the future of the next state.
+     * @see BotExecutors#newExecutor()
+     */
+    public default CompletableFuture<ConnectFourState> computeNextStateAsync(
+            ConnectFourState state,
+            SearchControl control,
+            Executor executor) {
+        Objects.requireNonNull(state, "The input state is null.");
+        Objects.requireNonNull(control, "The search control is null.");
+        Objects.requireNonNull(executor, "The executor is null.");
+        
+        CompletableFuture<ConnectFourState> future = 
+                CompletableFuture.supplyAsync(
+                        () -> computeNextState(state, control), 
+                        executor);
+        
+        // Cancelling a completable future does not interrupt the task, so 
+        // stop the computation cooperatively:
+        future.whenComplete((nextState, throwable) -> {
+            if (future.isCancelled()) {
+                control.stop();
+            }
+        });
+        
+        return future;
+    }
+    
+    /**
+     * Computes the next state on the default executor of 
+     * {@link BotExecutors}, which runs each computation on a virtual thread
+     * if supported.
+     * 
+     * @param state the current state.
+     * @param control the control of the computation.
+     * @return the future of the next state.
+     * @see #computeNextStateAsync(ConnectFourState, SearchControl, Executor)
+     */
+    public default CompletableFuture<ConnectFourState> computeNextStateAsync(
+            ConnectFourState state,
+            SearchControl control) {
+        return computeNextStateAsync(state, 
+                                     control, 
+                                     BotExecutors.getDefaultExecutor());
+    }
+    
     /**
      * Returns the player color of this bot.
      * @return the player color of this bot.
      */
     public PlayerColor getPlayerColor();
+    
+    /**
+     * Returns the number of the game tree nodes visited while computing the
+     * last move. The bots that do not search report zero.
+     * 
+     * @return the number of visited nodes.
+     */
+    public default long getLastNodeCount() {
+        return 0L;
+    }
+    
+    /**
+     * Returns the statistics of the search computing the last move. The bots
+     * that do not search report {@code null}.
+     * 
+     * @return the statistics of the last search, or {@code null}.
+     */
+    public default SearchStats getLastSearchStats() {
+        return null;
+    }
 }
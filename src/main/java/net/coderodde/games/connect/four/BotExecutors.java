@@ -0,0 +1,104 @@
+package net.coderodde.games.connect.four;
+
+import java.util.concurrent.Executor;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * This class provides the executors for the asynchronous move computations
+ * of {@link Bot#computeNextStateAsync(ConnectFourState, SearchControl,
+ * Executor)}. On the runtimes supporting virtual threads, each computation
+ * runs on a virtual thread of its own, so that any number of games may wait
+ * for their moves without holding a platform thread each. Elsewhere, the
+ * computations share a pool of a platform thread per processor. Either way,
+ * at most a computation per processor runs at a time, since the searches do
+ * not block.
+ * 
+ * @author Rodion "rodde" Efremov
+ * @version 1.6 (Oct 17, 2026)
+ */
+public final class BotExecutors {
+    
+    private BotExecutors() {}
+    
+    /**
+     * Creates an executor for the move computations. The caller should shut
+     * it down once done.
+     * 
+     * @return a virtual thread per task executor if supported by the
+     *         runtime, and a fixed pool of a daemon thread per processor
+     *         otherwise.
+     */
+    public static ExecutorService newExecutor() {
+        ExecutorService executor = newVirtualThreadPerTaskExecutor();
+        return executor != null ? executor : newPlatformThreadExecutor();
+    }
+    
+    /**
+     * Checks whether the executors run the computations on virtual threads.
+     * 
+     * @return {@code true} only if the runtime supports virtual threads.
+     */
+    public static boolean isUsingVirtualThreads() {
+        return DefaultExecutorHolder.USING_VIRTUAL_THREADS;
+    }
+    
+    /**
+     * Returns the executor shared by the computations that are not given one.
+     * Created on first use, and never shut down.
+     * 
+     * @return the default executor.
+     */
+    static Executor getDefaultExecutor() {
+        return DefaultExecutorHolder.EXECUTOR;
+    }
+    
+    /**
+     * Creates a virtual thread per task executor via reflection, since the
+     * sources target a runtime without virtual threads.
+     * 
+     * @return the executor, or {@code null} if the runtime does not support
+     *         virtual threads.
+     */
+    private static ExecutorService newVirtualThreadPerTaskExecutor() {
+        try {
+            return (ExecutorService)
+                    Executors.class
+                             .getMethod("newVirtualThreadPerTaskExecutor")
+                             .invoke(null);
+        } catch (ReflectiveOperationException | RuntimeException ex) {
+            // Absent, or a preview feature not enabled:
+            return null;
+        }
+    }
+    
+    private static ExecutorService newPlatformThreadExecutor() {
+        AtomicInteger threadCount = new AtomicInteger();
+        ThreadFactory threadFactory = (Runnable runnable) -> {
+            Thread thread = new Thread(runnable,
+                                       "bot-" + threadCount.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        };
+        
+        return Executors.newFixedThreadPool(
+                Runtime.getRuntime().availableProcessors(),
+                threadFactory);
+    }
+    
+    private static final class DefaultExecutorHolder {
+        
+        static final ExecutorService VIRTUAL_THREAD_EXECUTOR =
+                newVirtualThreadPerTaskExecutor();
+        
+        static final boolean USING_VIRTUAL_THREADS =
+                VIRTUAL_THREAD_EXECUTOR != null;
+        
+        static final ExecutorService EXECUTOR =
+                USING_VIRTUAL_THREADS ?
+                VIRTUAL_THREAD_EXECUTOR :
+                newPlatformThreadExecutor();
+    }
+}
@@ -0,0 +1,22 @@
+package net.coderodde.games.connect.four;
+
+/**
+ * This interface specifies the API for creating bots. A {@link Tournament} 
+ * creates fresh bots for each game, so that the games may run in parallel
+ * and are reproducible.
+ * 
+ * @author Rodion "rodde" Efremov
+ * @version 1.6 (Oct 17, 2026)
+ */
+@FunctionalInterface
+public interface BotFactory {
+    
+    /**
+     * Creates a bot.
+     * 
+     * @param playerColor the color of the bot.
+     * @param seed the seed of the randomness of the bot, if any.
+     * @return a new bot.
+     */
+    public Bot create(PlayerColor playerColor, long seed);
+}
@@ -0,0 +1,1532 @@
+package net.coderodde.games.connect.four;
+
+import java.util.ArrayDeque;
+import java.util.Arrays;
+import java.util.Map;
+import java.util.Objects;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.ForkJoinTask;
+import java.util.concurrent.RecursiveTask;
+import net.coderodde.zerosum.ai.EvaluatorFunction;
+import net.coderodde.zerosum.ai.GameEngine;
+
+/**
+ * This class implements a negamax Alpha-beta pruning game engine specialized 
+ * for Connect Four. Unlike the generic engines, it does not materialize the
+ * children of the search nodes, but makes and unmakes the moves in place on a
+ * single working copy of the input state via {@link ConnectFourState#play(int)}
+ * and {@link ConnectFourState#undo()}. Thus, the search itself allocates
+ * nothing per node.
+ * 
+ * <p>The engine caches the results of the searched positions in a 
+ * {@link TranspositionTable} keyed by the Zobrist hashes of the states, so 
+ * that a position reachable via different move orders is searched only once
+ * per search. The search deepens iteratively, and the best moves found by
+ * the shallower iterations are searched first. Below the root, the remaining
+ * moves are ordered by the {@link KillerHistoryMoveOrdering killer move and
+ * history heuristics}, unless disabled, and then from the center columns 
+ * outwards.
+ * 
+ * <p>A node where the player to move may win right away is scored without a
+ * search, and so is a node where every move lets the opponent win right 
+ * away. Otherwise, the moves letting the opponent win right away are not
+ * searched at all. These shortcuts never change the scores.
+ * 
+ * <p>Each iteration starts with an aspiration window around the score of the
+ * iteration two plies shallower. Each node searches its first move with the
+ * full window and the rest with null windows, re-searching only the moves 
+ * that turn out better (principal variation search).
+ * 
+ * <p>Besides the fixed-depth search of 
+ * {@link #makePly(ConnectFourState, PlayerColor, PlayerColor, PlayerColor)},
+ * the engine supports a time-budgeted search via 
+ * {@link #makePly(ConnectFourState, long)}, which keeps deepening until the 
+ * budget runs out and returns the best move of the last completed iteration.
+ * Either search may also be stopped early from another thread via a 
+ * {@link SearchControl}.
+ * 
+ * <p>If constructed with a {@link ForkJoinPool}, the engine searches in 
+ * parallel according to the Young Brothers Wait concept: at the root and at
+ * every node with enough remaining depth, the first move is searched alone,
+ * after which the remaining moves are searched in parallel, each on its own 
+ * copy of the state, all sharing the transposition table. The score of the
+ * chosen move is the same as in the sequential search, but among the moves
+ * of equal score another one may be chosen. In parallel mode, the evaluator
+ * function must be thread-safe.
+ * 
+ * <p>If the evaluator function is an {@link IncrementalEvaluatorFunction}, 
+ * each working state of the search is followed by its own tracker, which
+ * evaluates the leaf states without rescanning the board.
+ * 
+ * <p>If given an {@link EndgameDatabase}, the engine probes it at every 
+ * node near the end of the game, and the nodes found in it are scored 
+ * exactly instead of being searched or evaluated. Likewise, the nodes with
+ * at most {@link #setSolvingEmptyCells(int) a given number} of empty cells
+ * may be solved exactly by a {@link ConnectFourSolver}.
+ * 
+ * <p>Each search records its {@link SearchStats statistics}, available via
+ * {@link #getLastSearchStats()} and reported to the {@link SearchListener}, 
+ * if any. The engine prints nothing.
+ * 
+ * <p>All the scores are primitive {@code int}s relative to the player to 
+ * move, and the moves are plain column indices. The player to move is 
+ * inferred from the input state: the engine maximizes if the tokens dropped
+ * next are of the {@link PlayerColor#MAXIMIZING_PLAYER}, and minimizes
+ * otherwise.
+ * 
+ * @author Rodion "rodde" Efremov
+ * @version 1.6 (Oct 17, 2026)
+ */
+public class ConnectFourGameEngine
+        extends GameEngine<ConnectFourState, PlayerColor> {
+    
+    /**
+     * The score of a won position. Wins found closer to the root score
+     * higher.
+     */
+    static final int WIN_SCORE = 1_000_000_000;
+    
+    /**
+     * The largest absolute score of a non-terminal position.
+     */
+    static final int MAX_EVALUATION = WIN_SCORE - 1_000;
+    
+    /**
+     * The score larger than any other score.
+     */
+    static final int INFINITY = Integer.MAX_VALUE;
+    
+    /**
+     * The deadline of the searches without a time budget.
+     */
+    private static final long NO_DEADLINE = Long.MAX_VALUE;
+    
+    /**
+     * The clock, the search control and the skipped tasks are consulted once
+     * per this many nodes of a searcher.
+     */
+    private static final long DEADLINE_CHECK_MASK = (1 << 10) - 1;
+    
+    /**
+     * The column bitmask selecting all the columns.
+     */
+    private static final int ALL_COLUMNS = -1;
+    
+    /**
+     * The initial half-width of the aspiration windows. Quadrupled upon each
+     * failure.
+     */
+    private static final int ASPIRATION_WINDOW = 64;
+    
+    /**
+     * The minimum remaining depth of a node whose younger brothers are 
+     * searched in parallel. The shallower subtrees are too small to pay for
+     * the copying of the state and the task scheduling.
+     */
+    private static final int MINIMUM_SPLIT_DEPTH = 5;
+    
+    /**
+     * The number of the slots in the transposition table of the solver of
+     * each searcher. The solved endgames are small, and a table of 1 MB 
+     * holds their nodes.
+     */
+    private static final int SOLVER_TABLE_CAPACITY = 1 << 16;
+    
+    /**
+     * The evaluator function for the leaf states.
+     */
+    private final EvaluatorFunction<ConnectFourState> evaluatorFunction;
+    
+    /**
+     * The maximum search depth.
+     */
+    private final int depth;
+    
+    /**
+     * The transposition table.
+     */
+    private final TranspositionTable transpositionTable;
+    
+    /**
+     * The pool running the parallel search, or {@code null} if the search is
+     * sequential.
+     */
+    private final ForkJoinPool forkJoinPool;
+    
+    /**
+     * The idle searchers of the parallel search by the thread of the pool
+     * they belong to. A task takes an idle searcher of the thread running it
+     * and returns it when done, so that each thread allocates its searchers
+     * once instead of once per task. A thread may run other tasks while 
+     * joining, so each thread may need several searchers.
+     */
+    private final Map<Thread, ArrayDeque<Searcher>> idleSearchers = 
+            new ConcurrentHashMap<>();
+    
+    /**
+     * The depth of the last iteration of the current search, for which the
+     * searchers are created.
+     */
+    private int maximumSearchDepth;
+    
+    /**
+     * The number of nodes visited during the last search.
+     */
+    private long nodeCount;
+    
+    /**
+     * Whether the killer move and history heuristics order the moves.
+     */
+    private boolean usingMoveHeuristics = true;
+    
+    /**
+     * Receives the statistics of each search, or is {@code null}.
+     */
+    private SearchListener searchListener;
+    
+    /**
+     * The endgame database probed by the search, or {@code null} if none.
+     */
+    private EndgameDatabase endgameDatabase;
+    
+    /**
+     * The nodes with at most this many empty cells are solved exactly, or 
+     * none if zero.
+     */
+    private int solvingEmptyCells;
+    
+    /**
+     * The statistics of the last search, or {@code null} if there was none.
+     */
+    private SearchStats lastSearchStats;
+    
+    /**
+     * The value of {@link System#nanoTime()} at which the current search must
+     * stop.
+     */
+    private volatile long deadline;
+    
+    /**
+     * Set once the current iteration has run out of time. All the results
+     * of such an iteration are discarded.
+     */
+    private volatile boolean aborted;
+    
+    /**
+     * The control polled by the current iteration, or {@code null} if none.
+     */
+    private volatile SearchControl searchControl;
+    
+    /**
+     * The score of the root state in the last completed iteration, relative
+     * to the player to move.
+     */
+    private int rootScore;
+    
+    /**
+     * The depth of the last completed iteration.
+     */
+    private int completedDepth;
+    
+    /**
+     * Constructs this game engine.
+     * 
+     * @param evaluatorFunction the evaluator function for the leaf states.
+     * @param depth the maximum search depth.
+     * @param transpositionTable the transposition table.
+     * @param forkJoinPool the pool for the parallel search, or {@code null}
+     *                     for the sequential search.
+     */
+    public ConnectFourGameEngine(
+            EvaluatorFunction<ConnectFourState> evaluatorFunction,
+            int depth,
+            TranspositionTable transpositionTable,
+            ForkJoinPool forkJoinPool) {
+        super(evaluatorFunction, depth);
+        this.evaluatorFunction =
+                Objects.requireNonNull(evaluatorFunction,
+                                       "The evaluator function is null.");
+        this.depth = checkDepth(depth);
+        this.transpositionTable = 
+                Objects.requireNonNull(transpositionTable, 
+                                       "The transposition table is null.");
+        this.forkJoinPool = forkJoinPool;
+    }
+    
+    /**
+     * Constructs this game engine for the sequential search.
+     * 
+     * @param evaluatorFunction the evaluator function for the leaf states.
+     * @param depth the maximum search depth.
+     * @param transpositionTable the transposition table.
+     */
+    public ConnectFourGameEngine(
+            EvaluatorFunction<ConnectFourState> evaluatorFunction,
+            int depth,
+            TranspositionTable transpositionTable) {
+        this(evaluatorFunction, depth, transpositionTable, null);
+    }
+    
+    /**
+     * Constructs this game engine for the sequential search with a default 
+     * transposition table.
+     * 
+     * @param evaluatorFunction the evaluator function for the leaf states.
+     * @param depth the maximum search depth.
+     */
+    public ConnectFourGameEngine(
+            EvaluatorFunction<ConnectFourState> evaluatorFunction,
+            int depth) {
+        this(evaluatorFunction, depth, new TranspositionTable());
+    }
+    
+    /**
+     * {@inheritDoc }
+     * 
+     * The player colors are ignored, since the player to move is encoded in
+     * the state.
+     */
+    @Override
+    public ConnectFourState makePly(ConnectFourState state,
+                                    PlayerColor minimizingPlayer,
+                                    PlayerColor maximizingPlayer,
+                                    PlayerColor initialPlayer) {
+        return state.move(search(state, depth, NO_DEADLINE, null));
+    }
+    
+    /**
+     * Computes the next state via iterative deepening to the maximum depth
+     * under a control. If the control stops the search, returns the best 
+     * move found by the last completed iteration. The first iteration is
+     * always completed. The best move of each completed iteration is 
+     * reported to the control.
+     * 
+     * @param state the current state.
+     * @param control the control of the search.
+     * @return the next state.
+     */
+    public ConnectFourState makePly(ConnectFourState state, 
+                                    SearchControl control) {
+        Objects.requireNonNull(control, "The search control is null.");
+        return state.move(search(state, depth, NO_DEADLINE, control));
+    }
+    
+    /**
+     * Computes the next state via iterative deepening under a time budget. 
+     * The search deepens until the budget runs out, a forced win or loss is 
+     * proven, or the depth reaches the number of empty cells, and returns the
+     * best move found by the last completed iteration. The first iteration is
+     * always completed.
+     * 
+     * @param state the current state.
+     * @param timeBudgetMillis the time budget in milliseconds.
+     * @return the next state.
+     */
+    public ConnectFourState makePly(ConnectFourState state, 
+                                    long timeBudgetMillis) {
+        return makePly(state, timeBudgetMillis, null);
+    }
+    
+    /**
+     * Computes the next state via iterative deepening under a time budget 
+     * and a control. Stops as 
+     * {@link #makePly(ConnectFourState, long)} does, or once the control 
+     * stops the search. The best move of each completed iteration is 
+     * reported to the control.
+     * 
+     * @param state the current state.
+     * @param timeBudgetMillis the time budget in milliseconds.
+     * @param control the control of the search, or {@code null} for none.
+     * @return the next state.
+     */
+    public ConnectFourState makePly(ConnectFourState state, 
+                                    long timeBudgetMillis,
+                                    SearchControl control) {
+        if (timeBudgetMillis < 1L) {
+            throw new IllegalArgumentException(
+                    "timeBudgetMillis = " + timeBudgetMillis);
+        }
+        
+        int maximumDepth = Math.max(1, state.getWidth() * state.getHeight() 
+                                     - state.getNumberOfTokens());
+        
+        return state.move(search(state, 
+                                 maximumDepth, 
+                                 System.nanoTime() + 
+                                         timeBudgetMillis * 1_000_000L,
+                                 control));
+    }
+    
+    /**
+     * Returns the depth of the last completed iteration of the last search.
+     * 
+     * @return the depth reached.
+     */
+    public int getCompletedDepth() {
+        return completedDepth;
+    }
+    
+    /**
+     * Returns the score of the move chosen by the last search, relative to 
+     * the player that made the move.
+     * 
+     * @return the score of the last chosen move.
+     */
+    public int getLastScore() {
+        return rootScore;
+    }
+    
+    /**
+     * Returns the number of nodes visited during the last search.
+     * 
+     * @return the number of visited nodes.
+     */
+    public long getNodeCount() {
+        return nodeCount;
+    }
+    
+    /**
+     * Returns the effective branching factor of the last search, i.e., the 
+     * branching factor {@code b} of the uniform tree of the completed depth
+     * {@code d} having as many nodes as the last search visited: 
+     * {@code b^d = N}. The better the move ordering, the smaller the factor.
+     * 
+     * @return the effective branching factor.
+     */
+    public double getEffectiveBranchingFactor() {
+        return lastSearchStats == null ? 
+               0.0 : 
+               lastSearchStats.getEffectiveBranchingFactor();
+    }
+    
+    /**
+     * Returns the statistics of the last search.
+     * 
+     * @return the statistics of the last search, or {@code null} if this 
+     *         engine has not searched yet.
+     */
+    public SearchStats getLastSearchStats() {
+        return lastSearchStats;
+    }
+    
+    /**
+     * Sets the listener receiving the statistics of each search.
+     * 
+     * @param searchListener the listener, or {@code null} for none.
+     */
+    public void setSearchListener(SearchListener searchListener) {
+        this.searchListener = searchListener;
+    }
+    
+    /**
+     * Sets the endgame database probed by the search. A node found in the 
+     * database is scored exactly without a search: a won or a lost node 
+     * scores as if the search had reached the end of the game, and a drawn 
+     * node scores zero. Every node within the range of the database costs a
+     * lookup, so the database pays off only if it holds the endgames 
+     * searched; {@link #setSolvingEmptyCells(int)} covers all of them.
+     * 
+     * @param endgameDatabase the database, or {@code null} for none.
+     */
+    public void setEndgameDatabase(EndgameDatabase endgameDatabase) {
+        this.endgameDatabase = endgameDatabase;
+    }
+    
+    /**
+     * Returns the endgame database probed by the search.
+     * 
+     * @return the database, or {@code null} if none.
+     */
+    public EndgameDatabase getEndgameDatabase() {
+        return endgameDatabase;
+    }
+    
+    /**
+     * Sets the number of the empty cells at or below which the nodes are 
+     * solved exactly by a {@link ConnectFourSolver} instead of being searched
+     * or evaluated. The nodes are scored as the ones found in the endgame 
+     * database, which is probed first. A solve is not interrupted by the 
+     * time budget, so the number should be small: an endgame of a dozen 
+     * empty cells is solved in a fraction of a millisecond. Applies to the 
+     * boards that fit in a bitboard only. Zero by default.
+     * 
+     * @param solvingEmptyCells the maximum number of empty cells of the 
+     *                          solved nodes, or zero for none.
+     */
+    public void setSolvingEmptyCells(int solvingEmptyCells) {
+        if (solvingEmptyCells < 0) {
+            throw new IllegalArgumentException(
+                    "solvingEmptyCells = " + solvingEmptyCells);
+        }
+        
+        this.solvingEmptyCells = solvingEmptyCells;
+    }
+    
+    /**
+     * Returns the number of the empty cells at or below which the nodes are
+     * solved exactly.
+     * 
+     * @return the maximum number of empty cells of the solved nodes, or zero
+     *         if none are solved.
+     */
+    public int getSolvingEmptyCells() {
+        return solvingEmptyCells;
+    }
+    
+    /**
+     * Enables or disables the killer move and history heuristics. Without 
+     * them, the moves are searched from the center columns outwards, after 
+     * the best move stored in the transposition table. Enabled by default.
+     * 
+     * @param usingMoveHeuristics whether to use the heuristics.
+     */
+    public void setUsingMoveHeuristics(boolean usingMoveHeuristics) {
+        this.usingMoveHeuristics = usingMoveHeuristics;
+    }
+    
+    /**
+     * Checks whether the killer move and history heuristics are enabled.
+     * 
+     * @return {@code true} only if the heuristics order the moves.
+     */
+    public boolean isUsingMoveHeuristics() {
+        return usingMoveHeuristics;
+    }
+    
+    /**
+     * Runs the iterative deepening.
+     * 
+     * @param state the root state.
+     * @param maximumDepth the depth of the last iteration.
+     * @param deadline the value of {@link System#nanoTime()} at which the 
+     *                 search must stop.
+     * @param control the control of the search, or {@code null} for none.
+     * @return the best move.
+     */
+    private int search(ConnectFourState state, 
+                       int maximumDepth, 
+                       long deadline,
+                       SearchControl control) {
+        long startTime = System.nanoTime();
+        nodeCount = 0L;
+        completedDepth = 0;
+        aborted = false;
+        transpositionTable.newSearch();
+        prepareIdleSearchers(state, maximumDepth);
+        
+        Searcher searcher = new Searcher(state, maximumDepth);
+        searcher.load(state.copy(), 0, null);
+        int bestMove = TranspositionTable.NO_MOVE;
+        
+        // 'iterationScores[d]' is the root score of the iteration of depth 
+        // 'd':
+        int[] iterationScores = new int[maximumDepth + 1];
+        
+        // The shallower iterations are cheap and fill the transposition 
+        // table with the best moves, i.e., the principal variation of the 
+        // previous iteration is searched first:
+        for (int iterationDepth = 1; 
+                iterationDepth <= maximumDepth; 
+                iterationDepth++) {
+            if (iterationDepth > 1 && control != null && control.isStopped()) {
+                break;
+            }
+            
+            // Never abort the first iteration so that there is always a move:
+            this.deadline = iterationDepth == 1 ? NO_DEADLINE : deadline;
+            this.searchControl = iterationDepth == 1 ? null : control;
+            int move = searchIteration(searcher, 
+                                       iterationDepth, 
+                                       bestMove,
+                                       iterationScores);
+            
+            if (aborted) {
+                break;
+            }
+            
+            bestMove = move;
+            rootScore = searcher.rootScore;
+            iterationScores[iterationDepth] = rootScore;
+            completedDepth = iterationDepth;
+            
+            if (control != null) {
+                control.reportBestMove(bestMove);
+            }
+            
+            if (deadline != NO_DEADLINE 
+                    && Math.abs(rootScore) > MAX_EVALUATION) {
+                // A forced win or loss is proven. Deeper iterations will not 
+                // change the outcome:
+                break;
+            }
+        }
+        
+        searchControl = null;
+        
+        for (ArrayDeque<Searcher> searchers : idleSearchers.values()) {
+            for (Searcher idleSearcher : searchers) {
+                searcher.addCounters(idleSearcher);
+            }
+        }
+        
+        nodeCount = searcher.nodeCount;
+        lastSearchStats = new SearchStats(completedDepth,
+                                          bestMove,
+                                          rootScore,
+                                          searcher.nodeCount,
+                                          searcher.leafEvaluationCount,
+                                          searcher.transpositionHitCount,
+                                          searcher.transpositionMissCount,
+                                          searcher.endgameHitCount,
+                                          searcher.endgameMissCount,
+                                          searcher.solvedNodeCount,
+                                          searcher.cutoffCounts,
+                                          System.nanoTime() - startTime);
+        
+        SearchListener listener = searchListener;
+        
+        if (listener != null) {
+            listener.searchCompleted(lastSearchStats);
+        }
+        
+        return bestMove;
+    }
+    
+    /**
+     * Runs a single iteration. The root is searched with an aspiration window
+     * around the score of the iteration two plies shallower, since the 
+     * evaluations of the leaf states tend to alternate with the parity of 
+     * the depth. If the score falls outside the window, the failing side of
+     * the window is widened, and the root is searched again. The window is
+     * not used in the first two iterations and after a win or a loss.
+     * 
+     * @param searcher the searcher holding the root state.
+     * @param depth the search depth.
+     * @param firstMove the best move of the previous iteration, or 
+     *                  {@link TranspositionTable#NO_MOVE}.
+     * @param iterationScores the root scores of the previous iterations 
+     *                        indexed by their depths.
+     * @return the best move.
+     */
+    private int searchIteration(Searcher searcher, 
+                                int depth, 
+                                int firstMove,
+                                int[] iterationScores) {
+        if (depth <= 2 
+                || Math.abs(iterationScores[depth - 2]) > MAX_EVALUATION) {
+            return searchRoot(searcher, depth, firstMove, -INFINITY, INFINITY);
+        }
+        
+        int expectedScore = iterationScores[depth - 2];
+        long delta = ASPIRATION_WINDOW;
+        int alpha = clamp(expectedScore - delta);
+        int beta = clamp(expectedScore + delta);
+        
+        while (true) {
+            int move = searchRoot(searcher, depth, firstMove, alpha, beta);
+            
+            if (aborted) {
+                return TranspositionTable.NO_MOVE;
+            }
+            
+            int score = searcher.rootScore;
+            delta *= 4;
+            
+            if (score <= alpha) {
+                alpha = clamp(score - delta);
+            } else if (score >= beta) {
+                // The root moves keep their order, so that the re-search 
+                // chooses among the moves of equal score as the search with 
+                // the full window does:
+                beta = clamp(score + delta);
+            } else {
+                return move;
+            }
+        }
+    }
+    
+    /**
+     * Searches the root state to a given depth, in the pool if there is one.
+     * 
+     * @param searcher the searcher holding the root state.
+     * @param depth the search depth.
+     * @param firstMove the move to search first, or 
+     *                  {@link TranspositionTable#NO_MOVE}.
+     * @param alpha the alpha value.
+     * @param beta the beta value.
+     * @return the best move.
+     */
+    private int searchRoot(Searcher searcher, 
+                           int depth, 
+                           int firstMove, 
+                           int alpha, 
+                           int beta) {
+        if (forkJoinPool == null) {
+            return searcher.searchRoot(depth, firstMove, alpha, beta);
+        }
+        
+        return forkJoinPool.invoke(
+                ForkJoinTask.adapt(() -> searcher.searchRoot(depth, 
+                                                             firstMove,
+                                                             alpha,
+                                                             beta)));
+    }
+    
+    /**
+     * Prepares the idle searchers for a new search, and drops the ones that
+     * do not fit it.
+     * 
+     * @param state the root state.
+     * @param maximumDepth the depth of the last iteration.
+     */
+    private void prepareIdleSearchers(ConnectFourState state, 
+                                      int maximumDepth) {
+        maximumSearchDepth = maximumDepth;
+        
+        for (ArrayDeque<Searcher> searchers : idleSearchers.values()) {
+            searchers.removeIf(searcher -> !searcher.fits(state, 
+                                                          maximumDepth));
+            
+            for (Searcher searcher : searchers) {
+                searcher.newSearch();
+            }
+        }
+    }
+    
+    /**
+     * Checks whether the younger brothers of a node of remaining depth 
+     * {@code depth} should be searched in parallel.
+     * 
+     * @param depth the remaining depth of the node.
+     * @return {@code true} only if the younger brothers are searched in 
+     *         parallel.
+     */
+    private boolean shouldSplit(int depth) {
+        return forkJoinPool != null && depth >= MINIMUM_SPLIT_DEPTH;
+    }
+    
+    /**
+     * This class implements the search over a single working state. The root
+     * of the search has a searcher of its own, whereas the tasks of the 
+     * parallel search take the idle searchers of the threads running them.
+     * The counters of a searcher cover all the tasks it runs during a search.
+     */
+    private final class Searcher {
+        
+        /**
+         * The board shape this searcher is created for.
+         */
+        private final int width;
+        private final int height;
+        private final int winningLength;
+        
+        /**
+         * The working state.
+         */
+        private ConnectFourState state;
+        
+        /**
+         * {@code moveGenerators[ply]} generates the moves of the node at 
+         * distance {@code ply} from the state of this searcher.
+         */
+        private final MoveGenerator[] moveGenerators;
+        
+        /**
+         * Orders the moves below the root, or is {@code null} if the move 
+         * heuristics are disabled. Kept across the iterations by the 
+         * searcher of the root, and cleared for each task.
+         */
+        private KillerHistoryMoveOrdering moveOrdering;
+        
+        /**
+         * Whether the column bitmasks of {@code state} are available for 
+         * detecting the immediate wins and the forced moves.
+         */
+        private final boolean detectingForcedMoves;
+        
+        /**
+         * Follows {@code state} if the evaluator function is incremental, and
+         * is {@code null} otherwise.
+         */
+        private IncrementalEvaluatorFunction.Tracker tracker;
+        
+        /**
+         * The nodes with at most this many empty cells are solved exactly, or
+         * none if zero.
+         */
+        private int solvingEmptyCells;
+        
+        /**
+         * Solves the nodes near the end of the game, or is {@code null} if 
+         * none has been solved yet.
+         */
+        private ConnectFourSolver solver;
+        
+        /**
+         * The distance of {@code state} from the root of the search, less 
+         * the number of the moves played on {@code state}. Adding the number
+         * of the played moves gives the ply of the current node.
+         */
+        private int plyOffset;
+        
+        /**
+         * The task running this searcher, or {@code null} for the searcher of
+         * the root.
+         */
+        private SearchTask task;
+        
+        /**
+         * Set once this searcher must return without completing its search,
+         * either because the search is aborted or because its task is 
+         * skipped. Updated once per {@link #DEADLINE_CHECK_MASK} nodes and 
+         * upon joining the tasks, so that the nodes read no shared state.
+         */
+        private boolean stopped;
+        
+        /**
+         * The number of nodes visited by this searcher during the current 
+         * search. Likewise for the other counters.
+         */
+        private long nodeCount;
+        private long leafEvaluationCount;
+        private long transpositionHitCount;
+        private long transpositionMissCount;
+        private long endgameHitCount;
+        private long endgameMissCount;
+        private long solvedNodeCount;
+        
+        /**
+         * {@code cutoffCounts[ply]} is the number of the beta cutoffs at the
+         * nodes at distance {@code ply} from the root of the search.
+         */
+        private final long[] cutoffCounts;
+        
+        /**
+         * The score of the root state found by the last call to 
+         * {@link #searchRoot(int, int, int, int)}.
+         */
+        private int rootScore;
+        
+        /**
+         * Constructs a searcher for the states of the board of the input 
+         * state, prepared for the current search.
+         * 
+         * @param state a state of the board searched.
+         * @param maximumDepth the depth of the last iteration.
+         */
+        Searcher(ConnectFourState state, int maximumDepth) {
+            this.width = state.getWidth();
+            this.height = state.getHeight();
+            this.winningLength = state.getWinningLength();
+            this.moveGenerators = new MoveGenerator[maximumDepth + 1];
+            this.cutoffCounts = new long[maximumDepth + 1];
+            
+            for (int i = 0; i < moveGenerators.length; i++) {
+                moveGenerators[i] = new MoveGenerator(width);
+            }
+
+            this.detectingForcedMoves = 
+                    width <= ConnectFourState.MAX_COLUMN_MASK_WIDTH;
+            newSearch();
+        }
+        
+        /**
+         * Clears the counters and the move heuristics, and applies the 
+         * current settings of the engine.
+         */
+        void newSearch() {
+            nodeCount = 0L;
+            leafEvaluationCount = 0L;
+            transpositionHitCount = 0L;
+            transpositionMissCount = 0L;
+            endgameHitCount = 0L;
+            endgameMissCount = 0L;
+            solvedNodeCount = 0L;
+            Arrays.fill(cutoffCounts, 0L);
+            
+            if (!usingMoveHeuristics) {
+                moveOrdering = null;
+            } else if (moveOrdering == null) {
+                moveOrdering = new KillerHistoryMoveOrdering(width, height);
+            } else {
+                moveOrdering.clear();
+            }
+            
+            solvingEmptyCells = 
+                    ConnectFourState.fitsInBitboard(width, height) ?
+                    ConnectFourGameEngine.this.solvingEmptyCells :
+                    0;
+        }
+        
+        /**
+         * Checks whether this searcher may search the states of a search.
+         * 
+         * @param state the root state of the search.
+         * @param maximumDepth the depth of the last iteration of the search.
+         * @return {@code true} only if this searcher fits the search.
+         */
+        boolean fits(ConnectFourState state, int maximumDepth) {
+            return state.getWidth() == width
+                && state.getHeight() == height
+                && state.getWinningLength() == winningLength
+                && maximumDepth < moveGenerators.length;
+        }
+        
+        /**
+         * Makes this searcher search another state.
+         * 
+         * @param state the working state, owned by this searcher until it
+         *              is done.
+         * @param plyOffset the distance of {@code state} from the root of 
+         *                  the search, less the number of the moves played
+         *                  on it.
+         * @param task the task running this searcher, or {@code null} for 
+         *             the searcher of the root.
+         */
+        void load(ConnectFourState state, int plyOffset, SearchTask task) {
+            this.state = state;
+            this.plyOffset = plyOffset;
+            this.task = task;
+            this.stopped = task != null && (aborted || task.isSkipped());
+            
+            // The killers and the history left by the unrelated tasks this
+            // searcher ran before, or copied from the forking searcher, 
+            // order the moves of a task worse than none at all:
+            if (task != null && moveOrdering != null) {
+                moveOrdering.clear();
+            }
+            
+            if (evaluatorFunction instanceof IncrementalEvaluatorFunction) {
+                if (tracker == null) {
+                    tracker = ((IncrementalEvaluatorFunction) evaluatorFunction)
+                              .createTracker(state);
+                } else {
+                    tracker.reset(state);
+                }
+            }
+        }
+        
+        /**
+         * Adds the counters of another searcher of the same search to the 
+         * counters of this searcher.
+         * 
+         * @param searcher the other searcher.
+         */
+        void addCounters(Searcher searcher) {
+            nodeCount += searcher.nodeCount;
+            leafEvaluationCount += searcher.leafEvaluationCount;
+            transpositionHitCount += searcher.transpositionHitCount;
+            transpositionMissCount += searcher.transpositionMissCount;
+            endgameHitCount += searcher.endgameHitCount;
+            endgameMissCount += searcher.endgameMissCount;
+            solvedNodeCount += searcher.solvedNodeCount;
+            
+            // The deeper plies of a searcher of a deeper search than this one
+            // have no cutoffs:
+            int length = Math.min(cutoffCounts.length, 
+                                  searcher.cutoffCounts.length);
+            
+            for (int i = 0; i < length; i++) {
+                cutoffCounts[i] += searcher.cutoffCounts[i];
+            }
+        }
+        
+        /**
+         * Searches the root state to a given depth and stores its score in 
+         * {@code rootScore}. If the score is not within the window, it is 
+         * only a bound, and the returned move is not necessarily the best.
+         * 
+         * @param depth the search depth.
+         * @param firstMove the move to search first, or 
+         *                  {@link TranspositionTable#NO_MOVE}.
+         * @param alpha the alpha value.
+         * @param beta the beta value.
+         * @return the best move.
+         */
+        int searchRoot(int depth, int firstMove, int alpha, int beta) {
+            MoveGenerator moveGenerator = moveGenerators[0];
+            // The root moves keep the fixed order, so that the choice among 
+            // the moves of equal score does not depend on the heuristics:
+            moveGenerator.reset(state, firstMove, MoveOrdering.CENTER_FIRST);
+            
+            if (!moveGenerator.hasNext()) {
+                throw new IllegalStateException(
+                        "There are no moves available in the input state.");
+            }
+            
+            int bestMove = moveGenerator.nextMove();
+            int bestScore = searchMove(bestMove, depth, alpha, beta);
+            alpha = Math.max(alpha, bestScore);
+            
+            if (alpha < beta && moveGenerator.hasNext() && shouldSplit(depth)) {
+                // The younger brothers return their exact scores whenever 
+                // they beat the eldest one within the window:
+                int[] moveList = new int[moveGenerator.getMoveCount()];
+                SearchTask[] tasks = forkYoungerBrothers(moveGenerator,
+                                                         moveList,
+                                                         depth,
+                                                         alpha,
+                                                         beta);
+                
+                for (int i = 0; i < tasks.length; i++) {
+                    int score = joinTask(tasks[i]);
+                    
+                    if (score > bestScore) {
+                        bestScore = score;
+                        bestMove = moveList[i];
+                    }
+                    
+                    if (bestScore >= beta) {
+                        skipTasks(tasks, i + 1);
+                        break;
+                    }
+                }
+            } else {
+                while (alpha < beta && moveGenerator.hasNext()) {
+                    int move = moveGenerator.nextMove();
+                    int score = searchPrincipalVariation(move, 
+                                                         depth, 
+                                                         alpha, 
+                                                         beta);
+                    
+                    if (score > bestScore) {
+                        bestScore = score;
+                        bestMove = move;
+                        alpha = Math.max(alpha, score);
+                    }
+                }
+            }
+            
+            if (aborted) {
+                return TranspositionTable.NO_MOVE;
+            }
+            
+            rootScore = bestScore;
+            return bestMove;
+        }
+        
+        /**
+         * Implements the actual search.
+         * 
+         * @param depth the remaining search depth.
+         * @param alpha the alpha value.
+         * @param beta the beta value.
+         * @return the score of the state relative to the player to move.
+         */
+        int negamax(int depth, int alpha, int beta) {
+            if ((++nodeCount & DEADLINE_CHECK_MASK) == 0L) {
+                poll();
+            }
+            
+            if (stopped) {
+                return 0;
+            }
+            
+            if (state.lastMoveWon()) {
+                // The player to move has lost. Prefer the quicker wins and the 
+                // slower losses:
+                return -WIN_SCORE - depth;
+            }
+            
+            if (endgameDatabase != null && endgameDatabase.covers(state)) {
+                int score = endgameDatabase.probe(state);
+                
+                if (score != EndgameDatabase.NO_SCORE) {
+                    endgameHitCount++;
+                    return toSearchScore(state, score, depth);
+                }
+                
+                endgameMissCount++;
+            }
+            
+            int emptyCells = state.getWidth() * state.getHeight() 
+                           - state.getNumberOfTokens();
+            
+            if (emptyCells <= solvingEmptyCells && emptyCells > 0) {
+                if (solver == null) {
+                    solver = new ConnectFourSolver(
+                            new TranspositionTable(
+                                    SOLVER_TABLE_CAPACITY,
+                                    TranspositionTable.ReplacementPolicy
+                                            .ALWAYS_REPLACE));
+                }
+                
+                solvedNodeCount++;
+                return toSearchScore(state, solver.solve(state), depth);
+            }
+            
+            if (depth == 0 || state.isFull()) {
+                leafEvaluationCount++;
+                return evaluate(tracker != null ? 
+                                tracker.evaluate() :
+                                evaluatorFunction.evaluate(state),
+                                state.getPlayerColor());
+            }
+            
+            int columns = ALL_COLUMNS;
+            
+            if (detectingForcedMoves) {
+                if (state.getWinningColumns() != 0) {
+                    // No move scores better than winning right away:
+                    return WIN_SCORE + depth - 1;
+                }
+                
+                if (depth >= 2) {
+                    // Below this depth, the losing moves are not recognized
+                    // as such, so they may not be skipped:
+                    columns = state.getNonLosingColumns();
+                    
+                    if (columns == 0) {
+                        // Every move lets the opponent win right away, 
+                        // possibly because of a double threat:
+                        return -WIN_SCORE - (depth - 2);
+                    }
+                }
+            }
+            
+            long key = state.getZobristKey();
+            long entry = transpositionTable.probe(key);
+            int hashMove = TranspositionTable.NO_MOVE;
+            
+            if (entry == 0L) {
+                transpositionMissCount++;
+            } else {
+                transpositionHitCount++;
+                hashMove = TranspositionTable.getMove(entry);
+                
+                // The current search stores a position only at the depth it
+                // is required at or shallower, so that the cutoffs below 
+                // never make the result differ from a plain Alpha-beta 
+                // search:
+                if (transpositionTable.isCurrent(entry) 
+                        && TranspositionTable.getDepth(entry) >= depth) {
+                    int score = TranspositionTable.getScore(entry);
+                    
+                    switch (TranspositionTable.getBound(entry)) {
+                        case TranspositionTable.EXACT:
+                            return score;
+                            
+                        case TranspositionTable.LOWER_BOUND:
+                            alpha = Math.max(alpha, score);
+                            break;
+                            
+                        case TranspositionTable.UPPER_BOUND:
+                            beta = Math.min(beta, score);
+                            break;
+                    }
+                    
+                    if (alpha >= beta) {
+                        return score;
+                    }
+                }
+            }
+            
+            int originalAlpha = alpha;
+            MoveGenerator moveGenerator = 
+                    moveGenerators[state.getNumberOfPlayedMoves()];
+            moveGenerator.reset(state, 
+                                hashMove, 
+                                moveOrdering != null ? 
+                                        moveOrdering : 
+                                        MoveOrdering.CENTER_FIRST,
+                                columns);
+            int bestMove = moveGenerator.nextMove();
+            int value = searchMove(bestMove, depth, alpha, beta);
+            alpha = Math.max(alpha, value);
+            
+            if (alpha < beta && moveGenerator.hasNext() && shouldSplit(depth)) {
+                // Young Brothers Wait: the eldest brother did not cause a 
+                // cutoff, search the younger ones in parallel:
+                int[] moveList = new int[moveGenerator.getMoveCount()];
+                SearchTask[] tasks = forkYoungerBrothers(moveGenerator,
+                                                         moveList,
+                                                         depth,
+                                                         alpha,
+                                                         beta);
+                
+                for (int i = 0; i < tasks.length; i++) {
+                    int score = joinTask(tasks[i]);
+                    
+                    if (score > value) {
+                        value = score;
+                        bestMove = moveList[i];
+                    }
+                    
+                    if (value >= beta) {
+                        skipTasks(tasks, i + 1);
+                        break;
+                    }
+                }
+            } else {
+                while (alpha < beta && moveGenerator.hasNext()) {
+                    int move = moveGenerator.nextMove();
+                    int score = searchPrincipalVariation(move, 
+                                                         depth, 
+                                                         alpha, 
+                                                         beta);
+                    
+                    if (score > value) {
+                        value = score;
+                        bestMove = move;
+                        alpha = Math.max(alpha, value);
+                    }
+                }
+            }
+            
+            if (stopped) {
+                // Keep the incomplete results out of the transposition table:
+                return 0;
+            }
+            
+            int bound;
+            
+            if (value <= originalAlpha) {
+                bound = TranspositionTable.UPPER_BOUND;
+            } else if (value >= beta) {
+                bound = TranspositionTable.LOWER_BOUND;
+                cutoffCounts[plyOffset + state.getNumberOfPlayedMoves()]++;
+                
+                if (moveOrdering != null) {
+                    moveOrdering.recordCutoff(state, bestMove, depth);
+                }
+            } else {
+                bound = TranspositionTable.EXACT;
+            }
+            
+            transpositionTable.store(key, depth, bound, value, bestMove);
+            return value;
+        }
+        
+        /**
+         * Plays a move, searches the resulting state and reverts the move.
+         * 
+         * @param x the column of the move.
+         * @param depth the remaining depth of the current state.
+         * @param alpha the alpha value.
+         * @param beta the beta value.
+         * @return the score of the move relative to the player to move.
+         */
+        private int searchMove(int x, int depth, int alpha, int beta) {
+            state.play(x);
+            
+            if (tracker == null) {
+                int score = -negamax(depth - 1, -beta, -alpha);
+                state.undo();
+                return score;
+            }
+            
+            int y = state.getTopRow(x);
+            PlayerColor playerColor = state.getPlayerColor();
+            tracker.play(x, y, playerColor);
+            int score = -negamax(depth - 1, -beta, -alpha);
+            tracker.undo(x, y, playerColor);
+            state.undo();
+            return score;
+        }
+        
+        /**
+         * Searches a move that is not the first one of its node. The move is 
+         * first searched with a null window proving that it is not better 
+         * than {@code alpha}, and is searched with the full window only if 
+         * the proof fails.
+         * 
+         * @param x the column of the move.
+         * @param depth the remaining depth of the current state.
+         * @param alpha the alpha value.
+         * @param beta the beta value.
+         * @return the score of the move relative to the player to move.
+         */
+        private int searchPrincipalVariation(int x, 
+                                             int depth, 
+                                             int alpha, 
+                                             int beta) {
+            int score = searchMove(x, depth, alpha, alpha + 1);
+            
+            if (score > alpha && score < beta && !stopped) {
+                score = searchMove(x, depth, alpha, beta);
+            }
+            
+            return score;
+        }
+        
+        /**
+         * Forks the tasks searching the remaining moves of a generator.
+         * 
+         * @param moveGenerator the generator of the moves.
+         * @param moveList the list receiving the forked moves.
+         * @param depth the remaining depth of the current state.
+         * @param alpha the alpha value.
+         * @param beta the beta value.
+         * @return the forked tasks. The task of {@code moveList[i]} is at 
+         *         index {@code i}.
+         */
+        private SearchTask[] forkYoungerBrothers(MoveGenerator moveGenerator,
+                                                 int[] moveList,
+                                                 int depth,
+                                                 int alpha,
+                                                 int beta) {
+            int taskCount = 0;
+            
+            while (moveGenerator.hasNext()) {
+                moveList[taskCount++] = moveGenerator.nextMove();
+            }
+            
+            SearchTask[] tasks = new SearchTask[taskCount];
+            
+            for (int i = 0; i < taskCount; i++) {
+                ConnectFourState childState = state.copy();
+                childState.play(moveList[i]);
+                tasks[i] = new SearchTask(
+                        childState, 
+                        depth - 1, 
+                        -beta, 
+                        -alpha,
+                        plyOffset + state.getNumberOfPlayedMoves(),
+                        task);
+                tasks[i].fork();
+            }
+            
+            return tasks;
+        }
+        
+        /**
+         * Joins a task. A task stopped before completing its search stops 
+         * this searcher as well, since the task stops only if the search is 
+         * aborted or if a task containing this searcher's task is skipped.
+         * 
+         * @param task the task to join.
+         * @return the score of the move searched by the task, relative to the
+         *         player to move.
+         */
+        private int joinTask(SearchTask task) {
+            int score = -task.join();
+            
+            if (task.stopped) {
+                stopped = true;
+            }
+            
+            return score;
+        }
+        
+        /**
+         * Skips the tasks of the younger brothers that are no longer needed
+         * since a brother failed high, and waits for them. The skipped tasks
+         * return as soon as they notice.
+         * 
+         * @param tasks the forked tasks.
+         * @param fromIndex the index of the first task to skip.
+         */
+        private void skipTasks(SearchTask[] tasks, int fromIndex) {
+            for (int i = fromIndex; i < tasks.length; i++) {
+                tasks[i].skip();
+            }
+            
+            for (int i = fromIndex; i < tasks.length; i++) {
+                tasks[i].join();
+            }
+        }
+        
+        /**
+         * Consults the clock and the search control, aborting the search if 
+         * it is out of time or stopped, and stops this searcher if the search
+         * is aborted or its task is skipped.
+         */
+        private void poll() {
+            if (System.nanoTime() >= deadline || isStopped()) {
+                aborted = true;
+            }
+            
+            stopped = aborted || (task != null && task.isSkipped());
+        }
+    }
+    
+    /**
+     * This class implements a task searching a state in the pool.
+     */
+    private final class SearchTask extends RecursiveTask<Integer> {
+        
+        private static final long serialVersionUID = 1L;
+        
+        private final ConnectFourState state;
+        private final int depth;
+        private final int alpha;
+        private final int beta;
+        private final int plyOffset;
+        
+        /**
+         * The task whose searcher forked this task, or {@code null} if the
+         * searcher of the root did.
+         */
+        private final SearchTask parent;
+        
+        /**
+         * Whether the result of this task is no longer needed.
+         */
+        private volatile boolean skipped;
+        
+        /**
+         * Whether the searcher of this task stopped before completing its 
+         * search. Valid after joining.
+         */
+        private boolean stopped;
+        
+        SearchTask(ConnectFourState state, 
+                   int depth, 
+                   int alpha, 
+                   int beta, 
+                   int plyOffset,
+                   SearchTask parent) {
+            this.state = state;
+            this.depth = depth;
+            this.alpha = alpha;
+            this.beta = beta;
+            this.plyOffset = plyOffset;
+            this.parent = parent;
+        }
+        
+        @Override
+        protected Integer compute() {
+            ArrayDeque<Searcher> searchers = 
+                    idleSearchers.computeIfAbsent(Thread.currentThread(),
+                                                  thread -> new ArrayDeque<>());
+            Searcher searcher = searchers.poll();
+            
+            if (searcher == null) {
+                searcher = new Searcher(state, maximumSearchDepth);
+            }
+            
+            searcher.load(state, plyOffset, this);
+            
+            try {
+                int score = searcher.negamax(depth, alpha, beta);
+                stopped = searcher.stopped;
+                return score;
+            } finally {
+                searchers.push(searcher);
+            }
+        }
+        
+        /**
+         * Marks the result of this task as no longer needed, so that this 
+         * task and the tasks it has forked return early.
+         */
+        void skip() {
+            skipped = true;
+        }
+        
+        /**
+         * Checks whether this task or a task containing it is skipped.
+         * 
+         * @return {@code true} only if the result of this task is no longer 
+         *         needed.
+         */
+        boolean isSkipped() {
+            for (SearchTask t = this; t != null; t = t.parent) {
+                if (t.skipped) {
+                    return true;
+                }
+            }
+            
+            return false;
+        }
+    }
+    
+    /**
+     * Checks whether the control of the current iteration, if any, has 
+     * stopped the search.
+     * 
+     * @return {@code true} only if the search must stop.
+     */
+    private boolean isStopped() {
+        SearchControl control = searchControl;
+        return control != null && control.isStopped();
+    }
+    
+    /**
+     * Converts an exact score of the solver scale into the scale of the 
+     * search.
+     * 
+     * @param state the scored state.
+     * @param score the score as returned by 
+     *              {@link ConnectFourSolver#solve(ConnectFourState)}.
+     * @param depth the remaining search depth.
+     * @return the score of the state relative to the player to move.
+     */
+    private static int toSearchScore(ConnectFourState state, 
+                                     int score, 
+                                     int depth) {
+        if (score == 0) {
+            return 0;
+        }
+        
+        // The game ends this many plies below the node, where the loser 
+        // would score '-WIN_SCORE - (depth - distance)':
+        int distance = ConnectFourSolver.getDistance(state, score);
+        int winScore = WIN_SCORE + depth - distance;
+        return score > 0 ? winScore : -winScore;
+    }
+    
+    /**
+     * Clamps the output of the evaluator function into the range of the 
+     * non-terminal scores.
+     * 
+     * @param value the output of the evaluator function.
+     * @param ownerPlayer the owner of the evaluated state.
+     * @return the score of the state relative to the player to move.
+     */
+    private static int evaluate(double value, PlayerColor ownerPlayer) {
+        int score;
+        
+        if (value >= MAX_EVALUATION) {
+            score = MAX_EVALUATION;
+        } else if (value <= -MAX_EVALUATION) {
+            score = -MAX_EVALUATION;
+        } else {
+            score = (int) value;
+        }
+        
+        // The evaluator function scores from the point of view of the 
+        // maximizing player:
+        return ownerPlayer == PlayerColor.MINIMIZING_PLAYER ? 
+               score :
+               -score;
+    }
+    
+    /**
+     * Computes the order of the columns, the central columns first.
+     * 
+     * @param width the number of columns.
+     * @return the column order.
+     */
+    static int[] computeColumnOrder(int width) {
+        int[] columnOrder = new int[width];
+        
+        for (int i = 0; i < width; i++) {
+            // 'i = 0, 1, 2, 3, ...' map to the offsets '0, -1, 1, -2, ...' 
+            // from the center:
+            int offset = (i + 1) / 2;
+            columnOrder[i] = width / 2 + (i % 2 == 1 ? -offset : offset);
+        }
+        
+        return columnOrder;
+    }
+    
+    /**
+     * Clamps a bound of an aspiration window into the range of the scores.
+     * 
+     * @param bound the bound.
+     * @return the clamped bound.
+     */
+    private static int clamp(long bound) {
+        return (int) Math.max(-INFINITY, Math.min(INFINITY, bound));
+    }
+    
+    private static int checkDepth(int depth) {
+        if (depth < 1) {
+            throw new IllegalArgumentException("depth = " + depth);
+        }
+        
+        return depth;
+    }
+}
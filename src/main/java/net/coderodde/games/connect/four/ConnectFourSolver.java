@@ -0,0 +1,482 @@
+package net.coderodde.games.connect.four;
+
+import java.util.Objects;
+
+/**
+ * This class implements a perfect-play Connect Four solver in the style of
+ * Pascal Pons' solver. The solver searches the bitboards directly, never
+ * plays a move that lets the opponent win right away, narrows the score
+ * window via null-window searches, and caches the score bounds in a
+ * {@link TranspositionTable}.
+ * 
+ * <p>The scores are relative to the player to move: a positive score means
+ * that the player to move wins, a negative score means that the player to
+ * move loses, and zero means a draw. The absolute value of a decisive score
+ * is the number of the winner's tokens left unplayed when the game ends,
+ * plus one, so that the sooner wins score higher.
+ * {@link #getDistance(ConnectFourState, int)} converts a score to the number
+ * of plies until the end of the game.
+ * 
+ * <p>The solver supports all the boards that fit in a bitboard. A solver is
+ * not thread-safe.
+ * 
+ * @author Rodion "rodde" Efremov
+ * @version 1.6 (Oct 17, 2026)
+ */
+public final class ConnectFourSolver {
+    
+    /**
+     * The transposition table. The entries are game-theoretic bounds, which
+     * remain valid across the searches.
+     */
+    private final TranspositionTable transpositionTable;
+    
+    private int width;
+    private int height;
+    private int winningLength;
+    private int numberOfCells;
+    private long bottomRow;
+    private long boardMask;
+    
+    /**
+     * {@code columnMasks[i]} is the column mask of {@code columnOrder[i]}.
+     */
+    private long[] columnMasks = new long[0];
+    
+    /**
+     * {@code sortedMoves[m]} and {@code sortedScores[m]} hold the moves of
+     * the node with {@code m} tokens, in decreasing order of their scores.
+     */
+    private long[][] sortedMoves = new long[0][];
+    private int[][] sortedScores = new int[0][];
+    
+    /**
+     * The number of nodes visited during the last solve.
+     */
+    private long nodeCount;
+    
+    /**
+     * Constructs this solver.
+     * 
+     * @param transpositionTable the transposition table. Must not be shared
+     *                           with the heuristic search engines.
+     */
+    public ConnectFourSolver(TranspositionTable transpositionTable) {
+        this.transpositionTable =
+                Objects.requireNonNull(transpositionTable,
+                                       "The transposition table is null.");
+    }
+    
+    /**
+     * Constructs this solver with a default transposition table.
+     */
+    public ConnectFourSolver() {
+        this(new TranspositionTable(
+                TranspositionTable.DEFAULT_CAPACITY,
+                TranspositionTable.ReplacementPolicy.ALWAYS_REPLACE));
+    }
+    
+    /**
+     * Computes the exact score of the input state.
+     * 
+     * @param state the state to solve. Must not be terminal.
+     * @return the score relative to the player to move.
+     */
+    public int solve(ConnectFourState state) {
+        checkState(state);
+        nodeCount = 0L;
+        long position = state.getPosition();
+        long mask = state.getMask();
+        int moves = Long.bitCount(mask);
+        
+        if (canWinNext(position, mask)) {
+            return (numberOfCells + 1 - moves) / 2;
+        }
+        
+        int min = -(numberOfCells - moves) / 2;
+        int max = (numberOfCells + 1 - moves) / 2;
+        
+        // Null-window searches converging on the score. The probes are
+        // biased towards zero, where they are cheapest:
+        while (min < max) {
+            int median = min + (max - min) / 2;
+            
+            if (median <= 0 && min / 2 < median) {
+                median = min / 2;
+            } else if (median >= 0 && max / 2 > median) {
+                median = max / 2;
+            }
+            
+            int score = negamax(position, mask, moves, median, median + 1);
+            
+            if (score <= median) {
+                max = score;
+            } else {
+                min = score;
+            }
+        }
+        
+        return min;
+    }
+    
+    /**
+     * Computes the best move in the input state. Among the moves of equal
+     * score, the one closest to the center is chosen.
+     * 
+     * @param state the current state. Must not be terminal.
+     * @return the column of the best move.
+     */
+    public int findBestMove(ConnectFourState state) {
+        return findBestMove(state, solve(state));
+    }
+    
+    /**
+     * Computes the best move in the input state whose score is already
+     * known, sparing the search for the score. Among the moves of equal
+     * score, the one closest to the center is chosen.
+     * 
+     * @param state the current state. Must not be terminal.
+     * @param score the score of the state as returned by
+     *              {@link #solve(ConnectFourState)}.
+     * @return the column of the best move.
+     */
+    public int findBestMove(ConnectFourState state, int score) {
+        checkState(state);
+        long position = state.getPosition();
+        long mask = state.getMask();
+        int moves = Long.bitCount(mask);
+        long winning = possibleMoves(mask) & winningCells(position, mask);
+        long next = possibleNonLosingMoves(position, mask);
+        int[] columnOrder = ConnectFourGameEngine.computeColumnOrder(width);
+        
+        for (int x : columnOrder) {
+            long move = ConnectFourState.columnMask(x, height);
+            
+            if (winning != 0L) {
+                if ((winning & move) != 0L) {
+                    return x;
+                }
+                
+                continue;
+            }
+            
+            move &= next;
+            
+            if (move == 0L) {
+                continue;
+            }
+            
+            if (moves + 1 == numberOfCells) {
+                return x;
+            }
+            
+            // A null-window search proves whether the move attains the score
+            // of the state:
+            int childScore = -negamax(position ^ mask,
+                                      mask | move,
+                                      moves + 1,
+                                      -score,
+                                      -score + 1);
+            
+            if (childScore >= score) {
+                return x;
+            }
+        }
+        
+        // Every move lets the opponent win right away:
+        for (int x : columnOrder) {
+            if (!state.columnIsFull(x)) {
+                return x;
+            }
+        }
+        
+        throw new IllegalStateException("We should not get here. Ever.");
+    }
+    
+    /**
+     * Converts a score of a state to the number of plies until the end of
+     * the game under perfect play, the last move included.
+     * 
+     * @param state the solved state.
+     * @param score the score of {@code state}.
+     * @return the number of plies until the win or the loss of the player to
+     *         move, or the number of plies until the board is full if
+     *         {@code score} is zero.
+     */
+    public static int getDistance(ConnectFourState state, int score) {
+        int cells = state.getWidth() * state.getHeight();
+        int moves = state.getNumberOfTokens();
+        
+        if (score > 0) {
+            // The player to move wins with its k-th move from now:
+            int k = (cells + 1 - moves) / 2 - score + 1;
+            return 2 * k - 1;
+        }
+        
+        if (score < 0) {
+            // The opponent wins with its k-th move from now:
+            int k = (cells - moves) / 2 + score + 1;
+            return 2 * k;
+        }
+        
+        return cells - moves;
+    }
+    
+    /**
+     * Returns the number of nodes visited during the last call to
+     * {@link #solve(ConnectFourState)} or
+     * {@link #findBestMove(ConnectFourState)}. The nodes visited by
+     * {@link #findBestMove(ConnectFourState, int)} add to the count.
+     * 
+     * @return the number of visited nodes.
+     */
+    public long getNodeCount() {
+        return nodeCount;
+    }
+    
+    /**
+     * Implements the actual search. The player to move must not be able to
+     * win with the next move.
+     * 
+     * @param position the stones of the player to move.
+     * @param mask the occupied cells.
+     * @param moves the number of tokens on the board.
+     * @param alpha the alpha value.
+     * @param beta the beta value.
+     * @return the score of the position relative to the player to move.
+     */
+    private int negamax(long position,
+                        long mask,
+                        int moves,
+                        int alpha,
+                        int beta) {
+        nodeCount++;
+        long next = possibleNonLosingMoves(position, mask);
+        
+        if (next == 0L) {
+            // Every move lets the opponent win right away:
+            return -(numberOfCells - moves) / 2;
+        }
+        
+        if (moves >= numberOfCells - 2) {
+            // Neither player can win with the last two tokens:
+            return 0;
+        }
+        
+        // The opponent cannot win with its next move:
+        int min = -(numberOfCells - 2 - moves) / 2;
+        
+        if (alpha < min) {
+            alpha = min;
+            
+            if (alpha >= beta) {
+                return alpha;
+            }
+        }
+        
+        // The player to move cannot win with the next move:
+        int max = (numberOfCells - 1 - moves) / 2;
+        long key = scramble(position + mask);
+        long entry = transpositionTable.probe(key);
+        
+        if (entry != 0L) {
+            int score = TranspositionTable.getScore(entry);
+            
+            if (TranspositionTable.getBound(entry)
+                    == TranspositionTable.LOWER_BOUND) {
+                if (alpha < score) {
+                    alpha = score;
+                    
+                    if (alpha >= beta) {
+                        return alpha;
+                    }
+                }
+            } else if (max > score) {
+                max = score;
+            }
+        }
+        
+        if (beta > max) {
+            beta = max;
+            
+            if (alpha >= beta) {
+                return beta;
+            }
+        }
+        
+        long[] moveList = sortedMoves[moves];
+        int[] scoreList = sortedScores[moves];
+        int moveCount = 0;
+        
+        for (long columnMask : columnMasks) {
+            long move = next & columnMask;
+            
+            if (move != 0L) {
+                moveCount = addMove(moveList,
+                                    scoreList,
+                                    moveCount,
+                                    move,
+                                    moveScore(position, mask, move));
+            }
+        }
+        
+        for (int i = 0; i < moveCount; i++) {
+            long move = moveList[i];
+            int score = -negamax(position ^ mask,
+                                 mask | move,
+                                 moves + 1,
+                                 -beta,
+                                 -alpha);
+            
+            if (score >= beta) {
+                transpositionTable.store(key,
+                                         0,
+                                         TranspositionTable.LOWER_BOUND,
+                                         score,
+                                         TranspositionTable.NO_MOVE);
+                return score;
+            }
+            
+            if (score > alpha) {
+                alpha = score;
+            }
+        }
+        
+        transpositionTable.store(key,
+                                 0,
+                                 TranspositionTable.UPPER_BOUND,
+                                 alpha,
+                                 TranspositionTable.NO_MOVE);
+        return alpha;
+    }
+    
+    /**
+     * Scrambles a position key via the SplitMix64 finalizer. The table picks
+     * the slot from the low bits of the key, which in the raw key encode only
+     * the leftmost columns, so that the positions differing in the other 
+     * columns only would all compete for a single slot. The finalizer is a
+     * bijection, so the scrambled keys still identify the positions.
+     * 
+     * @param key the raw position key.
+     * @return the scrambled key.
+     */
+    private static long scramble(long key) {
+        long z = key;
+        z = (z ^ (z >>> 30)) * 0xBF58476D1CE4E5B9L;
+        z = (z ^ (z >>> 27)) * 0x94D049BB133111EBL;
+        return z ^ (z >>> 31);
+    }
+    
+    /**
+     * Inserts a move into the list sorted in decreasing order of the scores.
+     * A move goes after the moves of equal score, which keeps the center
+     * columns first.
+     * 
+     * @return the new number of moves in the list.
+     */
+    private static int addMove(long[] moveList,
+                               int[] scoreList,
+                               int moveCount,
+                               long move,
+                               int score) {
+        int i = moveCount;
+        
+        while (i > 0 && scoreList[i - 1] < score) {
+            moveList[i] = moveList[i - 1];
+            scoreList[i] = scoreList[i - 1];
+            i--;
+        }
+        
+        moveList[i] = move;
+        scoreList[i] = score;
+        return moveCount + 1;
+    }
+    
+    /**
+     * Scores a move by the number of the winning cells it creates.
+     */
+    private int moveScore(long position, long mask, long move) {
+        return Long.bitCount(winningCells(position | move, mask | move));
+    }
+    
+    private long possibleMoves(long mask) {
+        return (mask + bottomRow) & boardMask;
+    }
+    
+    private boolean canWinNext(long position, long mask) {
+        return (winningCells(position, mask) & possibleMoves(mask)) != 0L;
+    }
+    
+    /**
+     * Returns the moves that do not let the opponent win with its next move.
+     * If the opponent has two immediate threats, returns zero.
+     */
+    private long possibleNonLosingMoves(long position, long mask) {
+        long possible = possibleMoves(mask);
+        long opponentWinning = winningCells(position ^ mask, mask);
+        long forced = possible & opponentWinning;
+        
+        if (forced != 0L) {
+            if ((forced & (forced - 1)) != 0L) {
+                return 0L;
+            }
+            
+            possible = forced;
+        }
+        
+        // Do not play right below a winning cell of the opponent:
+        return possible & ~(opponentWinning >>> 1);
+    }
+    
+    private long winningCells(long stones, long mask) {
+        return ConnectFourState.winningCells(stones,
+                                             mask,
+                                             boardMask,
+                                             winningLength,
+                                             height);
+    }
+    
+    /**
+     * Checks the input state and adapts this solver to its dimensions.
+     */
+    private void checkState(ConnectFourState state) {
+        Objects.requireNonNull(state, "The input state is null.");
+        
+        if (!ConnectFourState.fitsInBitboard(state.getWidth(),
+                                             state.getHeight())) {
+            throw new IllegalArgumentException(
+                    "The board does not fit in a bitboard.");
+        }
+        
+        if (state.checkVictory() != null) {
+            throw new IllegalArgumentException("The input state is terminal.");
+        }
+        
+        if (state.isFull()) {
+            throw new IllegalArgumentException("The input state is full.");
+        }
+        
+        if (state.getWidth() != width
+                || state.getHeight() != height
+                || state.getWinningLength() != winningLength) {
+            width = state.getWidth();
+            height = state.getHeight();
+            winningLength = state.getWinningLength();
+            numberOfCells = width * height;
+            bottomRow = ConnectFourState.bottomRowMask(width, height);
+            boardMask = ConnectFourState.boardMask(width, height);
+            sortedMoves = new long[numberOfCells][width];
+            sortedScores = new int[numberOfCells][width];
+            int[] columnOrder = ConnectFourGameEngine.computeColumnOrder(width);
+            columnMasks = new long[width];
+            
+            for (int i = 0; i < width; i++) {
+                columnMasks[i] =
+                        ConnectFourState.columnMask(columnOrder[i], height);
+            }
+            
+            // The stored bounds depend on the board dimensions:
+            transpositionTable.clear();
+        }
+    }
+}
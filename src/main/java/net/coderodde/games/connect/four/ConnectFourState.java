@@ -1,12 +1,19 @@
 package net.coderodde.games.connect.four;
 
+import java.io.IOException;
+import java.io.UncheckedIOException;
 import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Iterator;
 import java.util.List;
 import java.util.Objects;
 import net.coderodde.zerosum.ai.State;
 
 /**
- * This class implements the Connect Four game state.
+ * This class implements the Connect Four game state. The board is stored in a
+ * 64-bit bitboard if it fits there, as the standard 7 x 6 board does, and in
+ * a 128-bit bitboard (see {@link WideBitboard}) if it fits there, as the 
+ * 9 x 9 board does. The larger boards are stored in a matrix.
  * 
  * @author Rodion "rodde" Efremov
  * @version 1.6 (May 24, 2019)
@@ -27,16 +34,105 @@ public class ConnectFourState implements State<ConnectFourState> {
      * The default length of the winning line.
      */
     public static final int DEFAULT_WINNING_LENGTH = 4;
-     
+    
+    /**
+     * The maximum width of the boards supported by 
+     * {@link #getWinningColumns()} and {@link #getNonLosingColumns()}.
+     */
+    public static final int MAX_COLUMN_MASK_WIDTH = Integer.SIZE;
+    
+    /**
+     * The maximum number of bits a bitboard may use. Each column occupies 
+     * {@code height + 1} bits: {@code height} cells and one sentinel bit on 
+     * top of them.
+     */
+    static final int MAX_BITBOARD_BITS = Long.SIZE;
+    
+    /**
+     * The Zobrist key toggled by each move, so that the states differing only
+     * in their owner hash differently.
+     */
+    private static final long SIDE_KEY = 0x6A09E667F3BCC909L;
+    
+    /**
+     * Caches the lower bars for printing the states to the console/command 
+     * line, indexed by the width of the board. Filled on demand; a race only
+     * builds a bar twice.
+     */
+    private static final String[] LOWER_BARS = 
+            new String[MAX_COLUMN_MASK_WIDTH + 1];
+    
     /**
-     * Caches the lower bar for printing the state to the console/command line.
+     * The buffer of {@link #toString()}, reused by each thread.
      */
-    private final String lowerBar;
+    private static final ThreadLocal<StringBuilder> RENDERING_BUFFER = 
+            ThreadLocal.withInitial(StringBuilder::new);
     
     /**
-     * The board state.
+     * The number of columns.
      */
-    private PlayerColor[][] state;
+    private final int width;
+    
+    /**
+     * The number of rows.
+     */
+    private final int height;
+    
+    /**
+     * The bitboard of the stones of the player to move, i.e., the player 
+     * opposite to {@code playerColor}. The board is stored column-major: 
+     * column {@code x} occupies the bits 
+     * {@code x * (height + 1), ..., x * (height + 1) + height}, the lowest bit 
+     * of a column being the bottom cell, and the highest bit being the 
+     * sentinel bit that is never set. Not used when {@code state} is not 
+     * {@code null}. On the wide boards, holds the low word of the bitboard.
+     */
+    private long position;
+    
+    /**
+     * The high word of {@code position} on the wide boards, zero otherwise.
+     */
+    private long positionHigh;
+    
+    /**
+     * The bitboard of all the occupied cells. Uses the same layout as 
+     * {@code position}.
+     */
+    private long mask;
+    
+    /**
+     * The high word of {@code mask} on the wide boards, zero otherwise.
+     */
+    private long maskHigh;
+    
+    /**
+     * The bitboard containing only the cell of the token dropped by the move
+     * leading to this state, or zero if that move is not known.
+     */
+    private long lastMove;
+    
+    /**
+     * The high word of {@code lastMove} on the wide boards, zero otherwise.
+     */
+    private long lastMoveHigh;
+    
+    /**
+     * The Zobrist hash of this state. Maintained incrementally by all the 
+     * methods changing the board.
+     */
+    private long zobristKey;
+    
+    /**
+     * Whether the board is stored in a 128-bit bitboard, the words of which 
+     * are {@code position} and {@code positionHigh}, and so on.
+     */
+    private final boolean wide;
+    
+    /**
+     * The board state. Used only for the boards that do not fit in a 
+     * 128-bit bitboard, and is {@code null} otherwise.
+     */
+    private final PlayerColor[][] state;
     
     /**
      * The length of a horizontal/vertical/diagonal line leading to victory.
@@ -44,14 +140,35 @@ public class ConnectFourState implements State<ConnectFourState> {
     private final int winningLength;
     
     /**
-     * The list of children.
+     * The list of children. Cached only if {@code cachingChildren} is set.
      */
     private List<ConnectFourState> children;
     
+    /**
+     * Whether {@link #children()} caches its result. Inherited by the 
+     * children.
+     */
+    private boolean cachingChildren = true;
+    
     /**
      * The player owning this state.
      */
-    private final PlayerColor playerColor;
+    private PlayerColor playerColor;
+    
+    /**
+     * The stack of the moves made via {@link #play(int)}. For the 64-bit 
+     * bitboards, each entry is the bitboard of the dropped token. For the 
+     * 128-bit bitboards, each entry is the bit index of the dropped token. 
+     * Otherwise, each entry is the index {@code y * width + x} of the dropped
+     * token. Allocated upon 
+     * the first call to {@link #play(int)}.
+     */
+    private long[] moveStack;
+    
+    /**
+     * The number of moves in {@code moveStack}.
+     */
+    private int moveStackSize;
     
     /**
      * Constructs an empty game board with given dimensions.
@@ -64,10 +181,17 @@ public class ConnectFourState implements State<ConnectFourState> {
                             int height, 
                             int winningLength,
                             PlayerColor ownerPlayer) {
-        this.state = new PlayerColor[checkHeight(height)]
-                                    [checkWidth(width)];
+        this.width = checkWidth(width);
+        this.height = checkHeight(height);
+        this.wide = !fitsInBitboard(width, height) 
+                  && fitsInWideBitboard(width, height);
+        this.state = fitsInWideBitboard(width, height) ? 
+                     null :
+                     new PlayerColor[height][width];
+        
         this.winningLength = checkWinningLength(winningLength);
         this.playerColor = Objects.requireNonNull(ownerPlayer, "The owner is null.");
+        this.zobristKey = sideKey(ownerPlayer);
         
         if (winningLength > Math.max(width, height)) {
             throw new IllegalArgumentException(
@@ -75,8 +199,6 @@ public class ConnectFourState implements State<ConnectFourState> {
                     "in order to accommodate the winning pattern.");
         }
         
-        this.lowerBar = createLowerBar(width);
-        
     }
     
     /**
@@ -93,33 +215,137 @@ public class ConnectFourState implements State<ConnectFourState> {
     /**
      * Constructs a game board with given state.
      * 
-     * @param state the state of the newly constructed game board.
+     * @param width the number of columns.
+     * @param height the number of rows.
+     * @param position the bitboard of the stones of the player to move.
+     * @param positionHigh the high word of {@code position}.
+     * @param mask the bitboard of the occupied cells.
+     * @param maskHigh the high word of {@code mask}.
+     * @param lastMove the bitboard of the last dropped token.
+     * @param lastMoveHigh the high word of {@code lastMove}.
+     * @param zobristKey the Zobrist hash of the state.
+     * @param state the state of the newly constructed game board, or 
+     *              {@code null} if the board is represented by bitboards.
+     * @param winningLength the length of the winning patterns.
+     * @param playerColor the owner of this state.
      */
-    private ConnectFourState(PlayerColor[][] state, 
+    private ConnectFourState(int width,
+                             int height,
+                             long position,
+                             long positionHigh,
+                             long mask,
+                             long maskHigh,
+                             long lastMove,
+                             long lastMoveHigh,
+                             long zobristKey,
+                             PlayerColor[][] state, 
                              int winningLength,
                              PlayerColor playerColor) {
+        this.width = width;
+        this.height = height;
+        this.position = position;
+        this.positionHigh = positionHigh;
+        this.mask = mask;
+        this.maskHigh = maskHigh;
+        this.lastMove = lastMove;
+        this.lastMoveHigh = lastMoveHigh;
+        this.zobristKey = zobristKey;
+        this.wide = state == null && !fitsInBitboard(width, height);
         this.state = state;
         this.winningLength = winningLength;
         this.playerColor = playerColor;
-        this.lowerBar = createLowerBar(state[0].length);
     }
-
+    
+    /**
+     * Returns the children of this state, from the leftmost column to the 
+     * rightmost. Unless disabled via {@link #setCachingChildren(boolean)}, 
+     * the list is built once and kept for the lifetime of this state. The 
+     * searches that may cut off should prefer {@link #childIterator()}.
+     * 
+     * @return the list of the children.
+     */
     @Override
     public List<ConnectFourState> children() {
-        if (children == null) {
-            children = new ArrayList<>(getWidth());
-            
-            for (int x = 0; x < getWidth(); x++) {
-                if (!columnIsFull(x)) {
-                    ConnectFourState child = move(x);
-                    children.add(child);
-                }
+        if (children != null) {
+            return children;
+        }
+        
+        List<ConnectFourState> childList = new ArrayList<>(getWidth());
+        
+        for (int x = 0; x < getWidth(); x++) {
+            if (!columnIsFull(x)) {
+                childList.add(createChild(x));
             }
         }
         
-        return children;
+        if (cachingChildren) {
+            children = childList;
+        }
+        
+        return childList;
     }
-
+    
+    /**
+     * Returns a lazy iterator over the children of this state. Each child is
+     * constructed only when requested, and nothing is cached.
+     * 
+     * @param ordering the order of the children.
+     * @return the iterator over the children.
+     */
+    public Iterator<ConnectFourState> childIterator(MoveOrdering ordering) {
+        MoveGenerator moveGenerator = new MoveGenerator(width);
+        moveGenerator.reset(this, MoveGenerator.NO_MOVE, ordering);
+        
+        return new Iterator<ConnectFourState>() {
+            
+            @Override
+            public boolean hasNext() {
+                return moveGenerator.hasNext();
+            }
+            
+            @Override
+            public ConnectFourState next() {
+                return createChild(moveGenerator.nextMove());
+            }
+        };
+    }
+    
+    /**
+     * Returns a lazy iterator over the children of this state in the 
+     * center-first order.
+     * 
+     * @return the iterator over the children.
+     */
+    public Iterator<ConnectFourState> childIterator() {
+        return childIterator(MoveOrdering.CENTER_FIRST);
+    }
+    
+    /**
+     * Enables or disables caching the result of {@link #children()}. 
+     * Disabling drops the current cache. The setting is inherited by the 
+     * children created afterwards via {@link #children()} and 
+     * {@link #childIterator()}, so that disabling the caching at the root 
+     * lets a search release the game tree as it goes.
+     * 
+     * @param cachingChildren whether to cache the children.
+     */
+    public void setCachingChildren(boolean cachingChildren) {
+        this.cachingChildren = cachingChildren;
+        
+        if (!cachingChildren) {
+            children = null;
+        }
+    }
+    
+    /**
+     * Checks whether {@link #children()} caches its result.
+     * 
+     * @return {@code true} only if the children are cached.
+     */
+    public boolean isCachingChildren() {
+        return cachingChildren;
+    }
+    
     @Override
     public boolean isTerminal() {
         return checkVictory() != null;
@@ -131,19 +357,487 @@ public class ConnectFourState implements State<ConnectFourState> {
      * @return {@code true} only if the column is full.
      */
     public boolean columnIsFull(int x) {
-        return state[0][x] != null;
+        if (state != null) {
+            return state[0][x] != null;
+        }
+        
+        if (wide) {
+            return WideBitboard.testBit(mask, 
+                                        maskHigh, 
+                                        cellIndex(x, 0, height));
+        }
+        
+        return (mask & topMask(x, height)) != 0L;
+    }
+    
+    /**
+     * Returns the row of the topmost token in a column. Right after
+     * {@code play(x)}, this is the row of the dropped token.
+     * 
+     * @param x the coordinate of the column.
+     * @return the row of the topmost token in the column {@code x}, or
+     *         {@code getHeight()} if the column is empty.
+     */
+    public int getTopRow(int x) {
+        if (state != null) {
+            for (int y = 0; y < height; y++) {
+                if (state[y][x] != null) {
+                    return y;
+                }
+            }
+            
+            return height;
+        }
+        
+        long column = wide ? 
+                      WideBitboard.column(mask, maskHigh, x, height) :
+                      (mask >>> (x * (height + 1))) & ((1L << height) - 1);
+        return height - (Long.SIZE - Long.numberOfLeadingZeros(column));
     }
     
     /**
      * Marks a particular board position with the given player color. Used for 
-     * debugging.
+     * debugging. Clears the move stack.
      * 
      * @param x the {@code x}-coordinate.
      * @param y the {@code y}-coordinate. 
      * @param playerColor the player color to mark.
      */
     public void write(int x, int y, PlayerColor playerColor) {
-        state[y][x] = playerColor;
+        children = null;
+        moveStackSize = 0;
+        
+        PlayerColor previousPlayerColor = readCell(x, y);
+        
+        if (previousPlayerColor != null) {
+            zobristKey ^= zobristKey(cellIndex(x, y, height), 
+                                     previousPlayerColor);
+        }
+        
+        if (playerColor != null) {
+            zobristKey ^= zobristKey(cellIndex(x, y, height), playerColor);
+        }
+        
+        if (state != null) {
+            state[y][x] = playerColor;
+            return;
+        }
+        
+        lastMove = 0L;
+        lastMoveHigh = 0L;
+        
+        if (wide) {
+            int index = cellIndex(x, y, height);
+            long cell = WideBitboard.lowBit(index);
+            long cellHigh = WideBitboard.highBit(index);
+            
+            if (playerColor == null) {
+                mask &= ~cell;
+                maskHigh &= ~cellHigh;
+                position &= ~cell;
+                positionHigh &= ~cellHigh;
+            } else {
+                mask |= cell;
+                maskHigh |= cellHigh;
+                
+                if (playerColor == this.playerColor) {
+                    position &= ~cell;
+                    positionHigh &= ~cellHigh;
+                } else {
+                    position |= cell;
+                    positionHigh |= cellHigh;
+                }
+            }
+            
+            return;
+        }
+        
+        long cell = cellMask(x, y, height);
+        
+        if (playerColor == null) {
+            mask &= ~cell;
+            position &= ~cell;
+        } else {
+            mask |= cell;
+            
+            if (playerColor == this.playerColor) {
+                position &= ~cell;
+            } else {
+                position |= cell;
+            }
+        }
+    }
+    
+    /**
+     * Drops a token of the player to move to the column {@code x} in place. 
+     * Unlike {@link #move(int)}, does not create new objects, which makes it 
+     * suitable for the make/unmake style of game tree search. The move may be
+     * reverted via {@link #undo()}.
+     * 
+     * @param x the target column.
+     */
+    public void play(int x) {
+        if (columnIsFull(x)) {
+            throw new IllegalStateException(
+                    "Trying to put a token to a full column.");
+        }
+        
+        if (moveStack == null) {
+            moveStack = new long[width * height];
+        }
+        
+        children = null;
+        PlayerColor nextPlayerColor = opposite(playerColor);
+        
+        if (wide) {
+            int index = cellIndex(x, getTopRow(x) - 1, height);
+            position ^= mask;
+            positionHigh ^= maskHigh;
+            lastMove = WideBitboard.lowBit(index);
+            lastMoveHigh = WideBitboard.highBit(index);
+            mask |= lastMove;
+            maskHigh |= lastMoveHigh;
+            moveStack[moveStackSize++] = index;
+            zobristKey ^= zobristKey(index, nextPlayerColor);
+        } else if (state == null) {
+            long move = (mask + bottomMask(x, height)) & ~mask;
+            position ^= mask;
+            mask |= move;
+            lastMove = move;
+            moveStack[moveStackSize++] = move;
+            zobristKey ^= zobristKey(Long.numberOfTrailingZeros(move),
+                                     nextPlayerColor);
+        } else {
+            for (int y = height - 1; y >= 0; y--) {
+                if (state[y][x] == null) {
+                    state[y][x] = nextPlayerColor;
+                    moveStack[moveStackSize++] = y * width + x;
+                    zobristKey ^= zobristKey(cellIndex(x, y, height),
+                                             nextPlayerColor);
+                    break;
+                }
+            }
+        }
+        
+        zobristKey ^= SIDE_KEY;
+        playerColor = nextPlayerColor;
+    }
+    
+    /**
+     * Reverts the last move made via {@link #play(int)}.
+     */
+    public void undo() {
+        if (moveStackSize == 0) {
+            throw new IllegalStateException("There is no move to undo.");
+        }
+        
+        children = null;
+        long move = moveStack[--moveStackSize];
+        
+        if (wide) {
+            int index = (int) move;
+            mask &= ~WideBitboard.lowBit(index);
+            maskHigh &= ~WideBitboard.highBit(index);
+            position ^= mask;
+            positionHigh ^= maskHigh;
+            
+            if (moveStackSize > 0) {
+                int lastIndex = (int) moveStack[moveStackSize - 1];
+                lastMove = WideBitboard.lowBit(lastIndex);
+                lastMoveHigh = WideBitboard.highBit(lastIndex);
+            } else {
+                lastMove = 0L;
+                lastMoveHigh = 0L;
+            }
+            
+            zobristKey ^= zobristKey(index, playerColor);
+        } else if (state == null) {
+            mask ^= move;
+            position ^= mask;
+            lastMove = moveStackSize > 0 ? moveStack[moveStackSize - 1] : 0L;
+            zobristKey ^= zobristKey(Long.numberOfTrailingZeros(move), 
+                                     playerColor);
+        } else {
+            int x = (int)(move % width);
+            int y = (int)(move / width);
+            state[y][x] = null;
+            zobristKey ^= zobristKey(cellIndex(x, y, height), playerColor);
+        }
+        
+        zobristKey ^= SIDE_KEY;
+        playerColor = opposite(playerColor);
+    }
+    
+    /**
+     * Returns the bitboard of the stones of the player to move. Meaningful 
+     * only for the boards that fit in a 64-bit bitboard.
+     * 
+     * @return the position bitboard.
+     */
+    long getPosition() {
+        return position;
+    }
+    
+    /**
+     * Returns the bitboard of the occupied cells. Meaningful only for the 
+     * boards that fit in a 64-bit bitboard.
+     * 
+     * @return the mask bitboard.
+     */
+    long getMask() {
+        return mask;
+    }
+    
+    /**
+     * Checks whether this board is stored in bitboards, which is the case 
+     * for the boards having at most 128 bits, i.e., 
+     * {@code (height + 1) * width <= 128}.
+     * 
+     * @return {@code true} only if {@link #getTokens(PlayerColor)} and 
+     *         {@link #getTokensHigh(PlayerColor)} are supported.
+     */
+    public boolean hasBitboards() {
+        return state == null;
+    }
+    
+    /**
+     * Returns the low word of the bitboard of the tokens of a player, i.e., 
+     * the bits {@code 0, ..., 63}. The cell {@code (x, y)} is the bit 
+     * {@link #getBitIndex(int, int, int)} of the bitboard.
+     * 
+     * @param playerColor the player.
+     * @return the low word of the bitboard of the tokens of the player.
+     * @throws IllegalStateException if this board is not stored in 
+     *         bitboards.
+     * @see #hasBitboards()
+     */
+    public long getTokens(PlayerColor playerColor) {
+        checkBitboards();
+        return playerColor == this.playerColor ? position ^ mask : position;
+    }
+    
+    /**
+     * Returns the high word of the bitboard of the tokens of a player, i.e.,
+     * the bits {@code 64, ..., 127}. Always zero on the boards having at 
+     * most 64 bits.
+     * 
+     * @param playerColor the player.
+     * @return the high word of the bitboard of the tokens of the player.
+     * @throws IllegalStateException if this board is not stored in 
+     *         bitboards.
+     * @see #hasBitboards()
+     */
+    public long getTokensHigh(PlayerColor playerColor) {
+        checkBitboards();
+        return playerColor == this.playerColor ? 
+               positionHigh ^ maskHigh : 
+               positionHigh;
+    }
+    
+    /**
+     * Returns the number of moves that may be reverted via {@link #undo()}.
+     * 
+     * @return the number of moves made via {@link #play(int)}.
+     */
+    public int getNumberOfPlayedMoves() {
+        return moveStackSize;
+    }
+    
+    /**
+     * Returns the player owning this state, i.e., the player that made the 
+     * last move.
+     * 
+     * @return the owner of this state.
+     */
+    public PlayerColor getPlayerColor() {
+        return playerColor;
+    }
+    
+    /**
+     * Returns the Zobrist hash of this state. Two states with the same tokens
+     * and the same owner have the same hash regardless of the order of the 
+     * moves leading to them. The hash is maintained incrementally, so this 
+     * method runs in constant time.
+     * 
+     * @return the Zobrist hash of this state.
+     */
+    public long getZobristKey() {
+        return zobristKey;
+    }
+    
+    /**
+     * Returns the compact key of this state. For the boards that fit in a 
+     * 64-bit bitboard, the key is the sum of the stones of the player to move and 
+     * the occupied cells, which adds a one bit above the topmost token of 
+     * each column. Hence the key identifies the tokens uniquely, the only 
+     * exception being the empty boards of the different owners. For the 
+     * larger boards, the key is the Zobrist hash of this state.
+     * 
+     * @return the key of this state.
+     */
+    public long getKey() {
+        return state == null && !wide ? position + mask : zobristKey;
+    }
+    
+    /**
+     * Returns the key shared by this state and its mirror image. Connect Four
+     * is symmetric under mirroring the columns, so the caches may store only
+     * one of the two states.
+     * 
+     * @return the smaller of the keys of this state and its mirror image.
+     * @see #getKey()
+     * @see #mirror()
+     */
+    public long getCanonicalKey() {
+        return Math.min(getKey(), getMirroredKey());
+    }
+    
+    /**
+     * Checks whether {@link #getKey()} is the canonical key. If not, the 
+     * columns of the canonical state are the mirror images of the columns of
+     * this state.
+     * 
+     * @return {@code true} only if the key of this state is canonical.
+     */
+    public boolean isCanonical() {
+        return getKey() <= getMirroredKey();
+    }
+    
+    /**
+     * Returns the mirror image of this state, i.e., the state with the 
+     * columns in the reverse order. The move stack is not copied.
+     * 
+     * @return the mirrored state.
+     */
+    public ConnectFourState mirror() {
+        if (wide) {
+            return new ConnectFourState(
+                    width,
+                    height,
+                    WideBitboard.mirror(position, 
+                                        positionHigh,
+                                        width,
+                                        height,
+                                        false),
+                    WideBitboard.mirror(position, 
+                                        positionHigh,
+                                        width,
+                                        height,
+                                        true),
+                    WideBitboard.mirror(mask, maskHigh, width, height, false),
+                    WideBitboard.mirror(mask, maskHigh, width, height, true),
+                    WideBitboard.mirror(lastMove, 
+                                        lastMoveHigh, 
+                                        width, 
+                                        height, 
+                                        false),
+                    WideBitboard.mirror(lastMove, 
+                                        lastMoveHigh, 
+                                        width, 
+                                        height, 
+                                        true),
+                    computeMirroredZobristKey(),
+                    null,
+                    winningLength,
+                    playerColor);
+        }
+        
+        if (state == null) {
+            long mirroredPosition = mirror(position, width, height);
+            long mirroredMask = mirror(mask, width, height);
+            long mirroredLastMove = mirror(lastMove, width, height);
+            return new ConnectFourState(width,
+                                        height,
+                                        mirroredPosition,
+                                        0L,
+                                        mirroredMask,
+                                        0L,
+                                        mirroredLastMove,
+                                        0L,
+                                        computeMirroredZobristKey(),
+                                        null,
+                                        winningLength,
+                                        playerColor);
+        }
+        
+        PlayerColor[][] mirroredState = new PlayerColor[height][width];
+        
+        for (int y = 0; y < height; y++) {
+            for (int x = 0; x < width; x++) {
+                mirroredState[y][width - 1 - x] = state[y][x];
+            }
+        }
+        
+        return new ConnectFourState(width,
+                                    height,
+                                    0L,
+                                    0L,
+                                    0L,
+                                    0L,
+                                    0L,
+                                    0L,
+                                    computeMirroredZobristKey(),
+                                    mirroredState,
+                                    winningLength,
+                                    playerColor);
+    }
+    
+    @Override
+    public boolean equals(Object o) {
+        if (o == this) {
+            return true;
+        }
+        
+        if (o == null || !getClass().equals(o.getClass())) {
+            return false;
+        }
+        
+        ConnectFourState other = (ConnectFourState) o;
+        
+        if (width != other.width
+                || height != other.height
+                || winningLength != other.winningLength
+                || playerColor != other.playerColor
+                || getKey() != other.getKey()) {
+            return false;
+        }
+        
+        // The Zobrist keys of the large boards may collide:
+        if (wide) {
+            return position == other.position
+                && positionHigh == other.positionHigh
+                && mask == other.mask
+                && maskHigh == other.maskHigh;
+        }
+        
+        return state == null || Arrays.deepEquals(state, other.state);
+    }
+    
+    @Override
+    public int hashCode() {
+        return Long.hashCode(getKey() * 0x9E3779B97F4A7C15L) 
+                ^ playerColor.ordinal();
+    }
+    
+    /**
+     * Returns an independent copy of this state. The move stack is not 
+     * copied.
+     * 
+     * @return a copy of this state.
+     */
+    public ConnectFourState copy() {
+        return new ConnectFourState(width, 
+                                    height,
+                                    position,
+                                    positionHigh,
+                                    mask,
+                                    maskHigh,
+                                    lastMove,
+                                    lastMoveHigh,
+                                    zobristKey,
+                                    state == null ? null : cloneState(),
+                                    winningLength,
+                                    playerColor);
     }
     
     /**
@@ -158,16 +852,69 @@ public class ConnectFourState implements State<ConnectFourState> {
                     "Trying to put a token to a full column.");
         }
         
+        PlayerColor nextPlayerColor = opposite(playerColor);
+        
+        if (wide) {
+            int index = cellIndex(x, getTopRow(x) - 1, height);
+            long move = WideBitboard.lowBit(index);
+            long moveHigh = WideBitboard.highBit(index);
+            return new ConnectFourState(width,
+                                        height,
+                                        position ^ mask,
+                                        positionHigh ^ maskHigh,
+                                        mask | move,
+                                        maskHigh | moveHigh,
+                                        move,
+                                        moveHigh,
+                                        zobristKey ^ SIDE_KEY ^ zobristKey(
+                                                index, 
+                                                nextPlayerColor),
+                                        null,
+                                        winningLength,
+                                        nextPlayerColor);
+        }
+        
+        if (state == null) {
+            // Adding the bottom bit of the column carries over to the lowest
+            // empty cell of that column:
+            long move = (mask + bottomMask(x, height)) & ~mask;
+            
+            // The stones of the player to move become the stones of the owner
+            // of the next state:
+            return new ConnectFourState(width,
+                                        height,
+                                        position ^ mask,
+                                        0L,
+                                        mask | move,
+                                        0L,
+                                        move,
+                                        0L,
+                                        zobristKey ^ SIDE_KEY ^ zobristKey(
+                                                Long.numberOfTrailingZeros(
+                                                        move), 
+                                                nextPlayerColor),
+                                        null,
+                                        winningLength,
+                                        nextPlayerColor);
+        }
+        
         PlayerColor[][] cloneState = cloneState();
-        PlayerColor nextPlayerColor =
-                playerColor == PlayerColor.MAXIMIZING_PLAYER ? 
-                PlayerColor.MINIMIZING_PLAYER : 
-                PlayerColor.MAXIMIZING_PLAYER;
         
         for (int y = cloneState.length - 1; y >= 0; y--) {
             if (cloneState[y][x] == null) {
                 cloneState[y][x] = nextPlayerColor;
                 return new ConnectFourState(
+                        width,
+                        height,
+                        0L,
+                        0L,
+                        0L,
+                        0L,
+                        0L,
+                        0L,
+                        zobristKey ^ SIDE_KEY ^ zobristKey(
+                                cellIndex(x, y, height), 
+                                nextPlayerColor),
                         cloneState, 
                         winningLength,
                         nextPlayerColor);
@@ -185,48 +932,478 @@ public class ConnectFourState implements State<ConnectFourState> {
      * @return the player or {@code null} if no players have won yet.
      */
     public PlayerColor checkVictory() {
+        if (wide) {
+            boolean maximizingOwner = 
+                    playerColor == PlayerColor.MAXIMIZING_PLAYER;
+            long maximizingStones = maximizingOwner ? position ^ mask :
+                                                      position;
+            long maximizingStonesHigh = maximizingOwner ? 
+                                        positionHigh ^ maskHigh :
+                                        positionHigh;
+            
+            if (WideBitboard.hasAlignment(maximizingStones,
+                                          maximizingStonesHigh,
+                                          winningLength,
+                                          height)) {
+                return PlayerColor.MAXIMIZING_PLAYER;
+            }
+            
+            if (WideBitboard.hasAlignment(maximizingStones ^ mask,
+                                          maximizingStonesHigh ^ maskHigh,
+                                          winningLength,
+                                          height)) {
+                return PlayerColor.MINIMIZING_PLAYER;
+            }
+            
+            return null;
+        }
+        
+        if (state == null) {
+            long ownerStones = position ^ mask;
+            long maximizingStones = 
+                    playerColor == PlayerColor.MAXIMIZING_PLAYER ?
+                    ownerStones : 
+                    position;
+            
+            if (hasAlignment(maximizingStones, winningLength, height)) {
+                return PlayerColor.MAXIMIZING_PLAYER;
+            }
+            
+            if (hasAlignment(maximizingStones ^ mask, winningLength, height)) {
+                return PlayerColor.MINIMIZING_PLAYER;
+            }
+            
+            return null;
+        }
+        
         if (checkVictory(PlayerColor.MAXIMIZING_PLAYER)) {
             return PlayerColor.MAXIMIZING_PLAYER;
         }
         
-        if (checkVictory(PlayerColor.MINIMIZING_PLAYER)) {
-            return PlayerColor.MINIMIZING_PLAYER;
+        if (checkVictory(PlayerColor.MINIMIZING_PLAYER)) {
+            return PlayerColor.MINIMIZING_PLAYER;
+        }
+        
+        return null;
+    }
+    
+    /**
+     * Checks whether the token dropped by the move leading to this state 
+     * completed a winning line. Only the lines passing through the dropped 
+     * token are inspected. If the last move is not known (this state was not
+     * produced by {@link #move(int)} or was modified via 
+     * {@link #write(int, int, PlayerColor)}), checks whether the owner of this
+     * state has a winning line anywhere on the board.
+     * 
+     * @return {@code true} only if the owner of this state has won.
+     */
+    public boolean lastMoveWon() {
+        if (state != null) {
+            return checkVictory(playerColor);
+        }
+        
+        if (wide) {
+            long ownerStones = position ^ mask;
+            long ownerStonesHigh = positionHigh ^ maskHigh;
+            
+            if ((lastMove | lastMoveHigh) == 0L) {
+                return WideBitboard.hasAlignment(ownerStones,
+                                                 ownerStonesHigh,
+                                                 winningLength,
+                                                 height);
+            }
+            
+            return WideBitboard.hasAlignmentThrough(
+                    ownerStones,
+                    ownerStonesHigh,
+                    WideBitboard.lowestBit(lastMove, lastMoveHigh),
+                    winningLength,
+                    height);
+        }
+        
+        long ownerStones = position ^ mask;
+        
+        if (lastMove == 0L) {
+            return hasAlignment(ownerStones, winningLength, height);
+        }
+        
+        return hasAlignmentThrough(ownerStones,
+                                   lastMove, 
+                                   winningLength,
+                                   height);
+    }
+    
+    /**
+     * Checks whether dropping a token to the column {@code x} wins the game 
+     * for the player to move.
+     * 
+     * @param x the target column.
+     * @return {@code true} only if the move to column {@code x} is winning.
+     */
+    public boolean isWinningMove(int x) {
+        if (columnIsFull(x)) {
+            throw new IllegalStateException(
+                    "Trying to put a token to a full column.");
+        }
+        
+        if (state != null) {
+            return move(x).lastMoveWon();
+        }
+        
+        if (wide) {
+            int index = cellIndex(x, getTopRow(x) - 1, height);
+            return WideBitboard.hasAlignmentThrough(
+                    position | WideBitboard.lowBit(index),
+                    positionHigh | WideBitboard.highBit(index),
+                    index,
+                    winningLength,
+                    height);
+        }
+        
+        long move = (mask + bottomMask(x, height)) & ~mask;
+        return hasAlignmentThrough(position | move, 
+                                   move, 
+                                   winningLength, 
+                                   height);
+    }
+    
+    /**
+     * Returns the columns in which the player to move wins right away. For 
+     * the boards that fit in a 64-bit bitboard, runs in a constant number of
+     * bitboard operations per column.
+     * 
+     * @return the bitmask having the bit {@code x} set only if dropping a 
+     *         token to the column {@code x} wins the game.
+     * @throws IllegalStateException if the board has more than 
+     *         {@value #MAX_COLUMN_MASK_WIDTH} columns.
+     */
+    public int getWinningColumns() {
+        if (state == null && !wide) {
+            long boardMask = boardMask(width, height);
+            long playable = (mask + bottomRowMask(width, height)) & boardMask;
+            return toColumns(playable & winningCells(position, 
+                                                     mask, 
+                                                     boardMask, 
+                                                     winningLength, 
+                                                     height));
+        }
+        
+        checkColumnMaskWidth();
+        PlayerColor playerToMove = opposite(playerColor);
+        int columns = 0;
+        
+        for (int x = 0; x < width; x++) {
+            if (!columnIsFull(x) 
+                    && completesLine(x, getTopRow(x) - 1, playerToMove)) {
+                columns |= 1 << x;
+            }
+        }
+        
+        return columns;
+    }
+    
+    /**
+     * Returns the columns in which the player to move may drop a token 
+     * without letting the opponent win with its next move. If the opponent 
+     * threatens to win in a column, only that column is returned, unless the
+     * opponent would win right above it. If the opponent threatens to win in
+     * two columns, no column is returned. The wins of the player to move are
+     * not accounted for; see {@link #getWinningColumns()}. For the boards 
+     * that fit in a 64-bit bitboard, runs in a constant number of bitboard
+     * operations per column.
+     * 
+     * @return the bitmask having the bit {@code x} set only if dropping a 
+     *         token to the column {@code x} does not lose right away.
+     * @throws IllegalStateException if the board has more than 
+     *         {@value #MAX_COLUMN_MASK_WIDTH} columns.
+     */
+    public int getNonLosingColumns() {
+        if (state == null && !wide) {
+            long boardMask = boardMask(width, height);
+            long playable = (mask + bottomRowMask(width, height)) & boardMask;
+            long opponentWinning = winningCells(position ^ mask,
+                                                mask,
+                                                boardMask,
+                                                winningLength,
+                                                height);
+            long forced = playable & opponentWinning;
+            
+            if (forced != 0L) {
+                if ((forced & (forced - 1)) != 0L) {
+                    // A double threat:
+                    return 0;
+                }
+                
+                playable = forced;
+            }
+            
+            // Do not play right below a winning cell of the opponent:
+            return toColumns(playable & ~(opponentWinning >>> 1));
+        }
+        
+        checkColumnMaskWidth();
+        int playable = 0;
+        int forced = 0;
+        
+        for (int x = 0; x < width; x++) {
+            if (columnIsFull(x)) {
+                continue;
+            }
+            
+            int y = getTopRow(x) - 1;
+            
+            if (completesLine(x, y, playerColor)) {
+                if (forced != 0) {
+                    return 0;
+                }
+                
+                forced = 1 << x;
+            }
+            
+            if (y == 0 || !completesLine(x, y - 1, playerColor)) {
+                playable |= 1 << x;
+            }
+        }
+        
+        return forced != 0 ? playable & forced : playable;
+    }
+    
+    /**
+     * Returns the number of tokens on the board.
+     * 
+     * @return the number of tokens.
+     */
+    public int getNumberOfTokens() {
+        if (state == null) {
+            return Long.bitCount(mask) + Long.bitCount(maskHigh);
+        }
+        
+        int tokens = 0;
+        
+        for (PlayerColor[] row : state) {
+            for (PlayerColor cell : row) {
+                if (cell != null) {
+                    tokens++;
+                }
+            }
+        }
+        
+        return tokens;
+    }
+    
+    public boolean isFull() {
+        for (int x = 0; x < width; x++) {
+            if (!columnIsFull(x)) {
+                return false;
+            }
+        }
+        
+        return true;
+    }
+    
+    @Override
+    public String toString() {
+        StringBuilder stringBuilder = RENDERING_BUFFER.get();
+        stringBuilder.setLength(0);
+        
+        try {
+            appendTo(stringBuilder);
+        } catch (IOException ex) {
+            // Never thrown by StringBuilder:
+            throw new UncheckedIOException(ex);
+        }
+        
+        return stringBuilder.toString();
+    }
+    
+    /**
+     * Renders this state as a grid, the way {@link #toString()} does, 
+     * without creating intermediate strings.
+     * 
+     * @param <A> the type of the output.
+     * @param appendable the output.
+     * @return {@code appendable}.
+     * @throws IOException if the output fails.
+     * @see #parseGrid(CharSequence, int, PlayerColor)
+     */
+    public <A extends Appendable> A appendTo(A appendable) throws IOException {
+        for (int y = 0; y < height; y++) {
+            appendable.append('|');
+            
+            for (int x = 0; x < width; x++) {
+                appendable.append(playerToChar(readCell(x, y))).append('|');
+            }
+            
+            appendable.append('\n');
+        }
+        
+        appendable.append(lowerBar(width));
+        return appendable;
+    }
+    
+    /**
+     * Parses a state of the default board from a move string, each 
+     * character being a column in {@code 1, ..., 9}, as in 
+     * {@code "4453"}. The maximizing player moves first.
+     * 
+     * @param moves the move string.
+     * @return the state after the moves.
+     * @throws IllegalArgumentException if a move is not a column or is made
+     *                                  to a full column.
+     */
+    public static ConnectFourState parseMoves(CharSequence moves) {
+        return parseMoves(moves, 
+                          DEFAULT_WIDTH, 
+                          DEFAULT_HEIGHT, 
+                          DEFAULT_WINNING_LENGTH,
+                          PlayerColor.MINIMIZING_PLAYER);
+    }
+    
+    /**
+     * Parses a state from a move string, each character being a column in 
+     * {@code 1, ..., min(width, 9)}.
+     * 
+     * @param moves the move string.
+     * @param width the number of columns.
+     * @param height the number of rows.
+     * @param winningLength the length of the winning patterns.
+     * @param ownerPlayer the owner of the initial empty board.
+     * @return the state after the moves.
+     * @throws IllegalArgumentException if a move is not a column or is made
+     *                                  to a full column.
+     */
+    public static ConnectFourState parseMoves(CharSequence moves,
+                                              int width,
+                                              int height,
+                                              int winningLength,
+                                              PlayerColor ownerPlayer) {
+        ConnectFourState state = new ConnectFourState(width,
+                                                      height,
+                                                      winningLength,
+                                                      ownerPlayer);
+        
+        for (int i = 0; i < moves.length(); i++) {
+            int x = moves.charAt(i) - '1';
+            
+            if (x < 0 || x >= Math.min(width, 9) || state.columnIsFull(x)) {
+                throw new IllegalArgumentException(
+                        "Invalid move '" + moves.charAt(i) + 
+                        "' at index " + i + ".");
+            }
+            
+            state.play(x);
+        }
+        
+        return state.copy();
+    }
+    
+    /**
+     * Parses a state from its grid as rendered by {@link #toString()}. The 
+     * owner of the parsed state is derived from the numbers of the tokens.
+     * The parsed state has no move history, so that {@link #lastMoveWon()}
+     * checks the whole board for a winning line of the owner, and returns
+     * {@code true} if the grid already holds one.
+     * 
+     * @param grid the rendered grid.
+     * @param winningLength the length of the winning patterns.
+     * @param ownerPlayer the owner of the initial empty board.
+     * @return the parsed state.
+     * @throws IllegalArgumentException if the grid is malformed, has a token
+     *                                  above an empty cell, or the numbers
+     *                                  of the tokens cannot be reached by 
+     *                                  alternating moves.
+     */
+    public static ConnectFourState parseGrid(CharSequence grid, 
+                                             int winningLength,
+                                             PlayerColor ownerPlayer) {
+        Objects.requireNonNull(ownerPlayer, "The owner is null.");
+        int rowLength = 0;
+        
+        while (rowLength < grid.length() && grid.charAt(rowLength) != '\n') {
+            rowLength++;
+        }
+        
+        // Each row is "|c|c|...|c|" followed by a line feed:
+        int width = (rowLength - 1) / 2;
+        int height = 0;
+        
+        while ((height + 1) * (rowLength + 1) <= grid.length() 
+                && grid.charAt(height * (rowLength + 1)) == '|') {
+            height++;
+        }
+        
+        if (width < 1 
+                || rowLength != 2 * width + 1
+                || !lowerBar(width).contentEquals(
+                        grid.subSequence(height * (rowLength + 1), 
+                                         grid.length()))) {
+            throw new IllegalArgumentException("Malformed grid.");
         }
         
-        return null;
-    }
-    
-    public boolean isFull() {
-        for (int x = 0; x < state[0].length; x++) {
-            if (!columnIsFull(x)) {
-                return false;
+        PlayerColor firstPlayer = opposite(ownerPlayer);
+        int firstPlayerTokens = 0;
+        int secondPlayerTokens = 0;
+        PlayerColor[][] cells = new PlayerColor[height][width];
+        
+        for (int y = 0; y < height; y++) {
+            int offset = y * (rowLength + 1);
+            
+            for (int x = 0; x < width; x++) {
+                char c = grid.charAt(offset + 2 * x + 1);
+                
+                if (grid.charAt(offset + 2 * x) != '|') {
+                    throw new IllegalArgumentException("Malformed grid.");
+                }
+                
+                if (c == ' ') {
+                    if (y > 0 && cells[y - 1][x] != null) {
+                        throw new IllegalArgumentException(
+                                "A floating token in the column " + x + ".");
+                    }
+                    
+                    continue;
+                }
+                
+                cells[y][x] = charToPlayer(c);
+                
+                if (cells[y][x] == firstPlayer) {
+                    firstPlayerTokens++;
+                } else {
+                    secondPlayerTokens++;
+                }
+            }
+            
+            if (grid.charAt(offset + rowLength - 1) != '|' 
+                    || grid.charAt(offset + rowLength) != '\n') {
+                throw new IllegalArgumentException("Malformed grid.");
             }
         }
         
-        return true;
-    }
-    
-    @Override
-    public String toString() {
-        final int width = 2 * getWidth() + 1;
-        final int height = getHeight() + 1;
+        int difference = firstPlayerTokens - secondPlayerTokens;
         
-        StringBuilder stringBuilder =
-                new StringBuilder(height - 1 + (width + 1) * height);
+        if (difference != 0 && difference != 1) {
+            throw new IllegalArgumentException(
+                    "Unreachable grid: " + firstPlayerTokens + " vs. " + 
+                    secondPlayerTokens + " tokens.");
+        }
         
-        for (int y = 0; y < getHeight(); y++) {
-            stringBuilder.append('|');
-            
-            for (int x = 0; x < getWidth(); x++) {
-                stringBuilder.append(playerToString(state[y][x]))
-                             .append('|');
+        ConnectFourState state = 
+                new ConnectFourState(width, 
+                                     height, 
+                                     winningLength, 
+                                     difference == 0 ? 
+                                             ownerPlayer : 
+                                             firstPlayer);
+        
+        for (int y = 0; y < height; y++) {
+            for (int x = 0; x < width; x++) {
+                if (cells[y][x] != null) {
+                    state.write(x, y, cells[y][x]);
+                }
             }
-            
-            stringBuilder.append('\n');
         }
         
-        stringBuilder.append(lowerBar);
-        return stringBuilder.toString();
+        return state;
     }
     
     private boolean checkVictory(PlayerColor player) {
@@ -237,7 +1414,7 @@ public class ConnectFourState implements State<ConnectFourState> {
     }
     
     private boolean checkVictoryDescendingDiagonal(PlayerColor player) {
-        for (int startY = state.length - 1; 
+        for (int startY = height - 1; 
                 startY >= winningLength - 1;
                 startY--) {
             for (int startX = winningLength - 1;
@@ -246,7 +1423,7 @@ public class ConnectFourState implements State<ConnectFourState> {
                 int count = 0;
                 
                 for (int i = 0; i < winningLength; i++) {
-                    PlayerColor currentPlayer = state[startY - i][startX - i];
+                    PlayerColor currentPlayer = readCell(startX - i, startY - i);
                     
                     if (currentPlayer != player) {
                         // Drop the state and start counting from the next
@@ -263,16 +1440,16 @@ public class ConnectFourState implements State<ConnectFourState> {
     }
     
     private boolean checkVictoryAscendingDiagonal(PlayerColor player) {
-        for (int startY = state.length - 1;
+        for (int startY = height - 1;
                 startY >= winningLength - 1;
                 startY--) {
             for (int startX = 0; 
-                    startX <= state[0].length - winningLength;
+                    startX <= width - winningLength;
                     startX++) {
                 int count = 0;
                 
                 for (int i = 0; i < winningLength; i++) {
-                    PlayerColor currentPlayer = state[startY - i][startX + i];
+                    PlayerColor currentPlayer = readCell(startX + i, startY - i);
                     
                     if (currentPlayer != player) {
                         // Drop the state and start counting from the next
@@ -291,11 +1468,11 @@ public class ConnectFourState implements State<ConnectFourState> {
     }
     
     private boolean checkVictoryVertical(PlayerColor player) {
-        for (int x = 0; x < state[0].length; x++) {
+        for (int x = 0; x < width; x++) {
             int count = 0;
             
-            for (int y = state.length - 1; y >= 0; y--) {
-                PlayerColor currentPlayer = state[y][x];
+            for (int y = height - 1; y >= 0; y--) {
+                PlayerColor currentPlayer = readCell(x, y);
                 
                 if (currentPlayer != player) {
                     // Drop the state and start counting from beginning:
@@ -307,7 +1484,7 @@ public class ConnectFourState implements State<ConnectFourState> {
                 }
             }
         }
-    
+        
         return false;
     }
     
@@ -315,8 +1492,8 @@ public class ConnectFourState implements State<ConnectFourState> {
         for (int y = getHeight() - 1; y >= 0; y--) {
             int count = 0;
             
-            for (int x = 0; x < state[0].length; x++) {
-                PlayerColor currentPlayer = state[y][x];
+            for (int x = 0; x < width; x++) {
+                PlayerColor currentPlayer = readCell(x, y);
                 
                 if (currentPlayer != player) {
                     // Drop the state and start counting from beginning:
@@ -328,7 +1505,7 @@ public class ConnectFourState implements State<ConnectFourState> {
                 }
             }
         }
-            
+        
         return false;
     }
     
@@ -340,25 +1517,173 @@ public class ConnectFourState implements State<ConnectFourState> {
      * empty.
      */
     public PlayerColor getPlayer(int x, int y) {
-        return state[y][x];
+        return readCell(x, y);
     }
     
     public PlayerColor readCell(final int x, final int y) {
-        return state[y][x];
+        if (state != null) {
+            return state[y][x];
+        }
+        
+        if (wide) {
+            int index = cellIndex(x, y, height);
+            
+            if (!WideBitboard.testBit(mask, maskHigh, index)) {
+                return null;
+            }
+            
+            return WideBitboard.testBit(position, positionHigh, index) ?
+                   opposite(playerColor) :
+                   playerColor;
+        }
+        
+        long cell = cellMask(x, y, height);
+        
+        if ((mask & cell) == 0L) {
+            return null;
+        }
+        
+        if ((position & cell) != 0L) {
+            return opposite(playerColor);
+        }
+        
+        return playerColor;
     }
     
     public int getHeight() {
-        return state.length;
+        return height;
     }
     
     public int getWidth() {
-        return state[0].length;
+        return width;
     }
     
     public int getWinningLength() {
         return winningLength;
     }
     
+    /**
+     * Returns the key of the mirror image of this state.
+     */
+    private long getMirroredKey() {
+        return state == null && !wide ? 
+               mirror(position + mask, width, height) :
+               computeMirroredZobristKey();
+    }
+    
+    /**
+     * Computes the Zobrist hash of the mirror image of this state from 
+     * scratch.
+     */
+    private long computeMirroredZobristKey() {
+        long key = sideKey(playerColor);
+        
+        for (int y = 0; y < height; y++) {
+            for (int x = 0; x < width; x++) {
+                PlayerColor cell = readCell(x, y);
+                
+                if (cell != null) {
+                    key ^= zobristKey(cellIndex(width - 1 - x, y, height), 
+                                      cell);
+                }
+            }
+        }
+        
+        return key;
+    }
+    
+    private void checkBitboards() {
+        if (state != null) {
+            throw new IllegalStateException(
+                    "The board is not stored in bitboards.");
+        }
+    }
+    
+    private void checkColumnMaskWidth() {
+        if (width > MAX_COLUMN_MASK_WIDTH) {
+            throw new IllegalStateException(
+                    "The board is too wide for the column bitmasks.");
+        }
+    }
+    
+    /**
+     * Converts a bitboard to the bitmask of the columns it has cells in.
+     */
+    private int toColumns(long cells) {
+        int columns = 0;
+        
+        for (int x = 0; cells != 0L; x++) {
+            long column = columnMask(x, height);
+            
+            if ((cells & column) != 0L) {
+                columns |= 1 << x;
+                cells &= ~column;
+            }
+        }
+        
+        return columns;
+    }
+    
+    /**
+     * Checks whether a token of the given player in the empty cell 
+     * {@code (x, y)} would complete a line. Used only for the boards that do
+     * not fit in a 64-bit bitboard.
+     */
+    private boolean completesLine(int x, int y, PlayerColor playerColor) {
+        if (wide) {
+            int index = cellIndex(x, y, height);
+            boolean ownStones = playerColor == this.playerColor;
+            long stones = ownStones ? position ^ mask : position;
+            long stonesHigh = ownStones ? positionHigh ^ maskHigh :
+                                          positionHigh;
+            
+            return WideBitboard.hasAlignmentThrough(
+                    stones | WideBitboard.lowBit(index),
+                    stonesHigh | WideBitboard.highBit(index),
+                    index,
+                    winningLength,
+                    height);
+        }
+        
+        return countLine(x, y, 1, 0, playerColor) >= winningLength
+            || countLine(x, y, 0, 1, playerColor) >= winningLength
+            || countLine(x, y, 1, 1, playerColor) >= winningLength
+            || countLine(x, y, 1, -1, playerColor) >= winningLength;
+    }
+    
+    /**
+     * Counts the length of the line of the given player through the cell 
+     * {@code (x, y)} along the direction {@code (dx, dy)}, the cell itself
+     * included.
+     */
+    private int countLine(int x, 
+                          int y, 
+                          int dx, 
+                          int dy, 
+                          PlayerColor playerColor) {
+        int length = 1;
+        
+        for (int sign = -1; sign <= 1; sign += 2) {
+            int cx = x + sign * dx;
+            int cy = y + sign * dy;
+            
+            while (cx >= 0 && cx < width && cy >= 0 && cy < height 
+                    && state[cy][cx] == playerColor) {
+                length++;
+                cx += sign * dx;
+                cy += sign * dy;
+            }
+        }
+        
+        return length;
+    }
+    
+    private ConnectFourState createChild(int x) {
+        ConnectFourState child = move(x);
+        child.cachingChildren = cachingChildren;
+        return child;
+    }
+    
     private PlayerColor[][] cloneState() {
         PlayerColor[][] cloneState = new PlayerColor[state.length]
                                                     [state[0].length];
@@ -372,6 +1697,381 @@ public class ConnectFourState implements State<ConnectFourState> {
         return cloneState;
     }
     
+    /**
+     * Checks whether a board of given dimensions fits in a bitboard.
+     * 
+     * @param width the number of columns.
+     * @param height the number of rows.
+     * @return {@code true} only if the board may be represented by bitboards.
+     */
+    static boolean fitsInBitboard(int width, int height) {
+        return (height + 1) * width <= MAX_BITBOARD_BITS;
+    }
+    
+    /**
+     * Checks whether a board of given dimensions fits in a 128-bit bitboard.
+     * 
+     * @param width the number of columns.
+     * @param height the number of rows.
+     * @return {@code true} only if the board may be represented by 128-bit 
+     *         bitboards.
+     */
+    static boolean fitsInWideBitboard(int width, int height) {
+        return (height + 1) * width <= WideBitboard.MAX_BITS;
+    }
+    
+    /**
+     * Checks whether the bitboard {@code stones} contains 
+     * {@code winningLength} consecutive stones in any direction. Runs in 
+     * {@code O(log winningLength)} shifts per direction.
+     * 
+     * @param stones the stones bitboard.
+     * @param winningLength the length of the winning patterns.
+     * @param height the number of rows.
+     * @return {@code true} only if there is a winning pattern.
+     */
+    static boolean hasAlignment(long stones, int winningLength, int height) {
+        // Vertical, horizontal, descending and ascending diagonal:
+        return hasDirectedAlignment(stones, winningLength, 1)
+            || hasDirectedAlignment(stones, winningLength, height + 1)
+            || hasDirectedAlignment(stones, winningLength, height)
+            || hasDirectedAlignment(stones, winningLength, height + 2);
+    }
+    
+    /**
+     * Checks whether the bitboard {@code stones} contains 
+     * {@code winningLength} consecutive stones along the direction 
+     * {@code shift}. The sentinel bits guarantee that no pattern wraps over
+     * the board edges.
+     * 
+     * @param stones the stones bitboard.
+     * @param winningLength the length of the winning patterns.
+     * @param shift the distance between two adjacent cells in the direction.
+     * @return {@code true} only if there is a winning pattern.
+     */
+    private static boolean hasDirectedAlignment(long stones,
+                                                int winningLength, 
+                                                int shift) {
+        if ((long) shift * (winningLength - 1) >= Long.SIZE) {
+            // The pattern does not fit in the board in this direction:
+            return false;
+        }
+        
+        // After each step, bit 'i' is set only if there are 'run' consecutive
+        // stones starting from bit 'i':
+        long runs = stones;
+        int run = 1;
+        
+        while (2 * run <= winningLength) {
+            runs &= runs >>> (shift * run);
+            run *= 2;
+        }
+        
+        if (run < winningLength) {
+            // Two overlapping runs of length 'run' cover 'winningLength' 
+            // cells:
+            runs &= runs >>> (shift * (winningLength - run));
+        }
+        
+        return runs != 0L;
+    }
+    
+    /**
+     * Checks whether the bitboard {@code stones} contains 
+     * {@code winningLength} consecutive stones passing through the cell 
+     * {@code cell} in any direction.
+     * 
+     * @param stones the stones bitboard. Must contain {@code cell}.
+     * @param cell the bitboard containing only the target cell.
+     * @param winningLength the length of the winning patterns.
+     * @param height the number of rows.
+     * @return {@code true} only if there is a winning pattern through 
+     *         {@code cell}.
+     */
+    static boolean hasAlignmentThrough(long stones,
+                                       long cell, 
+                                       int winningLength, 
+                                       int height) {
+        return hasDirectedAlignmentThrough(stones, cell, winningLength, 1)
+            || hasDirectedAlignmentThrough(stones, 
+                                           cell, 
+                                           winningLength, 
+                                           height + 1)
+            || hasDirectedAlignmentThrough(stones, 
+                                           cell, 
+                                           winningLength, 
+                                           height)
+            || hasDirectedAlignmentThrough(stones, 
+                                           cell, 
+                                           winningLength, 
+                                           height + 2);
+    }
+    
+    private static boolean hasDirectedAlignmentThrough(long stones,
+                                                       long cell, 
+                                                       int winningLength,
+                                                       int shift) {
+        if (shift >= Long.SIZE) {
+            return false;
+        }
+        
+        int count = 1;
+        
+        for (long c = cell << shift; 
+                count < winningLength && (stones & c) != 0L;
+                c <<= shift) {
+            count++;
+        }
+        
+        for (long c = cell >>> shift;
+                count < winningLength && (stones & c) != 0L;
+                c >>>= shift) {
+            count++;
+        }
+        
+        return count == winningLength;
+    }
+    
+    /**
+     * Returns the empty cells that would complete an alignment of 
+     * {@code winningLength} stones of {@code stones}, whether playable right
+     * away or not.
+     * 
+     * @param stones the stones bitboard.
+     * @param mask the bitboard of the occupied cells.
+     * @param boardMask the bitboard of all the cells of the board, as 
+     *                  returned by {@link #boardMask(int, int)}.
+     * @param winningLength the length of the winning patterns.
+     * @param height the number of rows.
+     * @return the bitboard of the winning cells.
+     */
+    static long winningCells(long stones, 
+                             long mask, 
+                             long boardMask,
+                             int winningLength, 
+                             int height) {
+        long cells = directedWinningCells(stones, winningLength, 1)
+                   | directedWinningCells(stones, winningLength, height + 1)
+                   | directedWinningCells(stones, winningLength, height)
+                   | directedWinningCells(stones, winningLength, height + 2);
+        
+        return cells & boardMask & ~mask;
+    }
+    
+    /**
+     * Returns the cells that would complete an alignment of 
+     * {@code winningLength} stones along the direction {@code shift}. The 
+     * result may contain occupied cells and the cells outside the board.
+     * 
+     * @param stones the stones bitboard.
+     * @param winningLength the length of the winning patterns.
+     * @param shift the distance between two adjacent cells in the direction.
+     * @return the winning cells.
+     */
+    private static long directedWinningCells(long stones,
+                                             int winningLength,
+                                             int shift) {
+        if ((long) shift * (winningLength - 1) >= Long.SIZE) {
+            return 0L;
+        }
+        
+        if (winningLength == DEFAULT_WINNING_LENGTH) {
+            // The hot path of the standard game: pair up the runs of two
+            // stones on each side of the cell with the single stones on the
+            // opposite side.
+            long before2 = (stones << shift) & (stones << (2 * shift));
+            long after2 = (stones >>> shift) & (stones >>> (2 * shift));
+            
+            return (before2 & (stones << (3 * shift)))
+                 | (before2 & (stones >>> shift))
+                 | (after2 & (stones << shift))
+                 | (after2 & (stones >>> (3 * shift)));
+        }
+        
+        long cells = 0L;
+        
+        // 'before' stones precede the cell and the rest follow it:
+        for (int before = 0; before < winningLength; before++) {
+            long c = -1L;
+            
+            for (int i = 1; i <= before && c != 0L; i++) {
+                c &= stones << (i * shift);
+            }
+            
+            for (int i = 1; i < winningLength - before && c != 0L; i++) {
+                c &= stones >>> (i * shift);
+            }
+            
+            cells |= c;
+        }
+        
+        return cells;
+    }
+    
+    /**
+     * Returns the bitboard with the columns in the reverse order.
+     * 
+     * @param bitboard the bitboard to mirror.
+     * @param width the number of columns.
+     * @param height the number of rows.
+     * @return the mirrored bitboard.
+     */
+    static long mirror(long bitboard, int width, int height) {
+        int columnBits = height + 1;
+        long column = (1L << columnBits) - 1;
+        long mirrored = 0L;
+        
+        for (int x = 0, mirroredX = width - 1; x < width; x++, mirroredX--) {
+            mirrored |= ((bitboard >>> (x * columnBits)) & column) 
+                    << (mirroredX * columnBits);
+        }
+        
+        return mirrored;
+    }
+    
+    /**
+     * Returns the bitboard containing the bottom cells of all the columns.
+     * 
+     * @param width the number of columns.
+     * @param height the number of rows.
+     * @return the bottom row mask.
+     */
+    static long bottomRowMask(int width, int height) {
+        long bottomRow = 0L;
+        
+        for (int x = 0; x < width; x++) {
+            bottomRow |= bottomMask(x, height);
+        }
+        
+        return bottomRow;
+    }
+    
+    /**
+     * Returns the bitboard containing all the cells of the board.
+     * 
+     * @param width the number of columns.
+     * @param height the number of rows.
+     * @return the board mask.
+     */
+    static long boardMask(int width, int height) {
+        return bottomRowMask(width, height) * ((1L << height) - 1);
+    }
+    
+    /**
+     * Returns the bitboard containing all the cells of a column.
+     * 
+     * @param x the column.
+     * @param height the number of rows.
+     * @return the column mask.
+     */
+    static long columnMask(int x, int height) {
+        return ((1L << height) - 1) << (x * (height + 1));
+    }
+    
+    /**
+     * Returns the bitboard containing only the bottom cell of a column.
+     * 
+     * @param x the column.
+     * @param height the number of rows.
+     * @return the bottom cell mask.
+     */
+    static long bottomMask(int x, int height) {
+        return 1L << (x * (height + 1));
+    }
+    
+    /**
+     * Returns the bitboard containing only the top cell of a column.
+     * 
+     * @param x the column.
+     * @param height the number of rows.
+     * @return the top cell mask.
+     */
+    static long topMask(int x, int height) {
+        return 1L << (x * (height + 1) + height - 1);
+    }
+    
+    /**
+     * Returns the bitboard containing only the cell {@code (x, y)}. Note that
+     * {@code y = 0} is the topmost row.
+     * 
+     * @param x the column.
+     * @param y the row.
+     * @param height the number of rows.
+     * @return the cell mask.
+     */
+    static long cellMask(int x, int y, int height) {
+        return 1L << cellIndex(x, y, height);
+    }
+    
+    /**
+     * Returns the index of the bit representing the cell {@code (x, y)} in a
+     * bitboard. Also used as the cell index in the Zobrist hashing for the 
+     * boards that do not fit in a bitboard.
+     * 
+     * @param x the column.
+     * @param y the row.
+     * @param height the number of rows.
+     * @return the cell index.
+     */
+    static int cellIndex(int x, int y, int height) {
+        return x * (height + 1) + height - 1 - y;
+    }
+    
+    /**
+     * Returns the index of the bit representing the cell {@code (x, y)} in 
+     * the bitboards returned by {@link #getTokens(PlayerColor)} and 
+     * {@link #getTokensHigh(PlayerColor)}. The columns follow each other, 
+     * each taking {@code height + 1} bits from the bottom cell up.
+     * 
+     * @param x the column.
+     * @param y the row, {@code y = 0} being the topmost row.
+     * @param height the number of rows.
+     * @return the bit index.
+     */
+    public static int getBitIndex(int x, int y, int height) {
+        return cellIndex(x, y, height);
+    }
+    
+    /**
+     * Returns the Zobrist key of a token of the given player in the given 
+     * cell. Instead of a table of random numbers, the keys are produced by the
+     * SplitMix64 finalizer, which makes them independent of the board 
+     * dimensions and stable across runs.
+     * 
+     * @param cellIndex the index of the cell.
+     * @param playerColor the owner of the token.
+     * @return the Zobrist key.
+     */
+    static long zobristKey(int cellIndex, PlayerColor playerColor) {
+        long z = 0x9E3779B97F4A7C15L * (2 * cellIndex + 
+                                        playerColor.ordinal() + 1);
+        z = (z ^ (z >>> 30)) * 0xBF58476D1CE4E5B9L;
+        z = (z ^ (z >>> 27)) * 0x94D049BB133111EBL;
+        return z ^ (z >>> 31);
+    }
+    
+    /**
+     * Returns the Zobrist key contribution of the owner of a state.
+     * 
+     * @param playerColor the owner of the state.
+     * @return the Zobrist key contribution.
+     */
+    private static long sideKey(PlayerColor playerColor) {
+        return playerColor == PlayerColor.MINIMIZING_PLAYER ? SIDE_KEY : 0L;
+    }
+    
+    /**
+     * Returns the opponent of the given player.
+     * 
+     * @param playerColor the player.
+     * @return the opponent.
+     */
+    static PlayerColor opposite(PlayerColor playerColor) {
+        return playerColor == PlayerColor.MAXIMIZING_PLAYER ? 
+               PlayerColor.MINIMIZING_PLAYER :
+               PlayerColor.MAXIMIZING_PLAYER;
+    }
+    
     private static final int checkHeight(int height)  {
         if (height < 1) {
             throw new IllegalArgumentException("height = " + height);
@@ -397,7 +2097,11 @@ public class ConnectFourState implements State<ConnectFourState> {
         return winningLength;
     }
     
-    private String createLowerBar(int width) {
+    private static String lowerBar(int width) {
+        if (width < LOWER_BARS.length && LOWER_BARS[width] != null) {
+            return LOWER_BARS[width];
+        }
+        
         StringBuilder stringBuilder = new StringBuilder(2 * width + 1);
         stringBuilder.append('+');
         
@@ -405,21 +2109,39 @@ public class ConnectFourState implements State<ConnectFourState> {
             stringBuilder.append("-+");
         }
         
-        return stringBuilder.toString();
+        String lowerBar = stringBuilder.toString();
+        
+        if (width < LOWER_BARS.length) {
+            LOWER_BARS[width] = lowerBar;
+        }
+        
+        return lowerBar;
     }
     
-    private String playerToString(PlayerColor player) {
+    private static char playerToChar(PlayerColor player) {
         if (player == null) {
-            return " ";
+            return ' ';
         }
         
         switch (player) {
             case MINIMIZING_PLAYER:
-                return "X";
+                return 'X';
             case MAXIMIZING_PLAYER:
-                return "O";
+                return 'O';
             default:
                 throw new IllegalStateException("Should not ever get here.");
         }
     }
+    
+    private static PlayerColor charToPlayer(char c) {
+        switch (c) {
+            case 'X':
+                return PlayerColor.MINIMIZING_PLAYER;
+            case 'O':
+                return PlayerColor.MAXIMIZING_PLAYER;
+            default:
+                throw new IllegalArgumentException(
+                        "Invalid cell '" + c + "'.");
+        }
+    }
 }
@@ -3,14 +3,12 @@ package net.coderodde.games.connect.four;
 import java.util.Objects;
 import java.util.Random;
 import java.util.Scanner;
-import net.coderodde.games.connect.four.impl.BruteForceConnectFourStateEvaluatorFunction;
 import net.coderodde.games.connect.four.impl.Human;
 import net.coderodde.games.connect.four.impl.RandomBot;
 import net.coderodde.games.connect.four.impl.SmartBot;
-import net.coderodde.games.connect.four.impl.WeightMatrixConnectFourStateEvaluatorFunction;
+import net.coderodde.games.connect.four.impl.ThreatCountingConnectFourStateEvaluatorFunction;
 import net.coderodde.zerosum.ai.EvaluatorFunction;
 import net.coderodde.zerosum.ai.GameEngine;
-import net.coderodde.zerosum.ai.impl.AlphaBetaPruningGameEngine;
 import net.coderodde.zerosum.ai.impl.MinimaxGameEngine;
 
 /**
@@ -28,19 +26,15 @@ public class Demo {
     public static void main(String[] args) {
         Random random = new Random();
         
-        EvaluatorFunction<ConnectFourState> evaluatorFunction1 = 
-                new BruteForceConnectFourStateEvaluatorFunction(
+        EvaluatorFunction<ConnectFourState> evaluatorFunction = 
+                new ThreatCountingConnectFourStateEvaluatorFunction(
                         ConnectFourState.DEFAULT_WIDTH,
                         ConnectFourState.DEFAULT_HEIGHT,
-                        MAX_WEIGHT_MATRIX_ENTRY,
                         ConnectFourState.DEFAULT_WINNING_LENGTH);
-
-        EvaluatorFunction<ConnectFourState> evaluatorFunction2 = 
-                new WeightMatrixConnectFourStateEvaluatorFunction();
         
         GameEngine<ConnectFourState, PlayerColor> gameEngine = 
-                new AlphaBetaPruningGameEngine<>(evaluatorFunction1, 
-                                                 DEFAULT_SEARCH_DEPTH);
+                new ConnectFourGameEngine(evaluatorFunction, 
+                                          DEFAULT_SEARCH_DEPTH);
         
         Bot bot1 = new RandomBot(PlayerColor.MINIMIZING_PLAYER, random);
         Bot bot2 = new SmartBot(PlayerColor.MAXIMIZING_PLAYER, gameEngine);
@@ -72,6 +66,7 @@ public class Demo {
         while (!state.isFull()) {
             if (currentBot == bot1) {
                 state = bot1.computeNextState(state);
+                printSearchStats(bot1);
                 winner = state.checkVictory();
                 
                 if (winner != null) {
@@ -81,6 +76,7 @@ public class Demo {
                 currentBot = bot2;
             } else {
                 state = bot2.computeNextState(state);
+                printSearchStats(bot2);
                 winner = state.checkVictory();
                 
                 if (winner != null) {
@@ -119,6 +115,19 @@ public class Demo {
         }
     }
     
+    /**
+     * Prints the statistics of the last search of a bot, if it reports them.
+     * 
+     * @param bot the bot that made the last move.
+     */
+    private static final void printSearchStats(Bot bot) {
+        SearchStats searchStats = bot.getLastSearchStats();
+        
+        if (searchStats != null) {
+            System.out.println(searchStats);
+        }
+    }
+    
     private static final void checkBotPlayers(Bot bot1, Bot bot2) {
         Objects.requireNonNull(bot1, "The bot1 is null.");
         Objects.requireNonNull(bot1, "The bot2 is null.");
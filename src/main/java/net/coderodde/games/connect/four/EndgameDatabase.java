@@ -0,0 +1,195 @@
+package net.coderodde.games.connect.four;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.Objects;
+
+/**
+ * This class implements a read-only endgame database holding the exact
+ * scores of a set of positions with at most a given number of empty cells,
+ * namely the endgames of the games it is generated from. The database file
+ * is mapped into memory and searched in place via binary search, so that 
+ * opening a database of any size reads nothing but the header, and a lookup
+ * touches only the pages it needs. The databases are written by 
+ * {@link EndgameDatabaseGenerator}.
+ * 
+ * <p>The file starts with a header of {@value #HEADER_SIZE} bytes: the magic
+ * number, the format version, the width, the height and the winning length
+ * of the board, the maximum number of empty cells in the positions of the
+ * database and the number of the records. The header is followed by the
+ * records of {@value #RECORD_SIZE} bytes each, sorted by the position key:
+ * the 64-bit canonical key and the score as returned by
+ * {@link ConnectFourSolver#solve(ConnectFourState)}. A position and its
+ * mirror image share a record.
+ * 
+ * @see ConnectFourState#getCanonicalKey()
+ * 
+ * @author Rodion "rodde" Efremov
+ * @version 1.6 (Oct 17, 2026)
+ */
+public final class EndgameDatabase {
+    
+    /**
+     * Denotes the absence of a position in the database.
+     */
+    public static final int NO_SCORE = Integer.MIN_VALUE;
+    
+    static final int MAGIC = 0x43344547; // "C4EG"
+    static final int VERSION = 1;
+    static final int HEADER_SIZE = 16;
+    static final int RECORD_SIZE = 9;
+    
+    private static final int KEY_OFFSET = 0;
+    private static final int SCORE_OFFSET = 8;
+    
+    /**
+     * The mapped database file.
+     */
+    private final ByteBuffer buffer;
+    
+    private final int width;
+    private final int height;
+    private final int winningLength;
+    private final int maximumEmptyCells;
+    private final int size;
+    
+    /**
+     * Maps the database file into memory.
+     * 
+     * @param path the path of the database file.
+     * @throws IOException if the file cannot be read or is not an endgame
+     *                     database.
+     */
+    public EndgameDatabase(Path path) throws IOException {
+        Objects.requireNonNull(path, "The database path is null.");
+        
+        // The mapping stays valid after the channel is closed:
+        try (FileChannel channel = FileChannel.open(path,
+                                                    StandardOpenOption.READ)) {
+            this.buffer = channel.map(FileChannel.MapMode.READ_ONLY,
+                                      0L,
+                                      channel.size());
+        }
+        
+        if (buffer.capacity() < HEADER_SIZE
+                || buffer.getInt(0) != MAGIC
+                || buffer.getInt(4) != VERSION) {
+            throw new IOException("Not an endgame database: " + path);
+        }
+        
+        this.width = buffer.get(8);
+        this.height = buffer.get(9);
+        this.winningLength = buffer.get(10);
+        this.maximumEmptyCells = buffer.get(11);
+        this.size = buffer.getInt(12);
+        
+        if ((long) size * RECORD_SIZE + HEADER_SIZE != buffer.capacity()) {
+            throw new IOException("Truncated endgame database: " + path);
+        }
+    }
+    
+    /**
+     * Checks whether a state may be in this database, i.e., whether its board
+     * has the shape of this database and at least one but at most
+     * {@link #getMaximumEmptyCells()} empty cells.
+     * 
+     * @param state the state to check.
+     * @return {@code true} only if the state may be in this database.
+     */
+    public boolean covers(ConnectFourState state) {
+        if (state.getWidth() != width
+                || state.getHeight() != height
+                || state.getWinningLength() != winningLength
+                || !ConnectFourState.fitsInBitboard(width, height)) {
+            return false;
+        }
+        
+        int emptyCells = width * height - state.getNumberOfTokens();
+        return emptyCells > 0 && emptyCells <= maximumEmptyCells;
+    }
+    
+    /**
+     * Finds the record of a state or its mirror image.
+     * 
+     * @param state the state to look up.
+     * @return the index of the record, or {@code -1} if the state is not in
+     *         this database.
+     */
+    public int indexOf(ConnectFourState state) {
+        if (!covers(state)) {
+            return -1;
+        }
+        
+        long key = state.getCanonicalKey();
+        int low = 0;
+        int high = size - 1;
+        
+        while (low <= high) {
+            int middle = (low + high) >>> 1;
+            long middleKey = buffer.getLong(offset(middle) + KEY_OFFSET);
+            
+            if (middleKey < key) {
+                low = middle + 1;
+            } else if (middleKey > key) {
+                high = middle - 1;
+            } else {
+                return middle;
+            }
+        }
+        
+        return -1;
+    }
+    
+    /**
+     * Returns the exact score of a state.
+     * 
+     * @param state the state to look up.
+     * @return the score relative to the player to move, or
+     *         {@link #NO_SCORE} if the state is not in this database.
+     * @see ConnectFourSolver#getDistance(ConnectFourState, int)
+     */
+    public int probe(ConnectFourState state) {
+        int index = indexOf(state);
+        return index < 0 ? NO_SCORE : getScore(index);
+    }
+    
+    /**
+     * Returns the score of a record.
+     * 
+     * @param index the index of the record.
+     * @return the score relative to the player to move.
+     */
+    public int getScore(int index) {
+        return buffer.get(offset(index) + SCORE_OFFSET);
+    }
+    
+    /**
+     * Returns the number of the records in this database.
+     * 
+     * @return the number of the records.
+     */
+    public int size() {
+        return size;
+    }
+    
+    /**
+     * Returns the maximum number of empty cells in the positions of this
+     * database.
+     * 
+     * @return the maximum number of empty cells.
+     */
+    public int getMaximumEmptyCells() {
+        return maximumEmptyCells;
+    }
+    
+    private int offset(int index) {
+        if (index < 0 || index >= size) {
+            throw new IndexOutOfBoundsException("index = " + index);
+        }
+        
+        return HEADER_SIZE + index * RECORD_SIZE;
+    }
+}
@@ -0,0 +1,334 @@
+package net.coderodde.games.connect.four;
+
+import java.io.BufferedOutputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Random;
+
+/**
+ * This class generates the endgame databases read by
+ * {@link EndgameDatabase}. A complete table is out of reach on the standard
+ * board even for a single empty cell, since there are about 7.5 * 10^9 
+ * positions of 41 tokens alone. The database covers the endgames of the 
+ * given games instead: each game is replayed up to its first non-terminal
+ * position with at most the given number of empty cells, and every position
+ * reachable from there is scored. The scores are computed backwards from 
+ * the terminal positions, each position being scored once from the scores 
+ * of its children, and each position and its mirror image are written once,
+ * sorted by their canonical keys. Such a database seldom holds the endgames
+ * reached by a search started elsewhere, which are better
+ * {@link ConnectFourGameEngine#setSolvingEmptyCells(int) solved on the fly}.
+ * 
+ * <p>Usage: {@code EndgameDatabaseGenerator file maxEmptyCells
+ * (recordFile... | -random games seed)}. The games are read from the
+ * {@link GameRecordWriter game record files}, or played at random on the
+ * standard board. An endgame of a dozen empty cells has up to hundreds of
+ * thousands of positions, all of which are held in the heap until written.
+ * 
+ * @author Rodion "rodde" Efremov
+ * @version 1.6 (Oct 17, 2026)
+ */
+public final class EndgameDatabaseGenerator {
+    
+    /**
+     * Maps the canonical keys of the scored positions to their scores.
+     */
+    private final Map<Long, Byte> records = new HashMap<>();
+    
+    private final int maximumEmptyCells;
+    
+    private EndgameDatabaseGenerator(int maximumEmptyCells) {
+        this.maximumEmptyCells = maximumEmptyCells;
+    }
+    
+    /**
+     * Generates an endgame database from the endgames of the given games.
+     * The games that end before reaching the endgame contribute nothing.
+     * 
+     * @param path the path of the database file to write.
+     * @param maximumEmptyCells the maximum number of empty cells in the
+     *                          positions of the database.
+     * @param width the board width.
+     * @param height the board height.
+     * @param winningLength the winning pattern length.
+     * @param games the games to take the endgames from, all played on the
+     *              board of the given shape.
+     * @return the number of the positions written.
+     * @throws IOException if the database cannot be written.
+     */
+    public static int generate(Path path,
+                               int maximumEmptyCells,
+                               int width,
+                               int height,
+                               int winningLength,
+                               Iterable<GameRecord> games)
+            throws IOException {
+        Objects.requireNonNull(path, "The database path is null.");
+        Objects.requireNonNull(games, "The games are null.");
+        
+        if (!ConnectFourState.fitsInBitboard(width, height)) {
+            throw new IllegalArgumentException(
+                    "The board " + width + "x" + height +
+                    " does not fit in a bitboard.");
+        }
+        
+        if (maximumEmptyCells < 1 || maximumEmptyCells >= width * height) {
+            throw new IllegalArgumentException(
+                    "maximumEmptyCells = " + maximumEmptyCells);
+        }
+        
+        EndgameDatabaseGenerator generator =
+                new EndgameDatabaseGenerator(maximumEmptyCells);
+        
+        for (GameRecord game : games) {
+            if (game.getWidth() != width
+                    || game.getHeight() != height
+                    || game.getWinningLength() != winningLength) {
+                throw new IllegalArgumentException(
+                        "A game on another board: " + game);
+            }
+            
+            generator.visit(game);
+        }
+        
+        generator.write(path, width, height, winningLength);
+        return generator.records.size();
+    }
+    
+    /**
+     * Plays random games in which the players never complete a line unless
+     * forced to, so that most of the games reach the endgame. Each player
+     * picks uniformly at random among the moves neither winning nor letting
+     * the opponent win right away, if any, and among all the moves
+     * otherwise.
+     * 
+     * @param count the number of the games.
+     * @param seed the seed of the random number generator.
+     * @param width the board width.
+     * @param height the board height.
+     * @param winningLength the winning pattern length.
+     * @return the records of the games.
+     */
+    public static List<GameRecord> playRandomGames(int count,
+                                                   long seed,
+                                                   int width,
+                                                   int height,
+                                                   int winningLength) {
+        if (count < 0) {
+            throw new IllegalArgumentException("count = " + count);
+        }
+        
+        Random random = new Random(seed);
+        List<GameRecord> games = new ArrayList<>(count);
+        int[] moves = new int[width * height];
+        
+        for (int i = 0; i < count; i++) {
+            ConnectFourState state =
+                    new ConnectFourState(width,
+                                         height,
+                                         winningLength,
+                                         PlayerColor.MINIMIZING_PLAYER);
+            int moveCount = 0;
+            
+            while (!state.lastMoveWon() && !state.isFull()) {
+                int columns = state.getNonLosingColumns()
+                            & ~state.getWinningColumns();
+                
+                if (columns == 0) {
+                    for (int x = 0; x < width; x++) {
+                        if (!state.columnIsFull(x)) {
+                            columns |= 1 << x;
+                        }
+                    }
+                }
+                
+                int move = selectColumn(columns, random);
+                state.play(move);
+                moves[moveCount++] = move;
+            }
+            
+            games.add(new GameRecord(width,
+                                     height,
+                                     winningLength,
+                                     PlayerColor.MINIMIZING_PLAYER,
+                                     Arrays.copyOf(moves, moveCount)));
+        }
+        
+        return games;
+    }
+    
+    public static void main(String[] args) throws IOException {
+        boolean random = args.length == 5 && args[2].equals("-random");
+        
+        if (args.length < 3 || (args[2].equals("-random") && !random)) {
+            System.err.println(
+                    "Usage: EndgameDatabaseGenerator file maxEmptyCells " +
+                    "(recordFile... | -random games seed)");
+            System.exit(1);
+        }
+        
+        Path path = Paths.get(args[0]);
+        int maximumEmptyCells = Integer.parseInt(args[1]);
+        int width = ConnectFourState.DEFAULT_WIDTH;
+        int height = ConnectFourState.DEFAULT_HEIGHT;
+        int winningLength = ConnectFourState.DEFAULT_WINNING_LENGTH;
+        List<GameRecord> games;
+        
+        if (random) {
+            games = playRandomGames(Integer.parseInt(args[3]),
+                                    Long.parseLong(args[4]),
+                                    width,
+                                    height,
+                                    winningLength);
+        } else {
+            games = new ArrayList<>();
+            
+            for (int i = 2; i < args.length; i++) {
+                try (GameRecordReader reader =
+                        GameRecordReader.open(Paths.get(args[i]))) {
+                    GameRecord game;
+                    
+                    while ((game = reader.read()) != null) {
+                        games.add(game);
+                    }
+                }
+            }
+            
+            if (!games.isEmpty()) {
+                width = games.get(0).getWidth();
+                height = games.get(0).getHeight();
+                winningLength = games.get(0).getWinningLength();
+            }
+        }
+        
+        long startTime = System.currentTimeMillis();
+        int size = generate(path,
+                            maximumEmptyCells,
+                            width,
+                            height,
+                            winningLength,
+                            games);
+        long endTime = System.currentTimeMillis();
+        
+        System.out.println("Wrote " + size + " positions of " +
+                           games.size() + " games in " +
+                           (endTime - startTime) + " ms.");
+    }
+    
+    /**
+     * Scores the endgame of a game.
+     * 
+     * @param game the game to replay.
+     */
+    private void visit(GameRecord game) {
+        ConnectFourState state = game.getInitialState();
+        int cells = game.getWidth() * game.getHeight();
+        
+        for (int ply = 0; ply < game.getNumberOfMoves(); ply++) {
+            state.play(game.getMove(ply));
+            
+            if (state.lastMoveWon() || state.isFull()) {
+                return;
+            }
+            
+            if (cells - state.getNumberOfTokens() <= maximumEmptyCells) {
+                score(state);
+                return;
+            }
+        }
+    }
+    
+    /**
+     * Scores a non-terminal state and all its descendants that are needed
+     * for the score.
+     * 
+     * @param state the working state. Restored before returning.
+     * @return the score of the state relative to the player to move.
+     */
+    private int score(ConnectFourState state) {
+        long key = state.getCanonicalKey();
+        Byte record = records.get(key);
+        
+        if (record != null) {
+            return record;
+        }
+        
+        int cells = state.getWidth() * state.getHeight();
+        int moves = state.getNumberOfTokens();
+        int bestScore;
+        
+        if (state.getWinningColumns() != 0) {
+            bestScore = (cells + 1 - moves) / 2;
+        } else {
+            bestScore = -cells;
+            
+            for (int x = 0; x < state.getWidth(); x++) {
+                if (state.columnIsFull(x)) {
+                    continue;
+                }
+                
+                state.play(x);
+                int score = state.isFull() ? 0 : -score(state);
+                state.undo();
+                bestScore = Math.max(bestScore, score);
+            }
+        }
+        
+        records.put(key, (byte) bestScore);
+        return bestScore;
+    }
+    
+    private void write(Path path,
+                       int width,
+                       int height,
+                       int winningLength) throws IOException {
+        long[] keys = new long[records.size()];
+        int i = 0;
+        
+        for (long key : records.keySet()) {
+            keys[i++] = key;
+        }
+        
+        Arrays.sort(keys);
+        
+        try (DataOutputStream out =
+                new DataOutputStream(
+                        new BufferedOutputStream(
+                                Files.newOutputStream(path)))) {
+            out.writeInt(EndgameDatabase.MAGIC);
+            out.writeInt(EndgameDatabase.VERSION);
+            out.writeByte(width);
+            out.writeByte(height);
+            out.writeByte(winningLength);
+            out.writeByte(maximumEmptyCells);
+            out.writeInt(keys.length);
+            
+            for (long key : keys) {
+                out.writeLong(key);
+                out.writeByte(records.get(key));
+            }
+        }
+    }
+    
+    /**
+     * Selects a column uniformly at random from a nonempty column bitmask.
+     */
+    private static int selectColumn(int columns, Random random) {
+        int index = random.nextInt(Integer.bitCount(columns));
+        
+        for (int i = 0; i < index; i++) {
+            columns &= columns - 1;
+        }
+        
+        return Integer.numberOfTrailingZeros(columns);
+    }
+}
@@ -0,0 +1,248 @@
+package net.coderodde.games.connect.four;
+
+import java.util.Arrays;
+import java.util.Objects;
+
+/**
+ * This class holds the record of a game: the shape of the board, the owner
+ * of the initial empty board and the columns of the moves. The states of the
+ * game are reconstructed on demand. The records are written and read in bulk
+ * via {@link GameRecordWriter} and {@link GameRecordReader}.
+ * 
+ * @author Rodion "rodde" Efremov
+ * @version 1.6 (Oct 17, 2026)
+ */
+public final class GameRecord {
+    
+    /**
+     * The maximum width and height of a recorded board, so that each fits in
+     * a byte.
+     */
+    public static final int MAX_DIMENSION = 255;
+    
+    private final int width;
+    private final int height;
+    private final int winningLength;
+    
+    /**
+     * The owner of the initial state, i.e., the opponent of the first mover.
+     */
+    private final PlayerColor initialPlayerColor;
+    
+    /**
+     * The columns of the moves in the order of play.
+     */
+    private final byte[] moves;
+    
+    /**
+     * Constructs a game record.
+     * 
+     * @param width the board width.
+     * @param height the board height.
+     * @param winningLength the winning pattern length.
+     * @param initialPlayerColor the owner of the initial empty board.
+     * @param moves the columns of the moves in the order of play.
+     */
+    public GameRecord(int width,
+                      int height,
+                      int winningLength,
+                      PlayerColor initialPlayerColor,
+                      int[] moves) {
+        this(width,
+             height,
+             winningLength,
+             initialPlayerColor,
+             toBytes(moves, width));
+    }
+    
+    /**
+     * Constructs a game record taking over the move array.
+     */
+    GameRecord(int width,
+               int height,
+               int winningLength,
+               PlayerColor initialPlayerColor,
+               byte[] moves) {
+        this.width = checkDimension(width, "width");
+        this.height = checkDimension(height, "height");
+        this.winningLength = checkDimension(winningLength, "winningLength");
+        this.initialPlayerColor =
+                Objects.requireNonNull(initialPlayerColor,
+                                       "The initial player is null.");
+        
+        if (moves.length > width * height) {
+            throw new IllegalArgumentException(
+                    "moves.length = " + moves.length);
+        }
+        
+        this.moves = moves;
+    }
+    
+    public int getWidth() {
+        return width;
+    }
+    
+    public int getHeight() {
+        return height;
+    }
+    
+    public int getWinningLength() {
+        return winningLength;
+    }
+    
+    public PlayerColor getInitialPlayerColor() {
+        return initialPlayerColor;
+    }
+    
+    public int getNumberOfMoves() {
+        return moves.length;
+    }
+    
+    /**
+     * Returns the column of a move.
+     * 
+     * @param ply the index of the move.
+     * @return the column of the move.
+     */
+    public int getMove(int ply) {
+        return moves[ply] & 0xff;
+    }
+    
+    /**
+     * Returns the columns of all the moves.
+     * 
+     * @return the columns of the moves in the order of play.
+     */
+    public int[] getMoves() {
+        int[] result = new int[moves.length];
+        
+        for (int i = 0; i < moves.length; i++) {
+            result[i] = moves[i] & 0xff;
+        }
+        
+        return result;
+    }
+    
+    /**
+     * Returns the initial empty board of the game.
+     * 
+     * @return the initial state.
+     */
+    public ConnectFourState getInitialState() {
+        return new ConnectFourState(width,
+                                    height,
+                                    winningLength,
+                                    initialPlayerColor);
+    }
+    
+    /**
+     * Reconstructs the state after a given number of moves.
+     * 
+     * @param ply the number of the moves to replay.
+     * @return the state after {@code ply} moves.
+     * @throws IllegalStateException if a move is played to a full column.
+     */
+    public ConnectFourState getState(int ply) {
+        if (ply < 0 || ply > moves.length) {
+            throw new IndexOutOfBoundsException("ply = " + ply);
+        }
+        
+        ConnectFourState state = getInitialState();
+        
+        for (int i = 0; i < ply; i++) {
+            state.play(getMove(i));
+        }
+        
+        return state.copy();
+    }
+    
+    /**
+     * Reconstructs the state after all the moves.
+     * 
+     * @return the final state of the game.
+     */
+    public ConnectFourState getFinalState() {
+        return getState(moves.length);
+    }
+    
+    /**
+     * Returns the move array without copying it.
+     */
+    byte[] getMoveBytes() {
+        return moves;
+    }
+    
+    /**
+     * Finds the column of the move leading from a state to the next one.
+     * 
+     * @param state the state before the move.
+     * @param nextState the state after the move.
+     * @return the column of the move.
+     */
+    static int findMove(ConnectFourState state, ConnectFourState nextState) {
+        for (int x = 0; x < state.getWidth(); x++) {
+            if (state.getTopRow(x) != nextState.getTopRow(x)) {
+                return x;
+            }
+        }
+        
+        throw new IllegalArgumentException("No move made.");
+    }
+    
+    @Override
+    public boolean equals(Object o) {
+        if (o == this) {
+            return true;
+        }
+        
+        if (!(o instanceof GameRecord)) {
+            return false;
+        }
+        
+        GameRecord other = (GameRecord) o;
+        return width == other.width
+            && height == other.height
+            && winningLength == other.winningLength
+            && initialPlayerColor == other.initialPlayerColor
+            && Arrays.equals(moves, other.moves);
+    }
+    
+    @Override
+    public int hashCode() {
+        return Objects.hash(width,
+                            height,
+                            winningLength,
+                            initialPlayerColor,
+                            Arrays.hashCode(moves));
+    }
+    
+    @Override
+    public String toString() {
+        return width + "x" + height + "/" + winningLength + " " +
+               Arrays.toString(getMoves());
+    }
+    
+    private static int checkDimension(int dimension, String name) {
+        if (dimension < 1 || dimension > MAX_DIMENSION) {
+            throw new IllegalArgumentException(name + " = " + dimension);
+        }
+        
+        return dimension;
+    }
+    
+    private static byte[] toBytes(int[] moves, int width) {
+        Objects.requireNonNull(moves, "The move array is null.");
+        byte[] bytes = new byte[moves.length];
+        
+        for (int i = 0; i < moves.length; i++) {
+            if (moves[i] < 0 || moves[i] >= width) {
+                throw new IllegalArgumentException(
+                        "moves[" + i + "] = " + moves[i]);
+            }
+            
+            bytes[i] = (byte) moves[i];
+        }
+        
+        return bytes;
+    }
+}
@@ -0,0 +1,172 @@
+package net.coderodde.games.connect.four;
+
+import java.io.Closeable;
+import java.io.EOFException;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.channels.ReadableByteChannel;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.Objects;
+
+/**
+ * This class reads the stream of {@link GameRecord}s written by
+ * {@link GameRecordWriter} from a channel, one record at a time, so that a
+ * file of any size is replayed in constant memory.
+ * 
+ * <p>This class is not thread-safe.
+ * 
+ * @author Rodion "rodde" Efremov
+ * @version 1.6 (Oct 17, 2026)
+ */
+public final class GameRecordReader implements Closeable {
+    
+    private final ReadableByteChannel channel;
+    private final ByteBuffer buffer =
+            ByteBuffer.allocateDirect(GameRecordWriter.BUFFER_SIZE);
+    
+    /**
+     * Whether the channel has reached the end of the stream.
+     */
+    private boolean endOfStream;
+    
+    /**
+     * Constructs a reader and reads the header from the channel.
+     * 
+     * @param channel the source channel.
+     * @throws IOException if the header cannot be read or is not a header
+     *                     of a game record stream.
+     */
+    public GameRecordReader(ReadableByteChannel channel) throws IOException {
+        this.channel = Objects.requireNonNull(channel, "The channel is null.");
+        buffer.limit(0);
+        
+        if (!fill(GameRecordWriter.HEADER_SIZE)
+                || buffer.getInt() != GameRecordWriter.MAGIC) {
+            throw new IOException("Not a game record stream.");
+        }
+        
+        int version = buffer.getInt();
+        
+        if (version != GameRecordWriter.VERSION) {
+            throw new IOException(
+                    "Unsupported game record version: " + version);
+        }
+    }
+    
+    /**
+     * Opens a reader on a file.
+     * 
+     * @param path the path of the file.
+     * @return the reader.
+     * @throws IOException if the file cannot be opened or is not a game
+     *                     record file.
+     */
+    public static GameRecordReader open(Path path) throws IOException {
+        Objects.requireNonNull(path, "The path is null.");
+        FileChannel channel = FileChannel.open(path, StandardOpenOption.READ);
+        
+        try {
+            return new GameRecordReader(channel);
+        } catch (IOException ex) {
+            channel.close();
+            throw ex;
+        }
+    }
+    
+    /**
+     * Reads the next record.
+     * 
+     * @return the next record, or {@code null} at the end of the stream.
+     * @throws IOException if the record cannot be read or is malformed.
+     */
+    public GameRecord read() throws IOException {
+        if (!fill(GameRecordWriter.RECORD_HEADER_SIZE)) {
+            if (buffer.hasRemaining()) {
+                throw new EOFException("Truncated game record.");
+            }
+            
+            return null;
+        }
+        
+        int width = buffer.get() & 0xff;
+        int height = buffer.get() & 0xff;
+        int winningLength = buffer.get() & 0xff;
+        int flags = buffer.get();
+        int moveCount = buffer.getShort() & 0xffff;
+        boolean nibbles = (flags & GameRecordWriter.NIBBLES_FLAG) != 0;
+        
+        if (!fill(nibbles ? (moveCount + 1) / 2 : moveCount)) {
+            throw new EOFException("Truncated game record.");
+        }
+        
+        byte[] moves = new byte[moveCount];
+        
+        if (!nibbles) {
+            buffer.get(moves);
+        } else {
+            for (int i = 0; i < moveCount; i += 2) {
+                int b = buffer.get();
+                moves[i] = (byte) ((b >>> 4) & 0xf);
+                
+                if (i + 1 < moveCount) {
+                    moves[i + 1] = (byte) (b & 0xf);
+                }
+            }
+        }
+        
+        for (byte move : moves) {
+            if ((move & 0xff) >= width) {
+                throw new IOException("Malformed game record: the move " +
+                                      (move & 0xff) + " on a board of " +
+                                      width + " columns.");
+            }
+        }
+        
+        PlayerColor initialPlayerColor =
+                (flags & GameRecordWriter.MAXIMIZING_OWNER_FLAG) != 0 ?
+                PlayerColor.MAXIMIZING_PLAYER :
+                PlayerColor.MINIMIZING_PLAYER;
+        
+        try {
+            return new GameRecord(width,
+                                  height,
+                                  winningLength,
+                                  initialPlayerColor,
+                                  moves);
+        } catch (IllegalArgumentException ex) {
+            throw new IOException("Malformed game record.", ex);
+        }
+    }
+    
+    @Override
+    public void close() throws IOException {
+        channel.close();
+    }
+    
+    /**
+     * Reads from the channel until the buffer holds at least {@code size}
+     * bytes or the stream ends.
+     * 
+     * @param size the number of the bytes needed.
+     * @return {@code true} only if the buffer holds {@code size} bytes.
+     */
+    private boolean fill(int size) throws IOException {
+        if (buffer.remaining() >= size) {
+            return true;
+        }
+        
+        buffer.compact();
+        
+        try {
+            while (buffer.position() < size && !endOfStream) {
+                endOfStream = channel.read(buffer) < 0;
+            }
+        } finally {
+            buffer.flip();
+        }
+        
+        return buffer.remaining() >= size;
+    }
+}
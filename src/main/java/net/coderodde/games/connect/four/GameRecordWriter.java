@@ -0,0 +1,184 @@
+package net.coderodde.games.connect.four;
+
+import java.io.Closeable;
+import java.io.Flushable;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.channels.WritableByteChannel;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.Objects;
+
+/**
+ * This class writes a stream of {@link GameRecord}s to a channel. The
+ * records are encoded into a direct buffer, which is written to the channel
+ * whenever it cannot hold the next record, so that logging a game costs no
+ * allocation and rarely a system call.
+ * 
+ * <p>The stream starts with a header of {@value #HEADER_SIZE} bytes: the
+ * magic number and the format version. Each record then consists of the
+ * width, the height and the winning length of the board, a byte of flags,
+ * the number of the moves as an unsigned 16-bit integer and the moves. On
+ * the boards of at most {@value #MAX_NIBBLE_WIDTH} columns, the moves are
+ * packed two per byte, the earlier move in the high nibble; on the wider
+ * boards, each move takes a byte. All the integers are big-endian.
+ * 
+ * <p>This class is not thread-safe.
+ * 
+ * @see GameRecordReader
+ * 
+ * @author Rodion "rodde" Efremov
+ * @version 1.6 (Oct 17, 2026)
+ */
+public final class GameRecordWriter implements Closeable, Flushable {
+    
+    static final int MAGIC = 0x43344752; // "C4GR"
+    static final int VERSION = 1;
+    static final int HEADER_SIZE = 8;
+    static final int RECORD_HEADER_SIZE = 6;
+    
+    /**
+     * The widest board the moves of which are packed into nibbles.
+     */
+    static final int MAX_NIBBLE_WIDTH = 16;
+    
+    /**
+     * Set if the initial state is owned by the maximizing player.
+     */
+    static final int MAXIMIZING_OWNER_FLAG = 1;
+    
+    /**
+     * Set if the moves are packed into nibbles.
+     */
+    static final int NIBBLES_FLAG = 2;
+    
+    /**
+     * The size of the buffer, enough for the largest record.
+     */
+    static final int BUFFER_SIZE = 1 << 16;
+    
+    private final WritableByteChannel channel;
+    private final ByteBuffer buffer = ByteBuffer.allocateDirect(BUFFER_SIZE);
+    private long recordCount;
+    
+    /**
+     * Constructs a writer and writes the header to the channel.
+     * 
+     * @param channel the target channel.
+     * @throws IOException if the header cannot be written.
+     */
+    public GameRecordWriter(WritableByteChannel channel) throws IOException {
+        this.channel = Objects.requireNonNull(channel, "The channel is null.");
+        buffer.putInt(MAGIC);
+        buffer.putInt(VERSION);
+        flush();
+    }
+    
+    /**
+     * Creates or truncates a file and opens a writer on it.
+     * 
+     * @param path the path of the file.
+     * @return the writer.
+     * @throws IOException if the file cannot be opened.
+     */
+    public static GameRecordWriter open(Path path) throws IOException {
+        Objects.requireNonNull(path, "The path is null.");
+        FileChannel channel = FileChannel.open(
+                path,
+                StandardOpenOption.CREATE,
+                StandardOpenOption.TRUNCATE_EXISTING,
+                StandardOpenOption.WRITE);
+        
+        try {
+            return new GameRecordWriter(channel);
+        } catch (IOException ex) {
+            channel.close();
+            throw ex;
+        }
+    }
+    
+    /**
+     * Appends a record to the stream.
+     * 
+     * @param record the record to write.
+     * @throws IOException if the buffered records cannot be written.
+     */
+    public void write(GameRecord record) throws IOException {
+        Objects.requireNonNull(record, "The game record is null.");
+        byte[] moves = record.getMoveBytes();
+        boolean nibbles = record.getWidth() <= MAX_NIBBLE_WIDTH;
+        int size = RECORD_HEADER_SIZE +
+                   (nibbles ? (moves.length + 1) / 2 : moves.length);
+        
+        if (buffer.remaining() < size) {
+            drain();
+        }
+        
+        int flags = nibbles ? NIBBLES_FLAG : 0;
+        
+        if (record.getInitialPlayerColor() == PlayerColor.MAXIMIZING_PLAYER) {
+            flags |= MAXIMIZING_OWNER_FLAG;
+        }
+        
+        buffer.put((byte) record.getWidth());
+        buffer.put((byte) record.getHeight());
+        buffer.put((byte) record.getWinningLength());
+        buffer.put((byte) flags);
+        buffer.putShort((short) moves.length);
+        
+        if (!nibbles) {
+            buffer.put(moves);
+        } else {
+            for (int i = 0; i < moves.length; i += 2) {
+                int low = i + 1 < moves.length ? moves[i + 1] : 0;
+                buffer.put((byte) ((moves[i] << 4) | low));
+            }
+        }
+        
+        recordCount++;
+    }
+    
+    /**
+     * Returns the number of the records written so far.
+     * 
+     * @return the number of the records.
+     */
+    public long getRecordCount() {
+        return recordCount;
+    }
+    
+    /**
+     * Writes the buffered records to the channel.
+     * 
+     * @throws IOException if the records cannot be written.
+     */
+    @Override
+    public void flush() throws IOException {
+        drain();
+    }
+    
+    /**
+     * Flushes the buffered records and closes the channel.
+     * 
+     * @throws IOException if the records cannot be written.
+     */
+    @Override
+    public void close() throws IOException {
+        try {
+            flush();
+        } finally {
+            channel.close();
+        }
+    }
+    
+    private void drain() throws IOException {
+        buffer.flip();
+        
+        while (buffer.hasRemaining()) {
+            channel.write(buffer);
+        }
+        
+        buffer.clear();
+    }
+}
@@ -0,0 +1,67 @@
+package net.coderodde.games.connect.four;
+
+import net.coderodde.zerosum.ai.EvaluatorFunction;
+
+/**
+ * This interface specifies the API for the evaluator functions that may
+ * follow a game in progress move by move instead of evaluating each state
+ * from scratch. {@link ConnectFourGameEngine} keeps a {@link Tracker} per
+ * working state and reports every move made and unmade during the search to
+ * it.
+ * 
+ * @author Rodion "rodde" Efremov
+ * @version 1.6 (Oct 17, 2026)
+ */
+public interface IncrementalEvaluatorFunction
+        extends EvaluatorFunction<ConnectFourState> {
+    
+    /**
+     * This interface specifies the API for following a single game. A
+     * tracker is not thread-safe.
+     */
+    public interface Tracker {
+        
+        /**
+         * Accounts a token dropped to the cell {@code (x, y)}.
+         * 
+         * @param x the column of the token.
+         * @param y the row of the token.
+         * @param playerColor the color of the token.
+         */
+        public void play(int x, int y, PlayerColor playerColor);
+        
+        /**
+         * Reverts {@link #play(int, int, PlayerColor)} with the same
+         * arguments.
+         * 
+         * @param x the column of the token.
+         * @param y the row of the token.
+         * @param playerColor the color of the token.
+         */
+        public void undo(int x, int y, PlayerColor playerColor);
+        
+        /**
+         * Returns the same value as {@code evaluate(state)} for the current
+         * state of the followed game.
+         * 
+         * @return the estimate.
+         */
+        public double evaluate();
+        
+        /**
+         * Starts following another game, as if this tracker had been created
+         * for the input state.
+         * 
+         * @param state the initial state. Not modified.
+         */
+        public void reset(ConnectFourState state);
+    }
+    
+    /**
+     * Creates a tracker following a game starting from the input state.
+     * 
+     * @param state the initial state. Not modified.
+     * @return the tracker.
+     */
+    public Tracker createTracker(ConnectFourState state);
+}
@@ -0,0 +1,150 @@
+package net.coderodde.games.connect.four;
+
+import java.util.Arrays;
+
+/**
+ * This class implements the killer move and the history heuristics. The 
+ * search reports each move causing a beta cutoff via 
+ * {@link #recordCutoff(ConnectFourState, int, int)}. The two most recent 
+ * cutoff moves of each ply, the killer moves, are ordered first, and the 
+ * rest of the moves are ordered by how often, and how deep, the cells they
+ * drop a token to have caused cutoffs for the player to move.
+ * 
+ * <p>A killer move is remembered as the cell the token was dropped to rather
+ * than as the column: the same column in a sibling position often drops the 
+ * token to another row, where it rarely refutes anything.
+ * 
+ * <p>The plies are counted by the number of tokens on the board, so that
+ * the ordering works both on the states made via 
+ * {@link ConnectFourState#play(int)} and on the states made via 
+ * {@link ConnectFourState#move(int)}. An ordering is not thread-safe.
+ * 
+ * @author Rodion "rodde" Efremov
+ * @version 1.6 (Oct 17, 2026)
+ */
+public final class KillerHistoryMoveOrdering implements MoveOrdering {
+    
+    /**
+     * The number of killer moves per ply.
+     */
+    private static final int KILLERS_PER_PLY = 2;
+    
+    /**
+     * Once a history score exceeds this, all the history scores are halved,
+     * so that they stay below the killer scores and the recent cutoffs 
+     * weigh more.
+     */
+    private static final int HISTORY_LIMIT = 1 << 20;
+    
+    /**
+     * The score of the most recent killer move. The older one scores one 
+     * less.
+     */
+    private static final int KILLER_SCORE = Integer.MAX_VALUE - 1;
+    
+    private static final int NO_MOVE = -1;
+    
+    private final int width;
+    private final int height;
+    
+    /**
+     * {@code killers[ply * KILLERS_PER_PLY + i]} is the cell 
+     * {@code y * width + x} of the {@code i}th killer move of the states 
+     * with {@code ply} tokens, the most recent first.
+     */
+    private final int[] killers;
+    
+    /**
+     * {@code history[color * width * height + y * width + x]} is the history
+     * score of dropping a token of the player of ordinal {@code color} to 
+     * the cell {@code (x, y)}.
+     */
+    private final int[] history;
+    
+    /**
+     * Constructs this ordering for the boards of given dimensions.
+     * 
+     * @param width the number of columns.
+     * @param height the number of rows.
+     */
+    public KillerHistoryMoveOrdering(int width, int height) {
+        if (width < 1) {
+            throw new IllegalArgumentException("width = " + width);
+        }
+        
+        if (height < 1) {
+            throw new IllegalArgumentException("height = " + height);
+        }
+        
+        this.width = width;
+        this.height = height;
+        this.killers = new int[(width * height + 1) * KILLERS_PER_PLY];
+        this.history = new int[2 * width * height];
+        clear();
+    }
+    
+    @Override
+    public int score(ConnectFourState state, int x) {
+        int killerIndex = state.getNumberOfTokens() * KILLERS_PER_PLY;
+        int cell = cellOf(state, x);
+        
+        if (killers[killerIndex] == cell) {
+            return KILLER_SCORE;
+        }
+        
+        if (killers[killerIndex + 1] == cell) {
+            return KILLER_SCORE - 1;
+        }
+        
+        return history[historyIndex(state, x)];
+    }
+    
+    /**
+     * Records a move causing a beta cutoff.
+     * 
+     * @param state the state in which the move was made.
+     * @param x the column of the move.
+     * @param depth the remaining search depth of {@code state}.
+     */
+    public void recordCutoff(ConnectFourState state, int x, int depth) {
+        int killerIndex = state.getNumberOfTokens() * KILLERS_PER_PLY;
+        int cell = cellOf(state, x);
+        
+        if (killers[killerIndex] != cell) {
+            killers[killerIndex + 1] = killers[killerIndex];
+            killers[killerIndex] = cell;
+        }
+        
+        int historyIndex = historyIndex(state, x);
+        history[historyIndex] += depth * depth;
+        
+        if (history[historyIndex] > HISTORY_LIMIT) {
+            for (int i = 0; i < history.length; i++) {
+                history[i] >>= 1;
+            }
+        }
+    }
+    
+    /**
+     * Forgets all the killer moves and the history scores.
+     */
+    public void clear() {
+        Arrays.fill(killers, NO_MOVE);
+        Arrays.fill(history, 0);
+    }
+    
+    /**
+     * Returns the cell {@code y * width + x} the move to the column 
+     * {@code x} drops a token to.
+     */
+    private int cellOf(ConnectFourState state, int x) {
+        // The token lands right above the topmost one:
+        return (state.getTopRow(x) - 1) * width + x;
+    }
+    
+    private int historyIndex(ConnectFourState state, int x) {
+        int color = ConnectFourState.opposite(state.getPlayerColor())
+                                    .ordinal();
+        return color * width * height + cellOf(state, x);
+    }
+}
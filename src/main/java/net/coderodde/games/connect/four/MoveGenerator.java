@@ -0,0 +1,176 @@
+package net.coderodde.games.connect.four;
+
+import java.util.NoSuchElementException;
+import java.util.Objects;
+
+/**
+ * This class implements a lazy generator of the legal moves of a state. 
+ * Upon {@link #reset(ConnectFourState, int, MoveOrdering)}, the generator 
+ * only collects and scores the legal columns. Each call to 
+ * {@link #nextMove()} selects the best remaining move, so that a search 
+ * cutting off after the first move never sorts the rest.
+ * 
+ * <p>A generator may be reset any number of times and allocates nothing 
+ * after its construction, so that a search may keep a generator per ply. A
+ * generator is not thread-safe.
+ * 
+ * @author Rodion "rodde" Efremov
+ * @version 1.6 (Oct 17, 2026)
+ */
+public final class MoveGenerator {
+    
+    /**
+     * Denotes the absence of a move to generate first.
+     */
+    public static final int NO_MOVE = -1;
+    
+    /**
+     * The bitmask selecting all the columns.
+     */
+    private static final int ALL_COLUMNS = -1;
+    
+    /**
+     * The columns in the center-first order.
+     */
+    private final int[] columnOrder;
+    
+    /**
+     * {@code moves[i]} is a remaining move of score {@code scores[i]} for
+     * all {@code i >= nextIndex}.
+     */
+    private final int[] moves;
+    private final int[] scores;
+    
+    private int moveCount;
+    private int nextIndex;
+    
+    /**
+     * Constructs a generator for the states of given width.
+     * 
+     * @param width the number of columns.
+     */
+    public MoveGenerator(int width) {
+        if (width < 1) {
+            throw new IllegalArgumentException("width = " + width);
+        }
+        
+        this.columnOrder = ConnectFourGameEngine.computeColumnOrder(width);
+        this.moves = new int[width];
+        this.scores = new int[width];
+    }
+    
+    /**
+     * Starts generating the legal moves of a state.
+     * 
+     * @param state the state. Must not be modified until the moves are 
+     *              generated.
+     * @param firstMove the move to generate first if it is legal, typically
+     *                  the best move stored in a transposition table, or 
+     *                  {@link #NO_MOVE}.
+     * @param ordering the order of the rest of the moves.
+     */
+    public void reset(ConnectFourState state, 
+                      int firstMove, 
+                      MoveOrdering ordering) {
+        reset(state, firstMove, ordering, ALL_COLUMNS);
+    }
+    
+    /**
+     * Starts generating a subset of the legal moves of a state.
+     * 
+     * @param state the state. Must not be modified until the moves are 
+     *              generated.
+     * @param firstMove the move to generate first if it is legal and in 
+     *                  {@code columns}, or {@link #NO_MOVE}.
+     * @param ordering the order of the rest of the moves.
+     * @param columns the bitmask of the columns to generate, such as the 
+     *                result of {@link ConnectFourState#getNonLosingColumns()}.
+     */
+    public void reset(ConnectFourState state, 
+                      int firstMove, 
+                      MoveOrdering ordering,
+                      int columns) {
+        Objects.requireNonNull(state, "The input state is null.");
+        Objects.requireNonNull(ordering, "The move ordering is null.");
+        
+        if (state.getWidth() != columnOrder.length) {
+            throw new IllegalArgumentException(
+                    "The state width does not match the generator width.");
+        }
+        
+        moveCount = 0;
+        nextIndex = 0;
+        
+        if (firstMove >= 0 
+                && firstMove < columnOrder.length
+                && isGenerated(state, firstMove, columns)) {
+            moves[moveCount] = firstMove;
+            scores[moveCount++] = Integer.MAX_VALUE;
+        }
+        
+        for (int x : columnOrder) {
+            if (x != firstMove && isGenerated(state, x, columns)) {
+                moves[moveCount] = x;
+                scores[moveCount++] = ordering.score(state, x);
+            }
+        }
+    }
+    
+    private static boolean isGenerated(ConnectFourState state, 
+                                       int x, 
+                                       int columns) {
+        return (columns & (1 << x)) != 0 && !state.columnIsFull(x);
+    }
+    
+    /**
+     * Checks whether there are moves left.
+     * 
+     * @return {@code true} only if {@link #nextMove()} may be called.
+     */
+    public boolean hasNext() {
+        return nextIndex < moveCount;
+    }
+    
+    /**
+     * Returns the best remaining move. Among the moves of equal score, the
+     * one closest to the center is returned.
+     * 
+     * @return the column of the move.
+     */
+    public int nextMove() {
+        if (nextIndex == moveCount) {
+            throw new NoSuchElementException("No moves left.");
+        }
+        
+        int bestIndex = nextIndex;
+        
+        for (int i = nextIndex + 1; i < moveCount; i++) {
+            if (scores[i] > scores[bestIndex]) {
+                bestIndex = i;
+            }
+        }
+        
+        // Shift the skipped moves by one, so that the ties stay in the 
+        // center-first order:
+        int move = moves[bestIndex];
+        int score = scores[bestIndex];
+        
+        for (int i = bestIndex; i > nextIndex; i--) {
+            moves[i] = moves[i - 1];
+            scores[i] = scores[i - 1];
+        }
+        
+        moves[nextIndex] = move;
+        scores[nextIndex++] = score;
+        return move;
+    }
+    
+    /**
+     * Returns the number of the legal moves of the state, generated or not.
+     * 
+     * @return the number of the legal moves.
+     */
+    public int getMoveCount() {
+        return moveCount;
+    }
+}
@@ -0,0 +1,29 @@
+package net.coderodde.games.connect.four;
+
+/**
+ * This interface specifies the API for ordering the moves generated by 
+ * {@link MoveGenerator}. The moves of higher scores are generated first, and 
+ * the moves of equal scores are generated from the center columns outwards.
+ * 
+ * @author Rodion "rodde" Efremov
+ * @version 1.6 (Oct 17, 2026)
+ */
+@FunctionalInterface
+public interface MoveOrdering {
+    
+    /**
+     * Keeps the moves in the center-first order.
+     */
+    public static final MoveOrdering CENTER_FIRST = (state, x) -> 0;
+    
+    /**
+     * Scores a legal move.
+     * 
+     * @param state the state in which the move is made. Must not be 
+     *              modified.
+     * @param x the column of the move.
+     * @return the score of the move. The moves of higher scores are 
+     *         generated first.
+     */
+    public int score(ConnectFourState state, int x);
+}
@@ -0,0 +1,189 @@
+package net.coderodde.games.connect.four;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.Objects;
+
+/**
+ * This class implements a read-only opening book. The book file is mapped
+ * into memory and searched in place via binary search, so that the lookups
+ * allocate nothing. The books are written by {@link OpeningBookGenerator}.
+ * 
+ * <p>The file starts with a header of {@value #HEADER_SIZE} bytes: the magic
+ * number, the format version, the width, the height and the winning length
+ * of the board, the maximum ply of the book and the number of the records.
+ * The header is followed by the records of {@value #RECORD_SIZE} bytes each,
+ * sorted by the position key: the 64-bit canonical key, the best move and 
+ * the score as returned by {@link ConnectFourSolver#solve(ConnectFourState)}.
+ * A position and its mirror image share a record, the move of which is 
+ * relative to the canonical position.
+ * 
+ * @see ConnectFourState#getCanonicalKey()
+ * 
+ * @author Rodion "rodde" Efremov
+ * @version 1.6 (Oct 17, 2026)
+ */
+public final class OpeningBook {
+    
+    /**
+     * Denotes the absence of a position in the book.
+     */
+    public static final int NO_MOVE = -1;
+    
+    static final int MAGIC = 0x43344f42; // "C4OB"
+    static final int VERSION = 2;
+    static final int HEADER_SIZE = 16;
+    static final int RECORD_SIZE = 10;
+    
+    private static final int KEY_OFFSET = 0;
+    private static final int MOVE_OFFSET = 8;
+    private static final int SCORE_OFFSET = 9;
+    
+    /**
+     * The mapped book file.
+     */
+    private final ByteBuffer buffer;
+    
+    private final int width;
+    private final int height;
+    private final int winningLength;
+    private final int maximumPly;
+    private final int size;
+    
+    /**
+     * Maps the book file into memory.
+     * 
+     * @param path the path of the book file.
+     * @throws IOException if the file cannot be read or is not a book.
+     */
+    public OpeningBook(Path path) throws IOException {
+        Objects.requireNonNull(path, "The book path is null.");
+        
+        // The mapping stays valid after the channel is closed:
+        try (FileChannel channel = FileChannel.open(path,
+                                                    StandardOpenOption.READ)) {
+            this.buffer = channel.map(FileChannel.MapMode.READ_ONLY,
+                                      0L,
+                                      channel.size());
+        }
+        
+        if (buffer.capacity() < HEADER_SIZE
+                || buffer.getInt(0) != MAGIC
+                || buffer.getInt(4) != VERSION) {
+            throw new IOException("Not an opening book: " + path);
+        }
+        
+        this.width = buffer.get(8);
+        this.height = buffer.get(9);
+        this.winningLength = buffer.get(10);
+        this.maximumPly = buffer.get(11);
+        this.size = buffer.getInt(12);
+        
+        if ((long) size * RECORD_SIZE + HEADER_SIZE != buffer.capacity()) {
+            throw new IOException("Truncated opening book: " + path);
+        }
+    }
+    
+    /**
+     * Finds the record of a state or its mirror image.
+     * 
+     * @param state the state to look up.
+     * @return the index of the record, or {@code -1} if the state is not in
+     *         this book.
+     */
+    public int indexOf(ConnectFourState state) {
+        if (state.getWidth() != width
+                || state.getHeight() != height
+                || state.getWinningLength() != winningLength
+                || !ConnectFourState.fitsInBitboard(width, height)) {
+            return -1;
+        }
+        
+        long key = state.getCanonicalKey();
+        int low = 0;
+        int high = size - 1;
+        
+        while (low <= high) {
+            int middle = (low + high) >>> 1;
+            long middleKey = buffer.getLong(offset(middle) + KEY_OFFSET);
+            
+            if (middleKey < key) {
+                low = middle + 1;
+            } else if (middleKey > key) {
+                high = middle - 1;
+            } else {
+                return middle;
+            }
+        }
+        
+        return -1;
+    }
+    
+    /**
+     * Returns the best move in a state.
+     * 
+     * @param state the state to look up.
+     * @return the best move, or {@link #NO_MOVE} if the state is not in this
+     *         book.
+     */
+    public int findMove(ConnectFourState state) {
+        int index = indexOf(state);
+        
+        if (index < 0) {
+            return NO_MOVE;
+        }
+        
+        int move = getMove(index);
+        return state.isCanonical() ? move : width - 1 - move;
+    }
+    
+    /**
+     * Returns the best move of a record in the canonical position. Use 
+     * {@link #findMove(ConnectFourState)} for the move in a given state.
+     * 
+     * @param index the index of the record.
+     * @return the best move in the canonical position.
+     */
+    public int getMove(int index) {
+        return buffer.get(offset(index) + MOVE_OFFSET);
+    }
+    
+    /**
+     * Returns the score of a record.
+     * 
+     * @param index the index of the record.
+     * @return the score relative to the player to move.
+     */
+    public int getScore(int index) {
+        return buffer.get(offset(index) + SCORE_OFFSET);
+    }
+    
+    /**
+     * Returns the number of the records in this book.
+     * 
+     * @return the number of the records.
+     */
+    public int size() {
+        return size;
+    }
+    
+    /**
+     * Returns the maximum number of tokens in the positions of this book.
+     * 
+     * @return the maximum ply.
+     */
+    public int getMaximumPly() {
+        return maximumPly;
+    }
+    
+    private int offset(int index) {
+        if (index < 0 || index >= size) {
+            throw new IndexOutOfBoundsException("index = " + index);
+        }
+        
+        return HEADER_SIZE + index * RECORD_SIZE;
+    }
+}
@@ -0,0 +1,196 @@
+package net.coderodde.games.connect.four;
+
+import java.io.BufferedOutputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Objects;
+
+/**
+ * This class generates the opening books read by {@link OpeningBook}. The
+ * generator solves every non-terminal position reachable from the empty 
+ * board in at most the given number of moves, and writes each position 
+ * and its mirror image once, sorted by their canonical keys.
+ * 
+ * <p>Usage: {@code OpeningBookGenerator file maxPly [width height 
+ * winningLength]}. The positions near the empty board are the most 
+ * expensive to solve, and a book of a dozen plies of the standard board 
+ * takes hours and gigabytes of heap to generate.
+ * 
+ * @author Rodion "rodde" Efremov
+ * @version 1.6 (Oct 17, 2026)
+ */
+public final class OpeningBookGenerator {
+    
+    private final ConnectFourSolver solver;
+    
+    /**
+     * Maps the canonical keys of the solved positions to their best moves in
+     * the canonical positions and their scores, packed via 
+     * {@link #pack(int, int)}.
+     */
+    private final Map<Long, Short> records = new HashMap<>();
+    
+    private final int maximumPly;
+    
+    private OpeningBookGenerator(ConnectFourSolver solver, int maximumPly) {
+        this.solver = solver;
+        this.maximumPly = maximumPly;
+    }
+    
+    /**
+     * Generates an opening book.
+     * 
+     * @param path the path of the book file to write.
+     * @param maximumPly the maximum number of tokens in the positions of the
+     *                   book.
+     * @param width the board width.
+     * @param height the board height.
+     * @param winningLength the winning pattern length.
+     * @throws IllegalArgumentException if the board does not fit in a 
+     *                                  bitboard, or {@code maximumPly} is
+     *                                  out of range.
+     * @throws IOException if the book cannot be written.
+     */
+    public static void generate(Path path, 
+                                int maximumPly,
+                                int width,
+                                int height,
+                                int winningLength) throws IOException {
+        Objects.requireNonNull(path, "The book path is null.");
+        
+        // The book keys are the bitboard keys of the positions:
+        if (!ConnectFourState.fitsInBitboard(width, height)) {
+            throw new IllegalArgumentException(
+                    "The board " + width + "x" + height + 
+                    " does not fit in a bitboard.");
+        }
+        
+        if (maximumPly < 0 || maximumPly >= width * height) {
+            throw new IllegalArgumentException("maximumPly = " + maximumPly);
+        }
+        
+        ConnectFourState state = 
+                new ConnectFourState(width, 
+                                     height, 
+                                     winningLength, 
+                                     PlayerColor.MINIMIZING_PLAYER);
+        
+        OpeningBookGenerator generator = 
+                new OpeningBookGenerator(new ConnectFourSolver(), maximumPly);
+        generator.visit(state);
+        generator.write(path, state);
+    }
+    
+    public static void main(String[] args) throws IOException {
+        if (args.length != 2 && args.length != 5) {
+            System.err.println(
+                    "Usage: OpeningBookGenerator file maxPly " +
+                    "[width height winningLength]");
+            System.exit(1);
+        }
+        
+        Path path = Paths.get(args[0]);
+        int maximumPly = Integer.parseInt(args[1]);
+        int width = ConnectFourState.DEFAULT_WIDTH;
+        int height = ConnectFourState.DEFAULT_HEIGHT;
+        int winningLength = ConnectFourState.DEFAULT_WINNING_LENGTH;
+        
+        if (args.length == 5) {
+            width = Integer.parseInt(args[2]);
+            height = Integer.parseInt(args[3]);
+            winningLength = Integer.parseInt(args[4]);
+        }
+        
+        long startTime = System.currentTimeMillis();
+        generate(path, maximumPly, width, height, winningLength);
+        long endTime = System.currentTimeMillis();
+        
+        System.out.println("Wrote " + new OpeningBook(path).size() + 
+                           " positions in " + (endTime - startTime) + 
+                           " ms.");
+    }
+    
+    /**
+     * Solves the state and all its descendants within the maximum ply.
+     * 
+     * @param state the working state. Restored before returning.
+     */
+    private void visit(ConnectFourState state) {
+        long key = state.getCanonicalKey();
+        
+        if (records.containsKey(key)) {
+            return;
+        }
+        
+        int score = solver.solve(state);
+        int move = solver.findBestMove(state, score);
+        
+        if (!state.isCanonical()) {
+            move = state.getWidth() - 1 - move;
+        }
+        
+        records.put(key, pack(move, score));
+        
+        if (state.getNumberOfTokens() == maximumPly) {
+            return;
+        }
+        
+        for (int x = 0; x < state.getWidth(); x++) {
+            if (state.columnIsFull(x) || state.isWinningMove(x)) {
+                continue;
+            }
+            
+            state.play(x);
+            
+            if (!state.isFull()) {
+                visit(state);
+            }
+            
+            state.undo();
+        }
+    }
+    
+    private void write(Path path, ConnectFourState state) throws IOException {
+        long[] keys = new long[records.size()];
+        int i = 0;
+        
+        for (long key : records.keySet()) {
+            keys[i++] = key;
+        }
+        
+        Arrays.sort(keys);
+        
+        try (DataOutputStream out = 
+                new DataOutputStream(
+                        new BufferedOutputStream(
+                                Files.newOutputStream(path)))) {
+            out.writeInt(OpeningBook.MAGIC);
+            out.writeInt(OpeningBook.VERSION);
+            out.writeByte(state.getWidth());
+            out.writeByte(state.getHeight());
+            out.writeByte(state.getWinningLength());
+            out.writeByte(maximumPly);
+            out.writeInt(keys.length);
+            
+            for (long key : keys) {
+                short record = records.get(key);
+                out.writeLong(key);
+                out.writeByte(record >> 8);
+                out.writeByte(record);
+            }
+        }
+    }
+    
+    /**
+     * Packs a move and a score into the two bytes of a record.
+     */
+    private static short pack(int move, int score) {
+        return (short)((move << 8) | (score & 0xff));
+    }
+}
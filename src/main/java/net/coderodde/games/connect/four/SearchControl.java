@@ -0,0 +1,105 @@
+package net.coderodde.games.connect.four;
+
+/**
+ * This class implements the control of a single move computation shared by
+ * the computing bot and the other threads. Any thread may stop the
+ * computation, after which the bot returns the best move found so far as
+ * soon as it next polls the control; the stopping is thus cooperative, and
+ * never interrupts the computing thread. Likewise, the bot returns once the
+ * optional deadline of the control passes. Meanwhile, the bot reports the
+ * best move found so far, which any thread may query.
+ * 
+ * <p>A control serves a single computation, and is stopped for good.
+ * 
+ * @see Bot#computeNextState(ConnectFourState, SearchControl)
+ * @see Bot#computeNextStateAsync(ConnectFourState, SearchControl)
+ * 
+ * @author Rodion "rodde" Efremov
+ * @version 1.6 (Oct 17, 2026)
+ */
+public final class SearchControl {
+    
+    /**
+     * Denotes the absence of a reported move.
+     */
+    public static final int NO_MOVE = -1;
+    
+    /**
+     * The deadline of the controls without a time budget.
+     */
+    private static final long NO_DEADLINE = Long.MAX_VALUE;
+    
+    /**
+     * The value of {@link System#nanoTime()} after which the computation
+     * stops, or {@code NO_DEADLINE}.
+     */
+    private final long deadline;
+    
+    private volatile boolean stopped;
+    private volatile int bestMove = NO_MOVE;
+    
+    /**
+     * Constructs a control without a deadline.
+     */
+    public SearchControl() {
+        this.deadline = NO_DEADLINE;
+    }
+    
+    /**
+     * Constructs a control stopping the computation after a time budget,
+     * counted from now.
+     * 
+     * @param timeBudgetMillis the time budget in milliseconds.
+     */
+    public SearchControl(long timeBudgetMillis) {
+        if (timeBudgetMillis < 1L) {
+            throw new IllegalArgumentException(
+                    "timeBudgetMillis = " + timeBudgetMillis);
+        }
+        
+        this.deadline = System.nanoTime() + timeBudgetMillis * 1_000_000L;
+    }
+    
+    /**
+     * Requests the computation to stop and to return the best move found so
+     * far. Returns immediately.
+     */
+    public void stop() {
+        stopped = true;
+    }
+    
+    /**
+     * Checks whether the computation should stop, i.e., whether this control
+     * has been stopped or its deadline has passed. Called by the computing
+     * bot.
+     * 
+     * @return {@code true} only if the computation should stop.
+     */
+    public boolean isStopped() {
+        return stopped
+            || (deadline != NO_DEADLINE && System.nanoTime() - deadline >= 0L);
+    }
+    
+    /**
+     * Returns the best move found so far.
+     * 
+     * @return the column of the best move, or {@link #NO_MOVE} if none has
+     *         been reported yet.
+     */
+    public int getBestMove() {
+        return bestMove;
+    }
+    
+    /**
+     * Reports the best move found so far. Called by the computing bot.
+     * 
+     * @param move the column of the best move.
+     */
+    public void reportBestMove(int move) {
+        if (move < 0) {
+            throw new IllegalArgumentException("move = " + move);
+        }
+        
+        bestMove = move;
+    }
+}
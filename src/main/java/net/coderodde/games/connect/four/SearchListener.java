@@ -0,0 +1,22 @@
+package net.coderodde.games.connect.four;
+
+/**
+ * This interface specifies the API for receiving the statistics of the
+ * searches of {@link ConnectFourGameEngine}, for example, in order to export
+ * them to a metrics registry.
+ * 
+ * @author Rodion "rodde" Efremov
+ * @version 1.6 (Oct 17, 2026)
+ */
+@FunctionalInterface
+public interface SearchListener {
+    
+    /**
+     * Called on the searching thread after each search, before the move is
+     * returned. Should return quickly, since the caller of the engine waits
+     * for it.
+     * 
+     * @param stats the statistics of the search.
+     */
+    public void searchCompleted(SearchStats stats);
+}
@@ -0,0 +1,270 @@
+package net.coderodde.games.connect.four;
+
+import java.util.Arrays;
+
+/**
+ * This class holds the statistics of a single search of
+ * {@link ConnectFourGameEngine}. The counts cover all the iterations of the
+ * iterative deepening, including an iteration aborted by the time budget.
+ * 
+ * @author Rodion "rodde" Efremov
+ * @version 1.6 (Oct 17, 2026)
+ */
+public final class SearchStats {
+    
+    private final int depth;
+    private final int move;
+    private final int score;
+    private final long nodeCount;
+    private final long leafEvaluationCount;
+    private final long transpositionHitCount;
+    private final long transpositionMissCount;
+    private final long endgameHitCount;
+    private final long endgameMissCount;
+    private final long solvedNodeCount;
+    
+    /**
+     * {@code cutoffCounts[ply]} is the number of the beta cutoffs at the
+     * nodes at distance {@code ply} from the root. Has no trailing zeros.
+     */
+    private final long[] cutoffCounts;
+    
+    private final long elapsedNanos;
+    
+    SearchStats(int depth,
+                int move,
+                int score,
+                long nodeCount,
+                long leafEvaluationCount,
+                long transpositionHitCount,
+                long transpositionMissCount,
+                long endgameHitCount,
+                long endgameMissCount,
+                long solvedNodeCount,
+                long[] cutoffCounts,
+                long elapsedNanos) {
+        this.depth = depth;
+        this.move = move;
+        this.score = score;
+        this.nodeCount = nodeCount;
+        this.leafEvaluationCount = leafEvaluationCount;
+        this.transpositionHitCount = transpositionHitCount;
+        this.transpositionMissCount = transpositionMissCount;
+        this.endgameHitCount = endgameHitCount;
+        this.endgameMissCount = endgameMissCount;
+        this.solvedNodeCount = solvedNodeCount;
+        
+        int length = cutoffCounts.length;
+        
+        while (length > 0 && cutoffCounts[length - 1] == 0L) {
+            length--;
+        }
+        
+        this.cutoffCounts = Arrays.copyOf(cutoffCounts, length);
+        this.elapsedNanos = elapsedNanos;
+    }
+    
+    /**
+     * Returns the depth of the last completed iteration.
+     * 
+     * @return the depth reached.
+     */
+    public int getDepth() {
+        return depth;
+    }
+    
+    /**
+     * Returns the chosen move.
+     * 
+     * @return the column of the chosen move.
+     */
+    public int getMove() {
+        return move;
+    }
+    
+    /**
+     * Returns the score of the chosen move, relative to the player that made
+     * the move.
+     * 
+     * @return the score of the chosen move.
+     */
+    public int getScore() {
+        return score;
+    }
+    
+    /**
+     * Returns the number of the visited nodes.
+     * 
+     * @return the number of the visited nodes.
+     */
+    public long getNodeCount() {
+        return nodeCount;
+    }
+    
+    /**
+     * Returns the number of the states scored by the evaluator function.
+     * 
+     * @return the number of the leaf evaluations.
+     */
+    public long getLeafEvaluationCount() {
+        return leafEvaluationCount;
+    }
+    
+    /**
+     * Returns the number of the transposition table probes that found an
+     * entry of the probed position.
+     * 
+     * @return the number of the transposition table hits.
+     */
+    public long getTranspositionHitCount() {
+        return transpositionHitCount;
+    }
+    
+    /**
+     * Returns the number of the transposition table probes that found no
+     * entry of the probed position.
+     * 
+     * @return the number of the transposition table misses.
+     */
+    public long getTranspositionMissCount() {
+        return transpositionMissCount;
+    }
+    
+    /**
+     * Returns the number of the nodes scored by the endgame database.
+     * 
+     * @return the number of the endgame database hits.
+     * @see ConnectFourGameEngine#setEndgameDatabase(EndgameDatabase)
+     */
+    public long getEndgameHitCount() {
+        return endgameHitCount;
+    }
+    
+    /**
+     * Returns the number of the nodes within the range of the endgame 
+     * database but missing from it.
+     * 
+     * @return the number of the endgame database misses.
+     */
+    public long getEndgameMissCount() {
+        return endgameMissCount;
+    }
+    
+    /**
+     * Returns the fraction of the endgame database probes that hit.
+     * 
+     * @return the hit rate, or zero if the database was never probed.
+     */
+    public double getEndgameHitRate() {
+        long probes = endgameHitCount + endgameMissCount;
+        return probes == 0L ? 0.0 : (double) endgameHitCount / probes;
+    }
+    
+    /**
+     * Returns the number of the nodes solved exactly by the solver.
+     * 
+     * @return the number of the solved nodes.
+     * @see ConnectFourGameEngine#setSolvingEmptyCells(int)
+     */
+    public long getSolvedNodeCount() {
+        return solvedNodeCount;
+    }
+    
+    /**
+     * Returns the fraction of the transposition table probes that hit.
+     * 
+     * @return the hit rate, or zero if the table was never probed.
+     */
+    public double getTranspositionHitRate() {
+        long probes = transpositionHitCount + transpositionMissCount;
+        return probes == 0L ? 0.0 : (double) transpositionHitCount / probes;
+    }
+    
+    /**
+     * Returns the number of the beta cutoffs at the nodes at a given
+     * distance from the root.
+     * 
+     * @param ply the distance from the root.
+     * @return the number of the cutoffs at the ply.
+     */
+    public long getCutoffCount(int ply) {
+        if (ply < 0) {
+            throw new IllegalArgumentException("ply = " + ply);
+        }
+        
+        return ply < cutoffCounts.length ? cutoffCounts[ply] : 0L;
+    }
+    
+    /**
+     * Returns the number of the beta cutoffs at all the plies.
+     * 
+     * @return the total number of the cutoffs.
+     */
+    public long getCutoffCount() {
+        long cutoffCount = 0L;
+        
+        for (long count : cutoffCounts) {
+            cutoffCount += count;
+        }
+        
+        return cutoffCount;
+    }
+    
+    /**
+     * Returns the number of the cutoffs per ply, the root being the ply zero.
+     * The cutoffs of the plies beyond the end of the array are zero.
+     * 
+     * @return the cutoffs per ply.
+     */
+    public long[] getCutoffCounts() {
+        return cutoffCounts.clone();
+    }
+    
+    /**
+     * Returns the effective branching factor, i.e., the branching factor
+     * {@code b} of the uniform tree of the depth reached {@code d} having as
+     * many nodes as the search visited: {@code b^d = N}.
+     * 
+     * @return the effective branching factor, or zero if no iteration
+     *         completed.
+     */
+    public double getEffectiveBranchingFactor() {
+        return depth == 0 ? 0.0 : Math.pow(nodeCount, 1.0 / depth);
+    }
+    
+    /**
+     * Returns the wall-clock duration of the search.
+     * 
+     * @return the duration in nanoseconds.
+     */
+    public long getElapsedNanos() {
+        return elapsedNanos;
+    }
+    
+    /**
+     * Returns the number of the nodes visited per second.
+     * 
+     * @return the search speed.
+     */
+    public double getNodesPerSecond() {
+        return elapsedNanos == 0L ? 0.0 : nodeCount * 1e9 / elapsedNanos;
+    }
+    
+    @Override
+    public String toString() {
+        return String.format(
+                "Depth %d, move %d, score %d, %d nodes, %d leaves, " +
+                "TT hits %.1f%%, %d cutoffs, EBF %.2f, %.3f ms, " +
+                "%.0f nodes/s",
+                depth,
+                move,
+                score,
+                nodeCount,
+                leafEvaluationCount,
+                100.0 * getTranspositionHitRate(),
+                getCutoffCount(),
+                getEffectiveBranchingFactor(),
+                elapsedNanos / 1e6,
+                getNodesPerSecond());
+    }
+}
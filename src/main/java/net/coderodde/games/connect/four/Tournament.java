@@ -0,0 +1,315 @@
+package net.coderodde.games.connect.four;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Objects;
+import java.util.Random;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import net.coderodde.games.connect.four.impl.RandomBot;
+import net.coderodde.games.connect.four.impl.SmartBot;
+import net.coderodde.games.connect.four.impl.ThreatCountingConnectFourStateEvaluatorFunction;
+
+/**
+ * This class implements a headless tournament between two bot 
+ * configurations. The games run in parallel on an executor, the bots taking
+ * turns at moving first. Each game creates its own bots via 
+ * {@link BotFactory}, with the seeds derived from the tournament seed and 
+ * the index of the game, so that a tournament is reproducible regardless of
+ * the number of threads as long as the bots do not depend on the time.
+ * 
+ * @author Rodion "rodde" Efremov
+ * @version 1.6 (Oct 17, 2026)
+ */
+public final class Tournament {
+    
+    /**
+     * The number of the slots in the transposition table of each bot of 
+     * {@link #main(String[])}. A table of 1 MB is owned by a bot of a single 
+     * game and released with it, and holds the nodes of a move at the depths
+     * played by the tournaments.
+     */
+    private static final int BOT_TABLE_CAPACITY = 1 << 16;
+    
+    private final BotFactory botFactory1;
+    private final BotFactory botFactory2;
+    private final int width;
+    private final int height;
+    private final int winningLength;
+    
+    /**
+     * Constructs a tournament.
+     * 
+     * @param botFactory1 the factory of the first bot.
+     * @param botFactory2 the factory of the second bot.
+     * @param width the board width.
+     * @param height the board height.
+     * @param winningLength the winning pattern length.
+     */
+    public Tournament(BotFactory botFactory1, 
+                      BotFactory botFactory2,
+                      int width,
+                      int height,
+                      int winningLength) {
+        this.botFactory1 = 
+                Objects.requireNonNull(botFactory1, 
+                                       "The first bot factory is null.");
+        this.botFactory2 = 
+                Objects.requireNonNull(botFactory2, 
+                                       "The second bot factory is null.");
+        this.width = width;
+        this.height = height;
+        this.winningLength = winningLength;
+        
+        // Fail fast on invalid dimensions:
+        createInitialState();
+    }
+    
+    /**
+     * Constructs a tournament on the default board.
+     * 
+     * @param botFactory1 the factory of the first bot.
+     * @param botFactory2 the factory of the second bot.
+     */
+    public Tournament(BotFactory botFactory1, BotFactory botFactory2) {
+        this(botFactory1, 
+             botFactory2, 
+             ConnectFourState.DEFAULT_WIDTH,
+             ConnectFourState.DEFAULT_HEIGHT,
+             ConnectFourState.DEFAULT_WINNING_LENGTH);
+    }
+    
+    /**
+     * Plays the tournament. The first bot moves first in the games of even
+     * index.
+     * 
+     * @param games the number of games.
+     * @param seed the seed of the tournament.
+     * @param executor the executor running the games.
+     * @return the result of the tournament from the point of view of the 
+     *         first bot.
+     */
+    public TournamentResult play(int games, 
+                                 long seed, 
+                                 ExecutorService executor) {
+        return play(games, seed, executor, null);
+    }
+    
+    /**
+     * Plays the tournament and records the games. The records are written 
+     * in the order of the games on the calling thread.
+     * 
+     * @param games the number of games.
+     * @param seed the seed of the tournament.
+     * @param executor the executor running the games.
+     * @param recordWriter the writer of the game records, or {@code null}.
+     * @return the result of the tournament from the point of view of the 
+     *         first bot.
+     * @throws UncheckedIOException if a record cannot be written.
+     */
+    public TournamentResult play(int games, 
+                                 long seed, 
+                                 ExecutorService executor,
+                                 GameRecordWriter recordWriter) {
+        if (games < 1) {
+            throw new IllegalArgumentException("games = " + games);
+        }
+        
+        Objects.requireNonNull(executor, "The executor is null.");
+        List<Future<TournamentResult>> futures = new ArrayList<>(games);
+        
+        // Each game fills its own slot, published by its future:
+        GameRecord[] records = 
+                recordWriter == null ? null : new GameRecord[games];
+        
+        for (int game = 0; game < games; game++) {
+            int index = game;
+            futures.add(executor.submit(() -> playGame(index, seed, records)));
+        }
+        
+        TournamentResult result = new TournamentResult();
+        
+        try {
+            // Merge in the order of the games:
+            for (int game = 0; game < games; game++) {
+                result.add(futures.get(game).get());
+                
+                if (records != null) {
+                    recordWriter.write(records[game]);
+                    records[game] = null;
+                }
+            }
+        } catch (IOException ex) {
+            futures.forEach(future -> future.cancel(true));
+            throw new UncheckedIOException(ex);
+        } catch (InterruptedException ex) {
+            Thread.currentThread().interrupt();
+            futures.forEach(future -> future.cancel(true));
+            throw new IllegalStateException("The tournament was interrupted.",
+                                            ex);
+        } catch (ExecutionException ex) {
+            futures.forEach(future -> future.cancel(true));
+            throw new IllegalStateException("A game failed.", ex.getCause());
+        }
+        
+        return result;
+    }
+    
+    /**
+     * Plays a single game.
+     * 
+     * @param index the index of the game.
+     * @param seed the seed of the tournament.
+     * @param records the array receiving the record of the game at 
+     *                {@code index}, or {@code null}.
+     * @return the result of the game from the point of view of the first 
+     *         bot.
+     */
+    private TournamentResult playGame(int index, 
+                                      long seed, 
+                                      GameRecord[] records) {
+        boolean firstBotStarts = index % 2 == 0;
+        long botSeed1 = mix(seed + 2L * index);
+        long botSeed2 = mix(seed + 2L * index + 1L);
+        
+        // The first mover drops the tokens of the maximizing player:
+        Bot bot1 = botFactory1.create(firstBotStarts ? 
+                                      PlayerColor.MAXIMIZING_PLAYER :
+                                      PlayerColor.MINIMIZING_PLAYER, 
+                                      botSeed1);
+        Bot bot2 = botFactory2.create(firstBotStarts ? 
+                                      PlayerColor.MINIMIZING_PLAYER :
+                                      PlayerColor.MAXIMIZING_PLAYER, 
+                                      botSeed2);
+        
+        TournamentResult result = new TournamentResult();
+        ConnectFourState state = createInitialState();
+        PlayerColor initialPlayerColor = state.getPlayerColor();
+        Bot currentBot = firstBotStarts ? bot1 : bot2;
+        int[] moves = records == null ? null : new int[width * height];
+        int moveCount = 0;
+        
+        while (true) {
+            long startTime = System.nanoTime();
+            ConnectFourState nextState = currentBot.computeNextState(state);
+            long duration = System.nanoTime() - startTime;
+            
+            if (records != null) {
+                moves[moveCount++] = GameRecord.findMove(state, nextState);
+            }
+            
+            state = nextState;
+            boolean isFirstBot = currentBot == bot1;
+            
+            result.addMove(isFirstBot, 
+                           duration, 
+                           currentBot.getLastNodeCount());
+            
+            if (state.checkVictory() != null) {
+                result.addGame(isFirstBot ? 
+                               TournamentResult.WIN : 
+                               TournamentResult.LOSS);
+                break;
+            }
+            
+            if (state.isFull()) {
+                result.addGame(TournamentResult.DRAW);
+                break;
+            }
+            
+            currentBot = isFirstBot ? bot2 : bot1;
+        }
+        
+        if (records != null) {
+            records[index] = new GameRecord(width, 
+                                            height, 
+                                            winningLength,
+                                            initialPlayerColor,
+                                            Arrays.copyOf(moves, moveCount));
+        }
+        
+        return result;
+    }
+    
+    private ConnectFourState createInitialState() {
+        return new ConnectFourState(width, 
+                                    height, 
+                                    winningLength, 
+                                    PlayerColor.MINIMIZING_PLAYER);
+    }
+    
+    /**
+     * Scrambles a seed via the SplitMix64 finalizer, so that the seeds of the
+     * neighbouring games are unrelated.
+     */
+    private static long mix(long seed) {
+        long z = seed * 0x9E3779B97F4A7C15L;
+        z = (z ^ (z >>> 30)) * 0xBF58476D1CE4E5B9L;
+        z = (z ^ (z >>> 27)) * 0x94D049BB133111EBL;
+        return z ^ (z >>> 31);
+    }
+    
+    /**
+     * Plays a tournament of {@code SmartBot}s searching to a given depth 
+     * against {@code RandomBot}s and prints the report.
+     * 
+     * <p>Usage: {@code Tournament [games [depth [threads [seed [file]]]]]}.
+     * If the file is given, the games are recorded in it.
+     * 
+     * @param args the command line arguments.
+     * @throws IOException if the game records cannot be written.
+     */
+    public static void main(String[] args) throws IOException {
+        int games = args.length > 0 ? Integer.parseInt(args[0]) : 100;
+        int depth = args.length > 1 ? Integer.parseInt(args[1]) : 4;
+        int threads = args.length > 2 ? 
+                      Integer.parseInt(args[2]) : 
+                      Runtime.getRuntime().availableProcessors();
+        long seed = args.length > 3 ? Long.parseLong(args[3]) : 1L;
+        GameRecordWriter recordWriter = 
+                args.length > 4 ? 
+                GameRecordWriter.open(Paths.get(args[4])) : 
+                null;
+        
+        Tournament tournament = new Tournament(
+                (playerColor, botSeed) -> 
+                        new SmartBot(playerColor,
+                                     new ConnectFourGameEngine(
+                                         new ThreatCountingConnectFourStateEvaluatorFunction(),
+                                         depth,
+                                         new TranspositionTable(
+                                             BOT_TABLE_CAPACITY,
+                                             TranspositionTable.ReplacementPolicy.DEPTH_PREFERRED))),
+                (playerColor, botSeed) -> 
+                        new RandomBot(playerColor, new Random(botSeed)));
+        
+        ExecutorService executor = Executors.newFixedThreadPool(threads);
+        
+        try {
+            long startTime = System.currentTimeMillis();
+            TournamentResult result = tournament.play(games, 
+                                                      seed, 
+                                                      executor,
+                                                      recordWriter);
+            long endTime = System.currentTimeMillis();
+            
+            System.out.println("SmartBot(depth = " + depth + 
+                               ") vs. RandomBot, " + threads + 
+                               " threads, " + (endTime - startTime) + 
+                               " ms:");
+            System.out.println(result);
+        } finally {
+            executor.shutdown();
+            
+            if (recordWriter != null) {
+                recordWriter.close();
+            }
+        }
+    }
+}
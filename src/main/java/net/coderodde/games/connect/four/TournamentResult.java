@@ -0,0 +1,163 @@
+package net.coderodde.games.connect.four;
+
+/**
+ * This class holds the statistics of a tournament from the point of view of
+ * the first bot.
+ * 
+ * @author Rodion "rodde" Efremov
+ * @version 1.6 (Oct 17, 2026)
+ */
+public final class TournamentResult {
+    
+    static final int WIN = 0;
+    static final int DRAW = 1;
+    static final int LOSS = 2;
+    
+    /**
+     * {@code games[WIN]}, {@code games[DRAW]} and {@code games[LOSS]} are 
+     * the numbers of the games won, drawn and lost by the first bot.
+     */
+    private final int[] games = new int[3];
+    
+    /**
+     * Index zero holds the statistics of the first bot, and index one holds
+     * the statistics of the second bot.
+     */
+    private final long[] moves = new long[2];
+    private final long[] nanos = new long[2];
+    private final long[] nodes = new long[2];
+    
+    TournamentResult() {}
+    
+    void addGame(int outcome) {
+        games[outcome]++;
+    }
+    
+    void addMove(boolean firstBot, long duration, long nodeCount) {
+        int index = firstBot ? 0 : 1;
+        moves[index]++;
+        nanos[index] += duration;
+        nodes[index] += nodeCount;
+    }
+    
+    void add(TournamentResult other) {
+        for (int i = 0; i < games.length; i++) {
+            games[i] += other.games[i];
+        }
+        
+        for (int i = 0; i < moves.length; i++) {
+            moves[i] += other.moves[i];
+            nanos[i] += other.nanos[i];
+            nodes[i] += other.nodes[i];
+        }
+    }
+    
+    public int getWins() {
+        return games[WIN];
+    }
+    
+    public int getDraws() {
+        return games[DRAW];
+    }
+    
+    public int getLosses() {
+        return games[LOSS];
+    }
+    
+    public int getGames() {
+        return games[WIN] + games[DRAW] + games[LOSS];
+    }
+    
+    /**
+     * Returns the score of the first bot, counting a win as one point and a
+     * draw as half a point.
+     * 
+     * @return the score in the range {@code [0, 1]}.
+     */
+    public double getScore() {
+        return (games[WIN] + 0.5 * games[DRAW]) / getGames();
+    }
+    
+    /**
+     * Estimates the Elo rating difference between the first and the second 
+     * bot from the score.
+     * 
+     * @return the Elo difference. Infinite if either bot won all the games.
+     */
+    public double getEloDifference() {
+        return toElo(getScore());
+    }
+    
+    /**
+     * Estimates the half-width of the 95% confidence interval of
+     * {@link #getEloDifference()}.
+     * 
+     * @return the error margin of the Elo difference. Infinite if either 
+     *         bot won all the games.
+     */
+    public double getEloMargin() {
+        int n = getGames();
+        double score = getScore();
+        
+        if (score == 0.0 || score == 1.0) {
+            return Double.POSITIVE_INFINITY;
+        }
+        
+        double variance = (games[WIN] * (1.0 - score) * (1.0 - score)
+                         + games[DRAW] * (0.5 - score) * (0.5 - score)
+                         + games[LOSS] * score * score) / n;
+        double deviation = 1.96 * Math.sqrt(variance / n);
+        
+        return (toElo(Math.min(1.0, score + deviation)) 
+              - toElo(Math.max(0.0, score - deviation))) / 2.0;
+    }
+    
+    /**
+     * Returns the average time a bot spent per move.
+     * 
+     * @param firstBot selects the first or the second bot.
+     * @return the average move latency in nanoseconds.
+     */
+    public double getAverageMoveNanos(boolean firstBot) {
+        int index = firstBot ? 0 : 1;
+        return moves[index] == 0L ? 0.0 : (double) nanos[index] / moves[index];
+    }
+    
+    /**
+     * Returns the search speed of a bot.
+     * 
+     * @param firstBot selects the first or the second bot.
+     * @return the number of nodes visited per second of the move 
+     *         computation.
+     */
+    public double getNodesPerSecond(boolean firstBot) {
+        int index = firstBot ? 0 : 1;
+        return nanos[index] == 0L ? 
+               0.0 : 
+               nodes[index] * 1e9 / nanos[index];
+    }
+    
+    @Override
+    public String toString() {
+        return String.format(
+                "Games: %d, first bot +%d =%d -%d, score %.3f, " + 
+                "Elo %+.1f +/- %.1f%n" +
+                "First bot:  %.3f ms/move, %.0f nodes/s%n" +
+                "Second bot: %.3f ms/move, %.0f nodes/s",
+                getGames(),
+                getWins(),
+                getDraws(),
+                getLosses(),
+                getScore(),
+                getEloDifference(),
+                getEloMargin(),
+                getAverageMoveNanos(true) / 1e6,
+                getNodesPerSecond(true),
+                getAverageMoveNanos(false) / 1e6,
+                getNodesPerSecond(false));
+    }
+    
+    private static double toElo(double score) {
+        return -400.0 * Math.log10(1.0 / score - 1.0);
+    }
+}
@@ -0,0 +1,262 @@
+package net.coderodde.games.connect.four;
+
+import java.util.Arrays;
+import java.util.Objects;
+
+/**
+ * This class implements a fixed-size transposition table for the game tree
+ * search. The table has a power of two number of slots, each holding a 64-bit
+ * position key and a 64-bit data word packing the score, the search depth,
+ * the bound type, the best move and the generation of the search that stored
+ * the entry. The table never allocates after construction.
+ * 
+ * <p>The table may be shared by concurrent searches without locking: each 
+ * slot stores its key XORed with its data word, so that a slot torn by two 
+ * racing writes fails the key check in {@link #probe(long)} and reads as 
+ * empty instead of returning the data of another position.
+ * 
+ * @author Rodion "rodde" Efremov
+ * @version 1.6 (Oct 17, 2026)
+ */
+public final class TranspositionTable {
+    
+    /**
+     * The default number of slots.
+     */
+    public static final int DEFAULT_CAPACITY = 1 << 20;
+    
+    /**
+     * The bound type of the scores that are exact.
+     */
+    public static final int EXACT = 1;
+    
+    /**
+     * The bound type of the scores that are lower bounds of the actual score.
+     */
+    public static final int LOWER_BOUND = 2;
+    
+    /**
+     * The bound type of the scores that are upper bounds of the actual score.
+     */
+    public static final int UPPER_BOUND = 3;
+    
+    /**
+     * Denotes the absence of a move. Equals {@link MoveGenerator#NO_MOVE}, 
+     * so that the unpacked moves may be passed to the move generators as 
+     * they are. Packed as {@code 0xff}.
+     */
+    public static final int NO_MOVE = -1;
+    
+    /**
+     * Lists the policies for deciding whether a new entry replaces the entry
+     * already occupying its slot.
+     */
+    public enum ReplacementPolicy {
+        
+        /**
+         * The new entry always replaces the old one.
+         */
+        ALWAYS_REPLACE,
+        
+        /**
+         * The new entry replaces the old one only if the old one is of the
+         * same position, stems from an earlier search, or was not searched
+         * deeper than the new one.
+         */
+        DEPTH_PREFERRED;
+    }
+    
+    private static final int DEPTH_SHIFT = 32;
+    private static final int BOUND_SHIFT = 40;
+    private static final int MOVE_SHIFT = 42;
+    private static final int GENERATION_SHIFT = 50;
+    private static final int BYTE_MASK = 0xff;
+    private static final int BOUND_MASK = 0x3;
+    
+    /**
+     * The position keys, each XORed with the data word of its slot.
+     */
+    private final long[] keys;
+    
+    /**
+     * The packed entries.
+     */
+    private final long[] data;
+    
+    /**
+     * The replacement policy.
+     */
+    private final ReplacementPolicy replacementPolicy;
+    
+    /**
+     * Used for mapping keys to slot indices.
+     */
+    private final int indexMask;
+    
+    /**
+     * The generation of the current search. It changes only between the 
+     * searches, and a parallel search publishes it to its tasks by forking 
+     * them, so it is read on every probe without a volatile read. Another 
+     * search sharing the table concurrently may see the new generation late,
+     * which only affects the replacement of its entries.
+     */
+    private int generation;
+    
+    /**
+     * Constructs a transposition table.
+     * 
+     * @param capacity the requested number of slots. Rounded up to the
+     *                 closest power of two.
+     * @param replacementPolicy the replacement policy.
+     */
+    public TranspositionTable(int capacity,
+                              ReplacementPolicy replacementPolicy) {
+        int actualCapacity = roundUpToPowerOfTwo(checkCapacity(capacity));
+        this.keys = new long[actualCapacity];
+        this.data = new long[actualCapacity];
+        this.indexMask = actualCapacity - 1;
+        this.replacementPolicy =
+                Objects.requireNonNull(replacementPolicy,
+                                       "The replacement policy is null.");
+    }
+    
+    /**
+     * Constructs a transposition table with default capacity and the
+     * depth-preferred replacement policy.
+     */
+    public TranspositionTable() {
+        this(DEFAULT_CAPACITY, ReplacementPolicy.DEPTH_PREFERRED);
+    }
+    
+    /**
+     * Returns the number of slots in this table.
+     * 
+     * @return the capacity of this table.
+     */
+    public int getCapacity() {
+        return keys.length;
+    }
+    
+    /**
+     * Marks the beginning of a new search. The entries stored by the previous
+     * searches remain available, but are recognizable via
+     * {@link #isCurrent(long)} and are replaced first.
+     */
+    public void newSearch() {
+        generation = (generation + 1) & BYTE_MASK;
+    }
+    
+    /**
+     * Removes all the entries from this table.
+     */
+    public void clear() {
+        Arrays.fill(keys, 0L);
+        Arrays.fill(data, 0L);
+    }
+    
+    /**
+     * Looks up the entry of a position.
+     * 
+     * @param key the position key.
+     * @return the packed entry, or zero if there is no entry for {@code key}.
+     */
+    public long probe(long key) {
+        int index = (int) key & indexMask;
+        long entry = data[index];
+        return entry != 0L && (keys[index] ^ entry) == key ? entry : 0L;
+    }
+    
+    /**
+     * Stores an entry, subject to the replacement policy.
+     * 
+     * @param key the position key.
+     * @param depth the remaining search depth of the entry.
+     * @param bound the bound type of {@code score}.
+     * @param score the score.
+     * @param move the best move, or {@link #NO_MOVE}.
+     */
+    public void store(long key, int depth, int bound, int score, int move) {
+        int index = (int) key & indexMask;
+        long oldEntry = data[index];
+        
+        if (replacementPolicy == ReplacementPolicy.DEPTH_PREFERRED
+                && oldEntry != 0L
+                && (keys[index] ^ oldEntry) != key
+                && isCurrent(oldEntry)
+                && getDepth(oldEntry) > depth) {
+            return;
+        }
+        
+        long entry = (score & 0xffffffffL)
+                   | ((long)(depth & BYTE_MASK) << DEPTH_SHIFT)
+                   | ((long)(bound & BOUND_MASK) << BOUND_SHIFT)
+                   | ((long)(move & BYTE_MASK) << MOVE_SHIFT)
+                   | ((long) generation << GENERATION_SHIFT);
+        
+        keys[index] = key ^ entry;
+        data[index] = entry;
+    }
+    
+    /**
+     * Checks whether the entry was stored during the current search.
+     * 
+     * @param entry the packed entry.
+     * @return {@code true} only if the entry is of the current search.
+     */
+    public boolean isCurrent(long entry) {
+        return (int)(entry >>> GENERATION_SHIFT) == generation;
+    }
+    
+    /**
+     * Unpacks the score.
+     * 
+     * @param entry the packed entry.
+     * @return the score.
+     */
+    public static int getScore(long entry) {
+        return (int) entry;
+    }
+    
+    /**
+     * Unpacks the remaining search depth.
+     * 
+     * @param entry the packed entry.
+     * @return the depth.
+     */
+    public static int getDepth(long entry) {
+        return (int)(entry >>> DEPTH_SHIFT) & BYTE_MASK;
+    }
+    
+    /**
+     * Unpacks the bound type.
+     * 
+     * @param entry the packed entry.
+     * @return the bound type.
+     */
+    public static int getBound(long entry) {
+        return (int)(entry >>> BOUND_SHIFT) & BOUND_MASK;
+    }
+    
+    /**
+     * Unpacks the best move.
+     * 
+     * @param entry the packed entry.
+     * @return the best move, or {@link #NO_MOVE}.
+     */
+    public static int getMove(long entry) {
+        int move = (int)(entry >>> MOVE_SHIFT) & BYTE_MASK;
+        return move == (NO_MOVE & BYTE_MASK) ? NO_MOVE : move;
+    }
+    
+    private static int checkCapacity(int capacity) {
+        if (capacity < 1 || capacity > (1 << 30)) {
+            throw new IllegalArgumentException("capacity = " + capacity);
+        }
+        
+        return capacity;
+    }
+    
+    private static int roundUpToPowerOfTwo(int capacity) {
+        return capacity == 1 ? 1 : Integer.highestOneBit(capacity - 1) << 1;
+    }
+}
@@ -0,0 +1,271 @@
+package net.coderodde.games.connect.four;
+
+/**
+ * This class implements the operations on the 128-bit bitboards, which
+ * represent the boards that do not fit in a single {@code long}, such as
+ * 9 x 7 and 9 x 9. A bitboard is a pair of words: {@code low} holds the bits
+ * {@code 0, ..., 63} and {@code high} holds the bits {@code 64, ..., 127}. The
+ * cells are laid out as in the 64-bit bitboards of {@link ConnectFourState},
+ * column after column with a sentinel bit on top of each column.
+ * 
+ * <p>The operations producing a bitboard return one word at a time, selected
+ * via the {@code highWord} flag, so that nothing is allocated.
+ * 
+ * @author Rodion "rodde" Efremov
+ * @version 1.6 (Oct 17, 2026)
+ */
+final class WideBitboard {
+    
+    /**
+     * The maximum number of bits a wide bitboard may use.
+     */
+    static final int MAX_BITS = 2 * Long.SIZE;
+    
+    private WideBitboard() {}
+    
+    /**
+     * Checks whether the bit {@code index} is set.
+     * 
+     * @param low the low word.
+     * @param high the high word.
+     * @param index the index of the bit.
+     * @return {@code true} only if the bit is set.
+     */
+    static boolean testBit(long low, long high, int index) {
+        return index < Long.SIZE ?
+               (low & (1L << index)) != 0L :
+               (high & (1L << (index - Long.SIZE))) != 0L;
+    }
+    
+    /**
+     * Returns the low word of the bitboard containing only the bit
+     * {@code index}.
+     * 
+     * @param index the index of the bit.
+     * @return the low word.
+     */
+    static long lowBit(int index) {
+        return index < Long.SIZE ? 1L << index : 0L;
+    }
+    
+    /**
+     * Returns the high word of the bitboard containing only the bit
+     * {@code index}.
+     * 
+     * @param index the index of the bit.
+     * @return the high word.
+     */
+    static long highBit(int index) {
+        return index < Long.SIZE ? 0L : 1L << (index - Long.SIZE);
+    }
+    
+    /**
+     * Returns the index of the lowest set bit.
+     * 
+     * @param low the low word.
+     * @param high the high word.
+     * @return the index of the lowest set bit, or {@value #MAX_BITS} if no
+     *         bit is set.
+     */
+    static int lowestBit(long low, long high) {
+        return low != 0L ?
+               Long.numberOfTrailingZeros(low) :
+               Long.SIZE + Long.numberOfTrailingZeros(high);
+    }
+    
+    /**
+     * Returns a word of the bitboard shifted by {@code shift} bits towards
+     * the higher bits, or towards the lower bits if {@code shift} is
+     * negative.
+     * 
+     * @param low the low word.
+     * @param high the high word.
+     * @param shift the shift. Must be within {@code (-128, 128)}.
+     * @param highWord whether to return the high word of the result.
+     * @return the requested word of the shifted bitboard.
+     */
+    static long shift(long low, long high, int shift, boolean highWord) {
+        if (shift < 0) {
+            shift = -shift;
+            
+            if (highWord) {
+                return shift < Long.SIZE ? high >>> shift : 0L;
+            }
+            
+            return shift < Long.SIZE ?
+                   (low >>> shift) | (high << (Long.SIZE - shift)) :
+                   high >>> (shift - Long.SIZE);
+        }
+        
+        if (!highWord) {
+            return shift < Long.SIZE ? low << shift : 0L;
+        }
+        
+        if (shift == 0) {
+            return high;
+        }
+        
+        return shift < Long.SIZE ?
+               (high << shift) | (low >>> (Long.SIZE - shift)) :
+               low << (shift - Long.SIZE);
+    }
+    
+    /**
+     * Returns the bits of a column, the bottom cell being the lowest bit.
+     * 
+     * @param low the low word.
+     * @param high the high word.
+     * @param x the column.
+     * @param height the number of rows.
+     * @return the column bits.
+     */
+    static long column(long low, long high, int x, int height) {
+        return shift(low, high, -x * (height + 1), false)
+                & ((1L << height) - 1);
+    }
+    
+    /**
+     * Returns a word of the bitboard with the columns in the reverse order.
+     * 
+     * @param low the low word.
+     * @param high the high word.
+     * @param width the number of columns.
+     * @param height the number of rows.
+     * @param highWord whether to return the high word of the result.
+     * @return the requested word of the mirrored bitboard.
+     */
+    static long mirror(long low,
+                       long high,
+                       int width,
+                       int height,
+                       boolean highWord) {
+        long mirrored = 0L;
+        
+        for (int x = 0, mirroredX = width - 1; x < width; x++, mirroredX--) {
+            mirrored |= shift(column(low, high, x, height),
+                              0L,
+                              mirroredX * (height + 1),
+                              highWord);
+        }
+        
+        return mirrored;
+    }
+    
+    /**
+     * Checks whether the bitboard contains {@code winningLength} consecutive
+     * stones in any direction.
+     * 
+     * @param low the low word of the stones bitboard.
+     * @param high the high word of the stones bitboard.
+     * @param winningLength the length of the winning patterns.
+     * @param height the number of rows.
+     * @return {@code true} only if there is a winning pattern.
+     * @see ConnectFourState#hasAlignment(long, int, int)
+     */
+    static boolean hasAlignment(long low,
+                                long high,
+                                int winningLength,
+                                int height) {
+        // Vertical, horizontal, descending and ascending diagonal:
+        return hasDirectedAlignment(low, high, winningLength, 1)
+            || hasDirectedAlignment(low, high, winningLength, height + 1)
+            || hasDirectedAlignment(low, high, winningLength, height)
+            || hasDirectedAlignment(low, high, winningLength, height + 2);
+    }
+    
+    /**
+     * Checks whether the bitboard contains {@code winningLength} consecutive
+     * stones passing through the bit {@code index} in any direction.
+     * 
+     * @param low the low word of the stones bitboard.
+     * @param high the high word of the stones bitboard.
+     * @param index the index of the target cell. Must be set.
+     * @param winningLength the length of the winning patterns.
+     * @param height the number of rows.
+     * @return {@code true} only if there is a winning pattern through the
+     *         target cell.
+     */
+    static boolean hasAlignmentThrough(long low,
+                                       long high,
+                                       int index,
+                                       int winningLength,
+                                       int height) {
+        return hasDirectedAlignmentThrough(low,
+                                           high,
+                                           index,
+                                           winningLength,
+                                           1)
+            || hasDirectedAlignmentThrough(low,
+                                           high,
+                                           index,
+                                           winningLength,
+                                           height + 1)
+            || hasDirectedAlignmentThrough(low,
+                                           high,
+                                           index,
+                                           winningLength,
+                                           height)
+            || hasDirectedAlignmentThrough(low,
+                                           high,
+                                           index,
+                                           winningLength,
+                                           height + 2);
+    }
+    
+    private static boolean hasDirectedAlignment(long low,
+                                                long high,
+                                                int winningLength,
+                                                int shift) {
+        if ((long) shift * (winningLength - 1) >= MAX_BITS) {
+            // The pattern does not fit in the board in this direction:
+            return false;
+        }
+        
+        long runsLow = low;
+        long runsHigh = high;
+        int run = 1;
+        
+        while (2 * run <= winningLength) {
+            long nextRunsLow =
+                    runsLow & shift(runsLow, runsHigh, -shift * run, false);
+            
+            runsHigh &= shift(runsLow, runsHigh, -shift * run, true);
+            runsLow = nextRunsLow;
+            run *= 2;
+        }
+        
+        if (run < winningLength) {
+            int overlapShift = -shift * (winningLength - run);
+            long nextRunsLow =
+                    runsLow & shift(runsLow, runsHigh, overlapShift, false);
+            
+            runsHigh &= shift(runsLow, runsHigh, overlapShift, true);
+            runsLow = nextRunsLow;
+        }
+        
+        return (runsLow | runsHigh) != 0L;
+    }
+    
+    private static boolean hasDirectedAlignmentThrough(long low,
+                                                       long high,
+                                                       int index,
+                                                       int winningLength,
+                                                       int shift) {
+        int count = 1;
+        
+        for (int i = index + shift;
+                count < winningLength && i < MAX_BITS
+                                      && testBit(low, high, i);
+                i += shift) {
+            count++;
+        }
+        
+        for (int i = index - shift;
+                count < winningLength && i >= 0 && testBit(low, high, i);
+                i -= shift) {
+            count++;
+        }
+        
+        return count == winningLength;
+    }
+}
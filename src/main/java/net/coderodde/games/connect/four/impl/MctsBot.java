@@ -0,0 +1,650 @@
+package net.coderodde.games.connect.four.impl;
+
+import java.util.Objects;
+import java.util.SplittableRandom;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.ForkJoinTask;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicIntegerFieldUpdater;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongFieldUpdater;
+import net.coderodde.games.connect.four.Bot;
+import net.coderodde.games.connect.four.ConnectFourState;
+import net.coderodde.games.connect.four.PlayerColor;
+import net.coderodde.games.connect.four.SearchControl;
+
+/**
+ * This class implements a bot relying on the Monte Carlo tree search with
+ * the UCT selection. Unlike the bots searching via {@code GameAI}, this bot
+ * needs no evaluator function: the leaves of the tree are scored by random
+ * playouts following the policy of {@link RandomBot}, played on a single
+ * copy of the state via {@link ConnectFourState#play(int)} and
+ * {@link ConnectFourState#undo()} without allocating.
+ * 
+ * <p>Each move is searched until the playout budget or the time budget runs
+ * out, whichever comes first. The subtree of the chosen move is kept, and is
+ * reused on the next move if the opponent replied with a move already in
+ * the tree.
+ * 
+ * <p>If constructed with a {@link ForkJoinPool}, the bot runs a worker per
+ * thread of the pool on the same tree. A worker descending through a node
+ * counts the visit before the playout finishes, which scores the node as a
+ * loss until the result arrives (the virtual loss), so that the concurrent
+ * workers spread over the different branches. The parallel searches are not
+ * reproducible, since the workers interleave arbitrarily.
+ * 
+ * @author Rodion "rodde" Efremov
+ * @version 1.6 (Oct 17, 2026)
+ */
+public final class MctsBot implements Bot {
+    
+    /**
+     * Denotes the absence of a playout or a time budget.
+     */
+    public static final long NO_BUDGET = 0L;
+    
+    /**
+     * The exploration constant of UCT for the rewards in {@code [0, 1]}.
+     */
+    private static final double EXPLORATION = Math.sqrt(2.0);
+    
+    /**
+     * A leaf is expanded once it has been visited this many times, so that
+     * the tree does not grow by the width of the board on every playout.
+     */
+    private static final int EXPANSION_THRESHOLD = 2;
+    
+    /**
+     * The maximum number of nodes in the tree, the nodes kept from the 
+     * previous move included. The leaves are not expanded beyond it, but
+     * they are still played out.
+     */
+    private static final int MAX_NODES = 1 << 20;
+    
+    /**
+     * The best move is reported to the search control once per this many 
+     * playouts.
+     */
+    private static final long REPORT_MASK = (1 << 10) - 1;
+    
+    /**
+     * The rewards are counted in half-points, so that a draw is integral.
+     */
+    private static final int WIN_REWARD = 2;
+    private static final int DRAW_REWARD = 1;
+    
+    private final PlayerColor myPlayerColor;
+    private final long maximumPlayouts;
+    private final long timeBudgetMillis;
+    
+    /**
+     * The pool running the workers, or {@code null} if the calling thread
+     * searches alone.
+     */
+    private final ForkJoinPool forkJoinPool;
+    
+    /**
+     * Seeds the random generators of the workers.
+     */
+    private final SplittableRandom random;
+    
+    /**
+     * The state after the last move of this bot, and its node. Both are
+     * {@code null} before the first move.
+     */
+    private ConnectFourState lastState;
+    private Node lastNode;
+    
+    /**
+     * The statistics of the last move.
+     */
+    private long lastPlayoutCount;
+    private long lastElapsedNanos;
+    private int lastReusedVisitCount;
+    private int lastReusedNodeCount;
+    private int lastTreeSize;
+    
+    /**
+     * Constructs a bot.
+     * 
+     * @param me the color of this bot.
+     * @param maximumPlayouts the playout budget per move, or
+     *                        {@link #NO_BUDGET}.
+     * @param timeBudgetMillis the time budget per move in milliseconds, or
+     *                         {@link #NO_BUDGET}.
+     * @param seed the seed of the playouts.
+     * @param forkJoinPool the pool for the parallel playouts, or
+     *                     {@code null} for the sequential ones.
+     */
+    public MctsBot(PlayerColor me,
+                   long maximumPlayouts,
+                   long timeBudgetMillis,
+                   long seed,
+                   ForkJoinPool forkJoinPool) {
+        this.myPlayerColor =
+                Objects.requireNonNull(me, "The input player is null.");
+        
+        if (maximumPlayouts < 0L) {
+            throw new IllegalArgumentException(
+                    "maximumPlayouts = " + maximumPlayouts);
+        }
+        
+        if (timeBudgetMillis < 0L) {
+            throw new IllegalArgumentException(
+                    "timeBudgetMillis = " + timeBudgetMillis);
+        }
+        
+        if (maximumPlayouts == NO_BUDGET && timeBudgetMillis == NO_BUDGET) {
+            throw new IllegalArgumentException(
+                    "Neither a playout budget nor a time budget is given.");
+        }
+        
+        this.maximumPlayouts = maximumPlayouts;
+        this.timeBudgetMillis = timeBudgetMillis;
+        this.random = new SplittableRandom(seed);
+        this.forkJoinPool = forkJoinPool;
+    }
+    
+    /**
+     * Constructs a bot playing a fixed number of sequential playouts per
+     * move. The moves depend only on the seed.
+     * 
+     * @param me the color of this bot.
+     * @param maximumPlayouts the playout budget per move.
+     * @param seed the seed of the playouts.
+     */
+    public MctsBot(PlayerColor me, long maximumPlayouts, long seed) {
+        this(me, maximumPlayouts, NO_BUDGET, seed, null);
+    }
+    
+    @Override
+    public ConnectFourState computeNextState(ConnectFourState state) {
+        return computeNextState(state, null);
+    }
+    
+    /**
+     * {@inheritDoc }
+     * 
+     * The playouts stop once the control stops, and the most visited move 
+     * is reported to the control periodically.
+     */
+    @Override
+    public ConnectFourState computeNextState(ConnectFourState state,
+                                             SearchControl control) {
+        if (state.isTerminal() || state.isFull()) {
+            throw new IllegalStateException(
+                    "There are no moves available in the input state.");
+        }
+        
+        long startTime = System.nanoTime();
+        Node reusableNode = findReusableNode(state);
+        Search search = new Search(state, 
+                                   reusableNode, 
+                                   lastReusedNodeCount,
+                                   startTime,
+                                   control);
+        int workerCount = forkJoinPool == null ?
+                          1 :
+                          forkJoinPool.getParallelism();
+        
+        if (workerCount == 1) {
+            search.run(random.split());
+        } else {
+            ForkJoinTask<?>[] tasks = new ForkJoinTask<?>[workerCount];
+            
+            for (int i = 0; i < workerCount; i++) {
+                SplittableRandom workerRandom = random.split();
+                tasks[i] = forkJoinPool.submit(() -> search.run(workerRandom));
+            }
+            
+            for (ForkJoinTask<?> task : tasks) {
+                task.join();
+            }
+        }
+        
+        Node bestChild = search.root.getMostVisitedChild();
+        
+        if (control != null) {
+            control.reportBestMove(bestChild.move);
+        }
+        
+        lastElapsedNanos = System.nanoTime() - startTime;
+        lastPlayoutCount = search.getPlayoutCount();
+        lastTreeSize = search.nodeCount.get();
+        lastState = state.move(bestChild.move);
+        lastNode = bestChild;
+        return lastState.copy();
+    }
+    
+    @Override
+    public PlayerColor getPlayerColor() {
+        return myPlayerColor;
+    }
+    
+    /**
+     * {@inheritDoc }
+     * 
+     * Counts the playouts, each playout being a single node.
+     */
+    @Override
+    public long getLastNodeCount() {
+        return lastPlayoutCount;
+    }
+    
+    /**
+     * Returns the number of the playouts made while computing the last move.
+     * 
+     * @return the number of the playouts.
+     */
+    public long getLastPlayoutCount() {
+        return lastPlayoutCount;
+    }
+    
+    /**
+     * Returns the speed of the last search.
+     * 
+     * @return the number of the playouts per second.
+     */
+    public double getLastPlayoutsPerSecond() {
+        return lastElapsedNanos == 0L ?
+               0.0 :
+               lastPlayoutCount * 1e9 / lastElapsedNanos;
+    }
+    
+    /**
+     * Returns the number of the visits of the root inherited from the tree
+     * of the previous move.
+     * 
+     * @return the number of the reused visits, or zero if the tree was
+     *         rebuilt.
+     */
+    int getLastReusedVisitCount() {
+        return lastReusedVisitCount;
+    }
+    
+    /**
+     * Returns the number of the nodes inherited from the tree of the 
+     * previous move.
+     * 
+     * @return the number of the reused nodes, or zero if the tree was
+     *         rebuilt.
+     */
+    int getLastReusedNodeCount() {
+        return lastReusedNodeCount;
+    }
+    
+    /**
+     * Returns the number of the nodes in the tree after the last search.
+     * 
+     * @return the number of the nodes.
+     */
+    int getLastTreeSize() {
+        return lastTreeSize;
+    }
+    
+    /**
+     * Finds the node of the input state among the children of the node of
+     * the last move of this bot.
+     * 
+     * @param state the current state.
+     * @return the node of {@code state}, or {@code null} if there is none.
+     */
+    private Node findReusableNode(ConnectFourState state) {
+        Node[] children = lastNode == null ? null : lastNode.children;
+        lastReusedVisitCount = 0;
+        lastReusedNodeCount = 0;
+        
+        if (children == null
+                || state.getNumberOfTokens()
+                != lastState.getNumberOfTokens() + 1) {
+            return null;
+        }
+        
+        for (Node child : children) {
+            if (lastState.move(child.move).equals(state)) {
+                lastReusedVisitCount = child.visits;
+                lastReusedNodeCount = countNodes(child);
+                return child;
+            }
+        }
+        
+        return null;
+    }
+    
+    /**
+     * Counts the nodes of a subtree, so that the tree kept from move to move
+     * stays within {@link #MAX_NODES}.
+     * 
+     * @param node the root of the subtree.
+     * @return the number of the nodes in the subtree.
+     */
+    private static int countNodes(Node node) {
+        Node[] children = node.children;
+        int nodeCount = 1;
+        
+        if (children != null) {
+            for (Node child : children) {
+                nodeCount += countNodes(child);
+            }
+        }
+        
+        return nodeCount;
+    }
+    
+    /**
+     * This class holds the statistics of a node of the search tree.
+     */
+    private static final class Node {
+        
+        private static final AtomicIntegerFieldUpdater<Node> VISITS =
+                AtomicIntegerFieldUpdater.newUpdater(Node.class, "visits");
+        
+        private static final AtomicLongFieldUpdater<Node> REWARD =
+                AtomicLongFieldUpdater.newUpdater(Node.class, "reward");
+        
+        /**
+         * The column played to reach this node.
+         */
+        final int move;
+        
+        /**
+         * The number of the playouts through this node, including the ones
+         * still running.
+         */
+        volatile int visits;
+        
+        /**
+         * The sum of the rewards of the finished playouts through this node
+         * for the player that moved into it.
+         */
+        volatile long reward;
+        
+        /**
+         * The children of this node, or {@code null} if this node is a leaf.
+         * Published once and never modified.
+         */
+        volatile Node[] children;
+        
+        Node(int move) {
+            this.move = move;
+        }
+        
+        void addVisit() {
+            VISITS.incrementAndGet(this);
+        }
+        
+        void addReward(int reward) {
+            REWARD.addAndGet(this, reward);
+        }
+        
+        /**
+         * Creates the children of this node unless another worker did.
+         * 
+         * @param state the state of this node.
+         * @param nodeCount the number of the nodes in the tree.
+         * @return the children of this node.
+         */
+        synchronized Node[] expand(ConnectFourState state,
+                                   AtomicInteger nodeCount) {
+            if (children != null) {
+                return children;
+            }
+            
+            int width = state.getWidth();
+            int childCount = 0;
+            
+            for (int x = 0; x < width; x++) {
+                if (!state.columnIsFull(x)) {
+                    childCount++;
+                }
+            }
+            
+            Node[] newChildren = new Node[childCount];
+            childCount = 0;
+            
+            // Center first, so that the unvisited children are tried in the
+            // order of their expected value:
+            for (int i = 0; i < width; i++) {
+                int offset = (i + 1) / 2;
+                int x = (width - 1) / 2 + (i % 2 == 0 ? offset : -offset);
+                
+                if (!state.columnIsFull(x)) {
+                    newChildren[childCount++] = new Node(x);
+                }
+            }
+            
+            nodeCount.addAndGet(childCount);
+            children = newChildren;
+            return newChildren;
+        }
+        
+        /**
+         * Selects the child maximizing the upper confidence bound of its
+         * reward.
+         * 
+         * @param children the children of this node.
+         * @return the selected child.
+         */
+        Node select(Node[] children) {
+            double logVisits = Math.log(visits);
+            Node bestChild = null;
+            double bestValue = Double.NEGATIVE_INFINITY;
+            
+            for (Node child : children) {
+                int childVisits = child.visits;
+                
+                if (childVisits == 0) {
+                    return child;
+                }
+                
+                double value = child.reward / (2.0 * childVisits)
+                             + EXPLORATION
+                             * Math.sqrt(logVisits / childVisits);
+                
+                if (value > bestValue) {
+                    bestValue = value;
+                    bestChild = child;
+                }
+            }
+            
+            return bestChild;
+        }
+        
+        /**
+         * Returns the most visited child, breaking the ties by the reward.
+         * 
+         * @return the most visited child.
+         */
+        Node getMostVisitedChild() {
+            Node bestChild = null;
+            
+            for (Node child : children) {
+                if (bestChild == null
+                        || child.visits > bestChild.visits
+                        || (child.visits == bestChild.visits
+                            && child.reward > bestChild.reward)) {
+                    bestChild = child;
+                }
+            }
+            
+            return bestChild;
+        }
+    }
+    
+    /**
+     * This class holds the shared data of the search of a single move.
+     */
+    private final class Search {
+        
+        private final ConnectFourState rootState;
+        private final Node root;
+        
+        /**
+         * The time after which no more playouts are started, if there is a
+         * time budget.
+         */
+        private final long deadline;
+        
+        /**
+         * The control of the search, or {@code null} if none.
+         */
+        private final SearchControl control;
+        
+        private final AtomicLong claimedPlayoutCount = new AtomicLong();
+        
+        /**
+         * The number of the nodes in the tree, counting the reused ones.
+         */
+        private final AtomicInteger nodeCount;
+        
+        Search(ConnectFourState rootState, 
+               Node root, 
+               int reusedNodeCount,
+               long startTime,
+               SearchControl control) {
+            this.rootState = rootState;
+            this.control = control;
+            this.root = root == null ? new Node(-1) : root;
+            this.nodeCount = 
+                    new AtomicInteger(root == null ? 1 : reusedNodeCount);
+            this.deadline = startTime + timeBudgetMillis * 1_000_000L;
+            
+            // Make the root selectable even with a single playout:
+            this.root.expand(rootState, nodeCount);
+        }
+        
+        /**
+         * Claims a playout if the budgets allow it.
+         * 
+         * @return {@code true} only if another playout may be made.
+         */
+        boolean claimPlayout() {
+            if (timeBudgetMillis != NO_BUDGET
+                    && System.nanoTime() - deadline >= 0L) {
+                return false;
+            }
+            
+            if (control != null && control.isStopped()) {
+                return false;
+            }
+            
+            long playoutCount = claimedPlayoutCount.incrementAndGet();
+            
+            if (control != null && (playoutCount & REPORT_MASK) == 0L) {
+                control.reportBestMove(root.getMostVisitedChild().move);
+            }
+            
+            return maximumPlayouts == NO_BUDGET
+                || playoutCount <= maximumPlayouts;
+        }
+        
+        long getPlayoutCount() {
+            long playoutCount = claimedPlayoutCount.get();
+            return maximumPlayouts == NO_BUDGET ?
+                   playoutCount :
+                   Math.min(playoutCount, maximumPlayouts);
+        }
+        
+        /**
+         * Runs the playouts of a worker until the budget runs out.
+         * 
+         * @param random the random generator of the worker.
+         */
+        void run(SplittableRandom random) {
+            ConnectFourState state = rootState.copy();
+            Node[] path = new Node[state.getWidth() * state.getHeight() + 1];
+            int[] columns = new int[state.getWidth()];
+            PlayerColor rootColor = state.getPlayerColor();
+            
+            while (claimPlayout()) {
+                Node node = root;
+                int pathLength = 0;
+                node.addVisit();
+                path[pathLength++] = node;
+                
+                // Descend to a leaf, unless the game ends on the way:
+                boolean finished = false;
+                
+                while (true) {
+                    Node[] children = node.children;
+                    
+                    if (children == null) {
+                        if (node.visits < EXPANSION_THRESHOLD
+                                || nodeCount.get() >= MAX_NODES) {
+                            break;
+                        }
+                        
+                        children = node.expand(state, nodeCount);
+                    }
+                    
+                    node = node.select(children);
+                    node.addVisit();
+                    path[pathLength++] = node;
+                    state.play(node.move);
+                    
+                    if (state.lastMoveWon() || state.isFull()) {
+                        finished = true;
+                        break;
+                    }
+                }
+                
+                int playoutLength = finished ? 0 : playOut(state,
+                                                           columns,
+                                                           random);
+                PlayerColor winner = state.lastMoveWon() ?
+                                     state.getPlayerColor() :
+                                     null;
+                
+                for (int i = 0; i < playoutLength + pathLength - 1; i++) {
+                    state.undo();
+                }
+                
+                // The root is owned by the player that moved into it, and 
+                // the owners alternate along the path:
+                boolean rootOwnerWon = winner == rootColor;
+                
+                for (int i = 0; i < pathLength; i++) {
+                    if (winner == null) {
+                        path[i].addReward(DRAW_REWARD);
+                    } else if ((i % 2 == 0) == rootOwnerWon) {
+                        path[i].addReward(WIN_REWARD);
+                    }
+                }
+            }
+        }
+    }
+    
+    /**
+     * Plays random moves until the game ends.
+     * 
+     * @param state the state to play out.
+     * @param columns the buffer for the columns available.
+     * @param random the random generator.
+     * @return the number of the moves played.
+     */
+    private static int playOut(ConnectFourState state,
+                               int[] columns,
+                               SplittableRandom random) {
+        int width = state.getWidth();
+        int moveCount = 0;
+        
+        while (!state.isFull()) {
+            int columnCount = 0;
+            
+            for (int x = 0; x < width; x++) {
+                if (!state.columnIsFull(x)) {
+                    columns[columnCount++] = x;
+                }
+            }
+            
+            state.play(columns[random.nextInt(columnCount)]);
+            moveCount++;
+            
+            if (state.lastMoveWon()) {
+                break;
+            }
+        }
+        
+        return moveCount;
+    }
+}
@@ -0,0 +1,79 @@
+package net.coderodde.games.connect.four.impl;
+
+import java.util.Objects;
+import net.coderodde.games.connect.four.Bot;
+import net.coderodde.games.connect.four.ConnectFourSolver;
+import net.coderodde.games.connect.four.ConnectFourState;
+import net.coderodde.games.connect.four.OpeningBook;
+import net.coderodde.games.connect.four.PlayerColor;
+
+/**
+ * This class implements a bot playing perfectly via 
+ * {@link ConnectFourSolver}. The bot wins every won position in the least 
+ * number of moves, and delays every lost one as long as possible. The 
+ * positions near the empty board are expensive to solve, and should be 
+ * covered by an {@link OpeningBook}.
+ * 
+ * @author Rodion "rodde" Efremov
+ * @version 1.6 (Oct 17, 2026)
+ */
+public final class PerfectBot implements Bot {
+    
+    private final PlayerColor myPlayerColor;
+    private final ConnectFourSolver solver;
+    
+    /**
+     * The opening book consulted before solving, or {@code null}.
+     */
+    private final OpeningBook openingBook;
+    
+    /**
+     * The number of nodes visited while computing the last move.
+     */
+    private long lastNodeCount;
+    
+    public PerfectBot(PlayerColor myPlayerColor, 
+                      ConnectFourSolver solver,
+                      OpeningBook openingBook) {
+        this.myPlayerColor = 
+                Objects.requireNonNull(myPlayerColor,
+                                       "The given player is null.");
+        this.solver = Objects.requireNonNull(solver,
+                                             "The input solver is null.");
+        this.openingBook = openingBook;
+    }
+    
+    public PerfectBot(PlayerColor myPlayerColor, ConnectFourSolver solver) {
+        this(myPlayerColor, solver, null);
+    }
+    
+    public PerfectBot(PlayerColor myPlayerColor) {
+        this(myPlayerColor, new ConnectFourSolver());
+    }
+    
+    @Override
+    public ConnectFourState computeNextState(ConnectFourState state) {
+        int move = openingBook == null ? 
+                   OpeningBook.NO_MOVE : 
+                   openingBook.findMove(state);
+        
+        if (move == OpeningBook.NO_MOVE) {
+            move = solver.findBestMove(state);
+            lastNodeCount = solver.getNodeCount();
+        } else {
+            lastNodeCount = 0L;
+        }
+        
+        return state.move(move);
+    }
+    
+    @Override
+    public PlayerColor getPlayerColor() {
+        return myPlayerColor;
+    }
+    
+    @Override
+    public long getLastNodeCount() {
+        return lastNodeCount;
+    }
+}
@@ -2,8 +2,12 @@ package net.coderodde.games.connect.four.impl;
 
 import java.util.Objects;
 import net.coderodde.games.connect.four.Bot;
+import net.coderodde.games.connect.four.ConnectFourGameEngine;
 import net.coderodde.games.connect.four.ConnectFourState;
+import net.coderodde.games.connect.four.OpeningBook;
 import net.coderodde.games.connect.four.PlayerColor;
+import net.coderodde.games.connect.four.SearchControl;
+import net.coderodde.games.connect.four.SearchStats;
 import net.coderodde.zerosum.ai.GameEngine;
 
 /**
@@ -14,33 +18,195 @@ import net.coderodde.zerosum.ai.GameEngine;
  */
 public final class SmartBot implements Bot {
     
+    /**
+     * Denotes the absence of a time budget.
+     */
+    private static final long NO_TIME_BUDGET = 0L;
+    
     private final PlayerColor myPlayerColor;
     private final GameEngine<ConnectFourState, PlayerColor> engine;
     
+    /**
+     * The time budget per move in milliseconds, or {@code NO_TIME_BUDGET} if
+     * the engine searches to its fixed depth.
+     */
+    private final long timeBudgetMillis;
+    
+    /**
+     * The opening book consulted before searching, or {@code null}.
+     */
+    private final OpeningBook openingBook;
+    
+    /**
+     * The depth reached by the last search, or zero if the engine does not 
+     * report it.
+     */
+    private int lastSearchDepth;
+    
+    /**
+     * The number of nodes visited by the last search, or zero if the engine
+     * does not report it.
+     */
+    private long lastNodeCount;
+    
+    /**
+     * The statistics of the last search, or {@code null} if the engine does
+     * not report them.
+     */
+    private SearchStats lastSearchStats;
+    
     public SmartBot(PlayerColor me, 
                     GameEngine<ConnectFourState, PlayerColor> engine) {
+        this(me, engine, (OpeningBook) null);
+    }
+    
+    /**
+     * Constructs a smart bot that plays the moves of the opening book while 
+     * the game is in the book, and searches otherwise.
+     * 
+     * @param me the color of this bot.
+     * @param engine the game engine.
+     * @param openingBook the opening book, or {@code null} for no book.
+     */
+    public SmartBot(PlayerColor me,
+                    GameEngine<ConnectFourState, PlayerColor> engine,
+                    OpeningBook openingBook) {
         this.myPlayerColor =
                 Objects.requireNonNull(me, "The input player is null.");
         
         this.engine = Objects.requireNonNull(engine,
                                              "The input engine is null.");
+        this.timeBudgetMillis = NO_TIME_BUDGET;
+        this.openingBook = openingBook;
     }
-
+    
+    /**
+     * Constructs a smart bot that searches each move via iterative deepening
+     * for at most {@code timeBudgetMillis} milliseconds.
+     * 
+     * @param me the color of this bot.
+     * @param engine the game engine.
+     * @param timeBudgetMillis the time budget per move in milliseconds.
+     */
+    public SmartBot(PlayerColor me,
+                    ConnectFourGameEngine engine,
+                    long timeBudgetMillis) {
+        this(me, engine, timeBudgetMillis, null);
+    }
+    
+    /**
+     * Constructs a smart bot that plays the moves of the opening book while 
+     * the game is in the book, and searches each other move via iterative 
+     * deepening for at most {@code timeBudgetMillis} milliseconds.
+     * 
+     * @param me the color of this bot.
+     * @param engine the game engine.
+     * @param timeBudgetMillis the time budget per move in milliseconds.
+     * @param openingBook the opening book, or {@code null} for no book.
+     */
+    public SmartBot(PlayerColor me,
+                    ConnectFourGameEngine engine,
+                    long timeBudgetMillis,
+                    OpeningBook openingBook) {
+        this.myPlayerColor =
+                Objects.requireNonNull(me, "The input player is null.");
+        
+        this.engine = Objects.requireNonNull(engine,
+                                             "The input engine is null.");
+        
+        if (timeBudgetMillis < 1L) {
+            throw new IllegalArgumentException(
+                    "timeBudgetMillis = " + timeBudgetMillis);
+        }
+        
+        this.timeBudgetMillis = timeBudgetMillis;
+        this.openingBook = openingBook;
+    }
+    
     @Override
     public ConnectFourState computeNextState(ConnectFourState state) {
-        long startTime = System.currentTimeMillis();
-        ConnectFourState nextState = 
-                engine.makePly(state, 
-                               PlayerColor.MINIMIZING_PLAYER, 
-                               PlayerColor.MAXIMIZING_PLAYER, 
-                               myPlayerColor);
-        long endTime = System.currentTimeMillis();
-        System.out.println("SmartBot in " + (endTime - startTime) + " ms:");
+        return computeNextState(state, null);
+    }
+    
+    /**
+     * {@inheritDoc }
+     * 
+     * Only the searches of the {@link ConnectFourGameEngine} are stopped by
+     * the control.
+     */
+    @Override
+    public ConnectFourState computeNextState(ConnectFourState state,
+                                             SearchControl control) {
+        ConnectFourState nextState;
+        int bookMove = openingBook == null ? 
+                       OpeningBook.NO_MOVE : 
+                       openingBook.findMove(state);
+        
+        if (bookMove != OpeningBook.NO_MOVE) {
+            nextState = state.move(bookMove);
+        } else if (timeBudgetMillis != NO_TIME_BUDGET) {
+            nextState = ((ConnectFourGameEngine) engine)
+                    .makePly(state, timeBudgetMillis, control);
+        } else if (control != null 
+                && engine instanceof ConnectFourGameEngine) {
+            nextState = ((ConnectFourGameEngine) engine)
+                    .makePly(state, control);
+        } else {
+            nextState = engine.makePly(state, 
+                                       PlayerColor.MINIMIZING_PLAYER, 
+                                       PlayerColor.MAXIMIZING_PLAYER, 
+                                       myPlayerColor);
+        }
+        
+        if (bookMove != OpeningBook.NO_MOVE) {
+            lastSearchDepth = 0;
+            lastNodeCount = 0L;
+            lastSearchStats = null;
+        } else if (engine instanceof ConnectFourGameEngine) {
+            ConnectFourGameEngine connectFourGameEngine = 
+                    (ConnectFourGameEngine) engine;
+            lastSearchDepth = connectFourGameEngine.getCompletedDepth();
+            lastNodeCount = connectFourGameEngine.getNodeCount();
+            lastSearchStats = connectFourGameEngine.getLastSearchStats();
+        }
+        
         return nextState;
     }
-
+    
     @Override
     public PlayerColor getPlayerColor() {
         return myPlayerColor;
     }
+    
+    /**
+     * Returns the depth reached by the last search. Reported only by the 
+     * {@link ConnectFourGameEngine}; zero for the other engines and for the
+     * moves taken from the opening book.
+     * 
+     * @return the depth reached by the last search.
+     */
+    public int getLastSearchDepth() {
+        return lastSearchDepth;
+    }
+    
+    /**
+     * {@inheritDoc }
+     * 
+     * Reported only by the {@link ConnectFourGameEngine}.
+     */
+    @Override
+    public long getLastNodeCount() {
+        return lastNodeCount;
+    }
+    
+    /**
+     * {@inheritDoc }
+     * 
+     * Reported only by the {@link ConnectFourGameEngine}; {@code null} for 
+     * the moves taken from the opening book.
+     */
+    @Override
+    public SearchStats getLastSearchStats() {
+        return lastSearchStats;
+    }
 }
@@ -0,0 +1,279 @@
+package net.coderodde.games.connect.four.impl;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import net.coderodde.games.connect.four.ConnectFourState;
+import net.coderodde.games.connect.four.IncrementalEvaluatorFunction;
+import net.coderodde.games.connect.four.PlayerColor;
+
+/**
+ * This class implements a Connect Four state evaluator counting threats. A
+ * window is a horizontal, vertical or diagonal segment of
+ * {@code winningLength} cells. A window holding the tokens of only one player,
+ * gaps allowed, contributes to the score of that player: a window one token 
+ * short of a line contributes {@value #THREAT_VALUE}, each token less divides
+ * the contribution by {@code 10 / 3}, and a window of a single token 
+ * contributes nothing. Each full window contributes the win value.
+ * 
+ * <p>This is a heuristic of its own rather than a faster 
+ * {@link BruteForceConnectFourStateEvaluatorFunction}, which counts the 
+ * contiguous runs of tokens instead of the windows that may still become 
+ * lines, and the two score most positions differently. The ratio of the
+ * contributions was tuned in self-play at fixed depth, where it beat the 
+ * powers of ten.
+ * 
+ * <p>The trackers of this evaluator keep the token counts of every window
+ * and the score, and update them in time proportional to the number of the
+ * windows through the dropped token.
+ * 
+ * @author Rodion "rodde" Efremov
+ * @version 1.6 (Oct 17, 2026)
+ */
+public final class ThreatCountingConnectFourStateEvaluatorFunction
+        implements IncrementalEvaluatorFunction {
+    
+    private static final double WIN_VALUE = 1e9;
+    
+    /**
+     * The contribution of a window one token short of a line.
+     */
+    private static final double THREAT_VALUE = 1000.0;
+    
+    private final int width;
+    private final int height;
+    private final int winningLength;
+    
+    /**
+     * {@code windowCells[w * winningLength + i]} is the index
+     * {@code y * width + x} of the {@code i}th cell of the window {@code w}.
+     */
+    private final int[] windowCells;
+    
+    /**
+     * {@code cellWindows[y * width + x]} lists the windows containing the
+     * cell {@code (x, y)}.
+     */
+    private final int[][] cellWindows;
+    
+    /**
+     * {@code windowValues[maximizingCount][minimizingCount]} is the
+     * contribution of a window with the given token counts.
+     */
+    private final double[][] windowValues;
+    
+    /**
+     * Constructs this evaluator function.
+     * 
+     * @param width the game board width.
+     * @param height the game board height.
+     * @param winningLength the winning pattern length.
+     */
+    public ThreatCountingConnectFourStateEvaluatorFunction(int width,
+                                                           int height,
+                                                           int winningLength) {
+        this.width = width;
+        this.height = height;
+        this.winningLength = winningLength;
+        
+        List<int[]> windows = new ArrayList<>();
+        int[][] directions = { { 1, 0 }, { 0, 1 }, { 1, 1 }, { 1, -1 } };
+        
+        for (int[] direction : directions) {
+            for (int y = 0; y < height; y++) {
+                for (int x = 0; x < width; x++) {
+                    int endX = x + direction[0] * (winningLength - 1);
+                    int endY = y + direction[1] * (winningLength - 1);
+                    
+                    if (endX >= width || endY < 0 || endY >= height) {
+                        continue;
+                    }
+                    
+                    int[] window = new int[winningLength];
+                    
+                    for (int i = 0; i < winningLength; i++) {
+                        window[i] = (y + i * direction[1]) * width
+                                  + (x + i * direction[0]);
+                    }
+                    
+                    windows.add(window);
+                }
+            }
+        }
+        
+        this.windowCells = new int[windows.size() * winningLength];
+        int[] cellWindowCounts = new int[width * height];
+        
+        for (int w = 0; w < windows.size(); w++) {
+            int[] window = windows.get(w);
+            System.arraycopy(window,
+                             0,
+                             windowCells,
+                             w * winningLength,
+                             winningLength);
+            
+            for (int cell : window) {
+                cellWindowCounts[cell]++;
+            }
+        }
+        
+        this.cellWindows = new int[width * height][];
+        
+        for (int cell = 0; cell < cellWindows.length; cell++) {
+            cellWindows[cell] = new int[cellWindowCounts[cell]];
+            cellWindowCounts[cell] = 0;
+        }
+        
+        for (int w = 0; w < windows.size(); w++) {
+            for (int cell : windows.get(w)) {
+                cellWindows[cell][cellWindowCounts[cell]++] = w;
+            }
+        }
+        
+        this.windowValues = computeWindowValues(winningLength);
+    }
+    
+    /**
+     * Constructs this evaluator function for the default board.
+     */
+    public ThreatCountingConnectFourStateEvaluatorFunction() {
+        this(ConnectFourState.DEFAULT_WIDTH,
+             ConnectFourState.DEFAULT_HEIGHT,
+             ConnectFourState.DEFAULT_WINNING_LENGTH);
+    }
+    
+    /**
+     * Evaluates the given input {@code state} from scratch.
+     * @param state the state to estimate.
+     * @return the estimate.
+     */
+    @Override
+    public double evaluate(ConnectFourState state) {
+        checkDimensions(state);
+        double score = 0.0;
+        
+        for (int i = 0; i < windowCells.length; i += winningLength) {
+            int maximizingCount = 0;
+            int minimizingCount = 0;
+            
+            for (int j = i; j < i + winningLength; j++) {
+                int cell = windowCells[j];
+                PlayerColor playerColor = state.readCell(cell % width,
+                                                         cell / width);
+                
+                if (playerColor == PlayerColor.MAXIMIZING_PLAYER) {
+                    maximizingCount++;
+                } else if (playerColor == PlayerColor.MINIMIZING_PLAYER) {
+                    minimizingCount++;
+                }
+            }
+            
+            score += windowValues[maximizingCount][minimizingCount];
+        }
+        
+        return score;
+    }
+    
+    /**
+     * {@inheritDoc }
+     */
+    @Override
+    public Tracker createTracker(ConnectFourState state) {
+        ThreatTracker tracker = new ThreatTracker();
+        tracker.reset(state);
+        return tracker;
+    }
+    
+    /**
+     * This class implements the tracker keeping the per-window token counts.
+     */
+    private final class ThreatTracker implements Tracker {
+        
+        private final byte[] maximizingCounts =
+                new byte[windowCells.length / winningLength];
+        
+        private final byte[] minimizingCounts =
+                new byte[maximizingCounts.length];
+        
+        private double score;
+        
+        @Override
+        public void play(int x, int y, PlayerColor playerColor) {
+            byte[] counts = playerColor == PlayerColor.MAXIMIZING_PLAYER ?
+                            maximizingCounts :
+                            minimizingCounts;
+            
+            for (int w : cellWindows[y * width + x]) {
+                score -= windowValues[maximizingCounts[w]]
+                                     [minimizingCounts[w]];
+                counts[w]++;
+                score += windowValues[maximizingCounts[w]]
+                                     [minimizingCounts[w]];
+            }
+        }
+        
+        @Override
+        public void undo(int x, int y, PlayerColor playerColor) {
+            byte[] counts = playerColor == PlayerColor.MAXIMIZING_PLAYER ?
+                            maximizingCounts :
+                            minimizingCounts;
+            
+            for (int w : cellWindows[y * width + x]) {
+                score -= windowValues[maximizingCounts[w]]
+                                     [minimizingCounts[w]];
+                counts[w]--;
+                score += windowValues[maximizingCounts[w]]
+                                     [minimizingCounts[w]];
+            }
+        }
+        
+        @Override
+        public double evaluate() {
+            return score;
+        }
+        
+        @Override
+        public void reset(ConnectFourState state) {
+            checkDimensions(state);
+            Arrays.fill(maximizingCounts, (byte) 0);
+            Arrays.fill(minimizingCounts, (byte) 0);
+            score = 0.0;
+            
+            for (int y = 0; y < height; y++) {
+                for (int x = 0; x < width; x++) {
+                    PlayerColor playerColor = state.readCell(x, y);
+                    
+                    if (playerColor != null) {
+                        play(x, y, playerColor);
+                    }
+                }
+            }
+        }
+    }
+    
+    private void checkDimensions(ConnectFourState state) {
+        if (state.getWidth() != width
+                || state.getHeight() != height
+                || state.getWinningLength() != winningLength) {
+            throw new IllegalArgumentException(
+                    "The state dimensions do not match the evaluator.");
+        }
+    }
+    
+    private static double[][] computeWindowValues(int winningLength) {
+        double[][] windowValues =
+                new double[winningLength + 1][winningLength + 1];
+        
+        double value = THREAT_VALUE;
+        
+        for (int count = winningLength - 1; count >= 2; count--) {
+            windowValues[count][0] = value;
+            windowValues[0][count] = -value;
+            value = value * 3.0 / 10.0;
+        }
+        
+        windowValues[winningLength][0] = WIN_VALUE;
+        windowValues[0][winningLength] = -WIN_VALUE;
+        return windowValues;
+    }
+}
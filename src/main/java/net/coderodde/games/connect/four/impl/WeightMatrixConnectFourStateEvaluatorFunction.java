@@ -1,54 +1,243 @@
 package net.coderodde.games.connect.four.impl;
 
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
 import net.coderodde.games.connect.four.ConnectFourState;
 import net.coderodde.games.connect.four.PlayerColor;
 import net.coderodde.zerosum.ai.EvaluatorFunction;
 
 /**
  * This evaluation function relies on a weight matrix that reflects how many
- * patterns visit each matrix position.
+ * patterns visit each matrix position. The matrix is computed from the
+ * dimensions and the winning length of the evaluated board, and cached per
+ * board shape.
+ * 
+ * <p>On the boards stored in bitboards, the matrix is split into bit layers:
+ * the layer {@code k} holds the cells whose weight has the bit {@code k} set.
+ * The weight of the tokens of a player is then the sum of the population
+ * counts of the tokens in each layer, scaled by {@code 2^k}, and the
+ * evaluation allocates nothing.
  * 
  * @author Rodion "rodde" Efremov
  * @version 1.6 (Jun 19, 2019)
  */
 public class WeightMatrixConnectFourStateEvaluatorFunction implements EvaluatorFunction<ConnectFourState> {
-
-    private final double[][] matrix;
+    
+    private static final double WIN_VALUE = 1e6;
+    
+    /**
+     * Maps the shapes of the evaluated boards, packed via 
+     * {@link #shapeKey(int, int, int)}, to their weights.
+     */
+    private final Map<Long, Weights> weightsByShape = 
+            new ConcurrentHashMap<>();
+    
+    /**
+     * The weights of the board shape evaluated last, sparing the map lookup 
+     * while the shape stays the same. Replaced as a whole, so that the 
+     * threads of a parallel search may share this evaluator.
+     */
+    private volatile Weights weights;
     
     public WeightMatrixConnectFourStateEvaluatorFunction() {
-        this.matrix =  new double[][] {{3, 4,  5,  7,  5, 4, 3}, 
-                                       {4, 6,  8, 10,  8, 6, 4},
-                                       {5, 8, 11, 13, 11, 8, 5}, 
-                                       {5, 8, 11, 13, 11, 8, 5},
-                                       {4, 6,  8, 10,  8, 6, 4},
-                                       {3, 4,  5,  7,  5, 4, 3}};
+        this.weights = 
+                getWeights(
+                        new ConnectFourState(PlayerColor.MINIMIZING_PLAYER));
     }
-
+    
+    /**
+     * Evaluates the given input {@code state}. A line of either player is a 
+     * win, including the states written via 
+     * {@link ConnectFourState#write(int, int, PlayerColor)}.
+     * 
+     * @param state the state to estimate.
+     * @return the estimate.
+     */
     @Override
     public double evaluate(ConnectFourState state) {
         PlayerColor winner = state.checkVictory();
         
         if (winner == PlayerColor.MINIMIZING_PLAYER) {
-            return -1e6;
+            return -WIN_VALUE;
         }
         
         if (winner == PlayerColor.MAXIMIZING_PLAYER) {
-            return 1e6;
+            return WIN_VALUE;
+        }
+        
+        Weights weights = this.weights;
+        
+        if (weights.width != state.getWidth()
+                || weights.height != state.getHeight()
+                || weights.winningLength != state.getWinningLength()) {
+            weights = getWeights(state);
+            this.weights = weights;
         }
         
-        double sum = 0.0;
+        return weights.evaluate(state);
+    }
+    
+    /**
+     * Returns the cached weights of the board shape of a state, computing 
+     * them on first use.
+     * 
+     * @param state a state of the board shape.
+     * @return the weights.
+     */
+    private Weights getWeights(ConnectFourState state) {
+        return weightsByShape.computeIfAbsent(
+                shapeKey(state.getWidth(), 
+                         state.getHeight(), 
+                         state.getWinningLength()),
+                key -> new Weights(state));
+    }
+    
+    private static long shapeKey(int width, int height, int winningLength) {
+        return ((long) width << 42) | ((long) height << 21) | winningLength;
+    }
+    
+    /**
+     * Computes the weight matrix of a board. The entry {@code [y][x]} is the
+     * number of the horizontal, vertical and diagonal segments of
+     * {@code winningLength} cells containing the cell {@code (x, y)}.
+     * 
+     * @param width the number of columns.
+     * @param height the number of rows.
+     * @param winningLength the winning pattern length.
+     * @return the weight matrix.
+     */
+    static int[][] computeWeightMatrix(int width,
+                                       int height,
+                                       int winningLength) {
+        int[][] matrix = new int[height][width];
+        int[][] directions = { { 1, 0 }, { 0, 1 }, { 1, 1 }, { 1, -1 } };
         
-        for (int y = 0; y < state.getHeight(); y++) {
-            for (int x = 0; x < state.getWidth(); x++) {
-                if (state.readCell(x, y) == PlayerColor.MAXIMIZING_PLAYER) {
-                    sum += matrix[y][x];
-                } else if (state.readCell(x, y) ==
-                        PlayerColor.MINIMIZING_PLAYER) {
-                    sum -= matrix[y][x];
+        for (int[] direction : directions) {
+            for (int y = 0; y < height; y++) {
+                for (int x = 0; x < width; x++) {
+                    int endX = x + direction[0] * (winningLength - 1);
+                    int endY = y + direction[1] * (winningLength - 1);
+                    
+                    if (endX >= width || endY < 0 || endY >= height) {
+                        continue;
+                    }
+                    
+                    for (int i = 0; i < winningLength; i++) {
+                        matrix[y + i * direction[1]][x + i * direction[0]]++;
+                    }
                 }
             }
         }
         
-        return sum;
+        return matrix;
+    }
+    
+    /**
+     * This class holds the weights of a board shape.
+     */
+    private static final class Weights {
+        
+        private final int width;
+        private final int height;
+        private final int winningLength;
+        private final int[][] matrix;
+        
+        /**
+         * {@code layers[k]} and {@code layersHigh[k]} are the words of the
+         * bitboard of the cells whose weight has the bit {@code k} set.
+         */
+        private final long[] layers;
+        private final long[] layersHigh;
+        
+        /**
+         * Computes the weights of the board shape of a state.
+         * 
+         * @param state a state of the board shape.
+         */
+        Weights(ConnectFourState state) {
+            this.width = state.getWidth();
+            this.height = state.getHeight();
+            this.winningLength = state.getWinningLength();
+            this.matrix = computeWeightMatrix(width, height, winningLength);
+            
+            int maximumWeight = 0;
+            
+            for (int[] row : matrix) {
+                for (int weight : row) {
+                    maximumWeight = Math.max(maximumWeight, weight);
+                }
+            }
+            
+            int numberOfLayers =
+                    Integer.SIZE - Integer.numberOfLeadingZeros(maximumWeight);
+            
+            this.layers = new long[numberOfLayers];
+            this.layersHigh = new long[numberOfLayers];
+            
+            if (!state.hasBitboards()) {
+                return;
+            }
+            
+            for (int y = 0; y < height; y++) {
+                for (int x = 0; x < width; x++) {
+                    int index = ConnectFourState.getBitIndex(x, y, height);
+                    
+                    for (int k = 0; k < numberOfLayers; k++) {
+                        if ((matrix[y][x] & (1 << k)) == 0) {
+                            continue;
+                        }
+                        
+                        if (index < Long.SIZE) {
+                            layers[k] |= 1L << index;
+                        } else {
+                            layersHigh[k] |= 1L << (index - Long.SIZE);
+                        }
+                    }
+                }
+            }
+        }
+        
+        double evaluate(ConnectFourState state) {
+            if (!state.hasBitboards()) {
+                return evaluateMatrix(state);
+            }
+            
+            long maximizing = state.getTokens(PlayerColor.MAXIMIZING_PLAYER);
+            long maximizingHigh =
+                    state.getTokensHigh(PlayerColor.MAXIMIZING_PLAYER);
+            long minimizing = state.getTokens(PlayerColor.MINIMIZING_PLAYER);
+            long minimizingHigh =
+                    state.getTokensHigh(PlayerColor.MINIMIZING_PLAYER);
+            int sum = 0;
+            
+            for (int k = 0; k < layers.length; k++) {
+                int count = Long.bitCount(maximizing & layers[k])
+                          + Long.bitCount(maximizingHigh & layersHigh[k])
+                          - Long.bitCount(minimizing & layers[k])
+                          - Long.bitCount(minimizingHigh & layersHigh[k]);
+                
+                sum += count << k;
+            }
+            
+            return sum;
+        }
+        
+        private double evaluateMatrix(ConnectFourState state) {
+            int sum = 0;
+            
+            for (int y = 0; y < height; y++) {
+                for (int x = 0; x < width; x++) {
+                    PlayerColor playerColor = state.readCell(x, y);
+                    
+                    if (playerColor == PlayerColor.MAXIMIZING_PLAYER) {
+                        sum += matrix[y][x];
+                    } else if (playerColor == PlayerColor.MINIMIZING_PLAYER) {
+                        sum -= matrix[y][x];
+                    }
+                }
+            }
+            
+            return sum;
+        }
     }
 }
@@ -0,0 +1,318 @@
+package net.coderodde.games.connect.four;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.ForkJoinPool;
+import net.coderodde.games.connect.four.impl.BruteForceConnectFourStateEvaluatorFunction;
+import net.coderodde.games.connect.four.impl.SmartBot;
+import net.coderodde.games.connect.four.impl.ThreatCountingConnectFourStateEvaluatorFunction;
+import net.coderodde.zerosum.ai.EvaluatorFunction;
+import static org.junit.Assert.*;
+import org.junit.Test;
+
+/**
+ * This class tests the Connect Four specific game engine.
+ * 
+ * @author Rodion "rodde" Efremov
+ * @version 1.6 (Oct 17, 2026)
+ */
+public class ConnectFourGameEngineTest {
+    
+    private final ConnectFourGameEngine engine = 
+            new ConnectFourGameEngine(
+                    new BruteForceConnectFourStateEvaluatorFunction(
+                            ConnectFourState.DEFAULT_WIDTH,
+                            ConnectFourState.DEFAULT_HEIGHT,
+                            Demo.MAX_WEIGHT_MATRIX_ENTRY,
+                            ConnectFourState.DEFAULT_WINNING_LENGTH),
+                    6);
+    
+    @Test
+    public void testTakesImmediateWin() {
+        ConnectFourState state = 
+                new ConnectFourState(PlayerColor.MAXIMIZING_PLAYER);
+        
+        // The minimizing player has three tokens in column 2:
+        for (int column : new int[]{ 2, 5, 2, 5, 2, 6 }) {
+            state = state.move(column);
+        }
+        
+        ConnectFourState nextState = makePly(state);
+        
+        assertEquals(PlayerColor.MINIMIZING_PLAYER, nextState.checkVictory());
+        assertEquals(PlayerColor.MINIMIZING_PLAYER, nextState.readCell(2, 2));
+    }
+    
+    @Test
+    public void testBlocksImmediateThreat() {
+        ConnectFourState state = 
+                new ConnectFourState(PlayerColor.MAXIMIZING_PLAYER);
+        
+        // The maximizing player threatens to complete row 5 in column 4:
+        for (int column : new int[]{ 0, 1, 0, 2, 6, 3 }) {
+            state = state.move(column);
+        }
+        
+        ConnectFourState nextState = makePly(state);
+        
+        assertEquals(PlayerColor.MINIMIZING_PLAYER, nextState.readCell(4, 5));
+        assertTrue(engine.getNodeCount() > 0L);
+    }
+    
+    @Test
+    public void testDoesNotModifyInputState() {
+        ConnectFourState state = 
+                new ConnectFourState(PlayerColor.MAXIMIZING_PLAYER).move(3);
+        
+        makePly(state);
+        
+        assertEquals(PlayerColor.MINIMIZING_PLAYER, state.getPlayerColor());
+        assertEquals(PlayerColor.MINIMIZING_PLAYER, state.readCell(3, 5));
+        
+        for (int x = 0; x < state.getWidth(); x++) {
+            assertNull(state.readCell(x, 4));
+        }
+    }
+    
+    @Test
+    public void testPlugsIntoSmartBot() {
+        Bot bot = new SmartBot(PlayerColor.MAXIMIZING_PLAYER, engine);
+        ConnectFourState state = 
+                new ConnectFourState(PlayerColor.MINIMIZING_PLAYER);
+        
+        // The maximizing player has three tokens in the bottom row:
+        for (int column : new int[]{ 1, 1, 2, 2, 3, 3 }) {
+            state = state.move(column);
+        }
+        
+        ConnectFourState nextState = bot.computeNextState(state);
+        
+        assertEquals(PlayerColor.MAXIMIZING_PLAYER, nextState.checkVictory());
+    }
+    
+    @Test
+    public void testColumnOrderIsCenterFirst() {
+        assertArrayEquals(new int[]{ 3, 2, 4, 1, 5, 0, 6 }, 
+                          ConnectFourGameEngine.computeColumnOrder(7));
+        assertArrayEquals(new int[]{ 3, 2, 4, 1, 5, 0 }, 
+                          ConnectFourGameEngine.computeColumnOrder(6));
+        assertArrayEquals(new int[]{ 0 }, 
+                          ConnectFourGameEngine.computeColumnOrder(1));
+    }
+    
+    @Test
+    public void testParallelSearchAgreesWithSequentialSearch() {
+        ForkJoinPool pool = new ForkJoinPool(4);
+        
+        try {
+            ConnectFourGameEngine parallelEngine = 
+                    new ConnectFourGameEngine(
+                            new BruteForceConnectFourStateEvaluatorFunction(
+                                    ConnectFourState.DEFAULT_WIDTH,
+                                    ConnectFourState.DEFAULT_HEIGHT,
+                                    Demo.MAX_WEIGHT_MATRIX_ENTRY,
+                                    ConnectFourState.DEFAULT_WINNING_LENGTH),
+                            6,
+                            new TranspositionTable(),
+                            pool);
+            
+            ConnectFourState state = 
+                    new ConnectFourState(PlayerColor.MAXIMIZING_PLAYER);
+            
+            for (int column : new int[]{ 3, 3, 2, 4, 1, 0, 5, 6 }) {
+                ConnectFourState expected = makePly(state);
+                ConnectFourState actual = 
+                        parallelEngine.makePly(
+                                state, 
+                                PlayerColor.MINIMIZING_PLAYER,
+                                PlayerColor.MAXIMIZING_PLAYER,
+                                ConnectFourState.opposite(
+                                        state.getPlayerColor()));
+                
+                assertEquals(engine.getLastScore(), 
+                             parallelEngine.getLastScore());
+                checkSearchStats(parallelEngine);
+                
+                for (int x = 0; x < state.getWidth(); x++) {
+                    for (int y = 0; y < state.getHeight(); y++) {
+                        assertEquals(expected.readCell(x, y), 
+                                     actual.readCell(x, y));
+                    }
+                }
+                
+                state = state.move(column);
+            }
+        } finally {
+            pool.shutdown();
+        }
+    }
+    
+    @Test
+    public void testMoveHeuristicsKeepResults() {
+        ConnectFourGameEngine plainEngine = 
+                new ConnectFourGameEngine(
+                        new BruteForceConnectFourStateEvaluatorFunction(
+                                ConnectFourState.DEFAULT_WIDTH,
+                                ConnectFourState.DEFAULT_HEIGHT,
+                                Demo.MAX_WEIGHT_MATRIX_ENTRY,
+                                ConnectFourState.DEFAULT_WINNING_LENGTH),
+                        6);
+        plainEngine.setUsingMoveHeuristics(false);
+        
+        assertTrue(engine.isUsingMoveHeuristics());
+        assertFalse(plainEngine.isUsingMoveHeuristics());
+        
+        ConnectFourState state = 
+                new ConnectFourState(PlayerColor.MAXIMIZING_PLAYER);
+        
+        for (int column : new int[]{ 3, 3, 2, 4, 1, 0, 5, 6 }) {
+            ConnectFourState expected = 
+                    plainEngine.makePly(state, 
+                                        PlayerColor.MINIMIZING_PLAYER,
+                                        PlayerColor.MAXIMIZING_PLAYER,
+                                        null);
+            ConnectFourState actual = makePly(state);
+            
+            assertEquals(plainEngine.getLastScore(), engine.getLastScore());
+            assertEquals(expected, actual);
+            assertTrue(engine.getEffectiveBranchingFactor() > 1.0);
+            
+            state = state.move(column);
+        }
+    }
+    
+    @Test
+    public void testAgreesWithFullWindowSearch() {
+        EvaluatorFunction<ConnectFourState> evaluatorFunction = 
+                new ThreatCountingConnectFourStateEvaluatorFunction();
+        ConnectFourGameEngine threatEngine = 
+                new ConnectFourGameEngine(evaluatorFunction, 5);
+        Random random = new Random(2L);
+        
+        for (int i = 0; i < 20; i++) {
+            ConnectFourState state = 
+                    new ConnectFourState(PlayerColor.MINIMIZING_PLAYER);
+            
+            for (int j = random.nextInt(12); j > 0; j--) {
+                int x = random.nextInt(state.getWidth());
+                
+                if (!state.columnIsFull(x) && !state.isWinningMove(x)) {
+                    state = state.move(x);
+                }
+            }
+            
+            int expectedScore = negamax(state, 5, evaluatorFunction);
+            ConnectFourState nextState = threatEngine.makePly(state, 
+                                                              null, 
+                                                              null, 
+                                                              null);
+            
+            // The moves of equal score may be chosen in any order:
+            assertEquals(expectedScore, threatEngine.getLastScore());
+            assertEquals(expectedScore, 
+                         -negamax(nextState, 4, evaluatorFunction));
+        }
+    }
+    
+    @Test
+    public void testReportsSearchStats() {
+        List<SearchStats> reported = new ArrayList<>();
+        
+        assertNull(engine.getLastSearchStats());
+        
+        engine.setSearchListener(reported::add);
+        ConnectFourState state = 
+                new ConnectFourState(PlayerColor.MAXIMIZING_PLAYER);
+        
+        for (int column : new int[]{ 3, 3, 2, 4 }) {
+            ConnectFourState nextState = makePly(state);
+            SearchStats stats = engine.getLastSearchStats();
+            
+            assertSame(stats, reported.get(reported.size() - 1));
+            assertEquals(6, stats.getDepth());
+            assertEquals(engine.getLastScore(), stats.getScore());
+            assertEquals(nextState, state.move(stats.getMove()));
+            checkSearchStats(engine);
+            
+            state = state.move(column);
+        }
+        
+        assertEquals(4, reported.size());
+        
+        engine.setSearchListener(null);
+        makePly(state);
+        
+        assertEquals(4, reported.size());
+    }
+    
+    /**
+     * Checks that the statistics of the last search are consistent.
+     */
+    private static void checkSearchStats(ConnectFourGameEngine engine) {
+        SearchStats stats = engine.getLastSearchStats();
+        long probes = stats.getTranspositionHitCount() 
+                    + stats.getTranspositionMissCount();
+        long cutoffCount = 0L;
+        
+        for (long count : stats.getCutoffCounts()) {
+            cutoffCount += count;
+        }
+        
+        assertEquals(engine.getNodeCount(), stats.getNodeCount());
+        assertEquals(engine.getCompletedDepth(), stats.getDepth());
+        assertEquals(engine.getEffectiveBranchingFactor(), 
+                     stats.getEffectiveBranchingFactor(), 
+                     0.0);
+        assertTrue(stats.getLeafEvaluationCount() > 0L);
+        assertTrue(stats.getLeafEvaluationCount() <= stats.getNodeCount());
+        assertTrue(stats.getTranspositionHitCount() > 0L);
+        assertTrue(probes <= stats.getNodeCount());
+        assertTrue(stats.getCutoffCount(1) > 0L);
+        assertEquals(cutoffCount, stats.getCutoffCount());
+        assertTrue(stats.getCutoffCounts().length <= stats.getDepth() + 1);
+        assertTrue(stats.getElapsedNanos() > 0L);
+    }
+    
+    /**
+     * Implements the plain negamax search without pruning.
+     */
+    private static int negamax(
+            ConnectFourState state, 
+            int depth,
+            EvaluatorFunction<ConnectFourState> evaluatorFunction) {
+        if (state.lastMoveWon()) {
+            return -ConnectFourGameEngine.WIN_SCORE - depth;
+        }
+        
+        if (depth == 0 || state.isFull()) {
+            double value = evaluatorFunction.evaluate(state);
+            int score = (int) Math.max(-ConnectFourGameEngine.MAX_EVALUATION,
+                                       Math.min(
+                                           ConnectFourGameEngine.MAX_EVALUATION,
+                                           value));
+            return state.getPlayerColor() == PlayerColor.MINIMIZING_PLAYER ?
+                   score :
+                   -score;
+        }
+        
+        int bestScore = -ConnectFourGameEngine.INFINITY;
+        
+        for (ConnectFourState child : state.children()) {
+            bestScore = Math.max(bestScore, 
+                                 -negamax(child, 
+                                          depth - 1, 
+                                          evaluatorFunction));
+        }
+        
+        return bestScore;
+    }
+    
+    private ConnectFourState makePly(ConnectFourState state) {
+        return engine.makePly(state,
+                              PlayerColor.MINIMIZING_PLAYER,
+                              PlayerColor.MAXIMIZING_PLAYER,
+                              ConnectFourState.opposite(
+                                      state.getPlayerColor()));
+    }
+}
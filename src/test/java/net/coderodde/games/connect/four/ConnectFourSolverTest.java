@@ -0,0 +1,194 @@
+package net.coderodde.games.connect.four;
+
+import java.util.Random;
+import net.coderodde.games.connect.four.impl.PerfectBot;
+import net.coderodde.games.connect.four.impl.RandomBot;
+import static org.junit.Assert.*;
+import org.junit.Test;
+
+/**
+ * This class tests the perfect-play solver.
+ * 
+ * @author Rodion "rodde" Efremov
+ * @version 1.6 (Oct 17, 2026)
+ */
+public class ConnectFourSolverTest {
+    
+    private final ConnectFourSolver solver = new ConnectFourSolver();
+    
+    @Test
+    public void testReferencePositions() {
+        // Positions and scores from the test suite of Pascal Pons' solver.
+        // The columns are numbered from one:
+        assertEquals(-1, solver.solve(ConnectFourState.parseMoves(
+                "2252576253462244111563365343671351441")));
+        assertEquals(1, solver.solve(ConnectFourState.parseMoves(
+                "7422341735647741166133573473242566")));
+    }
+    
+    @Test
+    public void testDoubleThreat() {
+        // The first player plays 3 or 6 and wins with the next move:
+        ConnectFourState state = ConnectFourState.parseMoves("4455");
+        int score = solver.solve(state);
+        
+        assertEquals(18, score);
+        assertEquals(3, ConnectFourSolver.getDistance(state, score));
+        
+        int move = solver.findBestMove(state);
+        assertTrue(move == 2 || move == 5);
+        
+        // The known score spares the search for it:
+        long nodeCount = solver.getNodeCount();
+        solver.solve(state);
+        long solveNodeCount = solver.getNodeCount();
+        assertEquals(move, solver.findBestMove(state, score));
+        assertTrue(solver.getNodeCount() - solveNodeCount < nodeCount);
+    }
+    
+    @Test
+    public void testAgreesWithExhaustiveSearch() {
+        Random random = new Random(1L);
+        
+        for (int i = 0; i < 30; i++) {
+            ConnectFourState state = randomPosition(random, 7, 6, 4, 30);
+            
+            if (state != null) {
+                assertEquals(exhaustiveScore(state), solver.solve(state));
+            }
+        }
+        
+        for (int i = 0; i < 30; i++) {
+            ConnectFourState state = randomPosition(random, 4, 4, 3, 5);
+            
+            if (state != null) {
+                assertEquals(exhaustiveScore(state), solver.solve(state));
+            }
+        }
+    }
+    
+    @Test
+    public void testTableSpreadsCenterColumnPositions() {
+        // The positions of this mid-game differ mostly in the center and
+        // the right columns. Indexed by the raw keys, which encode only the
+        // leftmost columns in their low bits, they collide in a handful of 
+        // slots, and the solve visits about eight times as many nodes:
+        ConnectFourSolver smallTableSolver = 
+                new ConnectFourSolver(new TranspositionTable(
+                        1 << 16,
+                        TranspositionTable.ReplacementPolicy.ALWAYS_REPLACE));
+        
+        assertEquals(2, smallTableSolver.solve(
+                ConnectFourState.parseMoves("4444441352")));
+        assertTrue(smallTableSolver.getNodeCount() < 4_000_000L);
+    }
+    
+    @Test
+    public void testDistance() {
+        ConnectFourState state = ConnectFourState.parseMoves("445566");
+        
+        // The first player wins right away:
+        assertEquals(1, ConnectFourSolver.getDistance(state,
+                                                      solver.solve(state)));
+        
+        // The second player may only delay the loss for one move:
+        state = ConnectFourState.parseMoves("44553");
+        assertEquals(2, ConnectFourSolver.getDistance(state,
+                                                      solver.solve(state)));
+    }
+    
+    @Test
+    public void testPerfectBotConvertsWonPosition() {
+        Random random = new Random(3L);
+        ConnectFourState initialState = 
+                ConnectFourState.parseMoves("52142442167724215341");
+        
+        // The player to move wins:
+        assertTrue(solver.solve(initialState) > 0);
+        
+        Bot perfectBot = new PerfectBot(PlayerColor.MAXIMIZING_PLAYER,
+                                        solver);
+        Bot randomBot = new RandomBot(PlayerColor.MINIMIZING_PLAYER, random);
+        
+        for (int game = 0; game < 5; game++) {
+            ConnectFourState state = initialState;
+            
+            while (state.checkVictory() == null && !state.isFull()) {
+                state = perfectBot.computeNextState(state);
+                
+                if (state.checkVictory() == null && !state.isFull()) {
+                    state = randomBot.computeNextState(state);
+                }
+            }
+            
+            assertEquals(PlayerColor.MAXIMIZING_PLAYER, state.checkVictory());
+        }
+    }
+    
+    @Test(expected = IllegalArgumentException.class)
+    public void testRejectsLargeBoard() {
+        solver.solve(new ConnectFourState(9, 9, 4,
+                                          PlayerColor.MAXIMIZING_PLAYER));
+    }
+    
+    /**
+     * Plays random moves until there are {@code moves} tokens. Returns
+     * {@code null} if the game ends before that.
+     */
+    private static ConnectFourState randomPosition(Random random,
+                                                   int width,
+                                                   int height,
+                                                   int winningLength,
+                                                   int moves) {
+        ConnectFourState state =
+                new ConnectFourState(width,
+                                     height,
+                                     winningLength,
+                                     PlayerColor.MINIMIZING_PLAYER);
+        
+        while (state.getNumberOfTokens() < moves) {
+            int x = random.nextInt(width);
+            
+            if (state.columnIsFull(x)) {
+                continue;
+            }
+            
+            state = state.move(x);
+            
+            if (state.checkVictory() != null) {
+                return null;
+            }
+        }
+        
+        return state;
+    }
+    
+    /**
+     * Computes the score of the state by searching the whole game tree.
+     */
+    private static int exhaustiveScore(ConnectFourState state) {
+        int cells = state.getWidth() * state.getHeight();
+        int moves = state.getNumberOfTokens();
+        
+        for (int x = 0; x < state.getWidth(); x++) {
+            if (!state.columnIsFull(x) && state.isWinningMove(x)) {
+                return (cells + 1 - moves) / 2;
+            }
+        }
+        
+        int bestScore = Integer.MIN_VALUE;
+        
+        for (int x = 0; x < state.getWidth(); x++) {
+            if (state.columnIsFull(x)) {
+                continue;
+            }
+            
+            state.play(x);
+            int score = state.isFull() ? 0 : -exhaustiveScore(state);
+            state.undo();
+            bestScore = Math.max(bestScore, score);
+        }
+        
+        return bestScore;
+    }
+}
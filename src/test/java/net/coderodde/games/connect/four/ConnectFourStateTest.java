@@ -0,0 +1,596 @@
+package net.coderodde.games.connect.four;
+
+import java.io.IOException;
+import java.util.List;
+import java.util.Random;
+import static org.junit.Assert.*;
+import org.junit.Test;
+
+/**
+ * This class tests the Connect Four game state.
+ *
+ * @author Rodion "rodde" Efremov
+ * @version 1.6 (Oct 17, 2026)
+ */
+public class ConnectFourStateTest {
+
+    @Test
+    public void testMoveStacksTokensFromBottom() {
+        ConnectFourState state =
+                new ConnectFourState(PlayerColor.MAXIMIZING_PLAYER);
+
+        state = state.move(3);
+        state = state.move(3);
+        state = state.move(4);
+
+        assertEquals(PlayerColor.MINIMIZING_PLAYER, state.readCell(3, 5));
+        assertEquals(PlayerColor.MAXIMIZING_PLAYER, state.readCell(3, 4));
+        assertEquals(PlayerColor.MINIMIZING_PLAYER, state.readCell(4, 5));
+        assertNull(state.readCell(3, 3));
+        assertNull(state.readCell(4, 4));
+        assertNull(state.readCell(0, 5));
+    }
+
+    @Test
+    public void testColumnIsFull() {
+        ConnectFourState state =
+                new ConnectFourState(PlayerColor.MAXIMIZING_PLAYER);
+
+        for (int i = 0; i < ConnectFourState.DEFAULT_HEIGHT; i++) {
+            assertFalse(state.columnIsFull(0));
+            state = state.move(0);
+        }
+
+        assertTrue(state.columnIsFull(0));
+        assertFalse(state.columnIsFull(1));
+        assertEquals(ConnectFourState.DEFAULT_WIDTH - 1,
+                     state.children().size());
+    }
+
+    @Test(expected = IllegalStateException.class)
+    public void testThrowsOnMoveToFullColumn() {
+        ConnectFourState state =
+                new ConnectFourState(PlayerColor.MAXIMIZING_PLAYER);
+
+        for (int i = 0; i <= ConnectFourState.DEFAULT_HEIGHT; i++) {
+            state = state.move(6);
+        }
+    }
+
+    @Test
+    public void testWriteOverridesCells() {
+        ConnectFourState state =
+                new ConnectFourState(PlayerColor.MAXIMIZING_PLAYER);
+
+        state.write(2, 5, PlayerColor.MAXIMIZING_PLAYER);
+        state.write(3, 5, PlayerColor.MINIMIZING_PLAYER);
+
+        assertEquals(PlayerColor.MAXIMIZING_PLAYER, state.readCell(2, 5));
+        assertEquals(PlayerColor.MINIMIZING_PLAYER, state.readCell(3, 5));
+
+        state.write(3, 5, PlayerColor.MAXIMIZING_PLAYER);
+        assertEquals(PlayerColor.MAXIMIZING_PLAYER, state.readCell(3, 5));
+
+        state.write(3, 5, null);
+        assertNull(state.readCell(3, 5));
+
+        // The next token goes on top of the written one:
+        state = state.move(2);
+        assertEquals(PlayerColor.MINIMIZING_PLAYER, state.readCell(2, 4));
+    }
+
+    @Test
+    public void testBitboardAgreesWithLargeBoard() {
+        // 7 x 9 needs a 128-bit bitboard:
+        ConnectFourState small =
+                new ConnectFourState(7, 6, 4, PlayerColor.MAXIMIZING_PLAYER);
+        ConnectFourState large =
+                new ConnectFourState(7, 9, 4, PlayerColor.MAXIMIZING_PLAYER);
+
+        int[] columns = { 3, 3, 2, 4, 4, 1, 0, 6, 5, 3, 2, 2 };
+
+        for (int column : columns) {
+            small = small.move(column);
+            large = large.move(column);
+        }
+
+        for (int x = 0; x < 7; x++) {
+            for (int y = 0; y < 6; y++) {
+                assertEquals(small.readCell(x, y), large.readCell(x, y + 3));
+            }
+        }
+
+        List<ConnectFourState> smallChildren = small.children();
+        List<ConnectFourState> largeChildren = large.children();
+        assertEquals(smallChildren.size(), largeChildren.size());
+    }
+
+    @Test
+    public void testVictoryDetection() {
+        ConnectFourState state =
+                new ConnectFourState(PlayerColor.MAXIMIZING_PLAYER);
+
+        // Ascending diagonal of the minimizing player:
+        int[] columns = { 0, 1, 1, 2, 2, 3, 2, 3, 3, 6 };
+
+        for (int column : columns) {
+            assertNull(state.checkVictory());
+            assertFalse(state.isWinningMove(column));
+            state = state.move(column);
+            assertFalse(state.lastMoveWon());
+        }
+
+        assertTrue(state.isWinningMove(3));
+        state = state.move(3);
+        assertTrue(state.lastMoveWon());
+        assertTrue(state.isTerminal());
+        assertEquals(PlayerColor.MINIMIZING_PLAYER, state.checkVictory());
+    }
+
+    @Test
+    public void testBitboardVictoryAgreesWithLargeBoard() {
+        Random random = new Random(13L);
+
+        for (int winningLength = 3; winningLength <= 5; winningLength++) {
+            for (int game = 0; game < 200; game++) {
+                ConnectFourState small = 
+                        new ConnectFourState(7, 
+                                             6, 
+                                             winningLength, 
+                                             PlayerColor.MAXIMIZING_PLAYER);
+                ConnectFourState large = 
+                        new ConnectFourState(7,
+                                             9,
+                                             winningLength, 
+                                             PlayerColor.MAXIMIZING_PLAYER);
+
+                while (!small.isFull() && small.checkVictory() == null) {
+                    int column = random.nextInt(7);
+
+                    if (small.columnIsFull(column)) {
+                        continue;
+                    }
+
+                    assertEquals(large.isWinningMove(column),
+                                 small.isWinningMove(column));
+
+                    small = small.move(column);
+                    large = large.move(column);
+
+                    assertEquals(large.checkVictory(), small.checkVictory());
+                    assertEquals(large.lastMoveWon(), small.lastMoveWon());
+                }
+            }
+        }
+    }
+    
+    @Test
+    public void testWideBitboardAgreesWithMatrix() {
+        Random random = new Random(17L);
+        
+        for (int winningLength = 3; winningLength <= 5; winningLength++) {
+            for (int game = 0; game < 100; game++) {
+                // 9 x 9 needs a 128-bit bitboard, 9 x 14 does not fit in 
+                // one:
+                ConnectFourState wide = 
+                        new ConnectFourState(9, 
+                                             9, 
+                                             winningLength, 
+                                             PlayerColor.MAXIMIZING_PLAYER);
+                ConnectFourState matrix = 
+                        new ConnectFourState(9,
+                                             14,
+                                             winningLength, 
+                                             PlayerColor.MAXIMIZING_PLAYER);
+                
+                while (!wide.isFull() && wide.checkVictory() == null) {
+                    int column = random.nextInt(9);
+                    
+                    if (wide.columnIsFull(column)) {
+                        continue;
+                    }
+                    
+                    assertEquals(matrix.isWinningMove(column),
+                                 wide.isWinningMove(column));
+                    
+                    wide.play(column);
+                    matrix = matrix.move(column);
+                    
+                    assertEquals(matrix.getTopRow(column), 
+                                 wide.getTopRow(column) + 5);
+                    assertEquals(matrix.checkVictory(), wide.checkVictory());
+                    assertEquals(matrix.lastMoveWon(), wide.lastMoveWon());
+                    assertEquals(matrix.getNumberOfTokens(),
+                                 wide.getNumberOfTokens());
+                }
+                
+                for (int x = 0; x < 9; x++) {
+                    for (int y = 0; y < 9; y++) {
+                        assertEquals(matrix.readCell(x, y + 5), 
+                                     wide.readCell(x, y));
+                    }
+                }
+                
+                // Unwinding the game restores the empty board:
+                while (wide.getNumberOfPlayedMoves() > 0) {
+                    wide.undo();
+                }
+                
+                assertEquals(0, wide.getNumberOfTokens());
+                assertEquals(new ConnectFourState(
+                                     9,
+                                     9,
+                                     winningLength,
+                                     PlayerColor.MAXIMIZING_PLAYER),
+                             wide);
+            }
+        }
+    }
+    
+    @Test
+    public void testPlayAndUndo() {
+        ConnectFourState state =
+                new ConnectFourState(PlayerColor.MAXIMIZING_PLAYER);
+        ConnectFourState expected = state.move(3).move(3).move(2);
+        
+        state.play(3);
+        state.play(3);
+        state.play(2);
+        
+        assertEquals(3, state.getNumberOfPlayedMoves());
+        assertEquals(expected.getPlayerColor(), state.getPlayerColor());
+        
+        for (int x = 0; x < state.getWidth(); x++) {
+            for (int y = 0; y < state.getHeight(); y++) {
+                assertEquals(expected.readCell(x, y), state.readCell(x, y));
+            }
+        }
+        
+        state.undo();
+        state.undo();
+        state.undo();
+        
+        assertEquals(0, state.getNumberOfPlayedMoves());
+        assertEquals(PlayerColor.MAXIMIZING_PLAYER, state.getPlayerColor());
+        
+        for (int x = 0; x < state.getWidth(); x++) {
+            for (int y = 0; y < state.getHeight(); y++) {
+                assertNull(state.readCell(x, y));
+            }
+        }
+    }
+    
+    @Test
+    public void testPlayAndUndoOnLargeBoard() {
+        ConnectFourState state =
+                new ConnectFourState(9, 9, 5, PlayerColor.MAXIMIZING_PLAYER);
+        
+        state.play(8);
+        state.play(8);
+        
+        assertEquals(PlayerColor.MINIMIZING_PLAYER, state.readCell(8, 8));
+        assertEquals(PlayerColor.MAXIMIZING_PLAYER, state.readCell(8, 7));
+        
+        state.undo();
+        
+        assertEquals(PlayerColor.MINIMIZING_PLAYER, state.readCell(8, 8));
+        assertNull(state.readCell(8, 7));
+        assertEquals(PlayerColor.MINIMIZING_PLAYER, state.getPlayerColor());
+    }
+    
+    @Test
+    public void testZobristKeyIgnoresMoveOrder() {
+        ConnectFourState state =
+                new ConnectFourState(PlayerColor.MAXIMIZING_PLAYER);
+        ConnectFourState state1 = state.move(1).move(2).move(3);
+        ConnectFourState state2 = state.move(3).move(2).move(1);
+        ConnectFourState state3 = state.move(1).move(3).move(2);
+        
+        assertEquals(state1.getZobristKey(), state2.getZobristKey());
+        assertNotEquals(state1.getZobristKey(), state3.getZobristKey());
+        
+        state.play(3);
+        state.play(2);
+        state.play(1);
+        
+        assertEquals(state1.getZobristKey(), state.getZobristKey());
+        
+        state.undo();
+        state.undo();
+        state.undo();
+        
+        assertEquals(new ConnectFourState(PlayerColor.MAXIMIZING_PLAYER)
+                            .getZobristKey(),
+                     state.getZobristKey());
+        
+        ConnectFourState written = 
+                new ConnectFourState(PlayerColor.MAXIMIZING_PLAYER);
+        written.write(1, 5, PlayerColor.MINIMIZING_PLAYER);
+        written.write(3, 5, PlayerColor.MINIMIZING_PLAYER);
+        written.write(2, 5, PlayerColor.MAXIMIZING_PLAYER);
+        
+        // 'state1' is owned by the minimizing player:
+        assertNotEquals(state1.getZobristKey(), written.getZobristKey());
+        
+        // Same tokens, but the owner differs:
+        ConnectFourState written2 = 
+                new ConnectFourState(PlayerColor.MINIMIZING_PLAYER);
+        written2.write(1, 5, PlayerColor.MINIMIZING_PLAYER);
+        written2.write(3, 5, PlayerColor.MINIMIZING_PLAYER);
+        written2.write(2, 5, PlayerColor.MAXIMIZING_PLAYER);
+        
+        assertEquals(state1.getZobristKey(), written2.getZobristKey());
+    }
+    
+    @Test
+    public void testKeyIdentifiesPosition() {
+        ConnectFourState state =
+                new ConnectFourState(PlayerColor.MAXIMIZING_PLAYER);
+        ConnectFourState state1 = state.move(1).move(2).move(3);
+        ConnectFourState state2 = state.move(3).move(2).move(1);
+        ConnectFourState state3 = state.move(1).move(3).move(2);
+        
+        assertEquals(state1.getKey(), state2.getKey());
+        assertNotEquals(state1.getKey(), state3.getKey());
+        assertEquals(state1, state2);
+        assertEquals(state1.hashCode(), state2.hashCode());
+        assertNotEquals(state1, state3);
+        
+        // Same tokens, but the owner differs:
+        ConnectFourState written = 
+                new ConnectFourState(PlayerColor.MAXIMIZING_PLAYER);
+        written.write(1, 5, PlayerColor.MINIMIZING_PLAYER);
+        written.write(3, 5, PlayerColor.MINIMIZING_PLAYER);
+        written.write(2, 5, PlayerColor.MAXIMIZING_PLAYER);
+        
+        assertNotEquals(state1, written);
+        
+        state.play(3);
+        state.play(2);
+        state.play(1);
+        
+        assertEquals(state1, state);
+        assertEquals(state1.hashCode(), state.hashCode());
+    }
+    
+    @Test
+    public void testCanonicalKeyIgnoresMirroring() {
+        checkMirroring(new ConnectFourState(PlayerColor.MAXIMIZING_PLAYER), 
+                       new int[]{ 0, 1, 1, 5, 6, 6, 6 });
+        checkMirroring(new ConnectFourState(9, 9, 5, 
+                                            PlayerColor.MAXIMIZING_PLAYER),
+                       new int[]{ 0, 1, 1, 5, 8, 8, 7 });
+        checkMirroring(new ConnectFourState(9, 14, 5, 
+                                            PlayerColor.MAXIMIZING_PLAYER),
+                       new int[]{ 0, 1, 1, 5, 8, 8, 7 });
+    }
+    
+    @Test
+    public void testSymmetricPositionIsCanonical() {
+        ConnectFourState state =
+                new ConnectFourState(PlayerColor.MAXIMIZING_PLAYER)
+                        .move(3).move(3).move(1).move(1).move(5).move(5);
+        
+        assertTrue(state.isCanonical());
+        assertEquals(state, state.mirror());
+        assertEquals(state.getKey(), state.getCanonicalKey());
+    }
+    
+    @Test
+    public void testWinningAndNonLosingColumns() {
+        ConnectFourState state =
+                new ConnectFourState(PlayerColor.MINIMIZING_PLAYER)
+                        .move(0).move(6).move(1).move(6).move(2);
+        
+        // The second player must block the three in the bottom row:
+        assertEquals(0, state.getWinningColumns());
+        assertEquals(1 << 3, state.getNonLosingColumns());
+        
+        // A double threat leaves no move that does not lose:
+        state = new ConnectFourState(PlayerColor.MINIMIZING_PLAYER)
+                        .move(3).move(3).move(4).move(4).move(5);
+        
+        assertEquals(0, state.getNonLosingColumns());
+        
+        // The first player wins in both columns next to the open three:
+        state = state.move(0);
+        assertEquals((1 << 2) | (1 << 6), state.getWinningColumns());
+    }
+    
+    @Test
+    public void testColumnsAgreeWithMoves() {
+        Random random = new Random(5L);
+        
+        for (int i = 0; i < 200; i++) {
+            checkColumns(randomState(random, 7, 6));
+            checkColumns(randomState(random, 9, 7));
+            checkColumns(randomState(random, 9, 9));
+            checkColumns(randomState(random, 12, 10));
+        }
+    }
+    
+    @Test
+    public void testRendering() throws IOException {
+        ConnectFourState state = ConnectFourState.parseMoves("4453");
+        String expected = "| | | | | | | |\n" +
+                          "| | | | | | | |\n" +
+                          "| | | | | | | |\n" +
+                          "| | | | | | | |\n" +
+                          "| | | |X| | | |\n" +
+                          "| | |X|O|O| | |\n" +
+                          "+-+-+-+-+-+-+-+";
+        
+        assertEquals(expected, state.toString());
+        assertEquals(expected, 
+                     state.appendTo(new StringBuilder()).toString());
+    }
+    
+    @Test
+    public void testParsingAgreesWithMoves() {
+        ConnectFourState state = 
+                new ConnectFourState(PlayerColor.MINIMIZING_PLAYER);
+        
+        for (int column : new int[]{ 3, 3, 4, 2 }) {
+            state = state.move(column);
+        }
+        
+        assertEquals(state, ConnectFourState.parseMoves("4453"));
+        assertEquals(state, 
+                     ConnectFourState.parseGrid(
+                             state.toString(), 
+                             4, 
+                             PlayerColor.MINIMIZING_PLAYER));
+    }
+    
+    @Test
+    public void testGridRoundTrips() {
+        Random random = new Random(23L);
+        
+        for (int i = 0; i < 100; i++) {
+            for (int[] board : new int[][]{ { 7, 6 }, { 9, 9 }, { 12, 10 } }) {
+                ConnectFourState state = 
+                        randomState(random, board[0], board[1]);
+                ConnectFourState parsed = 
+                        ConnectFourState.parseGrid(
+                                state.toString(), 
+                                4, 
+                                PlayerColor.MINIMIZING_PLAYER);
+                
+                assertEquals(state, parsed);
+                assertEquals(state.getPlayerColor(), parsed.getPlayerColor());
+                assertEquals(state.toString(), parsed.toString());
+            }
+        }
+    }
+    
+    @Test
+    public void testParsedWonGridIsWon() {
+        // The first player completes a vertical line in the first column:
+        ConnectFourState state = ConnectFourState.parseMoves("1212121");
+        ConnectFourState parsed = 
+                ConnectFourState.parseGrid(state.toString(), 
+                                           4, 
+                                           PlayerColor.MINIMIZING_PLAYER);
+        
+        assertEquals(state, parsed);
+        assertTrue(parsed.lastMoveWon());
+        assertTrue(parsed.isTerminal());
+        assertEquals(state.getPlayerColor(), parsed.checkVictory());
+        
+        // The line of the player to move is not a win of the owner:
+        ConnectFourState lost = 
+                ConnectFourState.parseGrid(state.move(2).toString(), 
+                                           4, 
+                                           PlayerColor.MINIMIZING_PLAYER);
+        
+        assertFalse(lost.lastMoveWon());
+        assertTrue(lost.isTerminal());
+    }
+    
+    @Test(expected = IllegalArgumentException.class)
+    public void testParseMovesThrowsOnFullColumn() {
+        ConnectFourState.parseMoves("4444444");
+    }
+    
+    @Test(expected = IllegalArgumentException.class)
+    public void testParseMovesThrowsOnInvalidColumn() {
+        ConnectFourState.parseMoves("408");
+    }
+    
+    @Test(expected = IllegalArgumentException.class)
+    public void testParseGridThrowsOnFloatingToken() {
+        String grid = "| | | |\n" +
+                      "| |X| |\n" +
+                      "| | |O|\n" +
+                      "+-+-+-+";
+        ConnectFourState.parseGrid(grid, 3, PlayerColor.MINIMIZING_PLAYER);
+    }
+    
+    @Test(expected = IllegalArgumentException.class)
+    public void testParseGridThrowsOnUnbalancedTokens() {
+        String grid = "| | | |\n" +
+                      "| | | |\n" +
+                      "|X| |X|\n" +
+                      "+-+-+-+";
+        ConnectFourState.parseGrid(grid, 3, PlayerColor.MINIMIZING_PLAYER);
+    }
+    
+    private static ConnectFourState randomState(Random random,
+                                                int width,
+                                                int height) {
+        ConnectFourState state =
+                new ConnectFourState(width, 
+                                     height,
+                                     4, 
+                                     PlayerColor.MINIMIZING_PLAYER);
+        int moves = random.nextInt(width * height);
+        
+        while (state.getNumberOfTokens() < moves) {
+            int x = random.nextInt(width);
+            
+            if (state.columnIsFull(x) || state.isWinningMove(x)) {
+                break;
+            }
+            
+            state = state.move(x);
+        }
+        
+        return state;
+    }
+    
+    /**
+     * Checks the column masks against the moves played one by one.
+     */
+    private static void checkColumns(ConnectFourState state) {
+        int winningColumns = 0;
+        int nonLosingColumns = 0;
+        
+        for (int x = 0; x < state.getWidth(); x++) {
+            if (state.columnIsFull(x)) {
+                continue;
+            }
+            
+            if (state.isWinningMove(x)) {
+                winningColumns |= 1 << x;
+            }
+            
+            ConnectFourState child = state.move(x);
+            boolean losing = false;
+            
+            for (int x2 = 0; x2 < child.getWidth(); x2++) {
+                if (!child.columnIsFull(x2) && child.isWinningMove(x2)) {
+                    losing = true;
+                }
+            }
+            
+            if (!losing) {
+                nonLosingColumns |= 1 << x;
+            }
+        }
+        
+        assertEquals(winningColumns, state.getWinningColumns());
+        assertEquals(nonLosingColumns, state.getNonLosingColumns());
+    }
+    
+    private static void checkMirroring(ConnectFourState state, int[] moves) {
+        int width = state.getWidth();
+        ConnectFourState mirroredState = state.copy();
+        
+        for (int x : moves) {
+            state = state.move(x);
+            mirroredState = mirroredState.move(width - 1 - x);
+        }
+        
+        assertNotEquals(state.getKey(), mirroredState.getKey());
+        assertEquals(state.getCanonicalKey(), mirroredState.getCanonicalKey());
+        assertNotEquals(state.isCanonical(), mirroredState.isCanonical());
+        assertEquals(mirroredState, state.mirror());
+        assertEquals(state, mirroredState.mirror());
+        assertEquals(mirroredState.getZobristKey(), 
+                     state.mirror().getZobristKey());
+        
+        // The mirror image keeps track of the last move:
+        assertEquals(mirroredState.lastMoveWon(), 
+                     state.mirror().lastMoveWon());
+    }
+}
@@ -0,0 +1,342 @@
+package net.coderodde.games.connect.four;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Arrays;
+import java.util.List;
+import net.coderodde.games.connect.four.impl.ThreatCountingConnectFourStateEvaluatorFunction;
+import static org.junit.Assert.*;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+/**
+ * This class tests the endgame database, its generator and its use by the
+ * engine.
+ * 
+ * @author Rodion "rodde" Efremov
+ * @version 1.6 (Oct 17, 2026)
+ */
+public class EndgameDatabaseTest {
+    
+    private static final int WIDTH = 7;
+    private static final int HEIGHT = 6;
+    private static final int WINNING_LENGTH = 4;
+    private static final int MAXIMUM_EMPTY_CELLS = 8;
+    private static final int GAMES = 20;
+    private static final long SEED = 13L;
+    
+    @Rule
+    public TemporaryFolder folder = new TemporaryFolder();
+    
+    @Test
+    public void testDatabaseAgreesWithSolver() throws IOException {
+        List<GameRecord> games = playGames();
+        EndgameDatabase database = createDatabase(games);
+        ConnectFourSolver solver = new ConnectFourSolver();
+        boolean[] visited = new boolean[database.size()];
+        int count = 0;
+        
+        assertEquals(MAXIMUM_EMPTY_CELLS, database.getMaximumEmptyCells());
+        assertTrue(database.size() > 0);
+        
+        for (GameRecord game : games) {
+            ConnectFourState endgame = findEndgame(game);
+            
+            if (endgame != null) {
+                count += checkPositions(database, solver, endgame, visited);
+            }
+        }
+        
+        assertEquals(database.size(), count);
+    }
+    
+    @Test
+    public void testPositionsOutsideDatabase() throws IOException {
+        List<GameRecord> games = playGames();
+        EndgameDatabase database = createDatabase(games);
+        GameRecord game = games.get(0);
+        ConnectFourState state =
+                game.getState(WIDTH * HEIGHT - MAXIMUM_EMPTY_CELLS - 1);
+        
+        assertFalse(database.covers(state));
+        assertEquals(-1, database.indexOf(state));
+        assertEquals(EndgameDatabase.NO_SCORE, database.probe(state));
+        
+        // Another board:
+        assertEquals(EndgameDatabase.NO_SCORE,
+                     database.probe(new ConnectFourState(
+                             4, 4, 3, PlayerColor.MINIMIZING_PLAYER)));
+    }
+    
+    @Test
+    public void testEngineScoresEndgamesExactly() throws IOException {
+        List<GameRecord> games = playGames();
+        EndgameDatabase database = createDatabase(games);
+        ConnectFourSolver solver = new ConnectFourSolver();
+        ConnectFourGameEngine engine = createEngine(1);
+        engine.setEndgameDatabase(database);
+        int wins = 0;
+        
+        assertSame(database, engine.getEndgameDatabase());
+        
+        for (GameRecord game : games) {
+            ConnectFourState state = findEndgame(game);
+            
+            if (state == null) {
+                continue;
+            }
+            
+            int score = solver.solve(state);
+            ConnectFourState nextState =
+                    engine.makePly(state,
+                                   PlayerColor.MINIMIZING_PLAYER,
+                                   PlayerColor.MAXIMIZING_PLAYER,
+                                   PlayerColor.MAXIMIZING_PLAYER);
+            
+            if (state.getWinningColumns() == 0) {
+                // The children are in the database:
+                assertTrue(
+                        engine.getLastSearchStats().getEndgameHitCount() > 0);
+                assertEquals(
+                        1.0,
+                        engine.getLastSearchStats().getEndgameHitRate(),
+                        0.0);
+            }
+            
+            if (score == 0) {
+                continue;
+            }
+            
+            // A single ply deep search plays as well as the solver:
+            int distance = ConnectFourSolver.getDistance(state, score);
+            int winScore = ConnectFourGameEngine.WIN_SCORE + 1 - distance;
+            assertEquals(score > 0 ? winScore : -winScore,
+                         engine.getLastScore());
+            
+            if (score > 0) {
+                wins++;
+                
+                if (!nextState.lastMoveWon()) {
+                    assertEquals(score, -solver.solve(nextState));
+                }
+            }
+        }
+        
+        assertTrue(wins > 0);
+    }
+    
+    @Test
+    public void testEngineAgreesWithFullSearch() throws IOException {
+        List<GameRecord> games = playGames();
+        ConnectFourGameEngine engine = createEngine(MAXIMUM_EMPTY_CELLS);
+        ConnectFourGameEngine databaseEngine =
+                createEngine(MAXIMUM_EMPTY_CELLS);
+        databaseEngine.setEndgameDatabase(createDatabase(games));
+        int provenCount = 0;
+        
+        for (GameRecord game : games) {
+            ConnectFourState state = findEndgame(game);
+            
+            if (state == null) {
+                continue;
+            }
+            
+            engine.makePly(state,
+                           PlayerColor.MINIMIZING_PLAYER,
+                           PlayerColor.MAXIMIZING_PLAYER,
+                           PlayerColor.MAXIMIZING_PLAYER);
+            databaseEngine.makePly(state,
+                                   PlayerColor.MINIMIZING_PLAYER,
+                                   PlayerColor.MAXIMIZING_PLAYER,
+                                   PlayerColor.MAXIMIZING_PLAYER);
+            
+            if (Math.abs(engine.getLastScore()) >
+                    ConnectFourGameEngine.MAX_EVALUATION) {
+                // The search to the end of the game finds the same wins:
+                assertEquals(engine.getLastScore(),
+                             databaseEngine.getLastScore());
+                assertTrue(databaseEngine.getNodeCount()
+                           <= engine.getNodeCount());
+                provenCount++;
+            }
+        }
+        
+        assertTrue(provenCount > 0);
+    }
+    
+    @Test
+    public void testEngineSolvesEndgames() {
+        ConnectFourSolver solver = new ConnectFourSolver();
+        ConnectFourGameEngine engine = createEngine(1);
+        engine.setSolvingEmptyCells(MAXIMUM_EMPTY_CELLS);
+        int wins = 0;
+        
+        assertEquals(MAXIMUM_EMPTY_CELLS, engine.getSolvingEmptyCells());
+        
+        for (GameRecord game : playGames()) {
+            ConnectFourState state = findEndgame(game);
+            
+            if (state == null) {
+                continue;
+            }
+            
+            int score = solver.solve(state);
+            engine.makePly(state,
+                           PlayerColor.MINIMIZING_PLAYER,
+                           PlayerColor.MAXIMIZING_PLAYER,
+                           PlayerColor.MAXIMIZING_PLAYER);
+            
+            if (state.getWinningColumns() == 0) {
+                assertTrue(
+                        engine.getLastSearchStats().getSolvedNodeCount() > 0);
+            }
+            
+            if (score == 0) {
+                continue;
+            }
+            
+            // The children are solved as if found in the database:
+            int distance = ConnectFourSolver.getDistance(state, score);
+            int winScore = ConnectFourGameEngine.WIN_SCORE + 1 - distance;
+            assertEquals(score > 0 ? winScore : -winScore,
+                         engine.getLastScore());
+            
+            if (score > 0) {
+                wins++;
+            }
+        }
+        
+        assertTrue(wins > 0);
+    }
+    
+    @Test(expected = IllegalArgumentException.class)
+    public void testRejectsNegativeSolvingEmptyCells() {
+        createEngine(1).setSolvingEmptyCells(-1);
+    }
+    
+    @Test(expected = IllegalArgumentException.class)
+    public void testRejectsTooManyEmptyCells() throws IOException {
+        EndgameDatabaseGenerator.generate(folder.newFile("database").toPath(),
+                                          WIDTH * HEIGHT,
+                                          WIDTH,
+                                          HEIGHT,
+                                          WINNING_LENGTH,
+                                          playGames());
+    }
+    
+    @Test(expected = IOException.class)
+    public void testRejectsOtherFiles() throws IOException {
+        File file = folder.newFile("not-a-database");
+        Files.write(file.toPath(), new byte[100]);
+        new EndgameDatabase(file.toPath());
+    }
+    
+    @Test(expected = IOException.class)
+    public void testRejectsTruncatedFiles() throws IOException {
+        Path path = folder.newFile("database").toPath();
+        EndgameDatabaseGenerator.generate(path,
+                                          MAXIMUM_EMPTY_CELLS,
+                                          WIDTH,
+                                          HEIGHT,
+                                          WINNING_LENGTH,
+                                          playGames());
+        byte[] bytes = Files.readAllBytes(path);
+        Files.write(path, Arrays.copyOf(bytes, bytes.length - 1));
+        new EndgameDatabase(path);
+    }
+    
+    private EndgameDatabase createDatabase(List<GameRecord> games)
+            throws IOException {
+        Path path = folder.newFile().toPath();
+        int size = EndgameDatabaseGenerator.generate(path,
+                                                     MAXIMUM_EMPTY_CELLS,
+                                                     WIDTH,
+                                                     HEIGHT,
+                                                     WINNING_LENGTH,
+                                                     games);
+        EndgameDatabase database = new EndgameDatabase(path);
+        assertEquals(size, database.size());
+        return database;
+    }
+    
+    private static List<GameRecord> playGames() {
+        return EndgameDatabaseGenerator.playRandomGames(GAMES,
+                                                        SEED,
+                                                        WIDTH,
+                                                        HEIGHT,
+                                                        WINNING_LENGTH);
+    }
+    
+    private static ConnectFourGameEngine createEngine(int depth) {
+        return new ConnectFourGameEngine(
+                new ThreatCountingConnectFourStateEvaluatorFunction(
+                        WIDTH,
+                        HEIGHT,
+                        WINNING_LENGTH),
+                depth);
+    }
+    
+    /**
+     * Returns the first non-terminal state of a game with at most
+     * {@link #MAXIMUM_EMPTY_CELLS} empty cells, or {@code null} if the game
+     * ends before.
+     */
+    private static ConnectFourState findEndgame(GameRecord game) {
+        for (int ply = 1; ply <= game.getNumberOfMoves(); ply++) {
+            ConnectFourState state = game.getState(ply);
+            
+            if (state.lastMoveWon() || state.isFull()) {
+                return null;
+            }
+            
+            if (WIDTH * HEIGHT - ply <= MAXIMUM_EMPTY_CELLS) {
+                return state;
+            }
+        }
+        
+        return null;
+    }
+    
+    /**
+     * Checks all the positions of the database reachable from
+     * {@code state}, and returns the number of the ones not visited before.
+     */
+    private static int checkPositions(EndgameDatabase database,
+                                      ConnectFourSolver solver,
+                                      ConnectFourState state,
+                                      boolean[] visited) {
+        int index = database.indexOf(state);
+        assertTrue(index >= 0);
+        
+        if (visited[index]) {
+            return 0;
+        }
+        
+        visited[index] = true;
+        assertEquals(solver.solve(state), database.getScore(index));
+        
+        if (state.getWinningColumns() != 0) {
+            // Scored without the children:
+            return 1;
+        }
+        
+        int count = 1;
+        
+        for (int x = 0; x < state.getWidth(); x++) {
+            if (state.columnIsFull(x)) {
+                continue;
+            }
+            
+            ConnectFourState child = state.move(x);
+            
+            if (!child.isFull()) {
+                count += checkPositions(database, solver, child, visited);
+            }
+        }
+        
+        return count;
+    }
+}
@@ -0,0 +1,215 @@
+package net.coderodde.games.connect.four;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.EOFException;
+import java.io.IOException;
+import java.nio.channels.Channels;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import net.coderodde.games.connect.four.impl.RandomBot;
+import static org.junit.Assert.*;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+/**
+ * This class tests the game records and their binary format.
+ * 
+ * @author Rodion "rodde" Efremov
+ * @version 1.6 (Oct 17, 2026)
+ */
+public class GameRecordTest {
+    
+    @Rule
+    public TemporaryFolder folder = new TemporaryFolder();
+    
+    @Test
+    public void testReplaysStates() {
+        int[] moves = { 3, 3, 2, 4, 1, 1, 0 };
+        GameRecord record = 
+                new GameRecord(7, 6, 4, PlayerColor.MINIMIZING_PLAYER, moves);
+        ConnectFourState state = 
+                new ConnectFourState(PlayerColor.MINIMIZING_PLAYER);
+        
+        assertEquals(state, record.getInitialState());
+        
+        for (int ply = 0; ply < moves.length; ply++) {
+            assertEquals(state, record.getState(ply));
+            state = state.move(moves[ply]);
+        }
+        
+        assertEquals(state, record.getFinalState());
+        assertEquals(PlayerColor.MAXIMIZING_PLAYER, 
+                     record.getFinalState().checkVictory());
+        assertArrayEquals(moves, record.getMoves());
+    }
+    
+    @Test
+    public void testRoundTripsThroughFile() throws IOException {
+        Random random = new Random(22L);
+        List<GameRecord> records = new ArrayList<>();
+        
+        // Enough records to cross the buffer boundaries, including the
+        // wide boards storing a move per byte and the odd move counts:
+        for (int i = 0; i < 5_000; i++) {
+            int width = i % 5 == 0 ? 20 : 7;
+            records.add(randomRecord(random, width, 6));
+        }
+        
+        Path path = folder.newFile().toPath();
+        
+        try (GameRecordWriter writer = GameRecordWriter.open(path)) {
+            for (GameRecord record : records) {
+                writer.write(record);
+            }
+            
+            assertEquals(records.size(), writer.getRecordCount());
+        }
+        
+        try (GameRecordReader reader = GameRecordReader.open(path)) {
+            for (GameRecord record : records) {
+                assertEquals(record, reader.read());
+            }
+            
+            assertNull(reader.read());
+            assertNull(reader.read());
+        }
+    }
+    
+    @Test
+    public void testPacksMovesIntoNibbles() throws IOException {
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        
+        try (GameRecordWriter writer = 
+                new GameRecordWriter(Channels.newChannel(out))) {
+            writer.write(new GameRecord(7, 
+                                        6, 
+                                        4, 
+                                        PlayerColor.MINIMIZING_PLAYER, 
+                                        new int[]{ 3, 3, 2 }));
+        }
+        
+        byte[] expected = { 
+            0x43, 0x34, 0x47, 0x52, 0, 0, 0, 1,
+            7, 6, 4, GameRecordWriter.NIBBLES_FLAG, 0, 3, 0x33, 0x20 
+        };
+        
+        assertArrayEquals(expected, out.toByteArray());
+    }
+    
+    @Test
+    public void testRecordsTournament() throws IOException {
+        Tournament tournament = new Tournament(
+                (playerColor, seed) -> 
+                        new RandomBot(playerColor, new Random(seed)),
+                (playerColor, seed) -> 
+                        new RandomBot(playerColor, new Random(seed)));
+        Path path = folder.newFile().toPath();
+        ExecutorService executor = Executors.newFixedThreadPool(3);
+        TournamentResult result;
+        
+        try (GameRecordWriter writer = GameRecordWriter.open(path)) {
+            result = tournament.play(40, 5L, executor, writer);
+        } finally {
+            executor.shutdown();
+        }
+        
+        int wins = 0;
+        int draws = 0;
+        
+        try (GameRecordReader reader = GameRecordReader.open(path)) {
+            for (int game = 0; game < 40; game++) {
+                GameRecord record = reader.read();
+                ConnectFourState finalState = record.getFinalState();
+                PlayerColor winner = finalState.checkVictory();
+                
+                // The first bot moves first in the games of even index:
+                PlayerColor firstBotColor = 
+                        game % 2 == 0 ? 
+                        PlayerColor.MAXIMIZING_PLAYER :
+                        PlayerColor.MINIMIZING_PLAYER;
+                
+                if (winner == null) {
+                    assertTrue(finalState.isFull());
+                    draws++;
+                } else if (winner == firstBotColor) {
+                    wins++;
+                }
+            }
+            
+            assertNull(reader.read());
+        }
+        
+        assertEquals(result.getWins(), wins);
+        assertEquals(result.getDraws(), draws);
+    }
+    
+    @Test(expected = IOException.class)
+    public void testThrowsOnForeignStream() throws IOException {
+        new GameRecordReader(
+                Channels.newChannel(new ByteArrayInputStream(new byte[16])));
+    }
+    
+    @Test(expected = EOFException.class)
+    public void testThrowsOnTruncatedRecord() throws IOException {
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        
+        try (GameRecordWriter writer = 
+                new GameRecordWriter(Channels.newChannel(out))) {
+            writer.write(new GameRecord(7, 
+                                        6, 
+                                        4, 
+                                        PlayerColor.MINIMIZING_PLAYER, 
+                                        new int[]{ 3, 3, 2, 4, 1 }));
+        }
+        
+        byte[] bytes = out.toByteArray();
+        GameRecordReader reader = 
+                new GameRecordReader(
+                        Channels.newChannel(
+                                new ByteArrayInputStream(
+                                        Arrays.copyOf(bytes, 
+                                                      bytes.length - 1))));
+        reader.read();
+    }
+    
+    @Test(expected = IllegalArgumentException.class)
+    public void testThrowsOnInvalidMove() {
+        new GameRecord(7, 6, 4, PlayerColor.MINIMIZING_PLAYER, new int[]{ 7 });
+    }
+    
+    private static GameRecord randomRecord(Random random, 
+                                           int width, 
+                                           int height) {
+        PlayerColor initialPlayerColor = 
+                random.nextBoolean() ? 
+                PlayerColor.MAXIMIZING_PLAYER : 
+                PlayerColor.MINIMIZING_PLAYER;
+        ConnectFourState state = 
+                new ConnectFourState(width, height, 4, initialPlayerColor);
+        int[] moves = new int[width * height];
+        int moveCount = 0;
+        
+        while (!state.isFull() && state.checkVictory() == null) {
+            int x = random.nextInt(width);
+            
+            if (!state.columnIsFull(x)) {
+                state.play(x);
+                moves[moveCount++] = x;
+            }
+        }
+        
+        return new GameRecord(width, 
+                              height, 
+                              4, 
+                              initialPlayerColor, 
+                              Arrays.copyOf(moves, moveCount));
+    }
+}
@@ -0,0 +1,78 @@
+package net.coderodde.games.connect.four;
+
+import static org.junit.Assert.*;
+import org.junit.Test;
+
+/**
+ * This class tests the killer move and history heuristics.
+ * 
+ * @author Rodion "rodde" Efremov
+ * @version 1.6 (Oct 17, 2026)
+ */
+public class KillerHistoryMoveOrderingTest {
+    
+    private final KillerHistoryMoveOrdering ordering = 
+            new KillerHistoryMoveOrdering(ConnectFourState.DEFAULT_WIDTH,
+                                          ConnectFourState.DEFAULT_HEIGHT);
+    
+    @Test
+    public void testKillerMovesComeFirst() {
+        ConnectFourState state = 
+                new ConnectFourState(PlayerColor.MINIMIZING_PLAYER);
+        
+        ordering.recordCutoff(state, 1, 1);
+        ordering.recordCutoff(state, 5, 1);
+        
+        assertArrayEquals(new int[]{ 5, 1, 3, 2, 4, 0, 6 }, order(state));
+    }
+    
+    @Test
+    public void testKillerMovesApplyToSameCell() {
+        ConnectFourState state = 
+                new ConnectFourState(PlayerColor.MINIMIZING_PLAYER);
+        
+        ordering.recordCutoff(state.move(0).move(6), 2, 1);
+        
+        // A sibling where the token lands to the same cell:
+        assertEquals(2, order(state.move(1).move(5))[0]);
+        
+        // A sibling where the token lands to another cell:
+        assertEquals(3, order(state.move(2).move(0))[0]);
+    }
+    
+    @Test
+    public void testHistoryOrdersTheRest() {
+        ConnectFourState state = 
+                new ConnectFourState(PlayerColor.MINIMIZING_PLAYER);
+        ConnectFourState child = state.move(6);
+        
+        // The deeper cutoffs weigh more:
+        ordering.recordCutoff(child, 0, 2);
+        ordering.recordCutoff(child, 1, 3);
+        
+        // In another ply, only the history applies:
+        ConnectFourState other = state.move(6).move(6).move(5);
+        
+        assertArrayEquals(new int[]{ 1, 0, 3, 2, 4, 5, 6 }, order(other));
+        
+        // The history is kept per player:
+        assertArrayEquals(new int[]{ 3, 2, 4, 1, 5, 0, 6 }, 
+                          order(state.move(6).move(6)));
+        
+        ordering.clear();
+        
+        assertArrayEquals(new int[]{ 3, 2, 4, 1, 5, 0, 6 }, order(other));
+    }
+    
+    private int[] order(ConnectFourState state) {
+        MoveGenerator moveGenerator = new MoveGenerator(state.getWidth());
+        moveGenerator.reset(state, MoveGenerator.NO_MOVE, ordering);
+        int[] moves = new int[moveGenerator.getMoveCount()];
+        
+        for (int i = 0; i < moves.length; i++) {
+            moves[i] = moveGenerator.nextMove();
+        }
+        
+        return moves;
+    }
+}
@@ -0,0 +1,121 @@
+package net.coderodde.games.connect.four;
+
+import java.util.Iterator;
+import java.util.List;
+import java.util.NoSuchElementException;
+import static org.junit.Assert.*;
+import org.junit.Test;
+
+/**
+ * This class tests the lazy move generation.
+ * 
+ * @author Rodion "rodde" Efremov
+ * @version 1.6 (Oct 17, 2026)
+ */
+public class MoveGeneratorTest {
+    
+    @Test
+    public void testCenterFirstOrder() {
+        ConnectFourState state = 
+                new ConnectFourState(PlayerColor.MINIMIZING_PLAYER);
+        MoveGenerator moveGenerator = new MoveGenerator(state.getWidth());
+        moveGenerator.reset(state, 
+                            MoveGenerator.NO_MOVE, 
+                            MoveOrdering.CENTER_FIRST);
+        
+        assertArrayEquals(new int[]{ 3, 2, 4, 1, 5, 0, 6 }, 
+                          drain(moveGenerator));
+    }
+    
+    @Test
+    public void testFirstMoveAndOrdering() {
+        ConnectFourState state = 
+                new ConnectFourState(PlayerColor.MINIMIZING_PLAYER);
+        MoveGenerator moveGenerator = new MoveGenerator(state.getWidth());
+        
+        // Prefer the left columns, except for the first move:
+        moveGenerator.reset(state, 5, (s, x) -> -x);
+        assertArrayEquals(new int[]{ 5, 0, 1, 2, 3, 4, 6 }, 
+                          drain(moveGenerator));
+        
+        // The ties keep the center-first order:
+        moveGenerator.reset(state, 
+                            MoveGenerator.NO_MOVE, 
+                            (s, x) -> x == 0 || x == 6 ? 1 : 0);
+        assertArrayEquals(new int[]{ 0, 6, 3, 2, 4, 1, 5 }, 
+                          drain(moveGenerator));
+    }
+    
+    @Test
+    public void testSkipsFullColumns() {
+        ConnectFourState state = 
+                new ConnectFourState(4, 2, 3, PlayerColor.MINIMIZING_PLAYER);
+        state = state.move(2).move(2).move(0).move(0);
+        MoveGenerator moveGenerator = new MoveGenerator(state.getWidth());
+        
+        // A full column is never generated, not even as the first move:
+        moveGenerator.reset(state, 2, MoveOrdering.CENTER_FIRST);
+        
+        assertEquals(2, moveGenerator.getMoveCount());
+        assertArrayEquals(new int[]{ 1, 3 }, drain(moveGenerator));
+    }
+    
+    @Test(expected = NoSuchElementException.class)
+    public void testThrowsWhenExhausted() {
+        ConnectFourState state = 
+                new ConnectFourState(PlayerColor.MINIMIZING_PLAYER);
+        Iterator<ConnectFourState> iterator = state.childIterator();
+        
+        while (true) {
+            iterator.next();
+        }
+    }
+    
+    @Test
+    public void testChildIteratorAgreesWithChildren() {
+        ConnectFourState state = 
+                new ConnectFourState(PlayerColor.MINIMIZING_PLAYER)
+                        .move(3).move(3).move(2);
+        List<ConnectFourState> children = state.children();
+        Iterator<ConnectFourState> iterator = 
+                state.childIterator((s, x) -> -x);
+        
+        for (ConnectFourState child : children) {
+            assertTrue(iterator.hasNext());
+            assertEquals(child, iterator.next());
+        }
+        
+        assertFalse(iterator.hasNext());
+    }
+    
+    @Test
+    public void testChildrenCaching() {
+        ConnectFourState state = 
+                new ConnectFourState(PlayerColor.MINIMIZING_PLAYER);
+        
+        assertTrue(state.isCachingChildren());
+        assertSame(state.children(), state.children());
+        
+        state.setCachingChildren(false);
+        List<ConnectFourState> children = state.children();
+        
+        assertNotSame(children, state.children());
+        assertEquals(children, state.children());
+        
+        // The children inherit the setting:
+        assertFalse(children.get(0).isCachingChildren());
+        assertFalse(state.childIterator().next().isCachingChildren());
+    }
+    
+    private static int[] drain(MoveGenerator moveGenerator) {
+        int[] moves = new int[moveGenerator.getMoveCount()];
+        
+        for (int i = 0; i < moves.length; i++) {
+            assertTrue(moveGenerator.hasNext());
+            moves[i] = moveGenerator.nextMove();
+        }
+        
+        assertFalse(moveGenerator.hasNext());
+        return moves;
+    }
+}
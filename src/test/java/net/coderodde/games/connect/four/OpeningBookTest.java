@@ -0,0 +1,163 @@
+package net.coderodde.games.connect.four;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import net.coderodde.games.connect.four.impl.SmartBot;
+import net.coderodde.games.connect.four.impl.ThreatCountingConnectFourStateEvaluatorFunction;
+import static org.junit.Assert.*;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+/**
+ * This class tests the opening book and its generator.
+ * 
+ * @author Rodion "rodde" Efremov
+ * @version 1.6 (Oct 17, 2026)
+ */
+public class OpeningBookTest {
+    
+    private static final int WIDTH = 4;
+    private static final int HEIGHT = 4;
+    private static final int WINNING_LENGTH = 3;
+    private static final int MAXIMUM_PLY = 4;
+    
+    @Rule
+    public TemporaryFolder folder = new TemporaryFolder();
+    
+    @Test
+    public void testBookAgreesWithSolver() throws IOException {
+        OpeningBook book = createBook();
+        ConnectFourSolver solver = new ConnectFourSolver();
+        ConnectFourState state = createState();
+        
+        assertEquals(MAXIMUM_PLY, book.getMaximumPly());
+        assertEquals(book.size(), checkPositions(book, solver, state));
+    }
+    
+    @Test
+    public void testPositionsOutsideBook() throws IOException {
+        OpeningBook book = createBook();
+        ConnectFourState state = createState();
+        
+        for (int i = 0; i <= MAXIMUM_PLY; i++) {
+            state = state.move(i % 2);
+        }
+        
+        assertEquals(-1, book.indexOf(state));
+        assertEquals(OpeningBook.NO_MOVE, book.findMove(state));
+        
+        // Another board:
+        assertEquals(OpeningBook.NO_MOVE, 
+                     book.findMove(new ConnectFourState(
+                             PlayerColor.MINIMIZING_PLAYER)));
+    }
+    
+    @Test
+    public void testSmartBotPlaysBookMoves() throws IOException {
+        OpeningBook book = createBook();
+        ConnectFourState state = createState();
+        SmartBot bot = 
+                new SmartBot(PlayerColor.MAXIMIZING_PLAYER,
+                             new ConnectFourGameEngine(
+                                 new ThreatCountingConnectFourStateEvaluatorFunction(
+                                         WIDTH, 
+                                         HEIGHT, 
+                                         WINNING_LENGTH),
+                                 8),
+                             book);
+        
+        ConnectFourState nextState = bot.computeNextState(state);
+        
+        assertEquals(0, bot.getLastSearchDepth());
+        assertNotNull(nextState.readCell(book.findMove(state), HEIGHT - 1));
+    }
+    
+    @Test(expected = IOException.class)
+    public void testRejectsOtherFiles() throws IOException {
+        File file = folder.newFile("not-a-book");
+        Files.write(file.toPath(), new byte[100]);
+        new OpeningBook(file.toPath());
+    }
+    
+    @Test
+    public void testGeneratorRejectsWideBoards() throws IOException {
+        Path path = folder.getRoot().toPath().resolve("wide-book");
+        
+        try {
+            OpeningBookGenerator.generate(path, 0, 12, 10, 4);
+            fail("A board wider than a bitboard was accepted.");
+        } catch (IllegalArgumentException ex) {
+            assertFalse(Files.exists(path));
+        }
+    }
+    
+    private OpeningBook createBook() throws IOException {
+        Path path = folder.newFile("book").toPath();
+        OpeningBookGenerator.generate(path, 
+                                      MAXIMUM_PLY, 
+                                      WIDTH, 
+                                      HEIGHT, 
+                                      WINNING_LENGTH);
+        return new OpeningBook(path);
+    }
+    
+    private static ConnectFourState createState() {
+        return new ConnectFourState(WIDTH, 
+                                    HEIGHT, 
+                                    WINNING_LENGTH, 
+                                    PlayerColor.MINIMIZING_PLAYER);
+    }
+    
+    /**
+     * Checks all the positions of the book reachable from {@code state}, and
+     * returns the number of the distinct ones.
+     */
+    private static int checkPositions(OpeningBook book,
+                                      ConnectFourSolver solver,
+                                      ConnectFourState state) {
+        boolean[] visited = new boolean[book.size()];
+        return checkPositions(book, solver, state, visited);
+    }
+    
+    private static int checkPositions(OpeningBook book,
+                                      ConnectFourSolver solver,
+                                      ConnectFourState state,
+                                      boolean[] visited) {
+        int index = book.indexOf(state);
+        assertTrue(index >= 0);
+        
+        if (visited[index]) {
+            return 0;
+        }
+        
+        visited[index] = true;
+        int score = solver.solve(state);
+        assertEquals(score, book.getScore(index));
+        
+        // The book move attains the score:
+        ConnectFourState child = state.move(book.findMove(state));
+        
+        if (child.checkVictory() == null && !child.isFull()) {
+            assertEquals(score, -solver.solve(child));
+        }
+        
+        if (state.getNumberOfTokens() == MAXIMUM_PLY) {
+            return 1;
+        }
+        
+        int count = 1;
+        
+        for (int x = 0; x < state.getWidth(); x++) {
+            if (state.columnIsFull(x) || state.isWinningMove(x)) {
+                continue;
+            }
+            
+            count += checkPositions(book, solver, state.move(x), visited);
+        }
+        
+        return count;
+    }
+}
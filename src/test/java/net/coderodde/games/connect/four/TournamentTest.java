@@ -0,0 +1,69 @@
+package net.coderodde.games.connect.four;
+
+import java.util.Random;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import net.coderodde.games.connect.four.impl.RandomBot;
+import net.coderodde.games.connect.four.impl.SmartBot;
+import net.coderodde.games.connect.four.impl.ThreatCountingConnectFourStateEvaluatorFunction;
+import org.junit.After;
+import static org.junit.Assert.*;
+import org.junit.Test;
+
+/**
+ * This class tests the tournament runner.
+ * 
+ * @author Rodion "rodde" Efremov
+ * @version 1.6 (Oct 17, 2026)
+ */
+public class TournamentTest {
+    
+    private static final BotFactory RANDOM_BOT_FACTORY = 
+            (playerColor, seed) -> new RandomBot(playerColor, new Random(seed));
+    
+    private final ExecutorService executor = Executors.newFixedThreadPool(3);
+    
+    @After
+    public void after() {
+        executor.shutdown();
+    }
+    
+    @Test
+    public void testIsReproducible() {
+        Tournament tournament = new Tournament(RANDOM_BOT_FACTORY, 
+                                               RANDOM_BOT_FACTORY);
+        TournamentResult result1 = tournament.play(50, 7L, executor);
+        TournamentResult result2 = tournament.play(50, 7L, executor);
+        
+        assertEquals(50, result1.getGames());
+        assertEquals(result1.getWins(), result2.getWins());
+        assertEquals(result1.getDraws(), result2.getDraws());
+        assertEquals(result1.getLosses(), result2.getLosses());
+        assertTrue(result1.getWins() > 0);
+        assertTrue(result1.getLosses() > 0);
+    }
+    
+    @Test
+    public void testSmartBotBeatsRandomBot() {
+        Tournament tournament = new Tournament(
+                (playerColor, seed) -> 
+                        new SmartBot(playerColor,
+                                     new ConnectFourGameEngine(
+                                         new ThreatCountingConnectFourStateEvaluatorFunction(),
+                                         3)),
+                RANDOM_BOT_FACTORY);
+        
+        TournamentResult result = tournament.play(10, 1L, executor);
+        
+        assertEquals(10, result.getWins());
+        assertEquals(1.0, result.getScore(), 0.0);
+        assertTrue(result.getNodesPerSecond(true) > 0.0);
+        assertEquals(0.0, result.getNodesPerSecond(false), 0.0);
+    }
+    
+    @Test(expected = IllegalArgumentException.class)
+    public void testRejectsNoGames() {
+        new Tournament(RANDOM_BOT_FACTORY, RANDOM_BOT_FACTORY)
+                .play(0, 1L, executor);
+    }
+}
@@ -0,0 +1,89 @@
+package net.coderodde.games.connect.four;
+
+import static org.junit.Assert.*;
+import org.junit.Test;
+
+/**
+ * This class tests the transposition table.
+ * 
+ * @author Rodion "rodde" Efremov
+ * @version 1.6 (Oct 17, 2026)
+ */
+public class TranspositionTableTest {
+    
+    @Test
+    public void testCapacityIsPowerOfTwo() {
+        assertEquals(1024, new TranspositionTable(
+                1000, 
+                TranspositionTable.ReplacementPolicy.ALWAYS_REPLACE)
+                .getCapacity());
+    }
+    
+    @Test
+    public void testStoreAndProbe() {
+        TranspositionTable table = new TranspositionTable();
+        
+        assertEquals(0L, table.probe(123L));
+        
+        table.store(123L, 7, TranspositionTable.LOWER_BOUND, -1234, 3);
+        long entry = table.probe(123L);
+        
+        assertTrue(table.isCurrent(entry));
+        assertEquals(7, TranspositionTable.getDepth(entry));
+        assertEquals(TranspositionTable.LOWER_BOUND, 
+                     TranspositionTable.getBound(entry));
+        assertEquals(-1234, TranspositionTable.getScore(entry));
+        assertEquals(3, TranspositionTable.getMove(entry));
+        
+        table.store(123L, 7, TranspositionTable.EXACT, 0, 
+                    TranspositionTable.NO_MOVE);
+        entry = table.probe(123L);
+        
+        assertEquals(MoveGenerator.NO_MOVE, TranspositionTable.getMove(entry));
+        
+        // Same slot, different key:
+        assertEquals(0L, table.probe(123L + table.getCapacity()));
+        
+        table.newSearch();
+        assertFalse(table.isCurrent(table.probe(123L)));
+        
+        table.clear();
+        assertEquals(0L, table.probe(123L));
+    }
+    
+    @Test
+    public void testDepthPreferredReplacement() {
+        TranspositionTable table = 
+                new TranspositionTable(
+                        16, 
+                        TranspositionTable.ReplacementPolicy.DEPTH_PREFERRED);
+        
+        table.store(1L, 5, TranspositionTable.EXACT, 10, 1);
+        table.store(17L, 3, TranspositionTable.EXACT, 20, 2);
+        
+        assertNotEquals(0L, table.probe(1L));
+        assertEquals(0L, table.probe(17L));
+        
+        // The entries of the earlier searches are always replaced:
+        table.newSearch();
+        table.store(17L, 3, TranspositionTable.EXACT, 20, 2);
+        
+        assertEquals(0L, table.probe(1L));
+        assertEquals(20, TranspositionTable.getScore(table.probe(17L)));
+    }
+    
+    @Test
+    public void testAlwaysReplace() {
+        TranspositionTable table = 
+                new TranspositionTable(
+                        16, 
+                        TranspositionTable.ReplacementPolicy.ALWAYS_REPLACE);
+        
+        table.store(1L, 5, TranspositionTable.EXACT, 10, 1);
+        table.store(17L, 3, TranspositionTable.UPPER_BOUND, 20, 2);
+        
+        assertEquals(0L, table.probe(1L));
+        assertEquals(TranspositionTable.UPPER_BOUND, 
+                     TranspositionTable.getBound(table.probe(17L)));
+    }
+}
@@ -0,0 +1,205 @@
+package net.coderodde.games.connect.four.impl;
+
+import java.util.Random;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ForkJoinPool;
+import net.coderodde.games.connect.four.ConnectFourState;
+import net.coderodde.games.connect.four.PlayerColor;
+import net.coderodde.games.connect.four.SearchControl;
+import net.coderodde.games.connect.four.Tournament;
+import net.coderodde.games.connect.four.TournamentResult;
+import static org.junit.Assert.*;
+import org.junit.Test;
+
+/**
+ * This class tests the Monte Carlo tree search bot.
+ * 
+ * @author Rodion "rodde" Efremov
+ * @version 1.6 (Oct 17, 2026)
+ */
+public class MctsBotTest {
+    
+    @Test
+    public void testTakesImmediateWin() {
+        MctsBot bot = new MctsBot(PlayerColor.MINIMIZING_PLAYER, 2_000L, 1L);
+        ConnectFourState state = 
+                new ConnectFourState(PlayerColor.MAXIMIZING_PLAYER);
+        
+        // The minimizing player has three tokens in column 2:
+        for (int column : new int[]{ 2, 5, 2, 5, 2, 6 }) {
+            state = state.move(column);
+        }
+        
+        assertEquals(state.move(2), bot.computeNextState(state));
+        assertEquals(2_000L, bot.getLastPlayoutCount());
+        assertEquals(2_000L, bot.getLastNodeCount());
+        assertTrue(bot.getLastPlayoutsPerSecond() > 0.0);
+    }
+    
+    @Test
+    public void testStopsUnderControl() {
+        MctsBot bot = new MctsBot(PlayerColor.MAXIMIZING_PLAYER, 
+                                  Long.MAX_VALUE, 
+                                  1L);
+        SearchControl control = new SearchControl(100L);
+        ConnectFourState state = 
+                bot.computeNextState(
+                        new ConnectFourState(PlayerColor.MINIMIZING_PLAYER),
+                        control);
+        
+        assertEquals(1, state.getNumberOfTokens());
+        assertNotNull(state.readCell(control.getBestMove(), 
+                                     ConnectFourState.DEFAULT_HEIGHT - 1));
+        assertTrue(bot.getLastPlayoutCount() > 0L);
+    }
+    
+    @Test(expected = IllegalStateException.class)
+    public void testRejectsDrawnFullBoard() {
+        MctsBot bot = new MctsBot(PlayerColor.MAXIMIZING_PLAYER, 100L, 1L);
+        ConnectFourState state = ConnectFourState.parseGrid(
+                "|X|X|O|O|X|X|O|\n" +
+                "|O|O|X|X|O|O|X|\n" +
+                "|X|X|O|O|X|X|O|\n" +
+                "|O|O|X|X|O|O|X|\n" +
+                "|X|X|O|O|X|X|O|\n" +
+                "|O|O|X|X|O|O|X|\n" +
+                "+-+-+-+-+-+-+-+",
+                ConnectFourState.DEFAULT_WINNING_LENGTH,
+                PlayerColor.MINIMIZING_PLAYER);
+        
+        assertTrue(state.isFull());
+        assertNull(state.checkVictory());
+        bot.computeNextState(state);
+    }
+    
+    @Test
+    public void testBlocksImmediateThreat() {
+        MctsBot bot = new MctsBot(PlayerColor.MAXIMIZING_PLAYER, 5_000L, 1L);
+        ConnectFourState state = 
+                new ConnectFourState(PlayerColor.MAXIMIZING_PLAYER);
+        
+        // The minimizing player threatens to complete column 2:
+        for (int column : new int[]{ 2, 5, 2, 6, 2 }) {
+            state = state.move(column);
+        }
+        
+        assertEquals(state.move(2), bot.computeNextState(state));
+    }
+    
+    @Test
+    public void testIsReproducible() {
+        ConnectFourState state = 
+                new ConnectFourState(PlayerColor.MINIMIZING_PLAYER);
+        MctsBot bot1 = new MctsBot(PlayerColor.MAXIMIZING_PLAYER, 500L, 3L);
+        MctsBot bot2 = new MctsBot(PlayerColor.MAXIMIZING_PLAYER, 500L, 3L);
+        RandomBot randomBot = 
+                new RandomBot(PlayerColor.MINIMIZING_PLAYER, new Random(3L));
+        
+        while (!state.isTerminal() && !state.isFull()) {
+            ConnectFourState nextState = bot1.computeNextState(state);
+            assertEquals(nextState, bot2.computeNextState(state));
+            assertEquals(bot1.getLastPlayoutCount(), 
+                         bot2.getLastPlayoutCount());
+            
+            if (nextState.isTerminal() || nextState.isFull()) {
+                break;
+            }
+            
+            state = randomBot.computeNextState(nextState);
+        }
+    }
+    
+    @Test
+    public void testReusesTree() {
+        MctsBot bot = new MctsBot(PlayerColor.MAXIMIZING_PLAYER, 2_000L, 1L);
+        ConnectFourState state = 
+                new ConnectFourState(PlayerColor.MINIMIZING_PLAYER);
+        
+        state = bot.computeNextState(state);
+        assertEquals(0, bot.getLastReusedVisitCount());
+        assertEquals(0, bot.getLastReusedNodeCount());
+        
+        state = bot.computeNextState(state.move(3));
+        assertTrue(bot.getLastReusedVisitCount() > 0);
+        assertTrue(bot.getLastReusedNodeCount() > 1);
+        
+        // The reused nodes count toward the size of the tree:
+        assertTrue(bot.getLastTreeSize() > bot.getLastReusedNodeCount());
+        
+        // A position not reached from the last move is searched afresh:
+        bot.computeNextState(
+                new ConnectFourState(PlayerColor.MINIMIZING_PLAYER));
+        assertEquals(0, bot.getLastReusedVisitCount());
+        assertEquals(0, bot.getLastReusedNodeCount());
+    }
+    
+    @Test
+    public void testParallelPlayouts() {
+        ForkJoinPool pool = new ForkJoinPool(4);
+        
+        try {
+            MctsBot bot = new MctsBot(PlayerColor.MAXIMIZING_PLAYER, 
+                                      8_000L,
+                                      MctsBot.NO_BUDGET,
+                                      1L,
+                                      pool);
+            ConnectFourState state = 
+                    new ConnectFourState(PlayerColor.MAXIMIZING_PLAYER);
+            
+            for (int column : new int[]{ 2, 5, 2, 6, 2 }) {
+                state = state.move(column);
+            }
+            
+            assertEquals(state.move(2), bot.computeNextState(state));
+            assertEquals(8_000L, bot.getLastPlayoutCount());
+        } finally {
+            pool.shutdown();
+        }
+    }
+    
+    @Test
+    public void testTimeBudget() {
+        MctsBot bot = new MctsBot(PlayerColor.MAXIMIZING_PLAYER, 
+                                  MctsBot.NO_BUDGET,
+                                  20L,
+                                  1L,
+                                  null);
+        long startTime = System.currentTimeMillis();
+        bot.computeNextState(
+                new ConnectFourState(PlayerColor.MINIMIZING_PLAYER));
+        
+        assertTrue(System.currentTimeMillis() - startTime < 1_000L);
+        assertTrue(bot.getLastPlayoutCount() > 0L);
+    }
+    
+    @Test
+    public void testBeatsRandomBot() {
+        Tournament tournament = new Tournament(
+                (playerColor, seed) -> new MctsBot(playerColor, 1_000L, seed),
+                (playerColor, seed) -> 
+                        new RandomBot(playerColor, new Random(seed)));
+        ExecutorService executor = Executors.newFixedThreadPool(2);
+        
+        try {
+            TournamentResult result = tournament.play(10, 1L, executor);
+            assertEquals(10, result.getWins());
+        } finally {
+            executor.shutdown();
+        }
+    }
+    
+    @Test(expected = IllegalArgumentException.class)
+    public void testThrowsOnNoBudget() {
+        new MctsBot(PlayerColor.MAXIMIZING_PLAYER, 
+                    MctsBot.NO_BUDGET, 
+                    MctsBot.NO_BUDGET, 
+                    1L, 
+                    null);
+    }
+    
+    @Test(expected = IllegalArgumentException.class)
+    public void testThrowsOnNegativePlayoutBudget() {
+        new MctsBot(PlayerColor.MAXIMIZING_PLAYER, -1L, 1L);
+    }
+}
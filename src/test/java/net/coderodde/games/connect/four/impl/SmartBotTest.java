@@ -1,8 +1,15 @@
 package net.coderodde.games.connect.four.impl;
 
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.TimeUnit;
+import net.coderodde.games.connect.four.BotExecutors;
+import net.coderodde.games.connect.four.ConnectFourGameEngine;
 import net.coderodde.games.connect.four.ConnectFourState;
 import static net.coderodde.games.connect.four.Demo.MAX_WEIGHT_MATRIX_ENTRY;
 import net.coderodde.games.connect.four.PlayerColor;
+import net.coderodde.games.connect.four.SearchControl;
 import net.coderodde.zerosum.ai.EvaluatorFunction;
 import net.coderodde.zerosum.ai.GameEngine;
 import net.coderodde.zerosum.ai.impl.AlphaBetaPruningGameEngine;
@@ -16,6 +23,8 @@ import org.junit.Test;
  */
 public class SmartBotTest {
     
+    private static final int DEEP_SEARCH_DEPTH = 30;
+    
     private final SmartBot smartBot;
     private final GameEngine<ConnectFourState, PlayerColor> gameEngine;
     
@@ -64,4 +73,123 @@ public class SmartBotTest {
                 (playerColor1 == null 
                     && playerColor2 == PlayerColor.MINIMIZING_PLAYER));
     }
+    
+    @Test
+    public void testTimeBudget() {
+        SmartBot bot = 
+                new SmartBot(PlayerColor.MAXIMIZING_PLAYER,
+                             new ConnectFourGameEngine(
+                                     new WeightMatrixConnectFourStateEvaluatorFunction(), 
+                                     1),
+                             200L);
+        
+        ConnectFourState state = 
+                new ConnectFourState(PlayerColor.MINIMIZING_PLAYER);
+        
+        state = bot.computeNextState(state);
+        
+        assertEquals(1, state.getNumberOfTokens());
+        assertTrue(bot.getLastSearchDepth() > 1);
+        
+        // The deadline stopped the iterations before the end of the game:
+        assertTrue(bot.getLastSearchDepth() < 
+                   state.getWidth() * state.getHeight());
+    }
+    
+    @Test
+    public void testTimeBudgetStopsOnForcedWin() {
+        SmartBot bot = 
+                new SmartBot(PlayerColor.MAXIMIZING_PLAYER,
+                             new ConnectFourGameEngine(
+                                     new WeightMatrixConnectFourStateEvaluatorFunction(), 
+                                     1),
+                             10_000L);
+        
+        ConnectFourState state = 
+                new ConnectFourState(PlayerColor.MINIMIZING_PLAYER);
+        
+        for (int column : new int[]{ 1, 1, 2, 2, 3, 3 }) {
+            state = state.move(column);
+        }
+        
+        state = bot.computeNextState(state);
+        
+        assertEquals(PlayerColor.MAXIMIZING_PLAYER, state.checkVictory());
+        assertEquals(1, bot.getLastSearchDepth());
+    }
+    
+    @Test
+    public void testAsyncComputationStops() throws Exception {
+        SmartBot bot = createDeepBot();
+        SearchControl control = new SearchControl();
+        ExecutorService executor = BotExecutors.newExecutor();
+        
+        try {
+            CompletableFuture<ConnectFourState> future = 
+                    bot.computeNextStateAsync(
+                            new ConnectFourState(PlayerColor.MINIMIZING_PLAYER),
+                            control,
+                            executor);
+            
+            // Wait for the first iteration:
+            while (control.getBestMove() == SearchControl.NO_MOVE) {
+                Thread.sleep(1L);
+            }
+            
+            control.stop();
+            
+            ConnectFourState state = future.get(10L, TimeUnit.SECONDS);
+            
+            assertEquals(1, state.getNumberOfTokens());
+            assertNotNull(state.readCell(control.getBestMove(), 
+                                         ConnectFourState.DEFAULT_HEIGHT - 1));
+            assertTrue(bot.getLastSearchDepth() < DEEP_SEARCH_DEPTH);
+        } finally {
+            executor.shutdown();
+        }
+    }
+    
+    @Test
+    public void testAsyncComputationMeetsDeadline() throws Exception {
+        SmartBot bot = createDeepBot();
+        ConnectFourState state = 
+                bot.computeNextStateAsync(
+                        new ConnectFourState(PlayerColor.MINIMIZING_PLAYER),
+                        new SearchControl(100L))
+                   .get(10L, TimeUnit.SECONDS);
+        
+        assertEquals(1, state.getNumberOfTokens());
+        assertTrue(bot.getLastSearchDepth() >= 1);
+    }
+    
+    @Test
+    public void testCancellingStopsComputation() throws Exception {
+        SmartBot bot = createDeepBot();
+        SearchControl control = new SearchControl();
+        CompletableFuture<ConnectFourState> future = 
+                bot.computeNextStateAsync(
+                        new ConnectFourState(PlayerColor.MINIMIZING_PLAYER),
+                        control);
+        
+        assertTrue(future.cancel(true));
+        assertTrue(future.isCancelled());
+        assertTrue(control.isStopped());
+        
+        try {
+            future.join();
+            fail("The cancelled computation completed.");
+        } catch (CancellationException ex) {
+            // Expected.
+        }
+    }
+    
+    /**
+     * Creates a bot searching far too deep to finish in a test.
+     */
+    private static SmartBot createDeepBot() {
+        return new SmartBot(PlayerColor.MAXIMIZING_PLAYER,
+                            new ConnectFourGameEngine(
+                                    new WeightMatrixConnectFourStateEvaluatorFunction(),
+                                    DEEP_SEARCH_DEPTH));
+    }
 }
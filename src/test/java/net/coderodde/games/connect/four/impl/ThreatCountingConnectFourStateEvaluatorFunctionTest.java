@@ -0,0 +1,119 @@
+package net.coderodde.games.connect.four.impl;
+
+import java.util.Random;
+import net.coderodde.games.connect.four.ConnectFourState;
+import net.coderodde.games.connect.four.IncrementalEvaluatorFunction;
+import net.coderodde.games.connect.four.PlayerColor;
+import static org.junit.Assert.assertEquals;
+import org.junit.Test;
+
+/**
+ * This class tests the threat counting evaluator function.
+ * 
+ * @author Rodion "rodde" Efremov
+ * @version 1.6 (Oct 17, 2026)
+ */
+public class ThreatCountingConnectFourStateEvaluatorFunctionTest {
+    
+    private final IncrementalEvaluatorFunction func = 
+            new ThreatCountingConnectFourStateEvaluatorFunction();
+    
+    @Test
+    public void testWhenStateIsInitial() {
+        ConnectFourState state = 
+                new ConnectFourState(PlayerColor.MAXIMIZING_PLAYER);
+        
+        assertEquals(0.0, func.evaluate(state), 0.001);
+        assertEquals(0.0, func.createTracker(state).evaluate(), 0.001);
+    }
+    
+    @Test
+    public void testCountsOpenWindows() {
+        ConnectFourState state = 
+                new ConnectFourState(PlayerColor.MAXIMIZING_PLAYER);
+        
+        // The minimizing player has tokens at (0, 5) and (1, 5), the 
+        // maximizing player at (0, 4):
+        state = state.move(0).move(0).move(1);
+        
+        // Only the window (0..3, 5) holds two tokens of the same player. The
+        // window (0, 2..5) is blocked:
+        assertEquals(-300.0, func.evaluate(state), 0.001);
+        
+        // Three in a row: the windows (0..3, 5) and (1..4, 5) hold three and 
+        // two tokens:
+        state = state.move(6).move(2);
+        assertEquals(-1300.0, func.evaluate(state), 0.001);
+        
+        // The maximizing player gets two tokens in the column 6:
+        state = state.move(6).move(3);
+        assertEquals(-1e9 - 1000.0 - 300.0 + 300.0, 
+                     func.evaluate(state), 
+                     0.001);
+    }
+    
+    @Test
+    public void testTrackerAgreesWithEvaluate() {
+        Random random = new Random(100L);
+        
+        for (int game = 0; game < 100; game++) {
+            ConnectFourState state = 
+                    new ConnectFourState(PlayerColor.MAXIMIZING_PLAYER);
+            IncrementalEvaluatorFunction.Tracker tracker = 
+                    func.createTracker(state);
+            int[] columns = new int[state.getWidth() * state.getHeight()];
+            
+            while (!state.isFull()) {
+                int x = random.nextInt(state.getWidth());
+                
+                if (state.columnIsFull(x)) {
+                    continue;
+                }
+                
+                columns[state.getNumberOfPlayedMoves()] = x;
+                state.play(x);
+                tracker.play(x, state.getTopRow(x), state.getPlayerColor());
+                
+                assertEquals(func.evaluate(state), tracker.evaluate(), 0.001);
+                assertEquals(func.evaluate(state), 
+                             func.createTracker(state).evaluate(),
+                             0.001);
+            }
+            
+            while (state.getNumberOfPlayedMoves() > 0) {
+                int x = columns[state.getNumberOfPlayedMoves() - 1];
+                tracker.undo(x, state.getTopRow(x), state.getPlayerColor());
+                state.undo();
+                
+                assertEquals(func.evaluate(state), tracker.evaluate(), 0.001);
+            }
+            
+            assertEquals(0.0, tracker.evaluate(), 0.001);
+        }
+    }
+    
+    @Test
+    public void testTrackerReset() {
+        Random random = new Random(200L);
+        ConnectFourState state = 
+                new ConnectFourState(PlayerColor.MAXIMIZING_PLAYER);
+        IncrementalEvaluatorFunction.Tracker tracker = 
+                func.createTracker(state);
+        
+        for (int game = 0; game < 100; game++) {
+            state = new ConnectFourState(PlayerColor.MAXIMIZING_PLAYER);
+            int moves = random.nextInt(state.getWidth() * state.getHeight());
+            
+            for (int i = 0; i < moves && !state.isTerminal(); i++) {
+                int x = random.nextInt(state.getWidth());
+                
+                if (!state.columnIsFull(x)) {
+                    state.play(x);
+                }
+            }
+            
+            tracker.reset(state);
+            assertEquals(func.evaluate(state), tracker.evaluate(), 0.001);
+        }
+    }
+}
@@ -0,0 +1,124 @@
+package net.coderodde.games.connect.four.impl;
+
+import java.util.Random;
+import net.coderodde.games.connect.four.ConnectFourState;
+import net.coderodde.games.connect.four.PlayerColor;
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+import org.junit.Test;
+
+/**
+ * This class tests the weight matrix evaluator function.
+ * 
+ * @author Rodion "rodde" Efremov
+ * @version 1.6 (Oct 17, 2026)
+ */
+public class WeightMatrixConnectFourStateEvaluatorFunctionTest {
+    
+    private final WeightMatrixConnectFourStateEvaluatorFunction func =
+            new WeightMatrixConnectFourStateEvaluatorFunction();
+    
+    @Test
+    public void testStandardWeightMatrix() {
+        int[][] expected = {{3, 4,  5,  7,  5, 4, 3},
+                            {4, 6,  8, 10,  8, 6, 4},
+                            {5, 8, 11, 13, 11, 8, 5},
+                            {5, 8, 11, 13, 11, 8, 5},
+                            {4, 6,  8, 10,  8, 6, 4},
+                            {3, 4,  5,  7,  5, 4, 3}};
+        
+        assertArrayEquals(
+                expected,
+                WeightMatrixConnectFourStateEvaluatorFunction
+                        .computeWeightMatrix(7, 6, 4));
+    }
+    
+    @Test
+    public void testWin() {
+        ConnectFourState state =
+                new ConnectFourState(PlayerColor.MINIMIZING_PLAYER);
+        
+        for (int column : new int[]{ 0, 1, 0, 1, 0, 1, 0 }) {
+            state = state.move(column);
+        }
+        
+        assertEquals(1e6, func.evaluate(state), 0.001);
+    }
+    
+    @Test
+    public void testWrittenWinOfPlayerToMove() {
+        ConnectFourState state =
+                new ConnectFourState(PlayerColor.MAXIMIZING_PLAYER);
+        
+        for (int x = 0; x < 4; x++) {
+            state.write(x, state.getHeight() - 1, 
+                        PlayerColor.MINIMIZING_PLAYER);
+        }
+        
+        // The line is not of the owner, yet it is a win:
+        assertEquals(PlayerColor.MAXIMIZING_PLAYER, state.getPlayerColor());
+        assertEquals(-1e6, func.evaluate(state), 0.001);
+    }
+    
+    @Test
+    public void testAgreesWithMatrixOnAllBoards() {
+        Random random = new Random(19L);
+        int[][] boards = { { 7, 6 }, { 8, 7 }, { 9, 7 }, { 9, 9 }, { 12, 10 } };
+        
+        for (int i = 0; i < 200; i++) {
+            int[] board = boards[i % boards.length];
+            ConnectFourState state = randomState(random, board[0], board[1]);
+            
+            assertEquals(matrixScore(state), func.evaluate(state), 0.001);
+        }
+    }
+    
+    private static ConnectFourState randomState(Random random,
+                                                int width,
+                                                int height) {
+        ConnectFourState state =
+                new ConnectFourState(width,
+                                     height,
+                                     4,
+                                     PlayerColor.MINIMIZING_PLAYER);
+        int moves = random.nextInt(width * height);
+        
+        while (state.getNumberOfTokens() < moves) {
+            int x = random.nextInt(width);
+            
+            if (state.columnIsFull(x) || state.isWinningMove(x)) {
+                break;
+            }
+            
+            state = state.move(x);
+        }
+        
+        return state;
+    }
+    
+    /**
+     * Sums the weights of the tokens cell by cell.
+     */
+    private static double matrixScore(ConnectFourState state) {
+        int[][] matrix =
+                WeightMatrixConnectFourStateEvaluatorFunction
+                        .computeWeightMatrix(state.getWidth(),
+                                             state.getHeight(),
+                                             state.getWinningLength());
+        double score = 0.0;
+        
+        for (int y = 0; y < state.getHeight(); y++) {
+            for (int x = 0; x < state.getWidth(); x++) {
+                PlayerColor playerColor = state.readCell(x, y);
+                
+                if (playerColor == PlayerColor.MAXIMIZING_PLAYER) {
+                    score += matrix[y][x];
+                } else if (playerColor == PlayerColor.MINIMIZING_PLAYER) {
+                    score -= matrix[y][x];
+                }
+            }
+        }
+        
+        return score;
+    }
+}